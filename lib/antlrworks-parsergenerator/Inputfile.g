@@ -292,6 +292,13 @@ crystalLine
 	| ii=oilElements                { $crystal::oilNames    = $ii.names;  
 		                	         $crystal::oilNums	= $ii.num;  }
 	| jj=oilDensity	                { $crystal::oilDensity			= $jj.oildens;  }
+	| kk=depthEngine		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_DEPTH_ENGINE, $kk.value); }
+	| ll=depthSampling		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_DEPTH_SAMPLING, $ll.value); }
+	| mm=escapeEngine		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_ESCAPE_ENGINE, $mm.value); }
+	| nn=storagePrecision		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_STORAGE_PRECISION, $nn.value); }
+	| oo=voxelStore		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_VOXEL_STORE, $oo.value); }
+	| pp=randomSeed		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_RANDOM_SEED, $pp.value); }
+	| qq=depthCache		{ $crystal::crystalProperties.put(Crystal.CRYSTAL_DEPTH_CACHE, $qq.value); }
 							
 	;
 
@@ -519,6 +526,34 @@ peResolution returns [int value]
 	: PERESOLUTION a=FLOAT {$value = Integer.parseInt($a.text);};
 PERESOLUTION : ('P'|'p')('E'|'e')('R'|'r')('E'|'e')('S'|'s')('O'|'o')('L'|'l')('U'|'u')('T'|'t')('I'|'i')('O'|'o')('N'|'n') ;
 
+depthEngine returns [String value]
+	: DEPTHENGINE a=STRING {$value = $a.text;};
+DEPTHENGINE : ('D'|'d')('E'|'e')('P'|'p')('T'|'t')('H'|'h')('E'|'e')('N'|'n')('G'|'g')('I'|'i')('N'|'n')('E'|'e') ;
+
+depthSampling returns [int value]
+	: DEPTHSAMPLING a=FLOAT {$value = Integer.parseInt($a.text);};
+DEPTHSAMPLING : ('D'|'d')('E'|'e')('P'|'p')('T'|'t')('H'|'h')('S'|'s')('A'|'a')('M'|'m')('P'|'p')('L'|'l')('I'|'i')('N'|'n')('G'|'g') ;
+
+escapeEngine returns [String value]
+	: ESCAPEENGINE a=STRING {$value = $a.text;};
+ESCAPEENGINE : ('E'|'e')('S'|'s')('C'|'c')('A'|'a')('P'|'p')('E'|'e')('E'|'e')('N'|'n')('G'|'g')('I'|'i')('N'|'n')('E'|'e') ;
+
+storagePrecision returns [String value]
+	: STORAGEPRECISION a=STRING {$value = $a.text;};
+STORAGEPRECISION : ('S'|'s')('T'|'t')('O'|'o')('R'|'r')('A'|'a')('G'|'g')('E'|'e')('P'|'p')('R'|'r')('E'|'e')('C'|'c')('I'|'i')('S'|'s')('I'|'i')('O'|'o')('N'|'n') ;
+
+voxelStore returns [String value]
+	: VOXELSTORE a=STRING {$value = $a.text;};
+VOXELSTORE : ('V'|'v')('O'|'o')('X'|'x')('E'|'e')('L'|'l')('S'|'s')('T'|'t')('O'|'o')('R'|'r')('E'|'e') ;
+
+randomSeed returns [long value]
+	: RANDOMSEED a=FLOAT {$value = Long.parseLong($a.text);};
+RANDOMSEED : ('R'|'r')('A'|'a')('N'|'n')('D'|'d')('O'|'o')('M'|'m')('S'|'s')('E'|'e')('E'|'e')('D'|'d') ;
+
+depthCache returns [String value]
+	: DEPTHCACHE a=STRING {$value = $a.text;};
+DEPTHCACHE : ('D'|'d')('E'|'e')('P'|'p')('T'|'t')('H'|'h')('C'|'c')('A'|'a')('C'|'c')('H'|'h')('E'|'e') ;
+
 surroundingHeavyConc returns [List<String> names, List<Double> num;]
 @init{
 $names 	= new ArrayList<String>();
@@ -686,7 +721,7 @@ wedgeRotAxBeamOffset returns [double delta]
 	: ROTAXBEAMOFFSET a=FLOAT {$delta = Double.parseDouble($a.text);};
 ROTAXBEAMOFFSET : ('R'|'r')('O'|'o')('T'|'t')('A'|'a')('X'|'x')('B'|'b')('E'|'e')('A'|'a')('M'|'m')('O'|'o')('F'|'f')('F'|'f')('S'|'s')('E'|'e')('T'|'t') ;
 
-/ ------------------------------------------------------------------
+// ------------------------------------------------------------------
 
 FLOAT 
     : ('+'|'-')?
@@ -0,0 +1,61 @@
+package se.raddo.raddose3D;
+
+/**
+ * Attenuation of the beam along the voxels of a run of a column. Once the
+ * unattenuated beam intensity and the depth of every voxel of the run are
+ * known, the fluence, dose, Compton electron fluence and elastic yield of
+ * each voxel only depend on factors that are the same for the whole image,
+ * so they are worked out over the run at once.
+ */
+public final class AttenuationKernel {
+  /**
+   * Fills the fluence, dose, Compton electron fluence and elastic yield of
+   * the voxels from to to - 1 of a run from their unattenuated beam
+   * intensity and depth. All arrays are indexed by k. The results of voxels
+   * with an intensity that is not positive are to be ignored by the caller.
+   *
+   * @param intensity
+   *          unattenuated beam intensity of each voxel.
+   * @param depth
+   *          depth (um) of each voxel along the beam.
+   * @param from
+   *          first k of the run.
+   * @param to
+   *          k after the last one of the run.
+   * @param attenuationFactor
+   *          beam attenuation factor, including the voxel size.
+   * @param expFactor
+   *          factor of the depth in the exponent of the attenuation.
+   * @param doseFactor
+   *          factor from fluence to dose.
+   * @param beamEnergy
+   *          energy of a beam photon.
+   * @param comptonElectronEnergy
+   *          mean energy of a Compton electron.
+   * @param elasticFactor
+   *          factor from fluence to elastic yield.
+   * @param fluence
+   *          receives the fluence of each voxel.
+   * @param dose
+   *          receives the dose of each voxel.
+   * @param compton
+   *          receives the Compton electron fluence of each voxel.
+   * @param elastic
+   *          receives the elastic yield of each voxel.
+   */
+  public void attenuate(final double[] intensity, final double[] depth,
+      final int from, final int to, final double attenuationFactor,
+      final double expFactor, final double doseFactor,
+      final double beamEnergy, final double comptonElectronEnergy,
+      final double elasticFactor, final double[] fluence,
+      final double[] dose, final double[] compton, final double[] elastic) {
+    for (int k = from; k < to; k++) {
+      double voxFluence = intensity[k] * attenuationFactor
+          * Math.exp(depth[k] * expFactor);
+      fluence[k] = voxFluence;
+      dose[k] = doseFactor * voxFluence;
+      compton[k] = voxFluence / beamEnergy * comptonElectronEnergy;
+      elastic[k] = elasticFactor * voxFluence;
+    }
+  }
+}
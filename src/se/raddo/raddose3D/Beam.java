@@ -88,5 +88,15 @@ public interface Beam {
   public double beamMinumumDimension();
   
   public double getBeamArea();
+
+  /**
+   * Returns the half widths of the rectangle, centred on the beam axis at
+   * the off axis position, outside which beamIntensity() is zero.
+   *
+   * @return
+   *         {half width along x, half width along y} in um, either of which
+   *         may be infinite, or null if the beam is not collimated.
+   */
+  public double[] getCollimationHalfWidths();
   
 }
@@ -205,6 +205,12 @@ public class BeamExperimental implements Beam {
     return Math.min(beamXSize, beamYSize);
   }
 
+  @Override
+  public double[] getCollimationHalfWidths() {
+    // The outermost pixels are only used for interpolation.
+    return new double[] { beamXSize / 2 - pixXSize, beamYSize / 2 - pixYSize };
+  }
+
   @Override
   public double getBeamArea() {
     // TODO Auto-generated method stub
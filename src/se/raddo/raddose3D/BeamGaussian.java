@@ -273,6 +273,15 @@ public class BeamGaussian implements Beam {
     double minFWHM = Math.min(fwhmX, fwhmY);
     return Math.min(minCol,  minFWHM);
   }
+
+  @Override
+  public double[] getCollimationHalfWidths() {
+    if (collXum == null || collYum == null) {
+      return null;
+    }
+    return new double[] { collXum / 2, collYum / 2 };
+  }
+
   @Override
   public double getBeamArea() {
     // TODO Auto-generated method stub
@@ -133,6 +133,12 @@ public class BeamTophat implements Beam {
     return Math.min(beamXum, beamYum);
   }
 
+  @Override
+  public double[] getCollimationHalfWidths() {
+    // The elliptical beam lies within the same rectangle.
+    return new double[] { beamXum / 2, beamYum / 2 };
+  }
+
   @Override
   public double getBeamArea() {
     double beamArea = 0;
@@ -0,0 +1,211 @@
+package se.raddo.raddose3D;
+
+/**
+ * Bounding volume hierarchy over the triangles of a polyhedron, for rays
+ * cast parallel to the z axis. Such a ray can only cross triangles whose
+ * bounding rectangle in the xy plane contains the x and y of its origin, so
+ * the hierarchy is built over those rectangles and a query returns the
+ * triangles whose rectangle contains a point. Queries do not allocate and
+ * may run on several threads at once.
+ */
+final class BoundingVolumeHierarchy {
+  /**
+   * Size of the traversal stack a query needs. The triangles are split at
+   * the median, so the tree is at most about log2(triangles) deep.
+   */
+  static final int         STACK_SIZE = 64;
+
+  /** Largest number of triangles in a leaf node. */
+  private static final int LEAF_SIZE  = 4;
+
+  /**
+   * Padding (um) added around the leaf rectangles, so that rounding in the
+   * inclusion test can never accept a point outside a rectangle.
+   */
+  private static final double PADDING = 1e-6;
+
+  /** Triangle indices, grouped by leaf node. */
+  private final int[]      triangles;
+
+  /** Bounding rectangle of each node. */
+  private final double[]   minX, maxX, minY, maxY;
+
+  /**
+   * For a leaf node, the position of its first triangle in triangles[].
+   * For an inner node, the index of its first child. The second child
+   * directly follows the first.
+   */
+  private final int[]      first;
+
+  /** Number of triangles of a leaf node, 0 for an inner node. */
+  private final int[]      count;
+
+  /** Number of nodes in use. */
+  private int              nodes;
+
+  /**
+   * Builds the hierarchy.
+   *
+   * @param triangleVertices
+   *          three vertices (x, y, z) for each triangle.
+   */
+  BoundingVolumeHierarchy(final double[][][] triangleVertices) {
+    final int n = triangleVertices.length;
+    triangles = new int[n];
+    double[] centreX = new double[n];
+    double[] centreY = new double[n];
+    double[][] bounds = new double[4][n];
+
+    for (int t = 0; t < n; t++) {
+      triangles[t] = t;
+      double[][] v = triangleVertices[t];
+      bounds[0][t] = Math.min(v[0][0], Math.min(v[1][0], v[2][0])) - PADDING;
+      bounds[1][t] = Math.max(v[0][0], Math.max(v[1][0], v[2][0])) + PADDING;
+      bounds[2][t] = Math.min(v[0][1], Math.min(v[1][1], v[2][1])) - PADDING;
+      bounds[3][t] = Math.max(v[0][1], Math.max(v[1][1], v[2][1])) + PADDING;
+      centreX[t] = (bounds[0][t] + bounds[1][t]) / 2;
+      centreY[t] = (bounds[2][t] + bounds[3][t]) / 2;
+    }
+
+    final int maxNodes = Math.max(1, 2 * n);
+    minX = new double[maxNodes];
+    maxX = new double[maxNodes];
+    minY = new double[maxNodes];
+    maxY = new double[maxNodes];
+    first = new int[maxNodes];
+    count = new int[maxNodes];
+
+    if (n > 0) {
+      nodes = 1;
+      build(0, 0, n, bounds, centreX, centreY);
+    }
+  }
+
+  /**
+   * Sets up a node covering triangles[start..end) and, if it holds more
+   * than LEAF_SIZE triangles, splits it at the median centre along its
+   * longer side.
+   */
+  private void build(final int node, final int start, final int end,
+      final double[][] bounds, final double[] centreX,
+      final double[] centreY) {
+    double nodeMinX = Double.POSITIVE_INFINITY;
+    double nodeMaxX = Double.NEGATIVE_INFINITY;
+    double nodeMinY = Double.POSITIVE_INFINITY;
+    double nodeMaxY = Double.NEGATIVE_INFINITY;
+    for (int p = start; p < end; p++) {
+      int t = triangles[p];
+      nodeMinX = Math.min(nodeMinX, bounds[0][t]);
+      nodeMaxX = Math.max(nodeMaxX, bounds[1][t]);
+      nodeMinY = Math.min(nodeMinY, bounds[2][t]);
+      nodeMaxY = Math.max(nodeMaxY, bounds[3][t]);
+    }
+    minX[node] = nodeMinX;
+    maxX[node] = nodeMaxX;
+    minY[node] = nodeMinY;
+    maxY[node] = nodeMaxY;
+
+    if (end - start <= LEAF_SIZE) {
+      first[node] = start;
+      count[node] = end - start;
+      return;
+    }
+
+    final double[] key;
+    if (nodeMaxX - nodeMinX >= nodeMaxY - nodeMinY) {
+      key = centreX;
+    } else {
+      key = centreY;
+    }
+    final int mid = (start + end) >>> 1;
+    select(start, end - 1, mid, key);
+
+    final int child = nodes;
+    nodes += 2;
+    first[node] = child;
+    count[node] = 0;
+    build(child, start, mid, bounds, centreX, centreY);
+    build(child + 1, mid, end, bounds, centreX, centreY);
+  }
+
+  /**
+   * Partially sorts triangles[left..right] so that position nth holds the
+   * triangle it would hold if fully sorted by key, with no larger keys
+   * before it and no smaller keys after it.
+   */
+  private void select(final int left, final int right, final int nth,
+      final double[] key) {
+    int lo = left;
+    int hi = right;
+    while (lo < hi) {
+      double pivot = key[triangles[(lo + hi) >>> 1]];
+      int a = lo;
+      int b = hi;
+      while (a <= b) {
+        while (key[triangles[a]] < pivot) {
+          a++;
+        }
+        while (key[triangles[b]] > pivot) {
+          b--;
+        }
+        if (a <= b) {
+          int swap = triangles[a];
+          triangles[a] = triangles[b];
+          triangles[b] = swap;
+          a++;
+          b--;
+        }
+      }
+      if (nth <= b) {
+        hi = b;
+      } else if (nth >= a) {
+        lo = a;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Finds the triangles that a ray parallel to the z axis through (x, y)
+   * may cross. Every triangle the ray crosses is returned, others may be.
+   *
+   * @param x
+   *          x coordinate of the ray.
+   * @param y
+   *          y coordinate of the ray.
+   * @param candidates
+   *          array receiving the triangle indices, with room for all
+   *          triangles.
+   * @param stack
+   *          scratch array of STACK_SIZE elements.
+   * @return
+   *         number of triangles written to candidates.
+   */
+  int findCandidates(final double x, final double y, final int[] candidates,
+      final int[] stack) {
+    if (nodes == 0) {
+      return 0;
+    }
+    int found = 0;
+    int top = 0;
+    stack[top++] = 0;
+    while (top > 0) {
+      int node = stack[--top];
+      if (x < minX[node] || x > maxX[node]
+          || y < minY[node] || y > maxY[node]) {
+        continue;
+      }
+      if (count[node] > 0) {
+        int end = first[node] + count[node];
+        for (int p = first[node]; p < end; p++) {
+          candidates[found++] = triangles[p];
+        }
+      } else {
+        stack[top++] = first[node];
+        stack[top++] = first[node] + 1;
+      }
+    }
+    return found;
+  }
+}
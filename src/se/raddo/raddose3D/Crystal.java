@@ -1,8 +1,17 @@
 package se.raddo.raddose3D;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import se.raddo.raddose3D.Wedge.WedgeProperties;
 
 /**
  * Crystal abstract class.
@@ -45,6 +54,21 @@ public abstract class Crystal {
   /** Constant for data fields in Map constructors: Container Type. */
   public static final String     CRYSTAL_CONTAINER             = "CONTAINER";
 
+  /** Constant for data fields in Map constructors: Depth engine. */
+  public static final String     CRYSTAL_DEPTH_ENGINE          = "DEPTHENGINE";
+  /** Constant for data fields in Map constructors: Depth sweep sampling. */
+  public static final String     CRYSTAL_DEPTH_SAMPLING        = "DEPTHSAMPLING";
+  /** Constant for data fields in Map constructors: Escape engine. */
+  public static final String     CRYSTAL_ESCAPE_ENGINE         = "ESCAPEENGINE";
+  /** Constant for data fields in Map constructors: Storage precision. */
+  public static final String     CRYSTAL_STORAGE_PRECISION     = "STORAGEPRECISION";
+  /** Constant for data fields in Map constructors: Voxel store. */
+  public static final String     CRYSTAL_VOXEL_STORE           = "VOXELSTORE";
+  /** Constant for data fields in Map constructors: Depth cache. */
+  public static final String     CRYSTAL_DEPTH_CACHE           = "DEPTHCACHE";
+  /** Constant for data fields in Map constructors: Random seed. */
+  public static final String     CRYSTAL_RANDOM_SEED           = "RANDOMSEED";
+
   /** Default recommended voxel resolution in voxels/micrometre. */
   protected static  Double  CRYSTAL_RESOLUTION_DEF        = 0.5d;
 
@@ -63,6 +87,34 @@ public abstract class Crystal {
    */
   private static final Long      CRYSTAL_RESOLUTION_DEF_VOXLIM = 1000000L;
 
+  /**
+   * Number of slabs per thread the voxel grid is split into for a parallel
+   * exposure, so that threads finishing early can pick up remaining work.
+   */
+  private static final int       SLABS_PER_THREAD              = 4;
+
+  /** Number of threads used to expose the voxel grid. */
+  private static int             exposureThreads               = 1;
+
+  /** Attenuation of the beam along runs of voxels, shared by all slabs. */
+  private static final AttenuationKernel ATTENUATION_KERNEL =
+      new AttenuationKernel();
+
+  /** Electron rest mass in kg, for the Compton electron energy. */
+  private static final double    ELECTRON_MASS                 = 9.10938356E-31;
+
+  /** Speed of light in m/s, for the Compton electron energy. */
+  private static final double    SPEED_OF_LIGHT                = 3E8;
+
+  /** Escape mode: all absorbed energy stays in the voxel. */
+  private static final int       ESCAPE_NONE                   = 0;
+  /** Escape mode: photoelectron escape only. */
+  private static final int       ESCAPE_PE                     = 1;
+  /** Escape mode: fluorescent escape only. */
+  private static final int       ESCAPE_FL                     = 2;
+  /** Escape mode: photoelectron and fluorescent escape. */
+  private static final int       ESCAPE_PE_FL                  = 3;
+
   /** The dose decay model used by this Crystal instance. */
   private final DDM              ddm;
   /** The CoefCalc method being employed to generate crystal coefficients. */
@@ -117,6 +169,125 @@ public abstract class Crystal {
    * whether fluorescent escape should be included
    */
   public final boolean fluorescentEscape;
+
+  /**
+   * Combination of photoelectron and fluorescent escape, one of the ESCAPE_
+   * constants.
+   */
+  private final int escapeMode;
+
+  /** Depth engine RAYCAST: findDepth casts a ray for every voxel. */
+  protected static final int     DEPTH_ENGINE_RAYCAST          = 0;
+  /** Depth engine SWEEP: depths are looked up in a DepthSweep. */
+  protected static final int     DEPTH_ENGINE_SWEEP            = 1;
+  /**
+   * Depth engine ZBUFFER: findDepth looks depths up in a buffer rendered
+   * from the crystal mesh. Crystals without a mesh cast rays instead.
+   */
+  protected static final int     DEPTH_ENGINE_ZBUFFER          = 2;
+
+  /** Depth engine of the crystal, one of the DEPTH_ENGINE_ constants. */
+  protected final int            depthEngine;
+
+  /**
+   * Number of sweep grid cells or depth buffer pixels per voxel along each
+   * axis.
+   */
+  protected final int            depthSampling;
+
+  /** Depth engine of the crystal, created on first use. */
+  private DepthSweep             depthSweep;
+
+  /** The cached depth fields may take this fraction of the heap, inverted. */
+  private static final int       DEPTH_CACHE_HEAP_DIVISOR      = 4;
+
+  /**
+   * Depth cache AUTO: the depths are kept once a crystal whose depths do not
+   * depend on its translation is exposed to a second wedge or to a helical
+   * wedge.
+   */
+  private static final int       DEPTH_CACHE_AUTO              = 0;
+  /** Depth cache TRUE: the depths are kept from the first wedge on. */
+  private static final int       DEPTH_CACHE_ON                = 1;
+  /** Depth cache FALSE: depths are found again for every image. */
+  private static final int       DEPTH_CACHE_OFF               = 2;
+
+  /** Use of the depth cache, one of the DEPTH_CACHE_ constants. */
+  private final int              depthCacheMode;
+
+  /**
+   * Depths of the voxels at the rotation angles exposed so far, or null
+   * while the depths are not cached.
+   */
+  private DepthCache             depthCache;
+
+  /** Wedge depth finding is set up for in the current exposure. */
+  private Wedge                  depthWedge;
+
+  /** Default number of sweep grid cells per voxel along each axis. */
+  private static final int       DEPTH_SAMPLING_DEF            = 1;
+
+  /**
+   * Escape engine MONTECARLO: the escaping dose of every voxel is sent along
+   * a random track.
+   */
+  protected static final int     ESCAPE_ENGINE_MONTECARLO      = 0;
+  /**
+   * Escape engine CONVOLUTION: the escaping photoelectron and fluorescence
+   * dose of all voxels of an image is spread along all tracks at once by
+   * convolution. Crystals without a voxel grid use random tracks instead.
+   */
+  protected static final int     ESCAPE_ENGINE_CONVOLUTION     = 1;
+
+  /** Escape engine of the crystal, one of the ESCAPE_ENGINE_ constants. */
+  protected final int            escapeEngine;
+
+  /** Storage precision DOUBLE: voxel values are held as doubles. */
+  protected static final int     STORAGE_PRECISION_DOUBLE      = 0;
+  /**
+   * Storage precision SINGLE: the dose, fluence and elastic yield of each
+   * voxel are held as floats, halving their memory. Values are still
+   * worked out in double for every image before they are added.
+   */
+  protected static final int     STORAGE_PRECISION_SINGLE      = 1;
+
+  /**
+   * Precision of the voxel values of the crystal, one of the
+   * STORAGE_PRECISION_ constants.
+   */
+  protected final int            storagePrecision;
+
+  /** Voxel store HEAP: voxel values are held in arrays on the heap. */
+  protected static final int     VOXEL_STORE_HEAP              = 0;
+  /**
+   * Voxel store MAPPED: the dose, fluence and elastic yield of each voxel
+   * are held in memory mapped temporary files, so grids larger than the
+   * heap can be exposed.
+   */
+  protected static final int     VOXEL_STORE_MAPPED            = 1;
+  /**
+   * Voxel store SPARSE: the dose, fluence and elastic yield are held in
+   * bricks of voxels allocated when first written, so memory scales with
+   * the irradiated volume rather than the crystal.
+   */
+  protected static final int     VOXEL_STORE_SPARSE            = 2;
+
+  /** Where the voxel values are held, one of the VOXEL_STORE_ constants. */
+  protected final int            voxelStore;
+
+  /**
+   * Seed of the random escape tracks. The tracks of each voxel in each
+   * image are drawn from a stream of their own derived from the seed, so a
+   * run with the same seed gives the same dose whatever order the voxels
+   * are handled in.
+   */
+  private long                   randomSeed;
+
+  /**
+   * Number of images exposed so far, counting every image of every wedge,
+   * which keys the random streams of the current image.
+   */
+  private long                   imagesExposed;
   
   /**
    * Goniometer Orientation
@@ -153,6 +324,31 @@ public abstract class Crystal {
    */
   private ExposureSummary        exposureSummaryObserver;
 
+  /**
+   * Fork/join pool used while exposing with more than one thread.
+   * Null for a serial exposure.
+   */
+  private ForkJoinPool           exposurePool;
+
+  /**
+   * Voxels of the surrounding solution close enough to the crystal for
+   * their photoelectrons to reach it, or null until the surrounding
+   * solution is first exposed. Only rebuilt if the surrounding grid changes.
+   */
+  private SurroundingShell       surroundingShell;
+
+  /**
+   * Parameters of the image being exposed together with the per-slab voxel
+   * buffers, which are reused for every image of an exposure.
+   */
+  private ImageExposure          imageExposure;
+
+  /**
+   * Runs of occupied voxels along k for every (i, j) column, built on first
+   * use.
+   */
+  private OccupancySpans         occupancySpans;
+
   /**
    * Generic property constructor for crystal classes.
    * Sets the DDM object if defined, a reasonable default otherwise.
@@ -196,7 +392,85 @@ public abstract class Crystal {
       fE = fE.toUpperCase();
     }
     fluorescentEscape = ("TRUE".equals(fE));
+
+    if (photoElectronEscape && fluorescentEscape) {
+      escapeMode = ESCAPE_PE_FL;
+    } else if (photoElectronEscape) {
+      escapeMode = ESCAPE_PE;
+    } else if (fluorescentEscape) {
+      escapeMode = ESCAPE_FL;
+    } else {
+      escapeMode = ESCAPE_NONE;
+    }
     
+    // Get the depth engine
+    String engine = (String) properties.get(CRYSTAL_DEPTH_ENGINE);
+    if (engine == null || "RAYCAST".equalsIgnoreCase(engine)) {
+      depthEngine = DEPTH_ENGINE_RAYCAST;
+    } else if ("SWEEP".equalsIgnoreCase(engine)) {
+      depthEngine = DEPTH_ENGINE_SWEEP;
+    } else if ("ZBUFFER".equalsIgnoreCase(engine)) {
+      depthEngine = DEPTH_ENGINE_ZBUFFER;
+    } else {
+      throw new IllegalArgumentException("Unknown depth engine " + engine
+          + ", use RAYCAST, SWEEP or ZBUFFER");
+    }
+    String escape = (String) properties.get(CRYSTAL_ESCAPE_ENGINE);
+    if (escape == null || "MONTECARLO".equalsIgnoreCase(escape)) {
+      escapeEngine = ESCAPE_ENGINE_MONTECARLO;
+    } else if ("CONVOLUTION".equalsIgnoreCase(escape)) {
+      escapeEngine = ESCAPE_ENGINE_CONVOLUTION;
+    } else {
+      throw new IllegalArgumentException("Unknown escape engine " + escape
+          + ", use MONTECARLO or CONVOLUTION");
+    }
+    String precision = (String) properties.get(CRYSTAL_STORAGE_PRECISION);
+    if (precision == null || "DOUBLE".equalsIgnoreCase(precision)) {
+      storagePrecision = STORAGE_PRECISION_DOUBLE;
+    } else if ("SINGLE".equalsIgnoreCase(precision)) {
+      storagePrecision = STORAGE_PRECISION_SINGLE;
+    } else {
+      throw new IllegalArgumentException("Unknown storage precision "
+          + precision + ", use DOUBLE or SINGLE");
+    }
+    String store = (String) properties.get(CRYSTAL_VOXEL_STORE);
+    if (store == null || "HEAP".equalsIgnoreCase(store)) {
+      voxelStore = VOXEL_STORE_HEAP;
+    } else if ("MAPPED".equalsIgnoreCase(store)) {
+      voxelStore = VOXEL_STORE_MAPPED;
+    } else if ("SPARSE".equalsIgnoreCase(store)) {
+      voxelStore = VOXEL_STORE_SPARSE;
+    } else {
+      throw new IllegalArgumentException("Unknown voxel store " + store
+          + ", use HEAP, MAPPED or SPARSE");
+    }
+    String cache = (String) properties.get(CRYSTAL_DEPTH_CACHE);
+    if (cache == null || "AUTO".equalsIgnoreCase(cache)) {
+      depthCacheMode = DEPTH_CACHE_AUTO;
+    } else if ("TRUE".equalsIgnoreCase(cache)) {
+      depthCacheMode = DEPTH_CACHE_ON;
+    } else if ("FALSE".equalsIgnoreCase(cache)) {
+      depthCacheMode = DEPTH_CACHE_OFF;
+    } else {
+      throw new IllegalArgumentException("Unknown depth cache setting "
+          + cache + ", use AUTO, TRUE or FALSE");
+    }
+    if (properties.get(CRYSTAL_DEPTH_SAMPLING) == null) {
+      depthSampling = DEPTH_SAMPLING_DEF;
+    } else {
+      depthSampling = (Integer) properties.get(CRYSTAL_DEPTH_SAMPLING);
+      if (depthSampling < 1) {
+        throw new IllegalArgumentException(
+            "Depth sampling must be at least 1, not " + depthSampling);
+      }
+    }
+
+    if (properties.get(CRYSTAL_RANDOM_SEED) == null) {
+      randomSeed = System.nanoTime();
+    } else {
+      randomSeed = ((Number) properties.get(CRYSTAL_RANDOM_SEED)).longValue();
+    }
+
     //Get the goniometer axis
     String goniometer =  String.valueOf(properties.get(CRYSTAL_GONIOMETER_AXIS));
     verticalGoniometer = ("90.0".equals(goniometer)); //so horizontal is default 
@@ -224,6 +498,32 @@ public abstract class Crystal {
     }
   }
 
+  /**
+   * Sets the number of threads used to expose the voxel grid of all crystals.
+   * With more than one thread the grid is split into slabs of i planes which
+   * are exposed on a fork/join pool.
+   *
+   * @param threads
+   *          number of threads, at least 1.
+   */
+  public static void setExposureThreads(final int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException(
+          "Number of exposure threads must be at least 1");
+    }
+    exposureThreads = threads;
+  }
+
+  /**
+   * Returns the number of threads used to expose the voxel grid.
+   *
+   * @return
+   *         number of exposure threads.
+   */
+  public static int getExposureThreads() {
+    return exposureThreads;
+  }
+
   public abstract void setupDepthFinding(double angrad, Wedge wedge);
 
   /**
@@ -255,6 +555,59 @@ public abstract class Crystal {
   public abstract double[] getCrystCoord(int i, int j, int k);
   public abstract double[] getCryoCrystCoord(int i, int j, int k);
 
+  /**
+   * Writes the coordinates of voxel i, j, k in the starting position into
+   * coord. Does the same as getCrystCoord(i, j, k) without allocating an
+   * array, crystals that store their coordinates should override it.
+   *
+   * @param i i
+   * @param j j
+   * @param k k
+   * @param coord 3 element array receiving the x, y and z coordinates.
+   */
+  public void getCrystCoord(final int i, final int j, final int k,
+      final double[] coord) {
+    System.arraycopy(getCrystCoord(i, j, k), 0, coord, 0, 3);
+  }
+
+  /**
+   * Writes the coordinates of the voxels kStart to kEnd - 1 of column i, j
+   * in the starting position into x, y and z at their k index. Crystals that
+   * compute their coordinates should override it to share the work that
+   * does not depend on k.
+   *
+   * @param i i
+   * @param j j
+   * @param kStart first k of the range
+   * @param kEnd k after the last one of the range
+   * @param x array receiving the x coordinates
+   * @param y array receiving the y coordinates
+   * @param z array receiving the z coordinates
+   */
+  public void getCrystCoordColumn(final int i, final int j, final int kStart,
+      final int kEnd, final double[] x, final double[] y, final double[] z) {
+    for (int k = kStart; k < kEnd; k++) {
+      double[] coord = getCrystCoord(i, j, k);
+      x[k] = coord[0];
+      y[k] = coord[1];
+      z[k] = coord[2];
+    }
+  }
+
+  /**
+   * Writes the coordinates of voxel i, j, k of the surrounding solution into
+   * coord, without allocating an array.
+   *
+   * @param i i
+   * @param j j
+   * @param k k
+   * @param coord 3 element array receiving the x, y and z coordinates.
+   */
+  public void getCryoCrystCoord(final int i, final int j, final int k,
+      final double[] coord) {
+    System.arraycopy(getCryoCrystCoord(i, j, k), 0, coord, 0, 3);
+  }
+
   /**
    * returns TRUE if there is a crystal at the coordinates i, j, k.
    *
@@ -297,6 +650,33 @@ public abstract class Crystal {
    */
   public abstract double addDoseAfterPE(int i, int j, int k, double doseIncreasePE);
   public abstract double addDoseAfterPECryo(double i, double j, double k, double doseIncreasePE, double energyToDoseFactor);
+
+  /**
+   * Hands the photoelectron dose of an exposed voxel to the escape engine.
+   * The default sends it along a random track at once with addDoseAfterPE().
+   * Engines that spread the dose of all voxels of an image together keep it
+   * until spreadCollectedDoseAfterPE() is called.
+   *
+   * @param i i coord
+   * @param j j coord
+   * @param k k coord
+   * @param doseIncreasePE dose released by photoelectrons (MGy)
+   * @return voxel dose lost from crystal by PE escape so far
+   */
+  protected double collectDoseAfterPE(final int i, final int j, final int k,
+      final double doseIncreasePE) {
+    return addDoseAfterPE(i, j, k, doseIncreasePE);
+  }
+
+  /**
+   * Spreads the photoelectron dose collected since the last call, once all
+   * voxels of an image have been handed to collectDoseAfterPE().
+   *
+   * @return dose lost from crystal by PE escape
+   */
+  protected double spreadCollectedDoseAfterPE() {
+    return 0;
+  }
   
   /**
    * This accounts for FL energy transfer to nearby voxels and caluclates release
@@ -309,6 +689,32 @@ public abstract class Crystal {
    */
   public abstract double addDoseAfterFL(int i, int j, int k, double doseIncreaseFL);
 
+  /**
+   * Hands the fluorescence dose of an exposed voxel to the escape engine,
+   * like collectDoseAfterPE(). The default sends it along a random track at
+   * once with addDoseAfterFL().
+   *
+   * @param i i coord
+   * @param j j coord
+   * @param k k coord
+   * @param doseIncreaseFL dose released by fluorescence (MGy)
+   * @return voxel dose lost from crystal by fluorescence escape so far
+   */
+  protected double collectDoseAfterFL(final int i, final int j, final int k,
+      final double doseIncreaseFL) {
+    return addDoseAfterFL(i, j, k, doseIncreaseFL);
+  }
+
+  /**
+   * Spreads the fluorescence dose collected since the last call, once all
+   * voxels of an image have been handed to collectDoseAfterFL().
+   *
+   * @return dose lost from crystal by fluorescence escape
+   */
+  protected double spreadCollectedDoseAfterFL() {
+    return 0;
+  }
+
   /**
    * set new photoelectron trajectory parameters for current beam
    *
@@ -644,8 +1050,10 @@ public abstract class Crystal {
 
     // Set up angles to iterate over.
     double[] angles;
-    if (Math.abs(wedge.getStartAng() - wedge.getEndAng()) < wedge.getAngRes()) {
-      angles = new double[STATICEXPOSURE]; // TODO: something clever
+    final boolean staticExposure =
+        Math.abs(wedge.getStartAng() - wedge.getEndAng()) < wedge.getAngRes();
+    if (staticExposure) {
+      angles = new double[STATICEXPOSURE];
       for (int i = 0; i < angles.length; i++) {
         angles[i] = wedge.getStartAng();
       }
@@ -666,30 +1074,65 @@ public abstract class Crystal {
       eo.exposureStart(angles.length);
     }
 
-    // The main meat of it:
-    for (int n = 0; n < angles.length; n++) {
-      // Expose one angle
-      exposeAngle(angles[n], beam, wedge, n, angles.length, fluorescenceEnergyRelease, 
-                  augerEnergy, cryoAugerEnergy, cryoFluorescenceEnergyRelease, feFactors, cryoFeFactors);
+    if (depthCache == null && cacheDepthsFor(wedge)) {
+      depthCache = new DepthCache(getOccupancySpans().getVoxelCount(),
+          Runtime.getRuntime().maxMemory() / DEPTH_CACHE_HEAP_DIVISOR);
+    }
+    if (isDepthTranslationInvariant()) {
+      depthWedge = untranslatedWedge(wedge);
+    } else {
+      depthWedge = wedge;
+    }
+    if (exposureThreads > 1) {
+      exposurePool = new ForkJoinPool(exposureThreads);
+      prepareSlabs(exposureThreads * SLABS_PER_THREAD);
+    } else {
+      prepareSlabs(1);
+    }
+    try {
+      // The main meat of it:
+      for (int n = 0; n < angles.length; n++) {
+        // Expose one angle. The images of a static exposure all see the
+        // same geometry, so only the first one needs to be calculated.
+        exposeAngle(angles[n], beam, wedge, n, angles.length,
+                    staticExposure && n > 0 && isStaticImageReused(),
+                    fluorescenceEnergyRelease, 
+                    augerEnergy, cryoAugerEnergy, cryoFluorescenceEnergyRelease, feFactors, cryoFeFactors);
+
+        for (ExposeObserver eo : exposureObservers) {
+          eo.imageComplete(n, angles[n]);
+        }
 
-      for (ExposeObserver eo : exposureObservers) {
-        eo.imageComplete(n, angles[n]);
+      } // end of looping over angles
+    } finally {
+      if (exposurePool != null) {
+        exposurePool.shutdown();
+        exposurePool = null;
       }
-
-    } // end of looping over angles
+      imageExposure = null;
+    }
 
     double fractionEscapedDose = (totalEscapedDose - totalDoseFromSurrounding)/totalCrystalDose; //Just to test escaped dose
     
     final double voxelMassKg =  (1e-15 * (Math.pow(getCrystalPixPerUM(), -3) * coefCalc
         .getDensity()));
     
-    for (int i = 0; i < getCrystSizeVoxels()[0]; i++) {
-      for (int j = 0; j < getCrystSizeVoxels()[1]; j++) {
-        for (int k = 0; k < getCrystSizeVoxels()[2]; k++) {
-          if (isCrystalAt(i, j, k)) {
-            for (ExposeObserver eo : exposureObservers) {
-              eo.summaryObservation(i, j, k, getDose(i, j, k), voxelMassKg);
+    final int[] crystalSize = getCrystSizeVoxels();
+    final OccupancySpans spans = getOccupancySpans();
+    for (int i = 0; i < crystalSize[0]; i++) {
+      for (int j = 0; j < crystalSize[1]; j++) {
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          final int runEnd = spans.getRunEnd(r);
+          int k = nextTouchedVoxel(i, j, spans.getRunStart(r), runEnd);
+          while (k < runEnd) {
+            final int touchedEnd = nextUntouchedVoxel(i, j, k, runEnd);
+            for (; k < touchedEnd; k++) {
+              for (ExposeObserver eo : exposureObservers) {
+                eo.summaryObservation(i, j, k, getDose(i, j, k),
+                    voxelMassKg);
+              }
             }
+            k = nextTouchedVoxel(i, j, k, runEnd);
           }
         }
       }
@@ -713,26 +1156,52 @@ public abstract class Crystal {
     ///////////////////////////////////////////////////////
   }
 
+  /**
+   * Exposes the crystal for one image.
+   *
+   * @param angle
+   *          rotation angle of the image in radians.
+   * @param beam
+   *          beam the crystal is exposed to.
+   * @param wedge
+   *          wedge the image belongs to.
+   * @param anglenum
+   *          index of the image in the wedge.
+   * @param anglecount
+   *          number of images in the wedge.
+   * @param repeat
+   *          whether the previous image had the same angle, translation and
+   *          beam, so that the voxels it exposed and their fluences can be
+   *          reused instead of finding depths again. Photoelectron and
+   *          fluorescent escape are still run for every image.
+   */
   private void exposeAngle(final double angle, final Beam beam,
-      final Wedge wedge, final int anglenum, final int anglecount,  
-      double fluorescenceEnergyRelease, double augerEnergy, double cryoAugerEnergy,
+      final Wedge wedge, final int anglenum, final int anglecount,
+      final boolean repeat, double fluorescenceEnergyRelease, double augerEnergy, double cryoAugerEnergy,
       double cryoFluorescenceEnergyRelease, double[][] feFactors, double[][] cryoFeFactors) {
 
-    final int[] crystalSize = getCrystSizeVoxels();
-
     final Double[] wedgeStart = wedge.getStartVector();
     final Double[] wedgeTranslation = wedge.getTranslationVector(angle);
+    imagesExposed++;
+
+    final ImageExposure image = imageExposure;
+    image.repeat = repeat;
+    if (!repeat) {
+      // Depth finding is only set up once a voxel needs a depth that is not
+      // cached yet.
+      image.depthReady = false;
+      if (depthCache == null) {
+        image.depths = null;
+      } else {
+        image.depths = depthCache.fieldFor(angle);
+      }
 
-    final double anglecos = Math.cos(angle);
-    final double anglesin = Math.sin(angle);
-    setupDepthFinding(angle, wedge);
-    
-    
-    //Set up tracks in polarised direction for photoelectrons
-    if (photoElectronEscape) {
-      findVoxelsReachedByPE(false, coefCalc, beam.getPhotonEnergy(), feFactors, angle);
-      if (coefCalc.isCryo() == true) {
-        findVoxelsReachedByPE(true, coefCalc, beam.getPhotonEnergy(), cryoFeFactors, angle);
+      //Set up tracks in polarised direction for photoelectrons
+      if (photoElectronEscape) {
+        findVoxelsReachedByPE(false, coefCalc, beam.getPhotonEnergy(), feFactors, angle);
+        if (coefCalc.isCryo() == true) {
+          findVoxelsReachedByPE(true, coefCalc, beam.getPhotonEnergy(), cryoFeFactors, angle);
+        }
       }
     }
     
@@ -776,144 +1245,119 @@ public abstract class Crystal {
 
     final double beamAttenuationExpFactor = -coefCalc     
         .getAttenuationCoefficient();
-    
-    double[] crystCoords;
-    double[] translateRotateCoords = new double[3];
-    
-    double[][][] voxImageFluence = new double[crystalSize[0]][crystalSize[1]][crystalSize[2]];
-    double[][][] voxImageDose = new double[crystalSize[0]][crystalSize[1]][crystalSize[2]];
-    double[][][] absorbedEnergy = new double[crystalSize[0]][crystalSize[1]][crystalSize[2]];
-    double[][][] voxElasticYield = new double[crystalSize[0]][crystalSize[1]][crystalSize[2]];
-    double[][][] voxImageComptonFluence = new double[crystalSize[0]][crystalSize[1]][crystalSize[2]];
-    
-    for (int i = 0; i < crystalSize[0]; i++) {
-      for (int j = 0; j < crystalSize[1]; j++) {
-        for (int k = 0; k < crystalSize[2]; k++) {
-          if (isCrystalAt(i, j, k)) {
-            // Rotate crystal into position
-            crystCoords = getCrystCoord(i, j, k);
-            translateRotateCoords = translateCrystalToPosition(crystCoords, wedgeStart, wedgeTranslation,
-                                                               anglecos, anglesin) ;
-            
-            /* Unattenuated beam intensity (J/um^2/s) */
-            double unattenuatedBeamIntensity = beam.beamIntensity(
-                translateRotateCoords[0], translateRotateCoords[1],
-                wedge.getOffAxisUm());
 
-            if (unattenuatedBeamIntensity > 0d) {
-              double depth = findDepth(translateRotateCoords, angle, wedge);
-
-              /*
-               * Assigning exposure (joules incident) and dose (J/kg absorbed)
-               * to the voxel.
-               */
-          
-              voxImageFluence[i][j][k] =     // Attenuates the beam for absorption in joules 
-                  unattenuatedBeamIntensity * beamAttenuationFactor // beam attenuation factor includes voxel size
-                      * Math.exp(depth * beamAttenuationExpFactor);   
-              
-              //calculate compton effect
-              double electronweight = 9.10938356E-31;
-              double csquared = 3E8*3E8;
-              double beamenergy = (beam.getPhotonEnergy() * Beam.KEVTOJOULES);
-              double mcsquared = electronweight * csquared;
-              double voxImageElectronEnergyDose = mcsquared / (2*beamenergy + mcsquared);
-              voxImageElectronEnergyDose = (beamenergy * (1 - (Math.pow(voxImageElectronEnergyDose, 0.5)))); //Compton electron energy in joules
-              double numberofphotons = voxImageFluence[i][j][k] / beamenergy; //This gives I0 in equation 9 in Karthik 2010, dividing by beam energy leaves photons per um^2/s
-              voxImageComptonFluence[i][j][k] = numberofphotons * voxImageElectronEnergyDose; //Re-calculate voxImageFluence using Compton electron energy
-              double voxImageDoseCompton = fluenceToDoseFactorCompton * voxImageComptonFluence[i][j][k];
-              
-              
-              //elastic yield
-              voxElasticYield[i][j][k] = fluenceToElasticFactor *
-                  voxImageFluence[i][j][k]; //* beamEnergy;
-              //Dose absorbed by photoelectric effect
-              voxImageDose[i][j][k] = fluenceToDoseFactor * voxImageFluence[i][j][k];
-
-              if (voxImageDose[i][j][k] > 0) {
-                totalCrystalDose += voxImageDose[i][j][k];
-
-                addFluence(i, j, k, voxImageFluence[i][j][k]);
-                
-                if (photoElectronEscape == true && fluorescentEscape == true) {
-                 //Fl part
-                //Energy to be released by voxel
-                  double totFluorescenceEnergyRelease = fluorescenceEnergyRelease * numberofphotons;
-                //convert this to a dose to be released
-                  double voxImageFlDoseRelease = fluenceToDoseFactor * totFluorescenceEnergyRelease;
-                                  
-                  //auger part
-                  //Dose in voxel
-                  double totAugerDose = augerEnergy * numberofphotons * fluenceToDoseFactor;
-                  
-                  //Do PE
-                  double dosePE = voxImageDose[i][j][k] - voxImageFlDoseRelease - totAugerDose;
-                   
-                  double doseLostFromCrystalPE = addDoseAfterPE(i, j, k, dosePE); //to run with new photoelectron escape
-                  double doseLostFromCrytsalFL = 0;
-                  if (voxImageFlDoseRelease > 0) { //necessary to prevent error when 0
-                  doseLostFromCrytsalFL = addDoseAfterFL(i, j, k, voxImageFlDoseRelease);
-                  }
-                  totalEscapedDosePE +=  doseLostFromCrystalPE;
-                  totalEscapedDoseFL += doseLostFromCrytsalFL;
-                  totalEscapedDose += doseLostFromCrystalPE + doseLostFromCrytsalFL;
-                  
-                  //These to test
-                  totalFlEnergyToRelease += voxImageFlDoseRelease;
-                  totalPEEnergyToRelease += dosePE;
-                  totalAugerEnergyToRelease += totAugerDose;
-                  
-                  //add Auger to Voxel
-                  if(totAugerDose > 0) {
-                  addDose(i, j, k, totAugerDose);
-                  }
-                } 
-                else if (photoElectronEscape == true && fluorescentEscape == false) { //only do PE escape
-                  //Dose in voxel
-                  double totAugerDose = augerEnergy * numberofphotons * fluenceToDoseFactor;
-                  //Do PE
-                  double dosePE = voxImageDose[i][j][k] - totAugerDose;
-                  double doseLostFromCrystalPE = addDoseAfterPE(i, j, k, dosePE);
-                  totalEscapedDosePE +=  doseLostFromCrystalPE;
-                  totalEscapedDose += doseLostFromCrystalPE;
-                  //add Auger to Voxel
-                  if(totAugerDose > 0) {
-                  addDose(i, j, k, totAugerDose);
-                  }
-                }
-                else if (photoElectronEscape == false && fluorescentEscape == true) { //only do Fluorescent escape
-                  //Energy to be released by voxel
-                  double totFluorescenceEnergyRelease = fluorescenceEnergyRelease * numberofphotons;
-                //convert this to a dose to be released
-                  double voxImageFlDoseRelease = fluenceToDoseFactor * totFluorescenceEnergyRelease;
-                  double doseLeft = voxImageDose[i][j][k] - voxImageFlDoseRelease;
-                  double doseLostFromCrytsalFL = 0;
-                  if (voxImageFlDoseRelease > 0) {
-                  doseLostFromCrytsalFL = addDoseAfterFL(i, j, k, voxImageFlDoseRelease);
-                  }
-                  addDose(i, j, k, doseLeft);
-                  totalEscapedDoseFL += doseLostFromCrytsalFL;
-                  totalEscapedDose +=  doseLostFromCrytsalFL;
-                  
-                }
-                else { // no escape
-                  addDose(i, j, k, voxImageDose[i][j][k]);
-                }
+    //Compton electron energy in joules, the same for every voxel
+    final double beamenergy = (beam.getPhotonEnergy() * Beam.KEVTOJOULES);
+    final double mcsquared = ELECTRON_MASS * (SPEED_OF_LIGHT * SPEED_OF_LIGHT);
+    final double comptonElectronEnergy = beamenergy
+        * (1 - (Math.pow(mcsquared / (2 * beamenergy + mcsquared), 0.5)));
+
+    image.angle = angle;
+    image.beam = beam;
+    image.wedge = wedge;
+    image.offAxisUm = wedge.getOffAxisUm();
+    image.startX = wedgeStart[0];
+    image.startY = wedgeStart[1];
+    image.startZ = wedgeStart[2];
+    image.translationX = wedgeTranslation[0];
+    image.translationY = wedgeTranslation[1];
+    image.translationZ = wedgeTranslation[2];
+    image.anglecos = Math.cos(angle);
+    image.anglesin = Math.sin(angle);
+    image.depthWedge = depthWedge;
+    image.untranslatedDepths = depthWedge != wedge;
+    if (image.untranslatedDepths) {
+      // where the origin of the depth frame lies in the beam frame
+      double shiftX = wedgeStart[0] + wedgeTranslation[0];
+      double shiftZ = wedgeStart[2] + wedgeTranslation[2];
+      image.depthShiftX = shiftX * image.anglecos + shiftZ * image.anglesin;
+      image.depthShiftY = wedgeStart[1] + wedgeTranslation[1];
+      image.depthShiftZ = -1 * shiftX * image.anglesin
+          + shiftZ * image.anglecos;
+    }
+    image.beamAttenuationFactor = beamAttenuationFactor;
+    image.beamAttenuationExpFactor = beamAttenuationExpFactor;
+    image.fluenceToDoseFactor = fluenceToDoseFactor;
+    image.fluenceToDoseFactorCompton = fluenceToDoseFactorCompton;
+    image.fluenceToElasticFactor = fluenceToElasticFactor;
+    image.beamEnergy = beamenergy;
+    image.comptonElectronEnergy = comptonElectronEnergy;
+    image.augerEnergy = augerEnergy;
+    image.fluorescenceEnergyRelease = fluorescenceEnergyRelease;
+
+    // Collimated region of the beam, widened by a voxel so that rounding
+    // can never exclude a voxel the beam reaches.
+    final double[] collimation = beam.getCollimationHalfWidths();
+    image.clipToBeam = collimation != null
+        && !(Double.isInfinite(collimation[0])
+        && Double.isInfinite(collimation[1]));
+    if (image.clipToBeam) {
+      image.beamHalfWidthX = collimation[0] + 1 / getCrystalPixPerUM();
+      image.beamHalfWidthY = collimation[1] + 1 / getCrystalPixPerUM();
+    }
 
-                addDose(i, j, k, voxImageDoseCompton);
-                addElastic(i, j, k, voxElasticYield[i][j][k]);
+    // Dose deposited in the voxels hit by the beam. The slabs only write to
+    // their own voxels, so this pass can run on several threads.
+    final ImageVoxelBuffer[] slabVoxels = image.slabVoxels;
+    if (exposurePool == null) {
+      for (int slab = 0; slab < slabVoxels.length; slab++) {
+        totalCrystalDose += exposeSlab(slab, image);
+      }
+    } else {
+      SlabExposure slabs = new SlabExposure(image, 0, slabVoxels.length);
+      exposurePool.invoke(slabs);
+      totalCrystalDose += slabs.crystalDose;
+    }
 
-              } else if (voxImageDose[i][j][k] < 0) {
-                throw new ArithmeticException(
-                    "negative dose encountered - this should never happen");
-              }
-            } // IF inbeam
-          } // IF crystOcc
-        } //i
-      } // j
-    } // k : end of looping over crystal voxels
+    // Photoelectron and fluorescence escape move dose up to the escape
+    // reach away from its voxel. Bands of planes at least twice as wide are
+    // handled in two rounds, even bands and then odd ones, so the bands of a
+    // round never write to the same voxel and can run on several threads.
+    // The bands do not depend on the number of threads, so neither does the
+    // order in which dose lands on any voxel.
+    if (escapeMode != ESCAPE_NONE) {
+      final int planes = getCrystSizeVoxels()[0];
+      final int reach = getEscapeReach();
+      final int bandPlanes;
+      if (reach < 0) {
+        bandPlanes = planes;
+      } else {
+        bandPlanes = Math.max(1, 2 * reach);
+      }
+      final int bands = (planes + bandPlanes - 1) / bandPlanes;
+      final EscapeTotals[] bandTotals = new EscapeTotals[bands];
+      for (int parity = 0; parity < 2; parity++) {
+        if (exposurePool == null || bands <= 1) {
+          for (int band = parity; band < bands; band += 2) {
+            bandTotals[band] = collectEscapes(image, band * bandPlanes,
+                Math.min(planes, (band + 1) * bandPlanes));
+          }
+        } else {
+          exposurePool.invoke(new EscapeScatter(image, bandPlanes, planes,
+              parity, bands, bandTotals));
+        }
+      }
+      for (EscapeTotals totals : bandTotals) {
+        totalEscapedDosePE += totals.escapedPE;
+        totalEscapedDoseFL += totals.escapedFL;
+        totalEscapedDose += totals.escapedPE + totals.escapedFL;
+        totalFlEnergyToRelease += totals.flEnergyToRelease;
+        totalPEEnergyToRelease += totals.peEnergyToRelease;
+        totalAugerEnergyToRelease += totals.augerEnergyToRelease;
+      }
+    }
+    // engines that spread the dose of the whole image do so now
+    if (photoElectronEscape) {
+      double doseLostFromCrystalPE = spreadCollectedDoseAfterPE();
+      totalEscapedDosePE += doseLostFromCrystalPE;
+      totalEscapedDose += doseLostFromCrystalPE;
+    }
+    if (fluorescentEscape) {
+      double doseLostFromCrystalFL = spreadCollectedDoseAfterFL();
+      totalEscapedDoseFL += doseLostFromCrystalFL;
+      totalEscapedDose += doseLostFromCrystalFL;
+    }
     
-  
   //Now I am exposing the surrounding solution   
   boolean aSurface = coefCalc.isCryo(); //iscryo should change
   if (aSurface) {
@@ -944,150 +1388,879 @@ public abstract class Crystal {
           * wedge.getTotSec() / anglecount;
       
       
-      final int[] cryoCrystalSize = getCryoCrystSizeVoxels();
- //     final int extraVoxels = getExtraVoxels(int maxPEDistance);
-      double[] cryoCrystCoord;
-      double[] depthCoords = new double[3];
       double ppmRatio = (getCrystalPixPerUM() / getCryoCrystalPixPerUM());
       int extraVoxels = getCryoExtraVoxels();
-      for (int i = 0; i < cryoCrystalSize[0]; i++) {
-        for (int j = 0; j < cryoCrystalSize[1]; j++) {
-          for (int k = 0; k < cryoCrystalSize[2]; k++) {
-            //if this is an extra voxel
-            
-            double iCryst = (i - extraVoxels) * ppmRatio;
-            double jCryst = (j - extraVoxels) * ppmRatio;
-            double kCryst = (k - extraVoxels) * ppmRatio;
-            
-            int iconverted = (int) StrictMath.round(iCryst); 
-            int jconverted = (int) StrictMath.round(jCryst);
-            int kconverted = (int) StrictMath.round(kCryst);
-                    
-            if (isCrystalAt(iconverted, jconverted, kconverted) == false) { // if this voxel is not in the original crystal
-              cryoCrystCoord = getCryoCrystCoord(i, j, k);
-              
-              translateRotateCoords = translateCrystalToPosition(cryoCrystCoord, wedgeStart, wedgeTranslation,
-                  anglecos, anglesin) ;
-
-              // Unattenuated beam intensity (J/um^2/s) 
-              double unattenuatedBeamIntensity = beam.beamIntensity(
-                  translateRotateCoords[0], translateRotateCoords[1],
-                  wedge.getOffAxisUm());
-              
-              if (unattenuatedBeamIntensity > 0d) {
-                //Set the depth coordinates based on crystal depth
-                for(int m = 0; m < 3; m++) {
-                  if (translateRotateCoords[m] < minimumDimensions[m]) {
-                    depthCoords[m] = minimumDimensions[m];
-                  }
-                  else if (translateRotateCoords[m] > maximumDimensions[m]) {
-                    depthCoords[m] = maximumDimensions[m];
-                  }
-                  else {
-                    depthCoords[m] = translateRotateCoords[m];
-                  }
-                }
-                
-                double depth = findDepth(depthCoords, angle, wedge);
-                
-                double cryoVoxImageFluence =     // Attenuates the beam for absorption in joules 
-                    unattenuatedBeamIntensity * beamAttenuationFactor
-                        * Math.exp(depth * beamAttenuationExpFactor); 
-                //For Auger
-                double beamEnergy = (beam.getPhotonEnergy() * Beam.KEVTOJOULES);
-                double numberOfPhotons = cryoVoxImageFluence / beamEnergy;
-                
-                double cryoVoxImageEnergy = energyPerFluence * cryoVoxImageFluence; 
-                double cryoVoxImageDose= fluenceToDoseFactor * cryoVoxImageFluence;
-                                                                             
-                if (cryoVoxImageEnergy > 0) {
-            //    if (cryoVoxImageDose > 0) { 
-                  double energyPE = 0;
-                  double dosePE = 0;
-                  double totCryoAugerEnergy = cryoAugerEnergy * numberOfPhotons * energyPerFluence;
-                  double totCryoAugerDose = cryoAugerEnergy * numberOfPhotons * fluenceToDoseFactor;
-                  if (fluorescentEscape == false) {
-                    energyPE = cryoVoxImageEnergy - totCryoAugerEnergy;
-                    dosePE = cryoVoxImageDose - totCryoAugerDose;
-                  }
-                  else {
-                    double totCryoFluorescenceEnergyRelease = cryoFluorescenceEnergyRelease * numberOfPhotons;
-                    //convert this to a dose to be released
-                    double voxImageFlEnergyRelease = energyPerFluence * totCryoFluorescenceEnergyRelease;
-                    double voxImageFlDoseRelease = fluenceToDoseFactor * totCryoFluorescenceEnergyRelease;
-                    energyPE = cryoVoxImageEnergy - totCryoAugerEnergy - voxImageFlEnergyRelease;
-                    dosePE = cryoVoxImageDose - totCryoAugerDose - voxImageFlDoseRelease;
-                  }
-                  double doseAddedBack = addDoseAfterPECryo(iCryst, jCryst, kCryst, energyPE, energyToDoseFactor);
-              //    double doseAddedBack = addDoseAfterPECryo(iconverted, jconverted, kconverted, dosePE, energyToDoseFactor);
-                  totalDoseFromSurrounding += doseAddedBack;
-                } // end if voximage dose > 0
-              } // end if unattenuated beam intensity > 0
-            } // end if crystal not at
-          } //end k
-        } // end j
-      }  //end i
+      image.cryoBeamAttenuationFactor = beamAttenuationFactor;
+      // Find the exposed voxels of the surrounding solution, unless they
+      // are the same as in the previous image. Only the shell of voxels
+      // that photoelectrons can cross into the crystal from is visited.
+      final ImageVoxelBuffer[] shellVoxels = image.shellVoxels;
+      if (!repeat) {
+        prepareDepthFinding(image);
+        if (surroundingShell == null || !surroundingShell.fits(this)) {
+          surroundingShell = new SurroundingShell(this,
+              !isSurroundingShellOnly());
+        }
+        if (exposurePool == null) {
+          for (int chunk = 0; chunk < shellVoxels.length; chunk++) {
+            exposeShell(chunk, image);
+          }
+        } else {
+          exposurePool.invoke(new ShellExposure(image, 0, shellVoxels.length));
+        }
+      }
+
+      // Photoelectrons may end in any crystal voxel, so this stays serial.
+      for (ImageVoxelBuffer cryoVoxels : shellVoxels) {
+        for (int n = 0; n < cryoVoxels.size; n++) {
+          double iCryst = (cryoVoxels.i[n] - extraVoxels) * ppmRatio;
+          double jCryst = (cryoVoxels.j[n] - extraVoxels) * ppmRatio;
+          double kCryst = (cryoVoxels.k[n] - extraVoxels) * ppmRatio;
+          double cryoVoxImageFluence = cryoVoxels.fluence[n];
+          //For Auger
+          double numberOfPhotons = cryoVoxImageFluence / beamenergy;
+        
+          double cryoVoxImageEnergy = energyPerFluence * cryoVoxImageFluence; 
+          double cryoVoxImageDose= fluenceToDoseFactor * cryoVoxImageFluence;
+                                                                     
+          if (cryoVoxImageEnergy > 0) {
+        //    if (cryoVoxImageDose > 0) { 
+            double energyPE = 0;
+            double dosePE = 0;
+            double totCryoAugerEnergy = cryoAugerEnergy * numberOfPhotons * energyPerFluence;
+            double totCryoAugerDose = cryoAugerEnergy * numberOfPhotons * fluenceToDoseFactor;
+            if (fluorescentEscape == false) {
+              energyPE = cryoVoxImageEnergy - totCryoAugerEnergy;
+              dosePE = cryoVoxImageDose - totCryoAugerDose;
+            }
+            else {
+              double totCryoFluorescenceEnergyRelease = cryoFluorescenceEnergyRelease * numberOfPhotons;
+              //convert this to a dose to be released
+              double voxImageFlEnergyRelease = energyPerFluence * totCryoFluorescenceEnergyRelease;
+              double voxImageFlDoseRelease = fluenceToDoseFactor * totCryoFluorescenceEnergyRelease;
+              energyPE = cryoVoxImageEnergy - totCryoAugerEnergy - voxImageFlEnergyRelease;
+              dosePE = cryoVoxImageDose - totCryoAugerDose - voxImageFlDoseRelease;
+            }
+            double doseAddedBack = addDoseAfterPECryo(iCryst, jCryst, kCryst, energyPE, energyToDoseFactor);
+        //    double doseAddedBack = addDoseAfterPECryo(iconverted, jconverted, kconverted, dosePE, energyToDoseFactor);
+            totalDoseFromSurrounding += doseAddedBack;
+          } // end if voximage dose > 0
+        } // end of looping over exposed voxels of the solution
+      }
     } // end if pe true
   }//end if there is a surface
   
-  //loop through all again for DWD - needs to go after cryo as well!!!
-  for (int i = 0; i < crystalSize[0]; i++) {
-    for (int j = 0; j < crystalSize[1]; j++) {
-      for (int k = 0; k < crystalSize[2]; k++) {
-        if (isCrystalAt(i, j, k)) {
-          if (voxImageDose[i][j][k] > 0) {
-            double totalVoxelDose = getDose(i, j, k); //how can this be done before the whole crystal???
-            //This may need to change - ask what this is
-            double interpolatedVoxelDose = totalVoxelDose + voxImageDose[i][j][k] / 2; // this needs to change for PE escape
-            double relativeDiffractionEfficiency =
-                getDDM().calcDecay(interpolatedVoxelDose);
-            
-            // Fluence times the fraction of the beam absorbed by the voxel
-            
-//may need to pass in different things or pass in more and change in observer
-
-            absorbedEnergy[i][j][k] = voxImageFluence[i][j][k] * energyPerFluence;
-            double comptonabsorbedEnergy = voxImageComptonFluence[i][j][k] * energyPerFluence;
-            
-            absorbedEnergy[i][j][k] = absorbedEnergy[i][j][k] + comptonabsorbedEnergy;
- 
-         //   relativeDiffractionEfficiency = 1;
-            for (ExposeObserver eo : exposureObservers) {
-              eo.exposureObservation(anglenum, i, j, k, voxImageDose[i][j][k],   //voxImageDose should be added dose (doesn't do Compton or escape)
-                  totalVoxelDose, voxImageFluence[i][j][k],
-                  relativeDiffractionEfficiency, absorbedEnergy[i][j][k],
-                  voxElasticYield[i][j][k]);
+  //loop through the exposed voxels again for DWD - needs to go after cryo as well!!!
+  for (ImageVoxelBuffer voxels : slabVoxels) {
+    for (int n = 0; n < voxels.size; n++) {
+      int i = voxels.i[n];
+      int j = voxels.j[n];
+      int k = voxels.k[n];
+      double voxImageDose = voxels.dose[n];
+      double totalVoxelDose = getDose(i, j, k); //how can this be done before the whole crystal???
+      //This may need to change - ask what this is
+      double interpolatedVoxelDose = totalVoxelDose + voxImageDose / 2; // this needs to change for PE escape
+      double relativeDiffractionEfficiency =
+          getDDM().calcDecay(interpolatedVoxelDose);
+
+      // Fluence times the fraction of the beam absorbed by the voxel
+      double absorbedEnergy = voxels.fluence[n] * energyPerFluence;
+      double comptonabsorbedEnergy = voxels.comptonFluence[n] * energyPerFluence;
+      absorbedEnergy = absorbedEnergy + comptonabsorbedEnergy;
+
+      for (ExposeObserver eo : exposureObservers) {
+        eo.exposureObservation(anglenum, i, j, k, voxImageDose,   //voxImageDose should be added dose (doesn't do Compton or escape)
+            totalVoxelDose, voxels.fluence[n],
+            relativeDiffractionEfficiency, absorbedEnergy,
+            voxels.elasticYield[n]);
+      }
+    }
+  }
+  }
+
+  /**
+   * Sets up the depth engine for the angle and translation of the current
+   * image, unless that has already been done. Slabs call this when they
+   * first need a depth that is not cached, possibly on several threads.
+   *
+   * @param image
+   *          parameters of the current image.
+   */
+  private void prepareDepthFinding(final ImageExposure image) {
+    if (image.depthReady) {
+      return;
+    }
+    synchronized (image) {
+      if (!image.depthReady) {
+        if (depthEngine == DEPTH_ENGINE_SWEEP) {
+          if (depthSweep == null) {
+            depthSweep = new DepthSweep(this, depthSampling);
+          }
+          if (image.untranslatedDepths) {
+            depthSweep.update(image.angle, new double[3]);
+          } else {
+            depthSweep.update(image.angle, new double[] {
+                image.startX + image.translationX,
+                image.startY + image.translationY,
+                image.startZ + image.translationZ });
+          }
+        }
+        setupDepthFinding(image.angle, image.depthWedge);
+        image.depthReady = true;
+      }
+    }
+  }
+
+  /**
+   * Returns the depth of a point in the beam frame of the current image,
+   * using the depth engine chosen for the crystal.
+   *
+   * @param beamCoord
+   *          coordinates of the point in the beam frame.
+   * @param angle
+   *          rotation angle of the image in radians.
+   * @param wedge
+   *          wedge the image belongs to.
+   * @return
+   *         path length (um) of the beam through the crystal to the point.
+   */
+  private double depthInBeamFrame(final double[] beamCoord, final double angle,
+      final Wedge wedge) {
+    if (depthEngine == DEPTH_ENGINE_SWEEP) {
+      return depthSweep.depth(beamCoord);
+    }
+    return findDepth(beamCoord, angle, wedge);
+  }
+  /**
+   * Returns whether the depth of a voxel only depends on the rotation
+   * angle and not on the start offset and translation of the wedge, so that
+   * depths can be found in the rotated but untranslated frame and reused for
+   * every translation. This holds for the SWEEP engine, which works on the
+   * voxel grid, and for crystals whose findDepth() moves a rigid mesh.
+   *
+   * @return true if depths may be found without the translation.
+   */
+  protected boolean isDepthTranslationInvariant() {
+    return depthEngine == DEPTH_ENGINE_SWEEP;
+  }
+
+  /**
+   * Decides whether the depths of the voxels are kept from a wedge on.
+   * Unless set by the DepthCache keyword, they are kept once the crystal is
+   * exposed to a second wedge, which may revisit the angles of the first,
+   * or to a helical wedge, whose later passes usually do.
+   *
+   * @param wedge
+   *          wedge about to be exposed.
+   * @return true if the depths are to be cached.
+   */
+  private boolean cacheDepthsFor(final Wedge wedge) {
+    if (depthCacheMode == DEPTH_CACHE_OFF || !isDepthTranslationInvariant()) {
+      return false;
+    }
+    return depthCacheMode == DEPTH_CACHE_ON || imagesExposed > 0
+        || wedge.getTransX() != 0 || wedge.getTransY() != 0
+        || wedge.getTransZ() != 0;
+  }
+
+  /**
+   * @param wedge
+   *          a wedge.
+   * @return a copy of the wedge without start offset and translation.
+   */
+  private static Wedge untranslatedWedge(final Wedge wedge) {
+    Map<WedgeProperties, Double> properties =
+        new HashMap<WedgeProperties, Double>();
+    for (WedgeProperties property : WedgeProperties.values()) {
+      if (wedge.get(property) != null) {
+        properties.put(property, wedge.get(property));
+      }
+    }
+    properties.put(WedgeProperties.START_POSITION_X, 0d);
+    properties.put(WedgeProperties.START_POSITION_Y, 0d);
+    properties.put(WedgeProperties.START_POSITION_Z, 0d);
+    properties.put(WedgeProperties.TRANSLATION_X, 0d);
+    properties.put(WedgeProperties.TRANSLATION_Y, 0d);
+    properties.put(WedgeProperties.TRANSLATION_Z, 0d);
+    return new Wedge(properties);
+  }
+
+  /**
+   * @return number of images that found the depth field of their angle in
+   *         the depth cache, 0 if the depths are not cached.
+   */
+  public long getDepthCacheHits() {
+    if (depthCache == null) {
+      return 0;
+    }
+    return depthCache.getHits();
+  }
+
+
+  /**
+   * Splits the i planes of the crystal into slabs, each with its own
+   * buffer for the voxels exposed in an image. The buffers are kept for the
+   * whole exposure and reused for every image.
+   *
+   * @param slabCount
+   *          number of slabs, at most the number of i planes.
+   */
+  private void prepareSlabs(final int slabCount) {
+    final int planes = getCrystSizeVoxels()[0];
+    final int slabs = Math.max(1, Math.min(slabCount, planes));
+    ImageExposure image = new ImageExposure();
+    image.spans = getOccupancySpans();
+    image.slabStart = new int[slabs + 1];
+    image.slabVoxels = new ImageVoxelBuffer[slabs];
+    final int columnLength = getCrystSizeVoxels()[2];
+    for (int slab = 0; slab < slabs; slab++) {
+      image.slabStart[slab] = (int) ((long) slab * planes / slabs);
+      image.slabVoxels[slab] = new ImageVoxelBuffer();
+      image.slabVoxels[slab].allocateColumn(columnLength);
+    }
+    image.slabStart[slabs] = planes;
+    image.shellVoxels = new ImageVoxelBuffer[slabs];
+    for (int chunk = 0; chunk < slabs; chunk++) {
+      image.shellVoxels[chunk] = new ImageVoxelBuffer();
+    }
+    imageExposure = image;
+  }
+
+  /**
+   * Finds the voxels of one chunk of the surrounding solution shell that
+   * are hit by the beam in an image, and records them with their fluence in
+   * the buffer of the chunk.
+   *
+   * @param chunk
+   *          index of the chunk.
+   * @param image
+   *          parameters of the current image.
+   */
+  private void exposeShell(final int chunk, final ImageExposure image) {
+    final SurroundingShell shell = surroundingShell;
+    final int chunks = image.shellVoxels.length;
+    final int end = (int) ((long) (chunk + 1) * shell.size() / chunks);
+    final ImageVoxelBuffer voxels = image.shellVoxels[chunk];
+    final double[] cryoCrystCoord = voxels.crystCoord;
+    final double[] translateRotateCoords = voxels.beamCoord;
+    final double[] depthCoords = voxels.depthCoord;
+    voxels.clear();
+    for (int n = (int) ((long) chunk * shell.size() / chunks); n < end; n++) {
+      final int i = shell.getI(n);
+      final int j = shell.getJ(n);
+      final int k = shell.getK(n);
+      getCryoCrystCoord(i, j, k, cryoCrystCoord);
+      translateCrystalToPosition(cryoCrystCoord, image, translateRotateCoords);
+
+      // Unattenuated beam intensity (J/um^2/s)
+      double unattenuatedBeamIntensity = image.beam.beamIntensity(
+          translateRotateCoords[0], translateRotateCoords[1], image.offAxisUm);
+
+      if (unattenuatedBeamIntensity > 0d) {
+        //Set the depth coordinates based on crystal depth
+        for (int m = 0; m < 3; m++) {
+          if (translateRotateCoords[m] < minimumDimensions[m]) {
+            depthCoords[m] = minimumDimensions[m];
+          } else if (translateRotateCoords[m] > maximumDimensions[m]) {
+            depthCoords[m] = maximumDimensions[m];
+          } else {
+            depthCoords[m] = translateRotateCoords[m];
+          }
+        }
+
+        if (image.untranslatedDepths) {
+          depthCoords[0] -= image.depthShiftX;
+          depthCoords[1] -= image.depthShiftY;
+          depthCoords[2] -= image.depthShiftZ;
+        }
+        double depth = depthInBeamFrame(depthCoords, image.angle,
+            image.depthWedge);
+
+        // Attenuates the beam for absorption in joules
+        double cryoVoxImageFluence = unattenuatedBeamIntensity * image.cryoBeamAttenuationFactor
+                * Math.exp(depth * image.beamAttenuationExpFactor);
+        voxels.add(i, j, k, cryoVoxImageFluence, 0, 0, 0);
+      }
+    }
+  }
+
+  /**
+   * Exposes the voxels of one slab of i planes for one image. Dose, fluence
+   * and elastic yield are only added to the voxels of the slab itself, and
+   * the voxels hit by the beam are recorded in the buffer of the slab.
+   * Photoelectron and fluorescent escape are left to the caller.
+   *
+   * @param slab
+   *          index of the slab.
+   * @param image
+   *          parameters of the current image.
+   * @return
+   *         dose (MGy) absorbed by the slab, before escape.
+   */
+  private double exposeSlab(final int slab, final ImageExposure image) {
+    final int[] crystalSize = getCrystSizeVoxels();
+    final int iEnd = image.slabStart[slab + 1];
+    final Beam beam = image.beam;
+    final ImageVoxelBuffer voxels = image.slabVoxels[slab];
+    final OccupancySpans spans = image.spans;
+    final double[] crystCoords = voxels.crystCoord;
+    final double[] translateRotateCoords = voxels.beamCoord;
+    final double[] columnX = voxels.columnX;
+    final double[] columnY = voxels.columnY;
+    final double[] columnZ = voxels.columnZ;
+    final double[] columnIntensity = voxels.columnIntensity;
+    final double[] columnDepth = voxels.columnDepth;
+    final double[] columnFluence = voxels.columnFluence;
+    final double[] columnDose = voxels.columnDose;
+    final double[] columnCompton = voxels.columnCompton;
+    final double[] columnElastic = voxels.columnElastic;
+    final double[] depths = image.depths;
+
+    if (image.repeat) {
+      // Same voxels and fluences as in the previous image.
+      for (int n = 0; n < voxels.size; n++) {
+        addFluence(voxels.i[n], voxels.j[n], voxels.k[n], voxels.fluence[n]);
+      }
+      return depositSlabDose(voxels, image);
+    }
+    voxels.clear();
+
+    for (int i = image.slabStart[slab]; i < iEnd; i++) {
+      for (int j = 0; j < crystalSize[1]; j++) {
+        int columnStart = 0;
+        int columnEnd = crystalSize[2];
+        if (image.clipToBeam && spans.firstRun(i, j) < spans.endRun(i, j)) {
+          if (!clipColumnToBeam(i, j, crystalSize[2], image, voxels)) {
+            continue;
+          }
+          columnStart = voxels.columnStart;
+          columnEnd = voxels.columnEnd;
+        }
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          final int kStart = Math.max(spans.getRunStart(r), columnStart);
+          final int kEnd = Math.min(spans.getRunEnd(r), columnEnd);
+          getCrystCoordColumn(i, j, kStart, kEnd, columnX, columnY, columnZ);
+          for (int k = kStart; k < kEnd; k++) {
+            // Rotate crystal into position
+            crystCoords[0] = columnX[k];
+            crystCoords[1] = columnY[k];
+            crystCoords[2] = columnZ[k];
+            translateCrystalToPosition(crystCoords, image,
+                translateRotateCoords);
+
+            /* Unattenuated beam intensity (J/um^2/s) */
+            double unattenuatedBeamIntensity = beam.beamIntensity(
+                translateRotateCoords[0], translateRotateCoords[1],
+                image.offAxisUm);
+            columnIntensity[k] = unattenuatedBeamIntensity;
+
+            if (unattenuatedBeamIntensity > 0d) {
+              double[] depthCoords = translateRotateCoords;
+              if (image.untranslatedDepths) {
+                depthCoords = voxels.depthCoord;
+                rotateCrystalToAngle(crystCoords, image, depthCoords);
+              }
+              double depth;
+              if (depths == null) {
+                prepareDepthFinding(image);
+                depth = depthInBeamFrame(depthCoords, image.angle,
+                    image.depthWedge);
+              } else {
+                int voxel = (int) (spans.getRunOffset(r) + k
+                    - spans.getRunStart(r));
+                depth = depths[voxel];
+                if (Double.isNaN(depth)) {
+                  prepareDepthFinding(image);
+                  depth = depthInBeamFrame(depthCoords, image.angle,
+                      image.depthWedge);
+                  depths[voxel] = depth;
+                }
+              }
+              columnDepth[k] = depth;
+            } else {
+              columnDepth[k] = 0;
             }
+          } // k
+
+          /*
+           * Assigning exposure (joules incident) and dose (J/kg absorbed) to
+           * the voxels of the run. Fluences include the voxel size, Compton
+           * electron fluences follow equation 9 in Karthik 2010.
+           */
+          ATTENUATION_KERNEL.attenuate(columnIntensity, columnDepth, kStart,
+              kEnd, image.beamAttenuationFactor,
+              image.beamAttenuationExpFactor, image.fluenceToDoseFactor,
+              image.beamEnergy, image.comptonElectronEnergy,
+              image.fluenceToElasticFactor, columnFluence, columnDose,
+              columnCompton, columnElastic);
+
+          for (int k = kStart; k < kEnd; k++) {
+            if (columnIntensity[k] > 0d) {
+              double voxImageDose = columnDose[k];
+              if (voxImageDose > 0) {
+                addFluence(i, j, k, columnFluence[k]);
+                voxels.add(i, j, k, columnFluence[k], voxImageDose,
+                    columnCompton[k], columnElastic[k]);
+              } else if (voxImageDose < 0) {
+                throw new ArithmeticException(
+                    "negative dose encountered - this should never happen");
+              }
+            } // IF inbeam
+          } // k
+        } // runs of crystal along k
+      } // j
+    } // i : end of looping over slab voxels
+
+    return depositSlabDose(voxels, image);
+  }
+
+  /**
+   * Finds the part of column (i, j) that lies within the collimated region
+   * of the beam in the current image. The beam frame coordinates are an
+   * affine function of k, so the column is a line segment and only its end
+   * points need to be transformed.
+   *
+   * @param i
+   *          i index of the column.
+   * @param j
+   *          j index of the column.
+   * @param columnLength
+   *          number of voxels along k.
+   * @param image
+   *          parameters of the current image.
+   * @param voxels
+   *          buffer of the slab, receiving the first k index and the index
+   *          after the last one of the clipped column.
+   * @return
+   *         false if no voxel of the column can be hit by the beam.
+   */
+  private boolean clipColumnToBeam(final int i, final int j,
+      final int columnLength, final ImageExposure image,
+      final ImageVoxelBuffer voxels) {
+    final double[] beamCoord = voxels.beamCoord;
+    getCrystCoord(i, j, 0, voxels.crystCoord);
+    translateCrystalToPosition(voxels.crystCoord, image, beamCoord);
+    final double x0 = beamCoord[0] - image.offAxisUm;
+    final double y0 = beamCoord[1];
+    double stepX = 0;
+    double stepY = 0;
+    if (columnLength > 1) {
+      getCrystCoord(i, j, columnLength - 1, voxels.crystCoord);
+      translateCrystalToPosition(voxels.crystCoord, image, beamCoord);
+      stepX = (beamCoord[0] - image.offAxisUm - x0) / (columnLength - 1);
+      stepY = (beamCoord[1] - y0) / (columnLength - 1);
+    }
+
+    final double[] range = voxels.columnRange;
+    range[0] = 0;
+    range[1] = columnLength - 1;
+    if (!clipToBand(x0, stepX, image.beamHalfWidthX, range)
+        || !clipToBand(y0, stepY, image.beamHalfWidthY, range)) {
+      return false;
+    }
+    voxels.columnStart = (int) Math.max(0, Math.floor(range[0]));
+    voxels.columnEnd = (int) Math.min(columnLength, Math.ceil(range[1]) + 1);
+    return voxels.columnStart < voxels.columnEnd;
+  }
+
+  /**
+   * Narrows a range of k to the values for which |origin + k * step| is at
+   * most halfWidth.
+   *
+   * @param origin
+   *          value at k = 0.
+   * @param step
+   *          change of the value per voxel along k.
+   * @param halfWidth
+   *          half width of the allowed region, possibly infinite.
+   * @param range
+   *          lowest and highest k, narrowed in place.
+   * @return
+   *         false if the range became empty.
+   */
+  private static boolean clipToBand(final double origin, final double step,
+      final double halfWidth, final double[] range) {
+    if (Double.isInfinite(halfWidth)) {
+      return true;
+    }
+    if (step == 0) {
+      return Math.abs(origin) <= halfWidth;
+    }
+    double entry = (-halfWidth - origin) / step;
+    double exit = (halfWidth - origin) / step;
+    range[0] = Math.max(range[0], Math.min(entry, exit));
+    range[1] = Math.min(range[1], Math.max(entry, exit));
+    return range[0] <= range[1];
+  }
+
+  /**
+   * Adds the dose that stays in each exposed voxel of a slab, i.e. everything
+   * except the energy carried away by photoelectrons and fluorescence, and
+   * the elastic yield. There is one loop per escape mode so that the mode is
+   * not tested per voxel.
+   *
+   * @param voxels
+   *          voxels of the slab exposed in this image.
+   * @param image
+   *          parameters of the current image.
+   * @return
+   *         dose (MGy) absorbed by the slab, before escape.
+   */
+  private double depositSlabDose(final ImageVoxelBuffer voxels,
+      final ImageExposure image) {
+    final double fluenceToDoseFactor = image.fluenceToDoseFactor;
+    final double fluenceToDoseFactorCompton = image.fluenceToDoseFactorCompton;
+    final double beamenergy = image.beamEnergy;
+    double crystalDose = 0;
+
+    switch (escapeMode) {
+      case ESCAPE_NONE:
+        for (int n = 0; n < voxels.size; n++) {
+          int i = voxels.i[n];
+          int j = voxels.j[n];
+          int k = voxels.k[n];
+          crystalDose += voxels.dose[n];
+          addDose(i, j, k, voxels.dose[n]);
+          addDose(i, j, k, fluenceToDoseFactorCompton
+              * voxels.comptonFluence[n]);
+          addElastic(i, j, k, voxels.elasticYield[n]);
+        }
+        break;
+      case ESCAPE_FL:
+        for (int n = 0; n < voxels.size; n++) {
+          int i = voxels.i[n];
+          int j = voxels.j[n];
+          int k = voxels.k[n];
+          crystalDose += voxels.dose[n];
+          //Energy to be released by voxel, converted to a dose
+          double numberofphotons = voxels.fluence[n] / beamenergy;
+          double voxImageFlDoseRelease = fluenceToDoseFactor
+              * (image.fluorescenceEnergyRelease * numberofphotons);
+          addDose(i, j, k, voxels.dose[n] - voxImageFlDoseRelease);
+          addDose(i, j, k, fluenceToDoseFactorCompton
+              * voxels.comptonFluence[n]);
+          addElastic(i, j, k, voxels.elasticYield[n]);
+        }
+        break;
+      default: // PE, with or without FL: only the Auger dose stays
+        for (int n = 0; n < voxels.size; n++) {
+          int i = voxels.i[n];
+          int j = voxels.j[n];
+          int k = voxels.k[n];
+          crystalDose += voxels.dose[n];
+          double numberofphotons = voxels.fluence[n] / beamenergy;
+          double totAugerDose = image.augerEnergy * numberofphotons
+              * fluenceToDoseFactor;
+          if (totAugerDose > 0) {
+            addDose(i, j, k, totAugerDose);
           }
+          addDose(i, j, k, fluenceToDoseFactorCompton
+              * voxels.comptonFluence[n]);
+          addElastic(i, j, k, voxels.elasticYield[n]);
+        }
+        break;
+    }
+    return crystalDose;
+  }
+
+  /**
+   * Parameters of the current image shared by all slabs, and the pooled
+   * per-slab buffers and scratch arrays reused for every image.
+   */
+  private static final class ImageExposure {
+    /**
+     * Whether the image repeats the geometry of the previous one, so that
+     * the buffers still hold the voxels it exposes.
+     */
+    private boolean            repeat;
+    /** Whether depth finding has been set up for this image. */
+    private volatile boolean   depthReady;
+    /**
+     * Cached depths (um) of the occupied voxels at the angle of the image,
+     * NaN where not known yet, or null if the depths are not cached.
+     */
+    private double[]           depths;
+    /** Rotation angle of the image in radians. */
+    private double             angle;
+    /** Beam the crystal is exposed to. */
+    private Beam               beam;
+    /** Wedge the image belongs to. */
+    private Wedge              wedge;
+    /**
+     * Wedge depth finding is set up for: the wedge itself, or a copy without
+     * start offset and translation if depths are found in the rotated but
+     * untranslated frame.
+     */
+    private Wedge              depthWedge;
+    /** Whether depths are found in the rotated but untranslated frame. */
+    private boolean            untranslatedDepths;
+    /**
+     * Start vector plus translation rotated into the beam frame, the origin
+     * of the untranslated frame.
+     */
+    private double             depthShiftX, depthShiftY, depthShiftZ;
+    /** Off axis distance of the rotation axis in um. */
+    private double             offAxisUm;
+    /** Start vector of the wedge. */
+    private double             startX, startY, startZ;
+    /** Translation vector of the wedge at this angle. */
+    private double             translationX, translationY, translationZ;
+    /** Cosine of the rotation angle. */
+    private double             anglecos;
+    /** Sine of the rotation angle. */
+    private double             anglesin;
+    /** Voxel area times exposure time per image. */
+    private double             beamAttenuationFactor;
+    /** Negative attenuation coefficient. */
+    private double             beamAttenuationExpFactor;
+    /** Conversion from voxel fluence to absorbed dose (MGy). */
+    private double             fluenceToDoseFactor;
+    /** Conversion from Compton electron fluence to dose (MGy). */
+    private double             fluenceToDoseFactorCompton;
+    /** Conversion from voxel fluence to elastically scattered photons. */
+    private double             fluenceToElasticFactor;
+    /** Photon energy in J. */
+    private double             beamEnergy;
+    /** Energy in J given to the electron by a Compton scattered photon. */
+    private double             comptonElectronEnergy;
+    /** Auger energy released per absorbed photon. */
+    private double             augerEnergy;
+    /** Fluorescence energy released per absorbed photon. */
+    private double             fluorescenceEnergyRelease;
+    /** Whether the beam is collimated in this image. */
+    private boolean            clipToBeam;
+    /** Collimated half widths of the beam in um, plus a voxel of margin. */
+    private double             beamHalfWidthX, beamHalfWidthY;
+    /**
+     * First i plane of each slab. The last element is the number of i planes.
+     */
+    private int[]              slabStart;
+    /** Runs of occupied voxels of the crystal. */
+    private OccupancySpans     spans;
+    /** Buffer of the voxels exposed in this image, per slab. */
+    private ImageVoxelBuffer[] slabVoxels;
+    /**
+     * Buffer of the exposed voxels of the surrounding solution, per chunk of
+     * its shell.
+     */
+    private ImageVoxelBuffer[] shellVoxels;
+    /** Voxel area of the surrounding solution times exposure time. */
+    private double             cryoBeamAttenuationFactor;
+  }
+
+  /** Escaping dose and released energy of a band of planes. */
+  private static final class EscapeTotals {
+    /** Dose escaping the crystal with photoelectrons. */
+    private double escapedPE;
+    /** Dose escaping the crystal with fluorescence. */
+    private double escapedFL;
+    /** Dose released as photoelectrons. */
+    private double peEnergyToRelease;
+    /** Dose released as fluorescence. */
+    private double flEnergyToRelease;
+    /** Dose released as Auger electrons. */
+    private double augerEnergyToRelease;
+  }
+
+  /**
+   * Fork/join task handing the escaping dose of every other band of planes
+   * to the escape engines. Ranges of more than one band are split in two.
+   */
+  @SuppressWarnings("serial")
+  private final class EscapeScatter extends RecursiveAction {
+    /** Parameters of the current image. */
+    private final ImageExposure  image;
+    /** Number of planes of a band. */
+    private final int            bandPlanes;
+    /** Number of planes of the crystal. */
+    private final int            planes;
+    /** First band of the range, a band of the round. */
+    private final int            first;
+    /** Band after the last one of the range. */
+    private final int            end;
+    /** Receives the totals of each band. */
+    private final EscapeTotals[] bandTotals;
+
+    /**
+     * @param image
+     *          parameters of the current image.
+     * @param bandPlanes
+     *          number of planes of a band.
+     * @param planes
+     *          number of planes of the crystal.
+     * @param first
+     *          first band of the range; bands of the other parity are left
+     *          alone.
+     * @param end
+     *          band after the last one of the range.
+     * @param bandTotals
+     *          receives the totals of each band.
+     */
+    EscapeScatter(final ImageExposure image, final int bandPlanes,
+        final int planes, final int first, final int end,
+        final EscapeTotals[] bandTotals) {
+      this.image = image;
+      this.bandPlanes = bandPlanes;
+      this.planes = planes;
+      this.first = first;
+      this.end = end;
+      this.bandTotals = bandTotals;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - first <= 2) {
+        bandTotals[first] = collectEscapes(image, first * bandPlanes,
+            Math.min(planes, (first + 1) * bandPlanes));
+      } else {
+        // split at a band of the same parity
+        int mid = first + 2 * ((end - first) / 4);
+        if (mid == first) {
+          mid += 2;
         }
+        invokeAll(new EscapeScatter(image, bandPlanes, planes, first, mid,
+            bandTotals), new EscapeScatter(image, bandPlanes, planes, mid,
+            end, bandTotals));
       }
     }
   }
+
+  /**
+   * Fork/join task exposing a range of slabs. Ranges of more than one slab
+   * are split in two. The dose absorbed in each half is summed once both
+   * halves have completed.
+   */
+  @SuppressWarnings("serial")
+  private final class SlabExposure extends RecursiveAction {
+    /** Parameters of the current image. */
+    private final ImageExposure image;
+    /** First slab of the range. */
+    private final int           first;
+    /** Slab after the last one of the range. */
+    private final int           end;
+    /** Dose absorbed by the slabs, available once the task has completed. */
+    private double              crystalDose;
+
+    /**
+     * @param image
+     *          parameters of the current image.
+     * @param first
+     *          first slab of the range.
+     * @param end
+     *          slab after the last one of the range.
+     */
+    SlabExposure(final ImageExposure image, final int first, final int end) {
+      this.image = image;
+      this.first = first;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - first == 1) {
+        crystalDose = exposeSlab(first, image);
+      } else {
+        int mid = (first + end) >>> 1;
+        SlabExposure lower = new SlabExposure(image, first, mid);
+        SlabExposure upper = new SlabExposure(image, mid, end);
+        invokeAll(lower, upper);
+        crystalDose = lower.crystalDose + upper.crystalDose;
+      }
+    }
+  }
+
+  /**
+   * Fork/join task finding the exposed voxels of a range of chunks of the
+   * surrounding solution shell. Ranges of more than one chunk are split in
+   * two.
+   */
+  @SuppressWarnings("serial")
+  private final class ShellExposure extends RecursiveAction {
+    /** Parameters of the current image. */
+    private final ImageExposure image;
+    /** First chunk of the range. */
+    private final int           first;
+    /** Chunk after the last one of the range. */
+    private final int           end;
+
+    /**
+     * @param image
+     *          parameters of the current image.
+     * @param first
+     *          first chunk of the range.
+     * @param end
+     *          chunk after the last one of the range.
+     */
+    ShellExposure(final ImageExposure image, final int first, final int end) {
+      this.image = image;
+      this.first = first;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - first == 1) {
+        exposeShell(first, image);
+      } else {
+        int mid = (first + end) >>> 1;
+        invokeAll(new ShellExposure(image, first, mid),
+            new ShellExposure(image, mid, end));
+      }
+    }
   }
 
-  private double[] translateCrystalToPosition(double[] crystCoords, Double[] wedgeStart, Double[] wedgeTranslation,
-                                               double anglecos, double anglesin) {
-    double[] translateRotateCoords = new double[3];
+  /**
+   * Translates crystal coordinates by the wedge start and translation vectors
+   * of the current image and rotates them by the image angle.
+   *
+   * @param crystCoords
+   *          coordinates of the voxel in the starting position.
+   * @param image
+   *          parameters of the current image.
+   * @param translateRotateCoords
+   *          array receiving the coordinates in the beam frame.
+   */
+  private static void translateCrystalToPosition(final double[] crystCoords,
+      final ImageExposure image, final double[] translateRotateCoords) {
     // Translate Y
     translateRotateCoords[1] = crystCoords[1]
-        + wedgeStart[1] + wedgeTranslation[1];
+        + image.startY + image.translationY;
     // Translate X
     double translateCoordX = crystCoords[0]
-        + wedgeStart[0] + wedgeTranslation[0];
+        + image.startX + image.translationX;
     // Translate Z
     double translateCoordZ = crystCoords[2]
-        + wedgeStart[2] + wedgeTranslation[2];
+        + image.startZ + image.translationZ;
     /* Rotate clockwise when y axis points away from observer */
     // Rotate X
-    translateRotateCoords[0] = translateCoordX * anglecos
-        + translateCoordZ * anglesin;
+    translateRotateCoords[0] = translateCoordX * image.anglecos
+        + translateCoordZ * image.anglesin;
     // Rotate Z
-    translateRotateCoords[2] = -1 * translateCoordX * anglesin
-        + translateCoordZ * anglecos;
-    
-    return translateRotateCoords;
+    translateRotateCoords[2] = -1 * translateCoordX * image.anglesin
+        + translateCoordZ * image.anglecos;
+  }
+  /**
+   * Rotates crystal coordinates by the image angle without translating
+   * them, into the frame depths are found in when they do not depend on
+   * the translation of the crystal.
+   *
+   * @param crystCoords
+   *          coordinates of the voxel in the starting position.
+   * @param image
+   *          parameters of the current image.
+   * @param rotatedCoords
+   *          array receiving the rotated coordinates.
+   */
+  private static void rotateCrystalToAngle(final double[] crystCoords,
+      final ImageExposure image, final double[] rotatedCoords) {
+    rotatedCoords[0] = crystCoords[0] * image.anglecos
+        + crystCoords[2] * image.anglesin;
+    rotatedCoords[1] = crystCoords[1];
+    rotatedCoords[2] = -1 * crystCoords[0] * image.anglesin
+        + crystCoords[2] * image.anglecos;
   }
 
+
   @SuppressWarnings("unused")
   @Deprecated
   private double fluenceToDose(final double voxFluence,
@@ -1103,6 +2276,360 @@ public abstract class Crystal {
         * 1e-6; // MGy
   }
 
+  /**
+   * Hands the photoelectron and fluorescence dose of the voxels of planes
+   * iStart to iEnd - 1 hit by the beam in the current image to the escape
+   * engines.
+   *
+   * @param image
+   *          parameters of the current image.
+   * @param iStart
+   *          first plane of the band.
+   * @param iEnd
+   *          plane after the last one of the band.
+   * @return
+   *         dose escaping the crystal and energy released by the band.
+   */
+  private EscapeTotals collectEscapes(final ImageExposure image,
+      final int iStart, final int iEnd) {
+    final EscapeTotals totals = new EscapeTotals();
+    final double beamenergy = image.beamEnergy;
+    final double fluenceToDoseFactor = image.fluenceToDoseFactor;
+    final double augerEnergy = image.augerEnergy;
+    final double fluorescenceEnergyRelease = image.fluorescenceEnergyRelease;
+    for (ImageVoxelBuffer voxels : image.slabVoxels) {
+      final int first = voxels.firstFromPlane(iStart);
+      final int end = voxels.firstFromPlane(iEnd);
+      for (int n = first; n < end; n++) {
+        double numberofphotons = voxels.fluence[n] / beamenergy;
+        double voxImageFlDoseRelease = fluenceToDoseFactor
+            * (fluorescenceEnergyRelease * numberofphotons);
+        double totAugerDose = augerEnergy * numberofphotons
+            * fluenceToDoseFactor;
+        switch (escapeMode) {
+          case ESCAPE_PE_FL:
+            double dosePE = voxels.dose[n] - voxImageFlDoseRelease
+                - totAugerDose;
+            totals.escapedPE += collectDoseAfterPE(voxels.i[n], voxels.j[n],
+                voxels.k[n], dosePE);
+            if (voxImageFlDoseRelease > 0) { //necessary to prevent error when 0
+              totals.escapedFL += collectDoseAfterFL(voxels.i[n],
+                  voxels.j[n], voxels.k[n], voxImageFlDoseRelease);
+            }
+
+            //These to test
+            totals.flEnergyToRelease += voxImageFlDoseRelease;
+            totals.peEnergyToRelease += dosePE;
+            totals.augerEnergyToRelease += totAugerDose;
+            break;
+          case ESCAPE_PE: //only do PE escape
+            totals.escapedPE += collectDoseAfterPE(voxels.i[n], voxels.j[n],
+                voxels.k[n], voxels.dose[n] - totAugerDose);
+            break;
+          case ESCAPE_FL: //only do Fluorescent escape
+            if (voxImageFlDoseRelease > 0) {
+              totals.escapedFL += collectDoseAfterFL(voxels.i[n],
+                  voxels.j[n], voxels.k[n], voxImageFlDoseRelease);
+            }
+            break;
+          default: // no escape
+            break;
+        }
+      }
+    }
+    return totals;
+  }
+
+  /**
+   * Returns whether the images of a static exposure after the first reuse
+   * its exposed voxels and fluences. Working out every image again gives
+   * the same dose, only more slowly.
+   *
+   * @return
+   *         true to reuse the first image of a static exposure.
+   */
+  protected boolean isStaticImageReused() {
+    return true;
+  }
+
+  /**
+   * Returns whether only the voxels of the surrounding solution that
+   * photoelectrons can reach the crystal from are exposed. Exposing all of
+   * the surrounding solution outside the crystal gives the same dose, only
+   * more slowly.
+   *
+   * @return
+   *         true to expose only the shell of the surrounding solution.
+   */
+  protected boolean isSurroundingShellOnly() {
+    return true;
+  }
+
+  /**
+   * Returns how far along i, in voxels, collectDoseAfterPE() and
+   * collectDoseAfterFL() may move dose in the current image. Voxels further
+   * apart than twice this along i can then hand over their dose at the same
+   * time.
+   *
+   * @return
+   *         reach in voxels, or -1 if the voxels must be handed over one at
+   *         a time.
+   */
+  protected int getEscapeReach() {
+    return -1;
+  }
+
+  /**
+   * Returns the runs of voxels containing crystal along k for every (i, j)
+   * column. Loops over the crystal voxels should use these rather than test
+   * isCrystalAt for every voxel of the bounding box. The index is built from
+   * isCrystalAt the first time it is requested.
+   *
+   * @return
+   *         span index of the crystal occupancy.
+   */
+  public synchronized OccupancySpans getOccupancySpans() {
+    if (occupancySpans == null) {
+      OccupancyBits bits = getOccupancyBits();
+      if (bits == null) {
+        occupancySpans = new OccupancySpans(this);
+      } else {
+        occupancySpans = new OccupancySpans(getCrystSizeVoxels(), bits);
+      }
+    }
+    return occupancySpans;
+  }
+
+  /**
+   * Finds the end of a stretch of voxels of column i, j whose dose, fluence
+   * and elastic yield were never written and are therefore zero. Loops that
+   * only care about exposed voxels can skip such stretches without reading
+   * them. Crystals that store every voxel have none.
+   *
+   * @param i i
+   * @param j j
+   * @param kStart first k to look at.
+   * @param kEnd k after the last one to look at.
+   * @return
+   *         first k from kStart to kEnd - 1 that may have been written, or
+   *         kEnd if there is none.
+   */
+  public int nextTouchedVoxel(final int i, final int j, final int kStart,
+      final int kEnd) {
+    return kStart;
+  }
+
+  /**
+   * Finds the end of a stretch of voxels of column i, j that may have been
+   * written, as the counterpart of nextTouchedVoxel().
+   *
+   * @param i i
+   * @param j j
+   * @param kStart first k to look at.
+   * @param kEnd k after the last one to look at.
+   * @return
+   *         first k from kStart to kEnd - 1 that was certainly never
+   *         written, or kEnd if there is none.
+   */
+  public int nextUntouchedVoxel(final int i, final int j, final int kStart,
+      final int kEnd) {
+    return kEnd;
+  }
+
+  /**
+   * Returns the packed occupancy of crystals that keep one, from which the
+   * span index is built a word at a time.
+   *
+   * @return
+   *         occupancy bits, or null to build the span index from
+   *         isCrystalAt.
+   */
+  OccupancyBits getOccupancyBits() {
+    return null;
+  }
+
+  /**
+   * @return seed of the random escape tracks of this crystal.
+   */
+  public long getRandomSeed() {
+    return randomSeed;
+  }
+
+  /**
+   * Returns the random stream for the escape tracks of one source in the
+   * current image. The stream depends only on the seed, the image and the
+   * key, never on which thread asks for it or in what order.
+   *
+   * @param stream
+   *          kind of escape the tracks are for, so that for example the
+   *          photoelectron and fluorescence tracks of a voxel differ.
+   * @param key
+   *          identifies the source within the image, such as its flat voxel
+   *          index.
+   * @return
+   *         new random stream.
+   */
+  protected final SplittableRandom trackRandom(final int stream,
+      final long key) {
+    return new SplittableRandom(mixBits(mixBits(mixBits(randomSeed)
+        + imagesExposed) + stream) + key);
+  }
+
+  /**
+   * Scrambles the bits of a value, as the SplitMix64 generator does, so that
+   * neighbouring keys give unrelated seeds.
+   *
+   * @param value
+   *          value to scramble.
+   * @return
+   *         scrambled value.
+   */
+  private static long mixBits(final long value) {
+    long z = value * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Writes the dose state of the crystal: the dose, fluence and elastic
+   * yield of every occupied voxel that was written, the cumulative escape
+   * totals, the random seed and the number of images exposed, so that a
+   * later readCheckpoint() can carry on from it with the same random
+   * tracks.
+   *
+   * @param out
+   *          destination of the checkpoint.
+   * @throws IOException
+   *           if the checkpoint cannot be written.
+   */
+  public void writeCheckpoint(final DataOutput out) throws IOException {
+    final int[] size = getCrystSizeVoxels();
+    for (int d = 0; d < size.length; d++) {
+      out.writeInt(size[d]);
+    }
+    out.writeDouble(totalEscapedDose);
+    out.writeDouble(totalEscapedDosePE);
+    out.writeDouble(totalEscapedDoseFL);
+    out.writeDouble(totalAugerEnergyToRelease);
+    out.writeDouble(totalPEEnergyToRelease);
+    out.writeDouble(totalFlEnergyToRelease);
+    out.writeDouble(totalDoseFromSurrounding);
+    out.writeDouble(totalCrystalDose);
+    out.writeLong(randomSeed);
+    out.writeLong(imagesExposed);
+
+    // each written stretch of a run as i, j, first k, end k and its values
+    final OccupancySpans spans = getOccupancySpans();
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          final int runEnd = spans.getRunEnd(r);
+          int k = nextTouchedVoxel(i, j, spans.getRunStart(r), runEnd);
+          while (k < runEnd) {
+            final int touchedEnd = nextUntouchedVoxel(i, j, k, runEnd);
+            out.writeInt(i);
+            out.writeInt(j);
+            out.writeInt(k);
+            out.writeInt(touchedEnd);
+            for (; k < touchedEnd; k++) {
+              out.writeDouble(getDose(i, j, k));
+              out.writeDouble(getFluence(i, j, k));
+              out.writeDouble(getElastic(i, j, k));
+            }
+            k = nextTouchedVoxel(i, j, k, runEnd);
+          }
+        }
+      }
+    }
+    out.writeInt(-1);
+  }
+
+  /**
+   * Restores the dose state written by writeCheckpoint() into this crystal,
+   * which must not have been exposed yet and must have the same voxel grid
+   * as the crystal the checkpoint was written from. The random seed of the
+   * checkpoint replaces that of this crystal, so that escape tracks carry
+   * on from the run that wrote it even if no seed was given.
+   *
+   * @param in
+   *          source of the checkpoint.
+   * @throws IOException
+   *           if the checkpoint cannot be read or does not fit the crystal.
+   */
+  public void readCheckpoint(final DataInput in) throws IOException {
+    final int[] size = getCrystSizeVoxels();
+    if (imagesExposed != 0 || hasDose()) {
+      throw new IOException("Checkpoint cannot be restored into a crystal "
+          + "that has already been exposed");
+    }
+    for (int d = 0; d < size.length; d++) {
+      int checkpointSize = in.readInt();
+      if (checkpointSize != size[d]) {
+        throw new IOException("Checkpoint is for a crystal of a different "
+            + "size or resolution than " + size[0] + " x " + size[1] + " x "
+            + size[2] + " voxels");
+      }
+    }
+    totalEscapedDose = in.readDouble();
+    totalEscapedDosePE = in.readDouble();
+    totalEscapedDoseFL = in.readDouble();
+    totalAugerEnergyToRelease = in.readDouble();
+    totalPEEnergyToRelease = in.readDouble();
+    totalFlEnergyToRelease = in.readDouble();
+    totalDoseFromSurrounding = in.readDouble();
+    totalCrystalDose = in.readDouble();
+    randomSeed = in.readLong();
+    imagesExposed = in.readLong();
+
+    int i = in.readInt();
+    while (i >= 0) {
+      final int j = in.readInt();
+      final int kStart = in.readInt();
+      final int kEnd = in.readInt();
+      if (i >= size[0] || j < 0 || j >= size[1] || kStart < 0
+          || kEnd > size[2]) {
+        throw new IOException("Checkpoint voxel " + i + ", " + j + ", "
+            + kStart + " lies outside the crystal");
+      }
+      for (int k = kStart; k < kEnd; k++) {
+        addDose(i, j, k, in.readDouble());
+        addFluence(i, j, k, in.readDouble());
+        addElastic(i, j, k, in.readDouble());
+      }
+      i = in.readInt();
+    }
+  }
+
+  /**
+   * Returns whether any occupied voxel of the crystal holds dose.
+   *
+   * @return
+   *         true if dose was added to any voxel.
+   */
+  private boolean hasDose() {
+    final int[] size = getCrystSizeVoxels();
+    final OccupancySpans spans = getOccupancySpans();
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          final int runEnd = spans.getRunEnd(r);
+          int k = nextTouchedVoxel(i, j, spans.getRunStart(r), runEnd);
+          while (k < runEnd) {
+            final int touchedEnd = nextUntouchedVoxel(i, j, k, runEnd);
+            for (; k < touchedEnd; k++) {
+              if (getDose(i, j, k) != 0) {
+                return true;
+              }
+            }
+            k = nextTouchedVoxel(i, j, k, runEnd);
+          }
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Returns a common ExposureSummary object registered to this crystal.
    *
@@ -1165,4 +2692,18 @@ public abstract class Crystal {
   public boolean getPEEscapeBool() {
     return photoElectronEscape;
   }
+
+  /**
+   * @return dose lost from the crystal by photoelectron escape so far.
+   */
+  public double getEscapedDosePE() {
+    return totalEscapedDosePE;
+  }
+
+  /**
+   * @return dose lost from the crystal by fluorescent escape so far.
+   */
+  public double getEscapedDoseFL() {
+    return totalEscapedDoseFL;
+  }
 }
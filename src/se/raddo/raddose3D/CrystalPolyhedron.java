@@ -3,12 +3,12 @@
  */
 package se.raddo.raddose3D;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.SplittableRandom;
 
 /**
  * @author magd3052
@@ -44,16 +44,16 @@ public class CrystalPolyhedron extends Crystal {
   private int[]           cryoCrystSizeVoxels;
 
   /**
-   * Dose and fluence arrays holding the scalar
-   * fields for these values at voxel i,j,k.
+   * Distance between neighbouring voxels along i and j in the flat voxel
+   * arrays. Voxel i, j, k is stored at index (i * ny + j) * nz + k.
    */
-  private final double[][][]    dose, fluence, elastic;
+  private final int             strideI, strideJ;
 
   /**
-   * Escape factor (% of photoelectrons which remain within the crystal)
-   * for each voxel coordinate i, j, k.
+   * Dose and fluence fields holding the scalar
+   * values at voxel i,j,k, stored at the storage precision of the crystal.
    */
-  private final double[][][]    escapeFactor;
+  private final VoxelField      dose, fluence, elastic;
 
   /**
    * Constants for calculation of Gumbel distribution mu and beta parameters.
@@ -80,11 +80,6 @@ public class CrystalPolyhedron extends Crystal {
    */
   private int peDistBins;
   
-  //to test
-  private double fldose = 0;
-  private double flRelease = 0;
-  private double peRelease = 0;
-  
   /**
    * Stores the percentage of crystal and cryo density to weight for track length calculation
    */
@@ -111,6 +106,20 @@ public class CrystalPolyhedron extends Crystal {
   
   private static final int   FL_ANGLE_RESOLUTION = 1;
   private static final int   FL_ANGLE_RES_LIMIT = 16;
+
+  /** Number of tracks each voxel sends its dose along. */
+  private static final int   PE_TRACKS_PER_VOXEL =
+      PE_ANGLE_RESOLUTION * PE_ANGLE_RESOLUTION;
+  private static final int   FL_TRACKS_PER_VOXEL =
+      FL_ANGLE_RESOLUTION * FL_ANGLE_RESOLUTION;
+
+  /**
+   * Random streams of the photoelectron, fluorescence and surrounding
+   * photoelectron tracks, see Crystal.trackRandom().
+   */
+  private static final int   RANDOM_STREAM_PE      = 0;
+  private static final int   RANDOM_STREAM_FL      = 1;
+  private static final int   RANDOM_STREAM_PE_CRYO = 2;
   
   /**
    * Stores the number of tracks used for fluorescence 
@@ -118,15 +127,46 @@ public class CrystalPolyhedron extends Crystal {
   private int numberOfTracksFL;
   
   /**
-   * Stores the indexes of the tracks, biased so a more likely tracks is stored proportionally more times
+   * Photoelectron tracks in the crystal and in the surrounding solution,
+   * built for the current beam and rotated to the current image.
    */
-  private int [] trackNumberBias;
-  
+  private PhotoelectronTracks peTracks, cryoPETracks;
+
+  /**
+   * The tracks rotated last. Their sampler picks the tracks both in the
+   * crystal and in the surrounding solution.
+   */
+  private PhotoelectronTracks trackSampler;
+
   /**
-   * 3d array for voxels where photoelectrons can reach
+   * Whole voxel offsets of the photoelectron tracks in the crystal at each
+   * distance bin, for the current image.
    */
-  private  double[][][] relativeVoxXYZ;
-  private  double[][][] relativeVoxXYZCryoCrystal;
+  private EscapeStencil peStencil;
+
+  /** Whole voxel offsets of the fluorescence tracks of each element. */
+  private EscapeStencil[] flStencils;
+
+  /**
+   * Distance of each voxel to the nearest voxel without crystal, from
+   * EscapeStencil.interiorDistances(). Escape from voxels further in than
+   * the radius of a stencil stays in the crystal and needs no checks.
+   */
+  private byte[] interiorDistance;
+
+  /**
+   * Photoelectron dose collected from the voxels of the current image for
+   * the CONVOLUTION escape engine, and its total.
+   */
+  private EscapeConvolution peConvolution;
+  private double peCollected;
+
+  /**
+   * Fluorescence dose collected from the voxels of the current image for
+   * the CONVOLUTION escape engine, and its total.
+   */
+  private EscapeConvolution flConvolution;
+  private double flCollected;
   
   /**
    * Has the photoelectron angular distribution based on the material
@@ -143,12 +183,6 @@ public class CrystalPolyhedron extends Crystal {
    */
   public int cryoCoordinateShift;
   
-  /**
-   * 5d array for voxels where fluorescence can reach
-   * the first two dimensions are element and shell
-   */
-  //private double[][][][][] flRelativeVoxXYZ;
-  private double[][][][] flRelativeVoxXYZ;
   /**
    * Proportion of voxel dose deposited at each distance
    * from voxel due to photoelectron escape
@@ -163,19 +197,18 @@ public class CrystalPolyhedron extends Crystal {
  // private double[][][] flDistanceDistribution; 
   private double[][] flDistanceDistribution;
   /**
-   * A boolean (int for extensibility to deeper segmentation) array.
-   * Fourth dimension is a two element array, first element
-   * is a flag (calculated/not calculated) and second element is
-   * a boolean (crystal/not crystal).
+   * Crystal occupancy of each voxel, calculated for the whole grid when the
+   * crystal is constructed.
    */
-  private final boolean[][][][] crystOcc;
+  private final OccupancyBits   crystOcc;
 
-  /**
-   * 4d array where the 4th dimension is a 3 element array with the coordinates
-   * of the voxel i,j,k in the starting position.
-   */
-  private final double[][][][]  crystCoord;
-  private double[][][][]  cryoCrystCoord;
+  /** Number of i planes below which voxelisation is not split further. */
+  private static final int      VOXELISE_PLANES = 4;
+
+  /** Coordinates of the voxel i,j,k in the starting position. */
+  private final VoxelCoordinates crystCoordinates;
+  /** Coordinates of the voxels of the surrounding solution. */
+  private VoxelCoordinates      cryoCoordinates;
 
   /**
    * Vertex array containing a variable number of 3-dimension vertices.
@@ -215,13 +248,66 @@ public class CrystalPolyhedron extends Crystal {
    */
   private double[]              originDistances, rotatedOriginDistances;
 
+  /** Direction of the rays cast to find depths and occupancy. */
+  private static final double[] Z_AXIS = { 0, 0, 1 };
+
+  /**
+   * Hierarchy over the triangles in the starting orientation, used to
+   * determine occupancy. Built on first use.
+   */
+  private volatile BoundingVolumeHierarchy occupancyHierarchy;
+
+  /** Vertices of each triangle in the starting orientation. */
+  private double[][][]          expandedVertices;
+
+  /** Hierarchy over the rotated triangles of the current angle. */
+  private BoundingVolumeHierarchy depthHierarchy;
+
+  /**
+   * Depth buffer of the rotated triangles of the current angle, used
+   * instead of depthHierarchy by the ZBUFFER depth engine.
+   */
+  private DepthBuffer           depthBuffer;
+
+  /** Per-thread scratch arrays for ray casting. */
+  private final ThreadLocal<RayScratch> rayScratch =
+      new ThreadLocal<RayScratch>() {
+        @Override
+        protected RayScratch initialValue() {
+          return new RayScratch(indices.length);
+        }
+      };
+
+  /**
+   * Scratch arrays for casting a ray through the triangles of the crystal.
+   */
+  private static final class RayScratch {
+    /** Traversal stack of the triangle hierarchy. */
+    private final int[]    stack = new int[BoundingVolumeHierarchy.STACK_SIZE];
+    /** Triangles the ray may cross. */
+    private final int[]    candidates;
+    /** Sorted distances to the triangles the ray crosses. */
+    private final double[] distances;
+    /** Origin of the ray. */
+    private final double[] origin = new double[3];
+
+    /**
+     * @param triangleCount
+     *          number of triangles of the crystal.
+     */
+    RayScratch(final int triangleCount) {
+      candidates = new int[triangleCount];
+      distances = new double[triangleCount];
+    }
+  }
+
   /**
    * Vector class containing magical vector methods
    * like cross products and magnitudes.
    *
    * @author magd3052
    */
-  private static class Vector {
+  static class Vector {
     /**
      * Returns magnitude of 3D vector.
      *
@@ -567,56 +653,26 @@ public class CrystalPolyhedron extends Crystal {
     int nz = (int) StrictMath.round(zdim * crystalPixPerUM) + 1;
     int[] tempCrystSize = { nx, ny, nz };
     crystSizeVoxels = tempCrystSize; // Final Value
+    // flat voxel indices must fit in an int
+    flatSize(nx, ny, nz);
+    strideJ = nz;
+    strideI = ny * nz;
 
     // Initialise dose, elastic, and fluence to the correct size
-    dose = new double[nx][ny][nz];
-    fluence = new double[nx][ny][nz];
-    elastic = new double[nx][ny][nz];
+    dose = VoxelField.create(crystSizeVoxels, storagePrecision, voxelStore);
+    fluence = VoxelField.create(crystSizeVoxels, storagePrecision,
+        voxelStore);
+    elastic = VoxelField.create(crystSizeVoxels, storagePrecision,
+        voxelStore);
 
     // Initialise crystal occupancy to correct size
-    crystOcc = new boolean[nx][ny][nz][2];
-
-    /*
-     * Calculate Crystal Coordinates, and assign them:
-     * (This needs to be turned into a rotation-based subroutine!)
-     */
+    crystOcc = new OccupancyBits(nx, ny, nz);
 
-    double[][][][] tempCrystCoords = new double[nx][ny][nz][3];
-
-    for (int i = 0; i < nx; i++) {
-      for (int j = 0; j < ny; j++) {
-        for (int k = 0; k < nz; k++) {
-
-          /*
-           * Set original coordinate. Temporary variables needed since we use
-           * all of the previous xyz's to set each of the new ones.
-           */
-          double x = -xshift + i / crystalPixPerUM;
-          double y = -yshift + j / crystalPixPerUM;
-          double z = -zshift + k / crystalPixPerUM;
-
-          /*
-           * rotation in plane about [0 0 1] (P) Temporary variables needed
-           * since we use all of the previous xyz's to set each of the new ones.
-           */
-          double x2 = x * Math.cos(p) + y * Math.sin(p);
-          double y2 = -1 * x * Math.sin(p) + y * Math.cos(p);
-          double z2 = z;
-
-          /*
-           * rotation loop about [1 0 0] (L)
-           */
-          tempCrystCoords[i][j][k][0] = x2;
-          tempCrystCoords[i][j][k][1] = y2 * Math.cos(l) + z2 * Math.sin(l);
-          tempCrystCoords[i][j][k][2] = -1 * y2 * Math.sin(l) + z2
-              * Math.cos(l);
-        }
-      }
-    }
+    crystCoordinates = new VoxelCoordinates(xshift, yshift, zshift,
+        crystalPixPerUM, p, l);
 
-    crystCoord = tempCrystCoords; // Final value
+    voxelise();
 
-    escapeFactor = new double[nx][ny][nz];
     
     // Initialise beam-independent crystal photoelectron escape properties
     //Get fl bins  
@@ -682,39 +738,38 @@ public class CrystalPolyhedron extends Crystal {
     Double yshift = -yMinMax[0] + (extraVoxels/pixelsPerMicron);
     Double zshift = -zMinMax[0] + (extraVoxels/pixelsPerMicron);
     
-    double[][][][] tempCrystCoords = new double[nx][ny][nz][3];
-    
-    for (int i = 0; i < nx ; i++) {
-      for (int j = 0; j < ny ; j++) { 
-        for (int k = 0; k < nz ; k++) { //loop through voxels for this crystal
-          /*
-           * Set original coordinate. Temporary variables needed since we use
-           * all of the previous xyz's to set each of the new ones.
-           */
-          
-            double x = -xshift + (i / pixelsPerMicron);
-            double y = -yshift + (j / pixelsPerMicron);
-            double z = -zshift + (k / pixelsPerMicron);
-
-          /*
-           * rotation in plane about [0 0 1] (P) Temporary variables needed
-           * since we use all of the previous xyz's to set each of the new ones.
-           */
-          double x2 = x * Math.cos(p) + y * Math.sin(p);
-          double y2 = -1 * x * Math.sin(p) + y * Math.cos(p);
-          double z2 = z;
-
-          /*
-           * rotation loop about [1 0 0] (L)
-           */
-          tempCrystCoords[i][j][k][0] = x2;
-          tempCrystCoords[i][j][k][1] = y2 * Math.cos(l) + z2 * Math.sin(l);
-          tempCrystCoords[i][j][k][2] = -1 * y2 * Math.sin(l) + z2
-              * Math.cos(l); 
-        }
-      }
-    }  
-    cryoCrystCoord = tempCrystCoords;
+    cryoCoordinates = new VoxelCoordinates(xshift, yshift, zshift,
+        pixelsPerMicron, p, l);
+  }
+
+  /**
+   * Returns the number of voxels of a grid, which is the length of the flat
+   * arrays holding its voxel values.
+   *
+   * @param nx number of voxels along i
+   * @param ny number of voxels along j
+   * @param nz number of voxels along k
+   * @return number of voxels
+   */
+  private static int flatSize(final int nx, final int ny, final int nz) {
+    long voxels = (long) nx * ny * nz;
+    if (voxels > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Voxel grid of " + nx + " x " + ny
+          + " x " + nz + " voxels is too large, reduce the resolution");
+    }
+    return (int) voxels;
+  }
+
+  /**
+   * Returns the index of voxel i, j, k in the flat voxel arrays.
+   *
+   * @param i i
+   * @param j j
+   * @param k k
+   * @return index into dose, fluence, elastic etc.
+   */
+  private int voxelIndex(final int i, final int j, final int k) {
+    return i * strideI + j * strideJ + k;
   }
   
   private double setCryoPPM(final Beam beam, final int maxPEDistance,
@@ -820,8 +875,8 @@ public class CrystalPolyhedron extends Crystal {
   }
 
   /**
-   * Calculates crystal occupancy at i, j, k, returns value
-   * and sets crystOcc at a given i, j, k.
+   * Calculates crystal occupancy at i, j, k by casting a ray from the voxel.
+   * isCrystalAt() returns the same value from the grid built by voxelise().
    *
    * @param i i
    * @param j j
@@ -830,47 +885,264 @@ public class CrystalPolyhedron extends Crystal {
    */
   public boolean calculateCrystalOccupancy(final int i, final int j, final int k)
   {
-    if (normals == null) {
-      calculateNormals(false);
+    BoundingVolumeHierarchy hierarchy = occupancyHierarchy;
+    if (hierarchy == null) {
+      hierarchy = buildOccupancyHierarchy();
     }
 
     boolean inside = false;
 
-    double[] directionVector = { 0, 0, 1 };
-    double[] origin = crystCoord[i][j][k];
+    final RayScratch scratch = rayScratch.get();
+    final double[] origin = scratch.origin;
+    getCrystCoord(i, j, k, origin);
 
-    for (int l = 0; l < indices.length; l++) {
-      double intersectionDistance = Vector.rayTraceDistance(normals[l],
-          directionVector, origin, originDistances[l]);
+    // The ray runs along z, so it meets each plane at the x and y of origin.
+    final int candidateCount = hierarchy.findCandidates(origin[0], origin[1],
+        scratch.candidates, scratch.stack);
 
-      Double distanceObject = Double.valueOf(intersectionDistance);
+    for (int c = 0; c < candidateCount; c++) {
+      int l = scratch.candidates[c];
+      double intersectionDistance = Vector.rayTraceDistance(normals[l],
+          Z_AXIS, origin, originDistances[l]);
 
-      if (intersectionDistance < 0 || distanceObject.isNaN()
-          || distanceObject.isInfinite()) {
+      if (intersectionDistance < 0 || Double.isNaN(intersectionDistance)
+          || Double.isInfinite(intersectionDistance)) {
         continue;
       }
 
-      double[] intersectionPoint = Vector.rayTraceToPointWithDistance(
-          directionVector, origin, intersectionDistance);
+      boolean crosses = Vector.polygonInclusionTest(expandedVertices[l],
+          origin);
+
+      if (crosses) {
+        inside = !inside;
+      }
+    }
+
+    return inside;
+  }
 
-      double[][] triangleVertices = new double[3][3];
+  /**
+   * Calculates the normals of the triangles in the starting orientation
+   * and the hierarchy used to find occupancy, unless another thread has
+   * already done so.
+   *
+   * @return hierarchy over the triangles in the starting orientation
+   */
+  private synchronized BoundingVolumeHierarchy buildOccupancyHierarchy() {
+    if (occupancyHierarchy == null) {
+      calculateNormals(false);
+      expandedVertices = new double[indices.length][3][3];
+      for (int l = 0; l < indices.length; l++) {
+        for (int m = 0; m < 3; m++) {
+          System.arraycopy(vertices[indices[l][m] - 1], 0,
+              expandedVertices[l][m], 0, 3);
+        }
+      }
+      occupancyHierarchy = new BoundingVolumeHierarchy(expandedVertices);
+    }
+    return occupancyHierarchy;
+  }
 
-      // copy vertices referenced by indices into single array for
-      // passing onto the polygon inclusion test.
+  /**
+   * Calculates the occupancy of every voxel, one column of k at a time.
+   *
+   * The columns are parallel to z before the loop rotation L is applied, so
+   * the triangles are rotated back by L. Each column is then a single ray
+   * along z: the triangles it crosses are found once, and every voxel of the
+   * column is inside if an odd number of them lies at or above it. For
+   * every voxel this is the same test as calculateCrystalOccupancy(). The
+   * i planes are shared between Crystal.getExposureThreads() threads.
+   */
+  private void voxelise() {
+    final double cosL = Math.cos(l);
+    final double sinL = Math.sin(l);
+    final double[][] gridVertices = new double[vertices.length][3];
+    for (int v = 0; v < vertices.length; v++) {
+      gridVertices[v][0] = vertices[v][0];
+      gridVertices[v][1] = vertices[v][1] * cosL - vertices[v][2] * sinL;
+      gridVertices[v][2] = vertices[v][1] * sinL + vertices[v][2] * cosL;
+    }
+
+    final double[][][] triangles = new double[indices.length][3][3];
+    final double[][] planeNormals = new double[indices.length][];
+    final double[] planeDistances = new double[indices.length];
+    for (int t = 0; t < indices.length; t++) {
       for (int m = 0; m < 3; m++) {
-        System.arraycopy(vertices[indices[l][m] - 1], 0, triangleVertices[m],
+        System.arraycopy(gridVertices[indices[t][m] - 1], 0, triangles[t][m],
             0, 3);
       }
+      // same arithmetic as calculateNormals()
+      double[] point1 = triangles[t][0];
+      double[] normalVector = Vector.normalisedCrossProduct(
+          Vector.vectorBetweenPoints(point1, triangles[t][1]),
+          Vector.vectorBetweenPoints(point1, triangles[t][2]));
+      planeNormals[t] = normalVector;
+      planeDistances[t] = -(normalVector[0] * point1[0]
+          + normalVector[1] * point1[1] + normalVector[2] * point1[2]);
+    }
 
-      boolean crosses = Vector.polygonInclusionTest(triangleVertices,
-          intersectionPoint);
+    final ColumnVoxelisation all = new ColumnVoxelisation(
+        new BoundingVolumeHierarchy(triangles), triangles, planeNormals,
+        planeDistances, cosL, sinL, 0, crystSizeVoxels[0]);
+    final int threads = Crystal.getExposureThreads();
+    if (threads > 1) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        pool.invoke(all);
+      } finally {
+        pool.shutdown();
+      }
+    } else {
+      all.voxelisePlanes();
+    }
+  }
 
-      if (crosses) {
-        inside = !inside;
+  /**
+   * Fork/join task calculating the occupancy of a range of i planes.
+   */
+  @SuppressWarnings("serial")
+  private final class ColumnVoxelisation extends RecursiveAction {
+    /** Hierarchy over the triangles rotated back by L. */
+    private final BoundingVolumeHierarchy hierarchy;
+    /** Vertices of each triangle rotated back by L. */
+    private final double[][][]            triangles;
+    /** Normal of the plane of each triangle. */
+    private final double[][]              planeNormals;
+    /** Distance of the plane of each triangle from the origin. */
+    private final double[]                planeDistances;
+    /** Cosine and sine of the loop rotation L. */
+    private final double                  cosL, sinL;
+    /** First i plane of the range. */
+    private final int                     start;
+    /** i plane after the last one of the range. */
+    private final int                     end;
+
+    /** Scratch arrays of the hierarchy traversal. */
+    private int[]                         stack, candidates;
+    /** Plane terms of the triangles crossed by the current column. */
+    private double[]                      partialDot, directionDot,
+        crossedNormalZ, crossedDistance;
+    /** Coordinates of the voxels of the current column. */
+    private double[]                      columnX, columnY, columnZ;
+
+    /**
+     * @param hierarchy hierarchy over the triangles
+     * @param triangles triangle vertices rotated back by L
+     * @param planeNormals normals of the triangle planes
+     * @param planeDistances distances of the triangle planes from the origin
+     * @param cosL cosine of L
+     * @param sinL sine of L
+     * @param start first i plane
+     * @param end i plane after the last one
+     */
+    ColumnVoxelisation(final BoundingVolumeHierarchy hierarchy,
+        final double[][][] triangles, final double[][] planeNormals,
+        final double[] planeDistances, final double cosL, final double sinL,
+        final int start, final int end) {
+      this.hierarchy = hierarchy;
+      this.triangles = triangles;
+      this.planeNormals = planeNormals;
+      this.planeDistances = planeDistances;
+      this.cosL = cosL;
+      this.sinL = sinL;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= VOXELISE_PLANES) {
+        voxelisePlanes();
+      } else {
+        int mid = (start + end) >>> 1;
+        invokeAll(
+            new ColumnVoxelisation(hierarchy, triangles, planeNormals,
+                planeDistances, cosL, sinL, start, mid),
+            new ColumnVoxelisation(hierarchy, triangles, planeNormals,
+                planeDistances, cosL, sinL, mid, end));
       }
     }
 
-    return inside;
+    /** Calculates the occupancy of the voxels in the i planes of the range. */
+    private void voxelisePlanes() {
+      stack = new int[BoundingVolumeHierarchy.STACK_SIZE];
+      candidates = new int[triangles.length];
+      partialDot = new double[triangles.length];
+      directionDot = new double[triangles.length];
+      crossedNormalZ = new double[triangles.length];
+      crossedDistance = new double[triangles.length];
+      columnX = new double[crystSizeVoxels[2]];
+      columnY = new double[crystSizeVoxels[2]];
+      columnZ = new double[crystSizeVoxels[2]];
+
+      for (int i = start; i < end; i++) {
+        for (int j = 0; j < crystSizeVoxels[1]; j++) {
+          voxeliseColumn(i, j);
+        }
+      }
+    }
+
+    /**
+     * Calculates the occupancy of the voxels in column (i, j).
+     *
+     * @param i i
+     * @param j j
+     */
+    private void voxeliseColumn(final int i, final int j) {
+      // x and y of the column before the loop rotation L
+      crystCoordinates.getColumn(i, j, 0, crystSizeVoxels[2], columnX,
+          columnY, columnZ);
+      final double originX = columnX[0];
+      final double originY = columnY[0] * cosL - columnZ[0] * sinL;
+      final double[] origin = { originX, originY, 0 };
+
+      int crossings = 0;
+      int candidateCount = hierarchy.findCandidates(originX, originY,
+          candidates, stack);
+      for (int c = 0; c < candidateCount; c++) {
+        int t = candidates[c];
+        if (Vector.polygonInclusionTest(triangles[t], origin)) {
+          // Vector.rayTraceDistance() evaluated up to the z terms, in the
+          // same order so that the result is identical.
+          double[] normal = planeNormals[t];
+          partialDot[crossings] = 0 + originX * normal[0]
+              + originY * normal[1];
+          directionDot[crossings] = 0 + Z_AXIS[0] * normal[0]
+              + Z_AXIS[1] * normal[1] + Z_AXIS[2] * normal[2];
+          crossedNormalZ[crossings] = normal[2];
+          crossedDistance[crossings] = planeDistances[t];
+          crossings++;
+        }
+      }
+      if (crossings == 0) {
+        return;
+      }
+
+      for (int k = 0; k < crystSizeVoxels[2]; k++) {
+        double originZ = columnY[k] * sinL + columnZ[k] * cosL;
+        boolean inside = false;
+        for (int c = 0; c < crossings; c++) {
+          double intersectionDistance = -(partialDot[c]
+              + originZ * crossedNormalZ[c] + crossedDistance[c])
+              / directionDot[c];
+          if (intersectionDistance >= 0
+              && !Double.isInfinite(intersectionDistance)) {
+            inside = !inside;
+          }
+        }
+        crystOcc.set(i, j, k, inside);
+      }
+    }
+  }
+
+  /**
+   * The mesh is moved rigidly, translated and then rotated, so the depth of
+   * a point only depends on the angle and its position relative to the
+   * mesh.
+   */
+  @Override
+  protected boolean isDepthTranslationInvariant() {
+    return true;
   }
 
   /*
@@ -923,6 +1195,17 @@ public class CrystalPolyhedron extends Crystal {
             expandedRotatedVertices[i][j], 0, 3);
       }
     }
+
+    if (depthEngine == DEPTH_ENGINE_ZBUFFER) {
+      if (depthBuffer == null) {
+        depthBuffer = new DepthBuffer(1 / (getCrystalPixPerUM()
+            * depthSampling));
+      }
+      depthBuffer.render(expandedRotatedVertices, rotatedNormals,
+          rotatedOriginDistances);
+    } else {
+      depthHierarchy = new BoundingVolumeHierarchy(expandedRotatedVertices);
+    }
   }
 
   /*
@@ -934,52 +1217,54 @@ public class CrystalPolyhedron extends Crystal {
   @Override
   public double findDepth(final double[] voxCoord, final double deltaPhi,
       final Wedge myWedge) {
-    double[] zAxis = { 0, 0, 1 };
+    if (depthEngine == DEPTH_ENGINE_ZBUFFER) {
+      return depthBuffer.depth(voxCoord);
+    }
 
-    List<Double> distancesFound = new ArrayList<Double>();
+    final RayScratch scratch = rayScratch.get();
+    final double[] distancesFound = scratch.distances;
+    int found = 0;
 
-    for (int i = 0; i < indices.length; i++) {
+    // The ray runs along z, so it meets each plane at the x and y of the
+    // voxel and only triangles whose xy extent contains them can be hit.
+    final int candidateCount = depthHierarchy.findCandidates(voxCoord[0],
+        voxCoord[1], scratch.candidates, scratch.stack);
+
+    for (int c = 0; c < candidateCount; c++) {
+      int i = scratch.candidates[c];
       double intersectionDistance = (-1)
           * Vector.rayTraceDistance(rotatedNormals[i],
-              zAxis, voxCoord, rotatedOriginDistances[i]);
-
-      Double distanceObject = Double.valueOf(intersectionDistance);
+              Z_AXIS, voxCoord, rotatedOriginDistances[i]);
 
-      if (intersectionDistance <= 0 || distanceObject.isNaN()
-          || distanceObject.isInfinite()) {
+      if (intersectionDistance <= 0 || Double.isNaN(intersectionDistance)
+          || Double.isInfinite(intersectionDistance)) {
         continue;
       }
 
-      double[] intersectionPoint = Vector.rayTraceToPointWithDistance(
-          zAxis, voxCoord, intersectionDistance);
-
       boolean crosses = Vector.polygonInclusionTest(expandedRotatedVertices[i],
-          intersectionPoint);
+          voxCoord);
 
       if (crosses) {
-        distancesFound.add(Double.valueOf(intersectionDistance));
-      }
-    }
-
-    Collections.sort(distancesFound);
-
-    for (int i = 0; i < distancesFound.size() - 1; i++) {
-      if (distancesFound.get(i + 1) == distancesFound.get(i)) {
-        distancesFound.remove(i + 1);
+        // insert keeping the distances sorted
+        int position = found++;
+        while (position > 0
+            && distancesFound[position - 1] > intersectionDistance) {
+          distancesFound[position] = distancesFound[position - 1];
+          position--;
+        }
+        distancesFound[position] = intersectionDistance;
       }
     }
 
     // sanity check that point is within crystal
-    if (distancesFound.isEmpty() || distancesFound.size() % 2 == 0) {
+    if (found == 0 || found % 2 == 0) {
       return 0;
     }
 
-    double depth = distancesFound.get(0).doubleValue();
-
-    for (int i = 1; i < distancesFound.size(); i += 2) {
-      Double addition = distancesFound.get(i + 1) - distancesFound.get(i);
+    double depth = distancesFound[0];
 
-      depth += addition.doubleValue();
+    for (int i = 1; i < found; i += 2) {
+      depth += distancesFound[i + 1] - distancesFound[i];
     }
     /*
      * if (deltaPhi == 0) {
@@ -1192,7 +1477,6 @@ public class CrystalPolyhedron extends Crystal {
     } 
     
    propnDoseDepositedAtDist = new double[peDistBins];
-   relativeVoxXYZ = new double[peDistBins][PE_ANGLE_RES_LIMIT * PE_ANGLE_RES_LIMIT][3];
   }
   
   /**
@@ -1229,7 +1513,6 @@ public class CrystalPolyhedron extends Crystal {
     } 
     
     propnDoseDepositedAtDistCryo = new double[peDistBins];
-    relativeVoxXYZCryoCrystal = new double[peDistBins][PE_ANGLE_RES_LIMIT * PE_ANGLE_RES_LIMIT][3];
   }
   /*
    * (non-Javadoc)
@@ -1294,7 +1577,30 @@ public class CrystalPolyhedron extends Crystal {
     GUMBEL_DISTN_CALC_SCALE = setGumbelScale(density, peEnergy);
     //first of all need to get PE distances 
     setMaxPEDistance(beamEnergy);
-    angularDistribution = setUpPEPolarisation(coefCalc, beamEnergy, feFactors, false);
+    double[] distribution = setUpPEPolarisation(coefCalc, beamEnergy, feFactors, false);
+    // the tracks of earlier wedges still hold if the distribution is the same
+    if (peTracks == null || !Arrays.equals(distribution, angularDistribution)) {
+      peTracks = new PhotoelectronTracks(distribution, PE_ANGLE_RES_LIMIT,
+          verticalGoniometer);
+    }
+    angularDistribution = distribution;
+    peStencil = new EscapeStencil(peTracks.getTrackCount(), peDistBins,
+        strideI, strideJ);
+    if (escapeEngine == ESCAPE_ENGINE_CONVOLUTION) {
+      // no track rounds to an offset beyond its longest distance
+      int radius = (int) Math.ceil(PE_DISTANCES_TRAVELLED[peDistBins - 1]
+          * this.crystalPixPerUM);
+      if (peConvolution == null || peConvolution.getRadius() != radius) {
+        // let the old grid be collected before allocating the new one
+        peConvolution = null;
+        peConvolution = new EscapeConvolution(crystSizeVoxels[0],
+            crystSizeVoxels[1], crystSizeVoxels[2], radius);
+      }
+    }
+    if (interiorDistance == null) {
+      interiorDistance = EscapeStencil.interiorDistances(crystOcc,
+          crystSizeVoxels[0], crystSizeVoxels[1], crystSizeVoxels[2]);
+    }
  //   findVoxelsReachedByPE(false, coefCalc, beamEnergy, feFactors, 0);
     calcProportionVoxDoseDepositedByDist(beamEnergy);  
     
@@ -1323,7 +1629,13 @@ public class CrystalPolyhedron extends Crystal {
     
     
   //  findVoxelsReachedByPE(true, coefCalc, beamEnergy, feFactors);
-    cryoAngularDistribution = setUpPEPolarisation(coefCalc, beamEnergy, feFactors, true);
+    double[] distribution = setUpPEPolarisation(coefCalc, beamEnergy, feFactors, true);
+    if (cryoPETracks == null
+        || !Arrays.equals(distribution, cryoAngularDistribution)) {
+      cryoPETracks = new PhotoelectronTracks(distribution, PE_ANGLE_RES_LIMIT,
+          verticalGoniometer);
+    }
+    cryoAngularDistribution = distribution;
     calcProportionVoxDoseDepositedByDistCryo(beamEnergy);  
   }
   
@@ -1334,6 +1646,22 @@ public class CrystalPolyhedron extends Crystal {
     //find voxels is done with pe
     calcFluorescenceDistribution(feFactors);  
     findVoxelsReachedByFL(feFactors);
+    if (escapeEngine == ESCAPE_ENGINE_CONVOLUTION) {
+      int radius = 0;
+      for (EscapeStencil stencil : flStencils) {
+        radius = Math.max(radius, stencil.getRadius());
+      }
+      if (flConvolution == null || flConvolution.getRadius() != radius) {
+        // let the old grid be collected before allocating the new one
+        flConvolution = null;
+        flConvolution = new EscapeConvolution(crystSizeVoxels[0],
+            crystSizeVoxels[1], crystSizeVoxels[2], radius);
+      }
+    }
+    if (interiorDistance == null) {
+      interiorDistance = EscapeStencil.interiorDistances(crystOcc,
+          crystSizeVoxels[0], crystSizeVoxels[1], crystSizeVoxels[2]);
+    }
   }
   
   /**Sets the Location parameters for the Gumbel distribution based on density
@@ -1532,131 +1860,31 @@ public class CrystalPolyhedron extends Crystal {
   }
 
   /**
-   * finds voxels that lie along the PE tracks
+   * Rotates the photoelectron tracks to the given angle. The tracks and their
+   * weights are built once per beam in setPEparamsForCurrentBeam() and
+   * setCryoPEparamsForCurrentBeam(). For the crystal the rotated tracks are
+   * then rounded to whole voxel offsets at every distance bin.
    */
   @Override
   public void findVoxelsReachedByPE(boolean cryo, CoefCalc coefCalc, final double energy, double[][] feFactors, final double angle) {
-    //way 2
-    //Convert angle to less than 360 if it is more
-    int timesOver = (int) (angle/(2*Math.PI));
-    double thisAngle = angle - (timesOver * 2 *Math.PI);
-    
-    //flip the angle to be opposite direction
-    thisAngle = 2*Math.PI - thisAngle;
-    
-    double[] distribution = null;
     if (cryo == false) {
-      distribution = angularDistribution;
+      trackSampler = peTracks;
     }
     else {
-      distribution = cryoAngularDistribution;
-    }
-    //sum
-    int numbersInArray = 0;
-    for (int i = 0; i < distribution.length; i++){
-      numbersInArray += distribution[i];
+      trackSampler = cryoPETracks;
     }
-    numbersInArray *= PE_ANGLE_RES_LIMIT;
-    
-    numbersInArray *= 1.5;  // This is a messy fix to index out of bounds change properly later
-    
-    double step = 2*Math.PI / PE_ANGLE_RES_LIMIT;
-    int counter = -1;
-    int bigArrayIndex = 0;
-    int[] theBigArray = new int[numbersInArray];
-    
-    for (double theta = 0*Math.PI; theta < 2*Math.PI; theta += step) {
-      for (double phi = 0; phi <= PE_ANGLE_LIMIT/2 ; phi += step) {
-        //Check if this track has already been assigned       
-        boolean replicateTrack = false;
-        
-        if (theta == 0 || theta == (PE_ANGLE_LIMIT / 2)) {
-          if (phi == 0) {
-            replicateTrack = false;
-          }
-          else {
-            replicateTrack = true;
-          }
-        }
-        
-        if (replicateTrack == false) {
-          counter += 1;
-
-          double xNorm = Math.sin(theta) * Math.cos(phi);
-          double yNorm = Math.sin(theta) * Math.sin(phi);
-          double zNorm = Math.cos(theta);
-
-          //weight track in bigarray
-          int runningCheck = 0;
-          
-          //calculate the angle to the x axis (or y axis if horizontal)
-          //using cartesian vectors, cos(theta) = dot product / multiple of magnitudes
-          //x axis vector = (1, 0, 0) so dot product is just xnorm, just yNorm if horizontal
-          double dotProduct = 0;
-          if (verticalGoniometer == true) {
-            dotProduct = xNorm;
-          }else {
-            dotProduct = yNorm;
-          } 
-          double magnitude = Math.sqrt(Math.pow(xNorm, 2) + Math.pow(yNorm, 2) + Math.pow(zNorm, 2));
-          double cosAngleToX = dotProduct / magnitude;
-          double angleToX = Math.acos(cosAngleToX);
-          //find where angle is in distribution
-          int place = (int) Math.rint((angleToX * PE_ANGLE_RES_LIMIT)/PE_ANGLE_LIMIT);
-          
-          if (distribution[place] > 0) {
-            while (runningCheck < distribution[place]) {
-              theBigArray[bigArrayIndex] = counter;
-              runningCheck += 1;
-              bigArrayIndex += 1;
-            }
-          }
-          
-          //Need to apply the rotation matrix here so I shift the x and z axes - shift opposite way to rotation 
-          double xNormrot = xNorm * Math.cos(thisAngle) + zNorm * Math.sin(thisAngle);
-          double zNormrot = -1 * xNorm * Math.sin(thisAngle) + zNorm * Math.cos(thisAngle);
-          
-          for (int m = 0; m < peDistBins; m++) {
-            // calculate r in voxel coordinates rather than pixels
-            double r = 0;
-            if (cryo == false)  {  
-              r = PE_DISTANCES_TRAVELLED[m] * this.crystalPixPerUM; 
-              relativeVoxXYZ[m][counter][0] = r * xNormrot;
-              relativeVoxXYZ[m][counter][1] = r * yNorm;
-              relativeVoxXYZ[m][counter][2] = r * zNormrot;
-            }
-            else {
-              //the r here is for crystal ppm, this is old way
-              r = CRYO_PE_DISTANCES_TRAVELLED[m] * this.crystalPixPerUM;
-              relativeVoxXYZCryoCrystal[m][counter][0] = r * xNormrot;
-              relativeVoxXYZCryoCrystal[m][counter][1] = r * yNorm;
-              relativeVoxXYZCryoCrystal[m][counter][2] = r * zNormrot;
-            }
-          }
+    trackSampler.rotate(angle);
+    if (cryo == false) {
+      peStencil.clearRadius();
+      for (int t = 0; t < peTracks.getTrackCount(); t++) {
+        for (int m = 0; m < peDistBins; m++) {
+          // r in voxel coordinates rather than pixels
+          double r = PE_DISTANCES_TRAVELLED[m] * this.crystalPixPerUM;
+          peStencil.set(t, m, r * peTracks.getX(t), r * peTracks.getY(t),
+              r * peTracks.getZ(t));
         }
       }
     }
-    
-    //count numbers in array, not zeroes at the end - a stupid way of doing it so clean up later
-    boolean pastFirst = false;
-    int actualNumber = 0;
-    for (int j = 0; j < theBigArray.length; j++) {
-        if (pastFirst == true) {
-          if (theBigArray[j] == 0) { //if it goes back to nought this is junk at the end
-            actualNumber = j;
-            break;
-          }
-        }        
-        if (theBigArray[j] > 0) {
-          pastFirst = true;
-        }
-    }
-    int[] actualTrackBias = new int[actualNumber];
-    for (int i = 0; i < actualNumber; i++) {
-      actualTrackBias[i] = theBigArray[i];
-    }
-    
-    trackNumberBias = actualTrackBias;
   }
 
   /**
@@ -1713,8 +1941,11 @@ public class CrystalPolyhedron extends Crystal {
    */
   private void findVoxelsReachedByFL(final double feFactors[][]) {
     double step = PE_ANGLE_LIMIT / FL_ANGLE_RES_LIMIT;  
-    //flRelativeVoxXYZ = new double[feFactors.length][4][flDistBins][FL_ANGLE_RESOLUTION * FL_ANGLE_RESOLUTION][3];
-    flRelativeVoxXYZ = new double[feFactors.length][flDistBins][FL_ANGLE_RES_LIMIT * FL_ANGLE_RES_LIMIT][3];
+    flStencils = new EscapeStencil[feFactors.length];
+    for (int i = 0; i < feFactors.length; i++) {
+      flStencils[i] = new EscapeStencil(FL_ANGLE_RES_LIMIT * FL_ANGLE_RES_LIMIT,
+          flDistBins, strideI, strideJ);
+    }
     int counter = -1;
     for (double phi = 0; phi < PE_ANGLE_LIMIT; phi += step) {
       for (double theta = 0; theta <= PE_ANGLE_LIMIT / 2; theta += step) {
@@ -1749,9 +1980,7 @@ public class CrystalPolyhedron extends Crystal {
           */
               
               double r = flDistancesTravelled[i][m] * this.crystalPixPerUM; 
-              flRelativeVoxXYZ[i][m][counter][0] = r * xNorm;
-              flRelativeVoxXYZ[i][m][counter][1] = r * yNorm;
-              flRelativeVoxXYZ[i][m][counter][2] = r * zNorm;
+              flStencils[i].set(counter, m, r * xNorm, r * yNorm, r * zNorm);
               
             }
           }
@@ -1772,112 +2001,254 @@ public class CrystalPolyhedron extends Crystal {
       final double doseIncreasePE) {
        
     double doseLostFromCrystalPE = 0;  
-      for (int q = 0; q < PE_ANGLE_RESOLUTION*PE_ANGLE_RESOLUTION; q++) { //for every tracks i'm choosing
-        int randomIndex = ThreadLocalRandom.current().nextInt(0, trackNumberBias.length);
-        int randomTrack = trackNumberBias[randomIndex];
+    final int index = voxelIndex(i, j, k);
+    // all offsets of the stencil stay in the crystal if the voxel is further
+    // in than its radius
+    final boolean interior =
+        (interiorDistance[index] & EscapeStencil.MAX_DISTANCE)
+        > peStencil.getRadius();
+    final SplittableRandom random = trackRandom(RANDOM_STREAM_PE, index);
+      for (int q = 0; q < PE_TRACKS_PER_VOXEL; q++) { //for every tracks i'm choosing
+        int randomTrack = trackSampler.sample(random);
+        int entry = peStencil.firstEntry(randomTrack);
+
+        if (interior) {
+          for (int m = 0; m < peDistBins; m++, entry++) {
+            dose.add(index + peStencil.getOffsetIndex(entry),
+                doseIncreasePE * propnDoseDepositedAtDist[m]
+                / PE_TRACKS_PER_VOXEL);
+          }
+          continue;
+        }
  
-        for (int m = 0; m < peDistBins; m++) {   
-          double x = relativeVoxXYZ[m][randomTrack][0];
-          double y = relativeVoxXYZ[m][randomTrack][1];
-          double z = relativeVoxXYZ[m][randomTrack][2];
-
+        for (int m = 0; m < peDistBins; m++, entry++) {   
           // get dose transferred to these located voxels 
           // at the distance r away (due to PE movement)
           double partialDose = doseIncreasePE * propnDoseDepositedAtDist[m]
-              / Math.pow(PE_ANGLE_RESOLUTION,2);
+              / PE_TRACKS_PER_VOXEL;
           
           // add counts to total & total within crystal in order to
           // calculate the proportion for a given r.       
-          if (isCrystalAt((int) StrictMath.round(i + x), (int) StrictMath.round(j + y),
-              (int) StrictMath.round(k + z))) {              
+          if (isCrystalAt(i + peStencil.getOffsetI(entry),
+              j + peStencil.getOffsetJ(entry),
+              k + peStencil.getOffsetK(entry))) {
             // get dose transferred to this new voxel (due to PE movement)
-            addDose((int) StrictMath.round(i + x), (int) StrictMath.round(j + y),
-            (int) StrictMath.round(k + z), partialDose);
+            dose.add(index + peStencil.getOffsetIndex(entry), partialDose);
           } else {
             doseLostFromCrystalPE += partialDose;
-            peRelease += partialDose;
           }
         }    
       }
     return doseLostFromCrystalPE;
   } 
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see se.raddo.raddose3D.Crystal#getEscapeReach()
+   */
+  @Override
+  protected int getEscapeReach() {
+    // the convolution engines gather the dose of the whole image first
+    if (escapeEngine == ESCAPE_ENGINE_CONVOLUTION) {
+      return -1;
+    }
+    int reach = 0;
+    if (photoElectronEscape) {
+      reach = peStencil.getRadius();
+    }
+    if (fluorescentEscape) {
+      for (EscapeStencil stencil : flStencils) {
+        reach = Math.max(reach, stencil.getRadius());
+      }
+    }
+    return reach;
+  }
+
+  @Override
+  protected double collectDoseAfterPE(final int i, final int j, final int k,
+      final double doseIncreasePE) {
+    if (escapeEngine != ESCAPE_ENGINE_CONVOLUTION) {
+      return addDoseAfterPE(i, j, k, doseIncreasePE);
+    }
+    peConvolution.addSource(i, j, k, doseIncreasePE);
+    peCollected += doseIncreasePE;
+    return 0;
+  }
+
+  /**
+   * Spreads the collected photoelectron dose along every track of the
+   * current image, weighted by the probability that addDoseAfterPE() picks
+   * it, so each voxel receives the expected value of the random spread.
+   */
+  @Override
+  protected double spreadCollectedDoseAfterPE() {
+    if (escapeEngine != ESCAPE_ENGINE_CONVOLUTION || peCollected == 0) {
+      return 0;
+    }
+    double kernelTotal = 0;
+    for (int t = 0; t < peTracks.getTrackCount(); t++) {
+      double probability = peTracks.getProbability(t);
+      if (probability == 0) {
+        continue;
+      }
+      int entry = peStencil.firstEntry(t);
+      for (int m = 0; m < peDistBins; m++, entry++) {
+        double weight = probability * propnDoseDepositedAtDist[m];
+        peConvolution.addKernel(peStencil.getOffsetI(entry),
+            peStencil.getOffsetJ(entry), peStencil.getOffsetK(entry), weight);
+        kernelTotal += weight;
+      }
+    }
+    peConvolution.convolve();
+
+    // whatever the tracks carry that does not land on a crystal voxel has
+    // escaped
+    double doseLostFromCrystalPE = peCollected * kernelTotal
+        - depositConvolution(peConvolution);
+    peCollected = 0;
+    return doseLostFromCrystalPE;
+  }
+
+  /**
+   * Adds the result of a convolution to the crystal voxels and clears the
+   * convolution for the next image.
+   *
+   * @param convolution
+   *          convolution holding the dose spread from the current image.
+   * @return
+   *         dose added to the crystal voxels.
+   */
+  private double depositConvolution(final EscapeConvolution convolution) {
+    double deposited = 0;
+    final OccupancySpans spans = getOccupancySpans();
+    for (int i = 0; i < crystSizeVoxels[0]; i++) {
+      for (int j = 0; j < crystSizeVoxels[1]; j++) {
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          for (int k = spans.getRunStart(r); k < spans.getRunEnd(r); k++) {
+            double partialDose = convolution.get(i, j, k);
+            dose.add(voxelIndex(i, j, k), partialDose);
+            deposited += partialDose;
+          }
+        }
+      }
+    }
+    convolution.clear();
+    return deposited;
+  }
   
   @Override
   public double addDoseAfterFL(final int i, final int j, final int k, 
       final double doseIncreaseFL) {
    double doseLostFromCrystalFL = 0;
+   final int index = voxelIndex(i, j, k);
    //choose a random track
-   int randomTrack = ThreadLocalRandom.current().nextInt(0, numberOfTracksFL);
+   int randomTrack = trackRandom(RANDOM_STREAM_FL, index)
+       .nextInt(numberOfTracksFL);
+   final int depth = interiorDistance[index] & EscapeStencil.MAX_DISTANCE;
    
    //for every energy distribution
     for (int n = 0; n < fluorescenceProportionEvent.length; n++) { 
-   //   for (int l = 0; l < 4; l++) { // 0 = K, 1 = L1, 2 = L2, 3 = L3
-    for (int m = 0; m < flDistBins; m++) {   
-      for (int q = 0; q < FL_ANGLE_RESOLUTION*FL_ANGLE_RESOLUTION; q++) { //One loop for now
+      if (fluorescenceProportionEvent[n] == 0) {
+        continue;
+      }
+      EscapeStencil stencil = flStencils[n];
+      boolean interior = depth > stencil.getRadius();
+      int entry = stencil.firstEntry(randomTrack);
+      for (int m = 0; m < flDistBins; m++, entry++) {
+        for (int q = 0; q < FL_TRACKS_PER_VOXEL; q++) { //One loop for now
+          // get dose transferred to these located voxels 
+          // at the distance r away (due to FL movement)
+          double flPartialDose = doseIncreaseFL * fluorescenceProportionEvent[n]
+              * flDistanceDistribution[n][m] / FL_TRACKS_PER_VOXEL;
 
-        double flPartialDose = 0;
-        // get dose transferred to these located voxels 
-        // at the distance r away (due to PE movement)
-        
-     //     if(fluorescenceProportionEvent[n][l] != 0) {
-            if(fluorescenceProportionEvent[n] != 0) {
-   //     flPartialDose = doseIncreaseFL  * fluorescenceProportionEvent[n][l] * flDistanceDistribution[n][l][m] 
-   //         / Math.pow(FL_ANGLE_RESOLUTION,2);
-          flPartialDose = doseIncreaseFL  * fluorescenceProportionEvent[n] * flDistanceDistribution[n][m] 
-              / Math.pow(FL_ANGLE_RESOLUTION,2);
-              
-        //TO TEST
-         fldose += flPartialDose;
-      /*  
-        double x = flRelativeVoxXYZ[n][l][m][q][0];
-        double y = flRelativeVoxXYZ[n][l][m][q][1];
-        double z = flRelativeVoxXYZ[n][l][m][q][2];
-        */
-         
-         //change q for a random number between 0 and 35. 
-         double x = flRelativeVoxXYZ[n][m][randomTrack][0];
-         double y = flRelativeVoxXYZ[n][m][randomTrack][1];  
-         double z = flRelativeVoxXYZ[n][m][randomTrack][2];
-         
-        // add counts to total & total within crystal in order to
-        // calculate the proportion for a given r.     
-        if (isCrystalAt((int) StrictMath.round(i + x), (int) StrictMath.round(j + y),
-            (int) StrictMath.round(k + z))) {              
-          // get dose transferred to this new voxel (due to FL movement)
-          addDose((int) StrictMath.round(i + x), (int) StrictMath.round(j + y),
-          (int) StrictMath.round(k + z), flPartialDose);
-        } else {
-          doseLostFromCrystalFL += flPartialDose;
-          flRelease += flPartialDose;
-        }
+          // add counts to total & total within crystal in order to
+          // calculate the proportion for a given r.     
+          if (interior || isCrystalAt(i + stencil.getOffsetI(entry),
+              j + stencil.getOffsetJ(entry), k + stencil.getOffsetK(entry))) {
+            // get dose transferred to this new voxel (due to FL movement)
+            dose.add(index + stencil.getOffsetIndex(entry), flPartialDose);
+          } else {
+            doseLostFromCrystalFL += flPartialDose;
           }
         }
       }
-  //  }
     }
     return doseLostFromCrystalFL;
   }  
+
+  @Override
+  protected double collectDoseAfterFL(final int i, final int j, final int k,
+      final double doseIncreaseFL) {
+    if (escapeEngine != ESCAPE_ENGINE_CONVOLUTION) {
+      return addDoseAfterFL(i, j, k, doseIncreaseFL);
+    }
+    flConvolution.addSource(i, j, k, doseIncreaseFL);
+    flCollected += doseIncreaseFL;
+    return 0;
+  }
+
+  /**
+   * Spreads the collected fluorescence dose along every track of every
+   * element, as addDoseAfterFL() does along one random track. All elements
+   * release their share of the same dose, so their radial kernels are
+   * weighted by fluorescenceProportionEvent and summed into one, and a
+   * single convolution serves all of them.
+   */
+  @Override
+  protected double spreadCollectedDoseAfterFL() {
+    if (escapeEngine != ESCAPE_ENGINE_CONVOLUTION || flCollected == 0) {
+      return 0;
+    }
+    double kernelTotal = 0;
+    for (int n = 0; n < fluorescenceProportionEvent.length; n++) {
+      if (fluorescenceProportionEvent[n] == 0) {
+        continue;
+      }
+      EscapeStencil stencil = flStencils[n];
+      for (int t = 0; t < numberOfTracksFL; t++) {
+        int entry = stencil.firstEntry(t);
+        for (int m = 0; m < flDistBins; m++, entry++) {
+          double weight = fluorescenceProportionEvent[n]
+              * flDistanceDistribution[n][m] / numberOfTracksFL;
+          flConvolution.addKernel(stencil.getOffsetI(entry),
+              stencil.getOffsetJ(entry), stencil.getOffsetK(entry), weight);
+          kernelTotal += weight;
+        }
+      }
+    }
+    flConvolution.convolve();
+
+    double doseLostFromCrystalFL = flCollected * kernelTotal
+        - depositConvolution(flConvolution);
+    flCollected = 0;
+    return doseLostFromCrystalFL;
+  }
   
   @Override
   public double addDoseAfterPECryo(final double i, final double j, final double k,
       final double energyIncreasePE, final double energyToDoseFactor) {
     double doseBackInCrystalPE = 0;
+    // surrounding voxels are keyed by their position in crystal voxels
+    final SplittableRandom random = trackRandom(RANDOM_STREAM_PE_CRYO,
+        (Double.doubleToLongBits(i) * 31 + Double.doubleToLongBits(j)) * 31
+        + Double.doubleToLongBits(k));
     
-    for (int q = 0; q < PE_ANGLE_RESOLUTION*PE_ANGLE_RESOLUTION; q++) { //for every tracks i'm choosing
+    for (int q = 0; q < PE_TRACKS_PER_VOXEL; q++) { //for every tracks i'm choosing
     //     int randomTrack = ThreadLocalRandom.current().nextInt(0, numberOfTracksPE); //choose one at random
-      int randomIndex = ThreadLocalRandom.current().nextInt(0, trackNumberBias.length);
-      int randomTrack = trackNumberBias[randomIndex];
+      int randomTrack = trackSampler.sample(random);
 
       for (int m = 0; m < peDistBins; m++) { 
-     
-        double x = relativeVoxXYZCryoCrystal[m][randomTrack][0];
-        double y = relativeVoxXYZCryoCrystal[m][randomTrack][1];
-        double z = relativeVoxXYZCryoCrystal[m][randomTrack][2];      
+        //the r here is for crystal ppm, this is old way
+        double r = CRYO_PE_DISTANCES_TRAVELLED[m] * this.crystalPixPerUM;
+        double x = r * cryoPETracks.getX(randomTrack);
+        double y = r * cryoPETracks.getY(randomTrack);
+        double z = r * cryoPETracks.getZ(randomTrack);
 
         // get dose transferred to these located voxels 
         // at the distance r away (due to PE movement)
         double partialDose = energyIncreasePE * propnDoseDepositedAtDistCryo[m]
-            / Math.pow(PE_ANGLE_RESOLUTION,2);
+            / PE_TRACKS_PER_VOXEL;
         partialDose = (partialDose / energyToDoseFactor) * 1E-06; //Energy to Dose in MGy
         
         // add counts to total & total within crystal in order to
@@ -1902,12 +2273,39 @@ public class CrystalPolyhedron extends Crystal {
    */
   @Override
   public double[] getCrystCoord(final int i, final int j, final int k) {
-    return crystCoord[i][j][k];
+    double[] coord = new double[3];
+    crystCoordinates.get(i, j, k, coord);
+    return coord;
+  }
+  
+  @Override
+  public void getCrystCoord(final int i, final int j, final int k,
+      final double[] coord) {
+    crystCoordinates.get(i, j, k, coord);
+  }
+
+  @Override
+  public void getCrystCoordColumn(final int i, final int j, final int kStart,
+      final int kEnd, final double[] x, final double[] y, final double[] z) {
+    crystCoordinates.getColumn(i, j, kStart, kEnd, x, y, z);
   }
   
   @Override
   public double[] getCryoCrystCoord(final int i, final int j, final int k) {
-    return cryoCrystCoord[i][j][k];
+    double[] coord = new double[3];
+    getCryoCrystCoord(i, j, k, coord);
+    return coord;
+  }
+
+  @Override
+  public void getCryoCrystCoord(final int i, final int j, final int k,
+      final double[] coord) {
+    cryoCoordinates.get(i, j, k, coord);
+  }
+
+  @Override
+  OccupancyBits getOccupancyBits() {
+    return crystOcc;
   }
 
   /*
@@ -1917,26 +2315,17 @@ public class CrystalPolyhedron extends Crystal {
    */
   @Override
   public boolean isCrystalAt(final int i, final int j, final int k) {
-    final int[] crystalSize = getCrystSizeVoxels();
-
-    if (i < 0 || i >= crystalSize[0]) {
+    if (i < 0 || i >= crystSizeVoxels[0]) {
       return false;
     }
-    if (j < 0 || j >= crystalSize[1]) {
+    if (j < 0 || j >= crystSizeVoxels[1]) {
       return false;
     }
-    if (k < 0 || k >= crystalSize[2]) {
+    if (k < 0 || k >= crystSizeVoxels[2]) {
       return false;
     }
 
-    boolean[] occ = crystOcc[i][j][k];
-
-    if (!occ[0]) {
-      occ[1] = calculateCrystalOccupancy(i, j, k);
-      occ[0] = true;
-    }
-
-    return occ[1];
+    return crystOcc.get(i, j, k);
   }
 
   /*
@@ -1947,7 +2336,7 @@ public class CrystalPolyhedron extends Crystal {
   @Override
   public void addDose(final int i, final int j, final int k,
       final double doseIncrease) {
-    dose[i][j][k] += doseIncrease; //* escapeFactor[i][j][k];
+    dose.add(voxelIndex(i, j, k), doseIncrease); //* escapeFactor[i][j][k];
   }
 
   /*
@@ -1958,7 +2347,7 @@ public class CrystalPolyhedron extends Crystal {
   @Override
   public void addFluence(final int i, final int j, final int k,
       final double fluenceIncrease) {
-    fluence[i][j][k] += fluenceIncrease;
+    fluence.add(voxelIndex(i, j, k), fluenceIncrease);
 
   }
 
@@ -1970,7 +2359,7 @@ public class CrystalPolyhedron extends Crystal {
   @Override
   public void addElastic(final int i, final int j, final int k,
       final double elasticIncrease) {
-    elastic[i][j][k] += elasticIncrease;
+    elastic.add(voxelIndex(i, j, k), elasticIncrease);
 
   }
 
@@ -2037,7 +2426,7 @@ public class CrystalPolyhedron extends Crystal {
    */
   @Override
   public double getDose(final int i, final int j, final int k) {
-    return dose[i][j][k];
+    return dose.get(voxelIndex(i, j, k));
   }
 
   /*
@@ -2047,7 +2436,7 @@ public class CrystalPolyhedron extends Crystal {
    */
   @Override
   public double getFluence(final int i, final int j, final int k) {
-    return fluence[i][j][k];
+    return fluence.get(voxelIndex(i, j, k));
   }
 
   /*
@@ -2057,7 +2446,47 @@ public class CrystalPolyhedron extends Crystal {
    */
   @Override
   public double getElastic(final int i, final int j, final int k) {
-    return elastic[i][j][k];
+    return elastic.get(voxelIndex(i, j, k));
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see se.raddo.raddose3D.Crystal#nextTouchedVoxel(int, int, int, int)
+   */
+  @Override
+  public int nextTouchedVoxel(final int i, final int j, final int kStart,
+      final int kEnd) {
+    final int first = voxelIndex(i, j, 0);
+    final int end = first + kEnd;
+    int next = dose.nextTouched(first + kStart, end);
+    next = Math.min(next, fluence.nextTouched(first + kStart, next));
+    next = Math.min(next, elastic.nextTouched(first + kStart, next));
+    return next - first;
+  }
+
+  /*
+   * (non-Javadoc)
+   *
+   * @see se.raddo.raddose3D.Crystal#nextUntouchedVoxel(int, int, int, int)
+   */
+  @Override
+  public int nextUntouchedVoxel(final int i, final int j, final int kStart,
+      final int kEnd) {
+    final int first = voxelIndex(i, j, 0);
+    final int end = first + kEnd;
+    int next = first + kStart;
+    // step over the voxels written in any of the fields until none is
+    while (next < end) {
+      int untouched = Math.max(dose.nextUntouched(next, end),
+          Math.max(fluence.nextUntouched(next, end),
+              elastic.nextUntouched(next, end)));
+      if (untouched == next) {
+        break;
+      }
+      next = untouched;
+    }
+    return next - first;
   }
 
   /*
@@ -2082,7 +2511,8 @@ public class CrystalPolyhedron extends Crystal {
    */
   @Override
   public double getEscapeFactor(final int i, final int j, final int k) {
-    return escapeFactor[i][j][k];
+    // escape is modelled explicitly, no voxel has an escape factor
+    return 0;
   }
 
   /**
@@ -0,0 +1,226 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+
+/**
+ * Layered depth buffer of a triangle mesh in the beam frame.
+ *
+ * The mesh is rendered onto a grid of pixels in the xy plane. Every pixel
+ * keeps all the triangles whose projection covers its centre, sorted along
+ * z, so concave crystals are handled without separate peeling passes. A
+ * depth is then found from the triangles of the pixel nearest to the point,
+ * intersecting the ray with their planes at the exact x and y of the point.
+ * Rendering costs time proportional to the number of triangles plus the
+ * number of covered pixels; a lookup only visits the layers of one pixel.
+ * Near an edge between two faces a point may take the plane of the face
+ * covering the pixel centre, so depths there differ from a ray cast by up
+ * to half a pixel times the slope of that plane.
+ */
+final class DepthBuffer {
+  /** Edge length (um) of a pixel. */
+  private final double pixelSize;
+
+  /** Beam frame x and y of the centre of pixel (0, 0). */
+  private double       gridX, gridY;
+
+  /** Number of pixels along x and y. */
+  private int          pixelsX, pixelsY;
+
+  /**
+   * Position in layerTriangle[] of the first layer of each pixel, at
+   * x * pixelsY + y. The last element is the total number of layers.
+   */
+  private int[]        pixelStart    = new int[1];
+
+  /** Triangle of each layer, sorted along z within a pixel. */
+  private int[]        layerTriangle = new int[0];
+
+  /** z of each layer at the pixel centre, used while rendering. */
+  private double[]     layerZ        = new double[0];
+
+  /** Pixel of each layer, used while rendering. */
+  private int[]        layerPixel    = new int[0];
+
+  /** Unit normals of the triangle planes of the last rendered mesh. */
+  private double[][]   normals;
+
+  /** Distances of the triangle planes from the origin. */
+  private double[]     distances;
+
+  /**
+   * Creates an empty buffer.
+   *
+   * @param pixelSize
+   *          edge length of a pixel in um.
+   */
+  DepthBuffer(final double pixelSize) {
+    this.pixelSize = pixelSize;
+  }
+
+  /**
+   * Renders a mesh, replacing the previous one.
+   *
+   * @param triangles
+   *          three vertices of each triangle in the beam frame.
+   * @param planeNormals
+   *          unit normal of each triangle.
+   * @param planeDistances
+   *          distance of the plane of each triangle from the origin.
+   */
+  void render(final double[][][] triangles, final double[][] planeNormals,
+      final double[] planeDistances) {
+    normals = planeNormals;
+    distances = planeDistances;
+
+    double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (double[][] triangle : triangles) {
+      for (double[] vertex : triangle) {
+        minX = Math.min(minX, vertex[0]);
+        maxX = Math.max(maxX, vertex[0]);
+        minY = Math.min(minY, vertex[1]);
+        maxY = Math.max(maxY, vertex[1]);
+      }
+    }
+    if (triangles.length == 0) {
+      minX = maxX = minY = maxY = 0;
+    }
+    gridX = minX;
+    gridY = minY;
+    pixelsX = (int) Math.ceil((maxX - minX) / pixelSize) + 1;
+    pixelsY = (int) Math.ceil((maxY - minY) / pixelSize) + 1;
+    if ((long) pixelsX * pixelsY >= Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Depth buffer of " + pixelsX
+          + " x " + pixelsY + " pixels is too large");
+    }
+
+    // Collect the pixels covered by each triangle that a ray along z can
+    // cross, with the z of the triangle at the pixel centre.
+    int layers = 0;
+    final double[] centre = new double[2];
+    for (int t = 0; t < triangles.length; t++) {
+      double normalZ = planeNormals[t][2];
+      if (normalZ == 0 || Double.isNaN(normalZ)) {
+        continue;
+      }
+      double[][] triangle = triangles[t];
+      int firstX = Math.max(0, (int) Math.ceil((Math.min(triangle[0][0],
+          Math.min(triangle[1][0], triangle[2][0])) - gridX) / pixelSize));
+      int lastX = Math.min(pixelsX - 1, (int) Math.floor((Math.max(
+          triangle[0][0], Math.max(triangle[1][0], triangle[2][0])) - gridX)
+          / pixelSize));
+      int firstY = Math.max(0, (int) Math.ceil((Math.min(triangle[0][1],
+          Math.min(triangle[1][1], triangle[2][1])) - gridY) / pixelSize));
+      int lastY = Math.min(pixelsY - 1, (int) Math.floor((Math.max(
+          triangle[0][1], Math.max(triangle[1][1], triangle[2][1])) - gridY)
+          / pixelSize));
+      for (int x = firstX; x <= lastX; x++) {
+        centre[0] = gridX + x * pixelSize;
+        for (int y = firstY; y <= lastY; y++) {
+          centre[1] = gridY + y * pixelSize;
+          // the same inclusion test as the ray cast, so that a pixel centre
+          // on an edge shared by two triangles is covered by exactly one
+          if (CrystalPolyhedron.Vector.polygonInclusionTest(triangle,
+              centre)) {
+            if (layers == layerTriangle.length) {
+              int capacity = Math.max(1024, 2 * layers);
+              layerTriangle = Arrays.copyOf(layerTriangle, capacity);
+              layerZ = Arrays.copyOf(layerZ, capacity);
+              layerPixel = Arrays.copyOf(layerPixel, capacity);
+            }
+            layerTriangle[layers] = t;
+            layerZ[layers] = -(planeNormals[t][0] * centre[0]
+                + planeNormals[t][1] * centre[1] + planeDistances[t])
+                / normalZ;
+            layerPixel[layers] = x * pixelsY + y;
+            layers++;
+          }
+        }
+      }
+    }
+
+    // Group the layers by pixel with a counting sort.
+    final int pixels = pixelsX * pixelsY;
+    if (pixelStart.length < pixels + 1) {
+      pixelStart = new int[pixels + 1];
+    } else {
+      Arrays.fill(pixelStart, 0, pixels + 1, 0);
+    }
+    for (int l = 0; l < layers; l++) {
+      pixelStart[layerPixel[l] + 1]++;
+    }
+    for (int p = 0; p < pixels; p++) {
+      pixelStart[p + 1] += pixelStart[p];
+    }
+    int[] sortedTriangle = new int[Math.max(1, layers)];
+    double[] sortedZ = new double[Math.max(1, layers)];
+    int[] next = Arrays.copyOf(pixelStart, pixels);
+    for (int l = 0; l < layers; l++) {
+      int position = next[layerPixel[l]]++;
+      sortedTriangle[position] = layerTriangle[l];
+      sortedZ[position] = layerZ[l];
+    }
+
+    // Sort the layers of each pixel along z.
+    for (int p = 0; p < pixels; p++) {
+      for (int l = pixelStart[p] + 1; l < pixelStart[p + 1]; l++) {
+        int triangle = sortedTriangle[l];
+        double z = sortedZ[l];
+        int position = l;
+        while (position > pixelStart[p] && sortedZ[position - 1] > z) {
+          sortedTriangle[position] = sortedTriangle[position - 1];
+          sortedZ[position] = sortedZ[position - 1];
+          position--;
+        }
+        sortedTriangle[position] = triangle;
+        sortedZ[position] = z;
+      }
+    }
+    layerTriangle = sortedTriangle;
+    layerZ = sortedZ;
+  }
+
+  /**
+   * Returns the path length through the mesh from where a ray along z
+   * enters it to a point, following the conventions of
+   * CrystalPolyhedron.findDepth(): 0 if the point is not inside the mesh.
+   *
+   * @param coord
+   *          beam frame coordinates of the point.
+   * @return
+   *         depth in um.
+   */
+  double depth(final double[] coord) {
+    long x = Math.round((coord[0] - gridX) / pixelSize);
+    long y = Math.round((coord[1] - gridY) / pixelSize);
+    if (x < 0 || x >= pixelsX || y < 0 || y >= pixelsY) {
+      return 0;
+    }
+    int pixel = (int) (x * pixelsY + y);
+
+    // Going down from the point, the crossings alternate between leaving
+    // and entering the mesh in the direction of the beam, so the depth sums
+    // their distances with alternating signs, nearest first. The point is
+    // inside if their number is odd.
+    double depth = 0;
+    int below = 0;
+    for (int l = pixelStart[pixel + 1] - 1; l >= pixelStart[pixel]; l--) {
+      int t = layerTriangle[l];
+      double[] normal = normals[t];
+      double distance = (coord[0] * normal[0] + coord[1] * normal[1]
+          + coord[2] * normal[2] + distances[t]) / normal[2];
+      if (distance > 0) {
+        if (below % 2 == 0) {
+          depth += distance;
+        } else {
+          depth -= distance;
+        }
+        below++;
+      }
+    }
+    if (below % 2 == 0) {
+      return 0;
+    }
+    return depth;
+  }
+}
@@ -0,0 +1,117 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the depths of the crystal voxels along the beam, per rotation
+ * angle. Depths are found in the rotated but untranslated frame of the
+ * crystal, so they only depend on the angle and are reused by every wedge
+ * that comes back to it, whatever its start offset and helical translation.
+ * Angles are compared bit for bit, so a cached depth is exactly the one the
+ * depth engine would find again.
+ *
+ * Each field holds a depth per occupied voxel, numbered as by
+ * OccupancySpans.getRunOffset(), and NaN for voxels whose depth has not been
+ * needed yet. The fields are kept within a memory budget, evicting the least
+ * recently used angle first. With a budget too small for a single field
+ * nothing is cached and no field is ever allocated.
+ */
+public final class DepthCache {
+  /** Bytes of memory taken by a depth. */
+  private static final int    BYTES_PER_DEPTH  = 8;
+
+  /** Number of occupied voxels of the crystal. */
+  private final int           voxels;
+
+  /** Largest number of fields kept at once. */
+  private final long          capacity;
+
+  /** Number of lookups that found the field of their angle. */
+  private long                hits;
+
+  /** Fields by angle, in order from least to most recently used. */
+  private final LinkedHashMap<Double, double[]> fields =
+      new LinkedHashMap<Double, double[]>(16, 0.75f, true);
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param voxelCount
+   *          number of occupied voxels of the crystal.
+   * @param budgetBytes
+   *          memory (bytes) the fields may take together.
+   */
+  public DepthCache(final long voxelCount, final long budgetBytes) {
+    if (voxelCount > Integer.MAX_VALUE) {
+      voxels = 0;
+      capacity = 0;
+    } else {
+      voxels = (int) voxelCount;
+      capacity = budgetBytes / (Math.max(1L, voxelCount) * BYTES_PER_DEPTH);
+    }
+  }
+
+  /**
+   * @return largest number of fields kept at once, 0 if nothing is cached.
+   */
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return number of lookups that found the field of their angle.
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns the depth field of a rotation angle, creating an empty one if
+   * the angle is not cached.
+   *
+   * @param angle
+   *          rotation angle in radians.
+   * @return
+   *         depths (um) per occupied voxel, NaN where not yet known, or null
+   *         if not even a single field fits the budget.
+   */
+  public double[] fieldFor(final double angle) {
+    if (capacity == 0) {
+      return null;
+    }
+    // Double.equals() compares the bits of the angles
+    Double key = angle;
+    double[] field = fields.get(key);
+    if (field != null) {
+      hits++;
+      return field;
+    }
+    if (fields.size() < capacity && heapHasRoom()) {
+      field = new double[voxels];
+    } else if (fields.isEmpty()) {
+      return null;
+    } else {
+      // reuse the array of the least recently used field
+      Iterator<Map.Entry<Double, double[]>> eldest =
+          fields.entrySet().iterator();
+      field = eldest.next().getValue();
+      eldest.remove();
+    }
+    Arrays.fill(field, Double.NaN);
+    fields.put(key, field);
+    return field;
+  }
+
+  /**
+   * Returns whether the heap can take another field and still leave as
+   * much again for the rest of the run.
+   */
+  private boolean heapHasRoom() {
+    Runtime runtime = Runtime.getRuntime();
+    long used = runtime.totalMemory() - runtime.freeMemory();
+    return runtime.maxMemory() - used > 2L * voxels * BYTES_PER_DEPTH;
+  }
+}
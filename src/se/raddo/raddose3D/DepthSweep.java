@@ -0,0 +1,274 @@
+package se.raddo.raddose3D;
+
+/**
+ * Depth engine that finds the path length of the beam through the crystal
+ * by a cumulative sweep instead of casting a ray for every voxel.
+ *
+ * For each image the occupancy grid of the crystal is resampled onto a grid
+ * aligned with the beam frame, and the path through crystal up to each cell
+ * is summed along the beam axis, so the cost is proportional to the number
+ * of cells and independent of the crystal type. Depths are then looked up
+ * in that grid. The occupancy is sampled at the nearest voxel, so depths can
+ * be off by up to half a cell at each crossing of the crystal surface; the
+ * sampling factor sets the number of cells per voxel along each axis and
+ * trades memory and time for accuracy.
+ */
+public final class DepthSweep {
+  /** Crystal whose depths are calculated. */
+  private final Crystal  crystal;
+
+  /** Number of voxels of the crystal along i, j and k. */
+  private final int      nx, ny, nz;
+
+  /** Crystal coordinates of voxel (0, 0, 0). */
+  private final double[] originCoord;
+
+  /**
+   * Inverse of the matrix whose columns are the steps in crystal
+   * coordinates from one voxel to the next along i, j and k.
+   */
+  private final double[] toVoxel;
+
+  /** Edge length (um) of a cell of the beam frame grid. */
+  private final double   cellSize;
+
+  /** Beam frame coordinates of the centre of cell (0, 0, 0). */
+  private double         gridX, gridY, gridZ;
+
+  /** Number of cells along x, y and z. */
+  private int            cellsX, cellsY, cellsZ;
+
+  /**
+   * Path length (um) through crystal from outside the grid up to the centre
+   * of each cell, at ((x * cellsY) + y) * cellsZ + z.
+   */
+  private float[]        path = new float[0];
+
+  /**
+   * Creates a depth engine for a crystal. The crystal must be fully
+   * constructed.
+   *
+   * @param crystal
+   *          crystal whose depths are calculated.
+   * @param sampling
+   *          number of cells per voxel along each axis, at least 1.
+   */
+  public DepthSweep(final Crystal crystal, final int sampling) {
+    if (sampling < 1) {
+      throw new IllegalArgumentException(
+          "Depth sampling must be at least 1, not " + sampling);
+    }
+    this.crystal = crystal;
+    int[] size = crystal.getCrystSizeVoxels();
+    nx = size[0];
+    ny = size[1];
+    nz = size[2];
+    cellSize = 1 / (crystal.getCrystalPixPerUM() * sampling);
+
+    originCoord = new double[3];
+    crystal.getCrystCoord(0, 0, 0, originCoord);
+    double[][] steps = {
+        voxelStep(nx - 1, 0, 0),
+        voxelStep(0, ny - 1, 0),
+        voxelStep(0, 0, nz - 1) };
+    double pitch = 1 / crystal.getCrystalPixPerUM();
+    for (int axis = 0; axis < 3; axis++) {
+      if (steps[axis] == null) {
+        // A single voxel thick: any step perpendicular to the other two.
+        double[] a = steps[(axis + 1) % 3];
+        double[] b = steps[(axis + 2) % 3];
+        if (a == null || b == null) {
+          steps[axis] = new double[3];
+          steps[axis][axis] = pitch;
+        } else {
+          double[] cross = {
+              a[1] * b[2] - a[2] * b[1],
+              a[2] * b[0] - a[0] * b[2],
+              a[0] * b[1] - a[1] * b[0] };
+          double norm = Math.sqrt(cross[0] * cross[0] + cross[1] * cross[1]
+              + cross[2] * cross[2]);
+          for (int c = 0; c < 3; c++) {
+            cross[c] *= pitch / norm;
+          }
+          steps[axis] = cross;
+        }
+      }
+    }
+    toVoxel = invertColumns(steps[0], steps[1], steps[2]);
+  }
+
+  /**
+   * Returns the step in crystal coordinates between neighbouring voxels
+   * along the axis of a corner of the voxel grid, or null if the grid is a
+   * single voxel thick along that axis.
+   */
+  private double[] voxelStep(final int i, final int j, final int k) {
+    int steps = i + j + k;
+    if (steps == 0) {
+      return null;
+    }
+    double[] corner = new double[3];
+    crystal.getCrystCoord(i, j, k, corner);
+    for (int c = 0; c < 3; c++) {
+      corner[c] = (corner[c] - originCoord[c]) / steps;
+    }
+    return corner;
+  }
+
+  /**
+   * Inverts the 3x3 matrix with columns a, b and c.
+   *
+   * @return the inverse in row major order
+   */
+  private static double[] invertColumns(final double[] a, final double[] b,
+      final double[] c) {
+    double[] inverse = {
+        b[1] * c[2] - c[1] * b[2], c[0] * b[2] - b[0] * c[2],
+        b[0] * c[1] - c[0] * b[1],
+        c[1] * a[2] - a[1] * c[2], a[0] * c[2] - c[0] * a[2],
+        c[0] * a[1] - a[0] * c[1],
+        a[1] * b[2] - b[1] * a[2], b[0] * a[2] - a[0] * b[2],
+        a[0] * b[1] - b[0] * a[1] };
+    double determinant = a[0] * inverse[0] + b[0] * inverse[3]
+        + c[0] * inverse[6];
+    for (int e = 0; e < 9; e++) {
+      inverse[e] /= determinant;
+    }
+    return inverse;
+  }
+
+  /**
+   * Resamples the crystal into the beam frame of an image and sums the path
+   * through crystal along the beam.
+   *
+   * @param angle
+   *          rotation angle of the image in radians.
+   * @param translation
+   *          translation (um) applied to crystal coordinates before the
+   *          rotation, the wedge start vector plus its translation at this
+   *          angle.
+   */
+  public void update(final double angle, final double[] translation) {
+    final double cos = Math.cos(angle);
+    final double sin = Math.sin(angle);
+
+    // Beam frame bounding box of the voxel grid, with a cell of margin
+    double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    double minZ = Double.POSITIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+    double[] corner = new double[3];
+    for (int c = 0; c < 8; c++) {
+      crystal.getCrystCoord((c & 1) * (nx - 1), ((c >> 1) & 1) * (ny - 1),
+          ((c >> 2) & 1) * (nz - 1), corner);
+      double x = corner[0] + translation[0];
+      double y = corner[1] + translation[1];
+      double z = corner[2] + translation[2];
+      double beamX = x * cos + z * sin;
+      double beamZ = -x * sin + z * cos;
+      minX = Math.min(minX, beamX);
+      maxX = Math.max(maxX, beamX);
+      minY = Math.min(minY, y);
+      maxY = Math.max(maxY, y);
+      minZ = Math.min(minZ, beamZ);
+      maxZ = Math.max(maxZ, beamZ);
+    }
+    gridX = minX - cellSize;
+    gridY = minY - cellSize;
+    gridZ = minZ - cellSize;
+    cellsX = (int) Math.ceil((maxX - minX) / cellSize) + 3;
+    cellsY = (int) Math.ceil((maxY - minY) / cellSize) + 3;
+    cellsZ = (int) Math.ceil((maxZ - minZ) / cellSize) + 3;
+    long cells = (long) cellsX * cellsY * cellsZ;
+    if (cells > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Depth sweep grid of " + cellsX
+          + " x " + cellsY + " x " + cellsZ + " cells is too large");
+    }
+    if (path.length < cells) {
+      path = new float[(int) cells];
+    }
+
+    // Voxel coordinates along a column are affine in the cell index along z.
+    final double stepI = voxelCoordinate(0, -sin, 0, cos) * cellSize;
+    final double stepJ = voxelCoordinate(1, -sin, 0, cos) * cellSize;
+    final double stepK = voxelCoordinate(2, -sin, 0, cos) * cellSize;
+    final double halfCell = cellSize / 2;
+
+    int index = 0;
+    for (int x = 0; x < cellsX; x++) {
+      double beamX = gridX + x * cellSize;
+      for (int y = 0; y < cellsY; y++) {
+        double beamY = gridY + y * cellSize;
+        // Crystal coordinates of the cell (x, y, 0) relative to voxel 0
+        double relX = beamX * cos - gridZ * sin - translation[0]
+            - originCoord[0];
+        double relY = beamY - translation[1] - originCoord[1];
+        double relZ = beamX * sin + gridZ * cos - translation[2]
+            - originCoord[2];
+        double vi = voxelCoordinate(0, relX, relY, relZ);
+        double vj = voxelCoordinate(1, relX, relY, relZ);
+        double vk = voxelCoordinate(2, relX, relY, relZ);
+
+        double sum = 0;
+        for (int z = 0; z < cellsZ; z++) {
+          double inside = 0;
+          if (isCrystalNear(vi + z * stepI, vj + z * stepJ, vk + z * stepK)) {
+            inside = halfCell;
+          }
+          path[index++] = (float) (sum + inside);
+          sum += 2 * inside;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns one coordinate, in voxels, of a displacement given in crystal
+   * coordinates.
+   */
+  private double voxelCoordinate(final int axis, final double x,
+      final double y, final double z) {
+    return toVoxel[3 * axis] * x + toVoxel[3 * axis + 1] * y
+        + toVoxel[3 * axis + 2] * z;
+  }
+
+  /** Returns whether the voxel nearest to a point of the grid is crystal. */
+  private boolean isCrystalNear(final double vi, final double vj,
+      final double vk) {
+    long i = Math.round(vi);
+    long j = Math.round(vj);
+    long k = Math.round(vk);
+    if (i < 0 || i >= nx || j < 0 || j >= ny || k < 0 || k >= nz) {
+      return false;
+    }
+    return crystal.isCrystalAt((int) i, (int) j, (int) k);
+  }
+
+  /**
+   * Returns the path length through crystal from the point where the beam
+   * enters the crystal to a point, in the beam frame of the last update.
+   *
+   * @param beamCoord
+   *          beam frame coordinates of the point.
+   * @return
+   *         depth in um.
+   */
+  public double depth(final double[] beamCoord) {
+    long x = Math.round((beamCoord[0] - gridX) / cellSize);
+    long y = Math.round((beamCoord[1] - gridY) / cellSize);
+    if (x < 0 || x >= cellsX || y < 0 || y >= cellsY) {
+      return 0;
+    }
+    int column = (int) ((x * cellsY + y) * cellsZ);
+    double z = (beamCoord[2] - gridZ) / cellSize;
+    if (z <= 0) {
+      return path[column];
+    }
+    if (z >= cellsZ - 1) {
+      return path[column + cellsZ - 1];
+    }
+    int below = (int) z;
+    double fraction = z - below;
+    return path[column + below] * (1 - fraction)
+        + path[column + below + 1] * fraction;
+  }
+}
@@ -0,0 +1,256 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.transform.DftNormalization;
+import org.apache.commons.math3.transform.FastFourierTransformer;
+import org.apache.commons.math3.transform.TransformType;
+
+/**
+ * Convolution of a field of released dose on a voxel grid with a deposition
+ * kernel, by fast Fourier transforms.
+ *
+ * Instead of sending the dose of every voxel along one random track, the
+ * dose of all voxels is spread at once along all tracks, each weighted by
+ * its probability. The result is the expected value of the random spread,
+ * without noise, in time proportional to N log N for N grid points.
+ *
+ * The grid is padded along each axis to a power of two that leaves room for
+ * the kernel, so the circular convolution of the transforms equals the
+ * linear one on the voxel grid. The kernel and the sources are both real,
+ * so they are transformed together as the real and imaginary parts of a
+ * single complex field and separated again by their symmetry.
+ */
+public final class EscapeConvolution {
+  /** Largest kernel offset kept along i, j and k. */
+  private final int      radiusX, radiusY, radiusZ;
+
+  /** Kernel radius the convolution was created for. */
+  private final int      radius;
+
+  /** Padded number of grid points along i, j and k. */
+  private final int      lx, ly, lz;
+
+  /**
+   * Real and imaginary parts of the field, at (x * ly + y) * lz + z. The
+   * kernel goes into the real part and the sources into the imaginary part.
+   * After convolve() the real part holds the result.
+   */
+  private final double[] real, imaginary;
+
+  /** Work space for the transform of a line along i, j and k. */
+  private final double[][] lineX, lineY, lineZ;
+
+  /**
+   * Creates a convolution with no kernel and no sources.
+   *
+   * @param nx
+   *          number of voxels along i.
+   * @param ny
+   *          number of voxels along j.
+   * @param nz
+   *          number of voxels along k.
+   * @param radius
+   *          largest absolute offset along any axis of the kernels to be
+   *          added.
+   */
+  public EscapeConvolution(final int nx, final int ny, final int nz,
+      final int radius) {
+    this.radius = radius;
+    // offsets that leave the grid from every voxel never land anywhere
+    radiusX = Math.min(radius, nx - 1);
+    radiusY = Math.min(radius, ny - 1);
+    radiusZ = Math.min(radius, nz - 1);
+    lx = paddedLength(nx, radiusX);
+    ly = paddedLength(ny, radiusY);
+    lz = paddedLength(nz, radiusZ);
+    long points = (long) lx * ly * lz;
+    if (points > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Escape convolution grid of " + lx
+          + " x " + ly + " x " + lz + " points is too large");
+    }
+    real = new double[(int) points];
+    imaginary = new double[(int) points];
+    lineX = new double[2][lx];
+    lineY = new double[2][ly];
+    lineZ = new double[2][lz];
+  }
+
+  /**
+   * Returns the smallest power of two that holds a voxel grid plus the
+   * reach of the kernel on one side, and the whole kernel.
+   */
+  private static int paddedLength(final int voxels, final int reach) {
+    int needed = Math.max(voxels + reach, 2 * reach + 1);
+    int length = 1;
+    while (length < needed) {
+      length *= 2;
+    }
+    return length;
+  }
+
+  /**
+   * @return kernel radius the convolution was created for.
+   */
+  public int getRadius() {
+    return radius;
+  }
+
+  /**
+   * Adds dose released by a voxel.
+   *
+   * @param i
+   *          i index of the voxel.
+   * @param j
+   *          j index of the voxel.
+   * @param k
+   *          k index of the voxel.
+   * @param value
+   *          dose released.
+   */
+  public void addSource(final int i, final int j, final int k, final double value) {
+    imaginary[(i * ly + j) * lz + k] += value;
+  }
+
+  /**
+   * Adds weight to the kernel at an offset. Offsets that cannot reach
+   * another voxel of the grid are ignored.
+   *
+   * @param di
+   *          offset along i.
+   * @param dj
+   *          offset along j.
+   * @param dk
+   *          offset along k.
+   * @param weight
+   *          fraction of the released dose deposited at the offset.
+   */
+  public void addKernel(final int di, final int dj, final int dk,
+      final double weight) {
+    if (Math.abs(di) > radiusX || Math.abs(dj) > radiusY
+        || Math.abs(dk) > radiusZ) {
+      return;
+    }
+    int x = (di + lx) % lx;
+    int y = (dj + ly) % ly;
+    int z = (dk + lz) % lz;
+    real[(x * ly + y) * lz + z] += weight;
+  }
+
+  /**
+   * Convolves the sources with the kernel. Afterwards get() returns the
+   * dose deposited in each voxel, until clear() is called.
+   */
+  public void convolve() {
+    transform(TransformType.FORWARD);
+
+    // With Z = K + iD, the transforms of K and D at frequency f are
+    // (Z(f) + conj Z(-f)) / 2 and (Z(f) - conj Z(-f)) / 2i. Their product
+    // at -f is the conjugate of that at f, so f and -f are done together.
+    for (int x = 0; x < lx; x++) {
+      int mx = (lx - x) % lx;
+      for (int y = 0; y < ly; y++) {
+        int my = (ly - y) % ly;
+        for (int z = 0; z < lz; z++) {
+          int mz = (lz - z) % lz;
+          int index = (x * ly + y) * lz + z;
+          int mirror = (mx * ly + my) * lz + mz;
+          if (mirror < index) {
+            continue;
+          }
+          double a1 = real[index];
+          double b1 = imaginary[index];
+          double a2 = real[mirror];
+          double b2 = imaginary[mirror];
+          double kernelRe = (a1 + a2) / 2;
+          double kernelIm = (b1 - b2) / 2;
+          double sourceRe = (b1 + b2) / 2;
+          double sourceIm = (a2 - a1) / 2;
+          double productRe = kernelRe * sourceRe - kernelIm * sourceIm;
+          double productIm = kernelRe * sourceIm + kernelIm * sourceRe;
+          real[index] = productRe;
+          imaginary[index] = productIm;
+          real[mirror] = productRe;
+          imaginary[mirror] = -productIm;
+        }
+      }
+    }
+
+    transform(TransformType.INVERSE);
+  }
+
+  /**
+   * @param i
+   *          i index of the voxel.
+   * @param j
+   *          j index of the voxel.
+   * @param k
+   *          k index of the voxel.
+   * @return dose deposited in a voxel by the last convolve(), never
+   *         negative.
+   */
+  public double get(final int i, final int j, final int k) {
+    // rounding of the transforms leaves tiny values of either sign where
+    // no dose arrives
+    return Math.max(0, real[(i * ly + j) * lz + k]);
+  }
+
+  /** Removes the kernel and the sources. */
+  public void clear() {
+    Arrays.fill(real, 0);
+    Arrays.fill(imaginary, 0);
+  }
+
+  /**
+   * Transforms the field along each axis in turn, skipping lines that are
+   * all zero.
+   */
+  private void transform(final TransformType type) {
+    for (int x = 0; x < lx; x++) {
+      for (int y = 0; y < ly; y++) {
+        transformLine((x * ly + y) * lz, 1, lineZ, type);
+      }
+    }
+    for (int x = 0; x < lx; x++) {
+      for (int z = 0; z < lz; z++) {
+        transformLine(x * ly * lz + z, lz, lineY, type);
+      }
+    }
+    for (int y = 0; y < ly; y++) {
+      for (int z = 0; z < lz; z++) {
+        transformLine(y * lz + z, ly * lz, lineX, type);
+      }
+    }
+  }
+
+  /**
+   * Transforms the line starting at first, using a work space of its
+   * length.
+   */
+  private void transformLine(final int first, final int stride,
+      final double[][] data, final TransformType type) {
+    final int length = data[0].length;
+    if (length == 1) {
+      return;
+    }
+    double[] lineRe = data[0];
+    double[] lineIm = data[1];
+    boolean empty = true;
+    for (int n = 0, index = first; n < length; n++, index += stride) {
+      lineRe[n] = real[index];
+      lineIm[n] = imaginary[index];
+      if (lineRe[n] != 0 || lineIm[n] != 0) {
+        empty = false;
+      }
+    }
+    if (empty) {
+      return;
+    }
+    FastFourierTransformer.transformInPlace(data,
+        DftNormalization.STANDARD, type);
+    for (int n = 0, index = first; n < length; n++, index += stride) {
+      real[index] = lineRe[n];
+      imaginary[index] = lineIm[n];
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+
+/**
+ * Voxel offsets at which photoelectrons or fluorescent photons deposit
+ * their energy, for every track and distance bin, rounded to whole voxels
+ * once so that spreading the dose of a voxel only adds integers.
+ *
+ * Besides the offsets along i, j and k, each entry holds the matching
+ * difference of the linear index into a voxel grid with the given strides.
+ * The radius is the largest offset along any axis, so if every voxel within
+ * that many voxels of a voxel is crystal, all its targets are crystal and
+ * the dose can be added through the linear index without any checks.
+ */
+public final class EscapeStencil {
+  /** Number of distance bins per track. */
+  private final int   bins;
+
+  /** Strides of the linear index along i and j. */
+  private final int   strideI, strideJ;
+
+  /** Offsets along i, j and k of each entry, at track * bins + bin. */
+  private final int[] offsetI, offsetJ, offsetK;
+
+  /** Offsets of the linear index of each entry. */
+  private final int[] offsetIndex;
+
+  /** Largest absolute offset along any axis. */
+  private int         radius;
+
+  /**
+   * Creates a stencil with all offsets zero.
+   *
+   * @param tracks
+   *          number of tracks.
+   * @param bins
+   *          number of distance bins per track.
+   * @param strideI
+   *          difference of the linear index between neighbours along i.
+   * @param strideJ
+   *          difference of the linear index between neighbours along j.
+   */
+  public EscapeStencil(final int tracks, final int bins, final int strideI,
+      final int strideJ) {
+    this.bins = bins;
+    this.strideI = strideI;
+    this.strideJ = strideJ;
+    offsetI = new int[tracks * bins];
+    offsetJ = new int[tracks * bins];
+    offsetK = new int[tracks * bins];
+    offsetIndex = new int[tracks * bins];
+  }
+
+  /**
+   * Sets the displacement of a track at a distance bin, rounding it to the
+   * nearest voxel. The radius only grows; call clearRadius() before setting
+   * all entries anew.
+   *
+   * @param track
+   *          index of the track.
+   * @param bin
+   *          index of the distance bin.
+   * @param x
+   *          displacement along i in voxels.
+   * @param y
+   *          displacement along j in voxels.
+   * @param z
+   *          displacement along k in voxels.
+   */
+  public void set(final int track, final int bin, final double x, final double y,
+      final double z) {
+    final int entry = track * bins + bin;
+    final int i = (int) StrictMath.round(x);
+    final int j = (int) StrictMath.round(y);
+    final int k = (int) StrictMath.round(z);
+    offsetI[entry] = i;
+    offsetJ[entry] = j;
+    offsetK[entry] = k;
+    offsetIndex[entry] = i * strideI + j * strideJ + k;
+    radius = Math.max(radius, Math.max(Math.abs(i),
+        Math.max(Math.abs(j), Math.abs(k))));
+  }
+
+  /** Resets the radius before all entries are set again. */
+  public void clearRadius() {
+    radius = 0;
+  }
+
+  /**
+   * @param track index of the track
+   * @return first entry of the track; the entry of distance bin m is this
+   *         plus m.
+   */
+  public int firstEntry(final int track) {
+    return track * bins;
+  }
+
+  /**
+   * @param entry index of the entry
+   * @return offset along i
+   */
+  public int getOffsetI(final int entry) {
+    return offsetI[entry];
+  }
+
+  /**
+   * @param entry index of the entry
+   * @return offset along j
+   */
+  public int getOffsetJ(final int entry) {
+    return offsetJ[entry];
+  }
+
+  /**
+   * @param entry index of the entry
+   * @return offset along k
+   */
+  public int getOffsetK(final int entry) {
+    return offsetK[entry];
+  }
+
+  /**
+   * @param entry index of the entry
+   * @return offset of the linear index
+   */
+  public int getOffsetIndex(final int entry) {
+    return offsetIndex[entry];
+  }
+
+  /**
+   * @return largest absolute offset along any axis, in voxels.
+   */
+  public int getRadius() {
+    return radius;
+  }
+
+  /**
+   * Finds, for every voxel of a grid, the distance to the nearest voxel
+   * without crystal or outside the grid, measured as the largest difference
+   * along any axis. All voxels less than this distance away along every
+   * axis contain crystal, so a stencil fits a voxel without checks if its
+   * radius is smaller than the distance. The distances are found by a
+   * forward and a backward pass over the 26 neighbours of each voxel and
+   * saturate at 255.
+   *
+   * @param occupied
+   *          occupancy of the voxels.
+   * @param nx
+   *          number of voxels along i.
+   * @param ny
+   *          number of voxels along j.
+   * @param nz
+   *          number of voxels along k.
+   * @return
+   *         distance of each voxel as an unsigned byte, 0 for voxels
+   *         without crystal.
+   */
+  public static byte[] interiorDistances(final OccupancyBits occupied,
+      final int nx, final int ny, final int nz) {
+    final byte[] distance = new byte[nx * ny * nz];
+    for (int i = 0; i < nx; i++) {
+      for (int j = 0; j < ny; j++) {
+        int k = occupied.nextSet(i, j, 0);
+        while (k < nz) {
+          int end = occupied.nextClear(i, j, k);
+          Arrays.fill(distance, (i * ny + j) * nz + k, (i * ny + j) * nz + end,
+              (byte) MAX_DISTANCE);
+          k = occupied.nextSet(i, j, end);
+        }
+      }
+    }
+    for (int pass = 0; pass < 2; pass++) {
+      // the forward pass looks at the neighbours before a voxel in index
+      // order, the backward pass at those after it
+      final int direction;
+      final int first;
+      if (pass == 0) {
+        direction = 1;
+        first = 0;
+      } else {
+        direction = -1;
+        first = nx - 1;
+      }
+      for (int i = first; i >= 0 && i < nx; i += direction) {
+        for (int j = direction > 0 ? 0 : ny - 1; j >= 0 && j < ny;
+            j += direction) {
+          for (int k = direction > 0 ? 0 : nz - 1; k >= 0 && k < nz;
+              k += direction) {
+            final int index = (i * ny + j) * nz + k;
+            int best = distance[index] & MAX_DISTANCE;
+            if (best <= 1) {
+              continue;
+            }
+            for (int n = 0; n < CAUSAL_NEIGHBOURS.length; n++) {
+              int ni = i - direction * CAUSAL_NEIGHBOURS[n][0];
+              int nj = j - direction * CAUSAL_NEIGHBOURS[n][1];
+              int nk = k - direction * CAUSAL_NEIGHBOURS[n][2];
+              int neighbour;
+              if (ni < 0 || ni >= nx || nj < 0 || nj >= ny || nk < 0
+                  || nk >= nz) {
+                neighbour = 0;
+              } else {
+                neighbour = distance[(ni * ny + nj) * nz + nk] & MAX_DISTANCE;
+              }
+              best = Math.min(best, neighbour + 1);
+            }
+            distance[index] = (byte) best;
+          }
+        }
+      }
+    }
+    return distance;
+  }
+
+  /** Largest distance interiorDistances() can hold. */
+  public static final int MAX_DISTANCE = 0xFF;
+
+  /**
+   * The 13 neighbours that come before a voxel in index order, as offsets
+   * to subtract from its i, j and k.
+   */
+  private static final int[][] CAUSAL_NEIGHBOURS = {
+      { 1, -1, -1 }, { 1, -1, 0 }, { 1, -1, 1 },
+      { 1, 0, -1 }, { 1, 0, 0 }, { 1, 0, 1 },
+      { 1, 1, -1 }, { 1, 1, 0 }, { 1, 1, 1 },
+      { 0, 1, -1 }, { 0, 1, 0 }, { 0, 1, 1 },
+      { 0, 0, 1 } };
+}
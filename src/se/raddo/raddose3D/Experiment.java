@@ -1,5 +1,16 @@
 package se.raddo.raddose3D;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,6 +35,78 @@ public class Experiment implements Initializer {
    */
   private final List<Output> observers = new ArrayList<Output>();
 
+  /** Marks the start of a checkpoint file. */
+  private static final int   CHECKPOINT_MAGIC = 0x52443343;
+
+  /**
+   * Layout of the checkpoint files written, raised whenever the layout
+   * changes.
+   */
+  private static final int   CHECKPOINT_VERSION = 1;
+
+  /** File to write a checkpoint to after each wedge, or null. */
+  private File               checkpointFile;
+
+  /** Checkpoint file to resume from, or null. */
+  private File               resumeFile;
+
+  /** Number of wedges already exposed in the checkpoint resumed from. */
+  private int                wedgesToSkip;
+
+  /** Number of wedges seen so far, whether exposed or skipped. */
+  private int                wedgesSeen;
+
+  /** Number of crystals set so far. */
+  private int                crystalsSeen;
+
+  /**
+   * Writes the dose state of the crystal to a file after every exposed
+   * wedge, replacing the previous checkpoint, so that an interrupted run
+   * can be resumed with setResume(). The checkpoint only holds one crystal,
+   * so inputs defining more than one are refused.
+   *
+   * @param filename
+   *          name of the checkpoint file.
+   */
+  public void setCheckpoint(final String filename) {
+    checkpointFile = new File(filename);
+  }
+
+  /**
+   * Resumes a run from a checkpoint written by setCheckpoint(). The wedges
+   * exposed before the checkpoint are skipped, and the dose state of the
+   * crystal is restored in place of the last of them. The input must
+   * define the same crystals and wedges as the run that wrote it. The
+   * skipped wedges are not passed to the outputs, so per-wedge outputs
+   * only cover the wedges exposed after resuming. Like setCheckpoint(), this
+   * only works for inputs defining a single crystal.
+   *
+   * @param filename
+   *          name of the checkpoint file.
+   */
+  public void setResume(final String filename) {
+    resumeFile = new File(filename);
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(
+          new FileInputStream(resumeFile)));
+      if (in.readInt() != CHECKPOINT_MAGIC) {
+        throw new IOException("not a RADDOSE-3D checkpoint");
+      }
+      int version = in.readInt();
+      if (version != CHECKPOINT_VERSION) {
+        throw new IOException("checkpoint format version " + version
+            + " is not supported, expected " + CHECKPOINT_VERSION);
+      }
+      wedgesToSkip = in.readInt();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot resume from checkpoint "
+          + filename + ": " + e.getMessage(), e);
+    } finally {
+      closeQuietly(in);
+    }
+  }
+
   /**
    * Cause given Input object to send its object stream to this Experiment.
    * Basically this is where the parser is called on the input stream, and
@@ -97,8 +180,93 @@ public class Experiment implements Initializer {
   @Override
   public void exposeWedge(final Wedge w) {
     if (w != null) {
+      wedgesSeen++;
+      if (wedgesSeen < wedgesToSkip) {
+        System.out.println("Skipping wedge " + wedgesSeen
+            + ", already exposed before the checkpoint");
+        return;
+      }
+      if (wedgesSeen == wedgesToSkip) {
+        System.out.println("Restoring the dose state after wedge "
+            + wedgesSeen + " from checkpoint " + resumeFile);
+        restoreCheckpoint();
+        raiseWarning("Resumed from checkpoint " + resumeFile
+            + ": wedges 1 to " + wedgesSeen
+            + " were not exposed in this run and are left out of the"
+            + " per-wedge outputs");
+        return;
+      }
       currentCrystal.expose(currentBeam, w);
       notifyObserver(w);
+      if (checkpointFile != null) {
+        writeCheckpoint();
+      }
+    }
+  }
+
+  /**
+   * Writes the format version, the wedge count and the dose state of the
+   * current crystal to the checkpoint file. The checkpoint is written next to it first and then
+   * moved into place, so a run killed while writing it keeps the previous
+   * one.
+   */
+  private void writeCheckpoint() {
+    File partial = new File(checkpointFile.getPath() + ".part");
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(
+          new FileOutputStream(partial)));
+      out.writeInt(CHECKPOINT_MAGIC);
+      out.writeInt(CHECKPOINT_VERSION);
+      out.writeInt(wedgesSeen);
+      currentCrystal.writeCheckpoint(out);
+      out.close();
+      out = null;
+      Files.move(partial.toPath(), checkpointFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      System.err.println("Could not write checkpoint " + checkpointFile
+          + ": " + e.getMessage());
+    } finally {
+      closeQuietly(out);
+    }
+  }
+
+  /**
+   * Restores the dose state of the current crystal from the checkpoint
+   * file given to setResume().
+   */
+  private void restoreCheckpoint() {
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(
+          new FileInputStream(resumeFile)));
+      // the header was checked by setResume()
+      in.readInt();
+      in.readInt();
+      in.readInt();
+      currentCrystal.readCheckpoint(in);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot resume from checkpoint "
+          + resumeFile + ": " + e.getMessage(), e);
+    } finally {
+      closeQuietly(in);
+    }
+  }
+
+  /**
+   * Closes a stream, ignoring errors on the way.
+   *
+   * @param c
+   *          stream to close, or null.
+   */
+  private static void closeQuietly(final Closeable c) {
+    if (c != null) {
+      try {
+        c.close();
+      } catch (IOException e) {
+        // nothing left to do with it
+      }
     }
   }
 
@@ -108,10 +276,17 @@ public class Experiment implements Initializer {
    * 
    * @param c
    *          Crystal object to be set and passed to subscribers
+   * @throws IllegalArgumentException
+   *           if a second crystal is set while checkpointing or resuming.
    */
   @Override
   public void setCrystal(final Crystal c) {
     if (c != null) {
+      crystalsSeen++;
+      if (crystalsSeen > 1 && (checkpointFile != null || resumeFile != null)) {
+        throw new IllegalArgumentException("Checkpoints hold the dose state "
+            + "of a single crystal, but the input defines more than one");
+      }
       currentCrystal = c;
       notifyObserver(currentCrystal);
     }
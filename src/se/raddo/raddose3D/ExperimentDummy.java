@@ -93,6 +93,11 @@ public class ExperimentDummy extends Experiment {
       public double getBeamArea() {
         return 0;
       }
+
+      @Override
+      public double[] getCollimationHalfWidths() {
+        return null;
+      }
     }
   }
 
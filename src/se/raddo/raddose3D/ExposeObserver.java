@@ -68,7 +68,8 @@ public interface ExposeObserver {
 
   /**
    * Voxel exposure summary. Called for every occupied voxel after each
-   * completed Wedge exposure.
+   * completed Wedge exposure, except that voxels whose values were never
+   * written may be left out, as their dose is zero.
    * 
    * @param i
    *          voxel x index: perpendicular to rotation axis
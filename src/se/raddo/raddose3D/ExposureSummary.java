@@ -39,6 +39,8 @@ public class ExposureSummary implements ExposeObserver {
   private int                                 imageExposedVoxels;
   /** Total number of occupied (= non-empty) voxels in the crystal. */
   private int                                 occupiedVoxels;
+  /** Crystal whose exposures are summarised. */
+  private Crystal                             crystal;
 
   // exposure summary variables exposureComplete()
   /** Diffraction weighted dose (Zeldin et al, 2013, PNAS). */
@@ -114,7 +116,7 @@ public class ExposureSummary implements ExposeObserver {
 
   @Override
   public void register(final Crystal c) {
-    // No implementation required.
+    crystal = c;
   }
 
   @Override
@@ -231,8 +233,6 @@ public class ExposureSummary implements ExposeObserver {
   @Override
   public void summaryObservation(final int i, final int j, final int k,
       final double voxelDose, double voxelMassKg) {
-    occupiedVoxels++;
-
     if (voxelDose > 0) {
       // Record dose observation in voxelDoses, so that dose thresholds
       // can be found
@@ -252,6 +252,9 @@ public class ExposureSummary implements ExposeObserver {
 
   @Override
   public void exposureComplete() {
+    // Voxels never written are not observed, so count them from the spans
+    occupiedVoxels = (int) crystal.getOccupancySpans().getVoxelCount();
+
     avgDiffractedDose = runningSumDiffDose / images;
 
     // Calculating average dose, dose contrast, used volume, thresholded dose,
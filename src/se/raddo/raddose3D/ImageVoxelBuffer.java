@@ -0,0 +1,147 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of the voxels hit by the beam in a single image, together
+ * with their fluence, dose, Compton electron fluence and elastic yield in
+ * that image. A buffer is cleared and refilled for every image, so after the
+ * first few images exposing a crystal no longer allocates per-image arrays.
+ * Images repeating the geometry of the previous one reuse its contents.
+ */
+final class ImageVoxelBuffer {
+  /** Number of voxels a new buffer can hold before it has to grow. */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** Number of voxels currently held. */
+  int                      size;
+  /** Voxel indices along i, j and k. */
+  int[]                    i, j, k;
+  /** Fluence (J/um^2) of each voxel in this image. */
+  double[]                 fluence;
+  /** Photoelectric dose (MGy) of each voxel in this image. */
+  double[]                 dose;
+  /** Compton electron fluence of each voxel in this image. */
+  double[]                 comptonFluence;
+  /** Elastic yield (photons) of each voxel in this image. */
+  double[]                 elasticYield;
+
+  /** Scratch array for the coordinates of the voxel in the crystal frame. */
+  final double[]           crystCoord = new double[3];
+  /** Scratch array for the coordinates of the voxel in the beam frame. */
+  final double[]           beamCoord  = new double[3];
+  /** Scratch array for the coordinates used to find the depth of a voxel. */
+  final double[]           depthCoord = new double[3];
+  /**
+   * Scratch arrays for the coordinates of the voxels of a column in the
+   * crystal frame, at their k index. Only allocated for slab buffers.
+   */
+  double[]                 columnX, columnY, columnZ;
+  /**
+   * Scratch arrays for the unattenuated beam intensity and the depth of the
+   * voxels of a column, at their k index. Only allocated for slab buffers.
+   */
+  double[]                 columnIntensity, columnDepth;
+  /**
+   * Scratch arrays for the fluence, dose, Compton electron fluence and
+   * elastic yield of the voxels of a column, at their k index. Only
+   * allocated for slab buffers.
+   */
+  double[]                 columnFluence, columnDose, columnCompton,
+      columnElastic;
+  /** Scratch array for the range of k of a column within the beam. */
+  final double[]           columnRange = new double[2];
+  /** First k index of the column currently clipped to the beam. */
+  int                      columnStart;
+  /** k index after the last one of the column currently clipped. */
+  int                      columnEnd;
+
+  /** Creates an empty buffer. */
+  ImageVoxelBuffer() {
+    i = new int[INITIAL_CAPACITY];
+    j = new int[INITIAL_CAPACITY];
+    k = new int[INITIAL_CAPACITY];
+    fluence = new double[INITIAL_CAPACITY];
+    dose = new double[INITIAL_CAPACITY];
+    comptonFluence = new double[INITIAL_CAPACITY];
+    elasticYield = new double[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Allocates the scratch arrays for the voxels of a column.
+   *
+   * @param columnLength number of voxels along k.
+   */
+  void allocateColumn(final int columnLength) {
+    columnX = new double[columnLength];
+    columnY = new double[columnLength];
+    columnZ = new double[columnLength];
+    columnIntensity = new double[columnLength];
+    columnDepth = new double[columnLength];
+    columnFluence = new double[columnLength];
+    columnDose = new double[columnLength];
+    columnCompton = new double[columnLength];
+    columnElastic = new double[columnLength];
+  }
+
+  /**
+   * Finds where the voxels of a plane start. Slab buffers hold their voxels
+   * in order of i.
+   *
+   * @param plane voxel index along i
+   * @return position of the first voxel with an index along i of at least
+   *         plane, or size if there is none.
+   */
+  int firstFromPlane(final int plane) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (i[mid] < plane) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Removes all voxels, keeping the allocated capacity. */
+  void clear() {
+    size = 0;
+  }
+
+  /**
+   * Appends a voxel to the buffer.
+   *
+   * @param vi voxel index along i
+   * @param vj voxel index along j
+   * @param vk voxel index along k
+   * @param voxFluence fluence of the voxel in this image
+   * @param voxDose photoelectric dose of the voxel in this image
+   * @param voxComptonFluence Compton electron fluence of the voxel
+   * @param voxElasticYield elastic yield of the voxel
+   */
+  void add(final int vi, final int vj, final int vk, final double voxFluence,
+      final double voxDose, final double voxComptonFluence,
+      final double voxElasticYield) {
+    if (size == i.length) {
+      int capacity = 2 * size;
+      i = Arrays.copyOf(i, capacity);
+      j = Arrays.copyOf(j, capacity);
+      k = Arrays.copyOf(k, capacity);
+      fluence = Arrays.copyOf(fluence, capacity);
+      dose = Arrays.copyOf(dose, capacity);
+      comptonFluence = Arrays.copyOf(comptonFluence, capacity);
+      elasticYield = Arrays.copyOf(elasticYield, capacity);
+    }
+    i[size] = vi;
+    j[size] = vj;
+    k[size] = vk;
+    fluence[size] = voxFluence;
+    dose[size] = voxDose;
+    comptonFluence[size] = voxComptonFluence;
+    elasticYield[size] = voxElasticYield;
+    size++;
+  }
+}
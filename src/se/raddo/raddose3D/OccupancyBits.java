@@ -0,0 +1,113 @@
+package se.raddo.raddose3D;
+
+/**
+ * Crystal occupancy of a voxel grid packed one bit per voxel. Each (i, j)
+ * column along k gets its own run of 64 bit words, so columns can be
+ * written from different threads, and runs of voxels along k can be found
+ * and counted a word at a time.
+ */
+public final class OccupancyBits {
+  /** Number of voxels along j and k. */
+  private final int    ny, nz;
+
+  /** Number of words per column. */
+  private final int    columnWords;
+
+  /**
+   * Occupancy of voxel i, j, k in bit k % 64 of word
+   * (i * ny + j) * columnWords + k / 64. Bits past nz are never set.
+   */
+  private final long[] words;
+
+  /**
+   * Creates a grid with no voxel occupied.
+   *
+   * @param nx number of voxels along i
+   * @param ny number of voxels along j
+   * @param nz number of voxels along k
+   */
+  public OccupancyBits(final int nx, final int ny, final int nz) {
+    this.ny = ny;
+    this.nz = nz;
+    columnWords = (nz + Long.SIZE - 1) / Long.SIZE;
+    long length = (long) nx * ny * columnWords;
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Voxel grid of " + nx + " x " + ny
+          + " x " + nz + " voxels is too large, reduce the resolution");
+    }
+    words = new long[(int) length];
+  }
+
+  /**
+   * @param i i
+   * @param j j
+   * @param k k, within the grid
+   * @return true if voxel i, j, k is occupied.
+   */
+  public boolean get(final int i, final int j, final int k) {
+    return (words[(i * ny + j) * columnWords + (k >>> 6)] & (1L << k)) != 0;
+  }
+
+  /**
+   * Sets the occupancy of voxel i, j, k.
+   *
+   * @param i i
+   * @param j j
+   * @param k k, within the grid
+   * @param occupied whether the voxel contains crystal
+   */
+  public void set(final int i, final int j, final int k, final boolean occupied) {
+    final int word = (i * ny + j) * columnWords + (k >>> 6);
+    if (occupied) {
+      words[word] |= 1L << k;
+    } else {
+      words[word] &= ~(1L << k);
+    }
+  }
+
+  /**
+   * @param i i
+   * @param j j
+   * @param k first k to look at
+   * @return first occupied k of column i, j from k on, or nz if there is
+   *         none.
+   */
+  int nextSet(final int i, final int j, final int k) {
+    if (k >= nz) {
+      return nz;
+    }
+    final int first = (i * ny + j) * columnWords;
+    int w = k >>> 6;
+    long word = words[first + w] & (-1L << k);
+    while (word == 0) {
+      if (++w == columnWords) {
+        return nz;
+      }
+      word = words[first + w];
+    }
+    return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+  }
+
+  /**
+   * @param i i
+   * @param j j
+   * @param k first k to look at
+   * @return first empty k of column i, j from k on, or nz if there is none.
+   */
+  int nextClear(final int i, final int j, final int k) {
+    if (k >= nz) {
+      return nz;
+    }
+    final int first = (i * ny + j) * columnWords;
+    int w = k >>> 6;
+    long word = ~words[first + w] & (-1L << k);
+    while (word == 0) {
+      if (++w == columnWords) {
+        return nz;
+      }
+      word = ~words[first + w];
+    }
+    // the bits past nz of the last word read as empty
+    return Math.min(nz, w * Long.SIZE + Long.numberOfTrailingZeros(word));
+  }
+}
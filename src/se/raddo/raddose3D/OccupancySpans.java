@@ -0,0 +1,214 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+
+/**
+ * Run-length encoded crystal occupancy. For every (i, j) column of the voxel
+ * grid the runs of consecutive k indices at which there is crystal are
+ * stored as [start, end) pairs. Loops over the crystal voxels can then skip
+ * the empty parts of the bounding box:
+ *
+ * <pre>
+ * for (int r = spans.firstRun(i, j); r &lt; spans.endRun(i, j); r++) {
+ *   for (int k = spans.getRunStart(r); k &lt; spans.getRunEnd(r); k++) {
+ *     ...
+ * </pre>
+ */
+public final class OccupancySpans {
+  /** Number of voxels along j. */
+  private final int   ny;
+
+  /**
+   * Index of the first run of each column (i, j) at i * ny + j. The runs of
+   * a column end where the runs of the next column start, the last element
+   * is the total number of runs.
+   */
+  private final int[] columnRuns;
+
+  /** First k index of each run. */
+  private final int[] runStart;
+
+  /** k index after the last one of each run. */
+  private final int[] runEnd;
+
+  /** Number of occupied voxels in the runs before each run. */
+  private final long[] runOffset;
+
+  /** Number of voxels containing crystal. */
+  private final long  voxelCount;
+
+  /**
+   * Builds the span index of a crystal from its isCrystalAt() method.
+   *
+   * @param crystal
+   *          crystal whose occupancy is encoded.
+   */
+  public OccupancySpans(final Crystal crystal) {
+    this(crystal.getCrystSizeVoxels(), crystal, null);
+  }
+
+  /**
+   * Builds the span index from packed occupancy bits, finding the runs a
+   * word at a time.
+   *
+   * @param size
+   *          number of voxels along i, j and k.
+   * @param bits
+   *          occupancy of the voxels.
+   */
+  OccupancySpans(final int[] size, final OccupancyBits bits) {
+    this(size, null, bits);
+  }
+
+  /**
+   * Builds the span index from the occupancy bits if given, otherwise from
+   * isCrystalAt() of the crystal.
+   */
+  private OccupancySpans(final int[] size, final Crystal crystal,
+      final OccupancyBits bits) {
+    ny = size[1];
+    columnRuns = new int[size[0] * size[1] + 1];
+
+    int[] starts = new int[Math.max(16, size[0] * size[1])];
+    int[] ends = new int[starts.length];
+    int runs = 0;
+    long voxels = 0;
+
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        columnRuns[i * ny + j] = runs;
+        int k = nextOccupied(crystal, bits, i, j, 0, size[2]);
+        while (k < size[2]) {
+          int start = k;
+          k = nextEmpty(crystal, bits, i, j, k, size[2]);
+          if (runs == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * runs);
+            ends = Arrays.copyOf(ends, 2 * runs);
+          }
+          starts[runs] = start;
+          ends[runs] = k;
+          runs++;
+          voxels += k - start;
+          k = nextOccupied(crystal, bits, i, j, k, size[2]);
+        }
+      }
+    }
+    columnRuns[size[0] * size[1]] = runs;
+
+    runStart = Arrays.copyOf(starts, runs);
+    runEnd = Arrays.copyOf(ends, runs);
+    runOffset = new long[runs];
+    for (int r = 1; r < runs; r++) {
+      runOffset[r] = runOffset[r - 1] + runEnd[r - 1] - runStart[r - 1];
+    }
+    voxelCount = voxels;
+  }
+
+  /**
+   * Returns the first occupied k of column (i, j) from k on, or nz if there
+   * is none.
+   */
+  private static int nextOccupied(final Crystal crystal,
+      final OccupancyBits bits, final int i, final int j, final int k,
+      final int nz) {
+    if (bits != null) {
+      return bits.nextSet(i, j, k);
+    }
+    int next = k;
+    while (next < nz && !crystal.isCrystalAt(i, j, next)) {
+      next++;
+    }
+    return next;
+  }
+
+  /**
+   * Returns the first empty k of column (i, j) from k on, or nz if there is
+   * none.
+   */
+  private static int nextEmpty(final Crystal crystal,
+      final OccupancyBits bits, final int i, final int j, final int k,
+      final int nz) {
+    if (bits != null) {
+      return bits.nextClear(i, j, k);
+    }
+    int next = k;
+    while (next < nz && crystal.isCrystalAt(i, j, next)) {
+      next++;
+    }
+    return next;
+  }
+
+  /**
+   * Returns the index of the first run of column (i, j).
+   *
+   * @param i i
+   * @param j j
+   * @return index of the first run
+   */
+  public int firstRun(final int i, final int j) {
+    return columnRuns[i * ny + j];
+  }
+
+  /**
+   * Returns the index after the last run of column (i, j). The column is
+   * empty if this equals firstRun(i, j).
+   *
+   * @param i i
+   * @param j j
+   * @return index after the last run
+   */
+  public int endRun(final int i, final int j) {
+    return columnRuns[i * ny + j + 1];
+  }
+
+  /**
+   * Returns the first k index of a run.
+   *
+   * @param run index of the run
+   * @return first k index containing crystal
+   */
+  public int getRunStart(final int run) {
+    return runStart[run];
+  }
+
+  /**
+   * Returns the k index after the last one of a run.
+   *
+   * @param run index of the run
+   * @return first k index after the run
+   */
+  public int getRunEnd(final int run) {
+    return runEnd[run];
+  }
+
+  /**
+   * Returns the position of the first voxel of a run when the occupied
+   * voxels are numbered consecutively, column by column and along k. Arrays
+   * holding a value per occupied voxel can be indexed with
+   * getRunOffset(r) + k - getRunStart(r).
+   *
+   * @param run index of the run
+   * @return number of occupied voxels before the run
+   */
+  public long getRunOffset(final int run) {
+    return runOffset[run];
+  }
+
+  /**
+   * Returns the total number of runs.
+   *
+   * @return number of runs over all columns
+   */
+  public int getRunCount() {
+    return runStart.length;
+  }
+
+  /**
+   * Returns the number of voxels containing crystal.
+   *
+   * @return number of occupied voxels
+   */
+  public long getVoxelCount() {
+    return voxelCount;
+  }
+}
@@ -61,13 +61,30 @@ public class OutputFinalDoseStateCSV implements Output {
       return;
     }
 
-    for (int i = 0; i < crystal.getCrystSizeVoxels()[0]; i++) {
-      for (int j = 0; j < crystal.getCrystSizeVoxels()[1]; j++) {
-        for (int k = 0; k < crystal.getCrystSizeVoxels()[2]; k++) {
-          if (crystal.isCrystalAt(i, j, k)) {   //Added to prevent voxels outside of crystal being included in the .csv output
-            w.write(((float) crystal.getCrystCoord(i, j, k)[0]) + ","
-                + ((float) crystal.getCrystCoord(i, j, k)[1]) + ","
-                + ((float) crystal.getCrystCoord(i, j, k)[2]) + ",");
+    int[] csize = crystal.getCrystSizeVoxels();
+    // Only voxels inside the crystal are included in the .csv output
+    OccupancySpans spans = crystal.getOccupancySpans();
+    double[] coord = new double[3];
+    for (int i = 0; i < csize[0]; i++) {
+      for (int j = 0; j < csize[1]; j++) {
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          // voxels never written need not be read
+          int touched = spans.getRunStart(r);
+          int untouched = touched;
+          for (int k = spans.getRunStart(r); k < spans.getRunEnd(r); k++) {
+            if (k == untouched) {
+              touched = crystal.nextTouchedVoxel(i, j, k, spans.getRunEnd(r));
+              untouched = crystal.nextUntouchedVoxel(i, j, touched,
+                  spans.getRunEnd(r));
+            }
+            crystal.getCrystCoord(i, j, k, coord);
+            w.write(((float) coord[0]) + ","
+                + ((float) coord[1]) + ","
+                + ((float) coord[2]) + ",");
+            if (k < touched) {
+              w.write("0,0,0\n");
+              continue;
+            }
             float dose = (float) crystal.getDose(i, j, k);
             if (dose <= Float.MIN_VALUE) {
             w.write("0,");
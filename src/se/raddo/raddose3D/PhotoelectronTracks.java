@@ -0,0 +1,237 @@
+package se.raddo.raddose3D;
+
+import java.util.SplittableRandom;
+
+/**
+ * Directions of the photoelectron tracks sent out from an exposed voxel,
+ * with a sampler that picks a track with a probability given by the
+ * polarisation weighted angular distribution.
+ *
+ * The directions and the sampler only depend on the angular distribution,
+ * so they are built once per beam. For every image the directions are then
+ * rotated by the rotation angle, which only takes a sine and cosine per
+ * image and a few multiplications per track.
+ */
+public final class PhotoelectronTracks {
+  /** Number of tracks. */
+  private final int      tracks;
+
+  /** Unit direction of each track in the starting orientation. */
+  private final double[] startX, startY, startZ;
+
+  /** Direction of each track rotated to the current image. */
+  private final double[] rotatedX, rotatedZ;
+
+  /**
+   * Probability of keeping the track drawn uniformly rather than taking its
+   * alias (Vose's alias method).
+   */
+  private final double[] keep;
+
+  /** Track taken instead of each track when it is not kept. */
+  private final int[]    alias;
+
+  /** Probability that sample() picks each track. */
+  private final double[] probability;
+
+  /**
+   * Builds the tracks and their sampler.
+   *
+   * @param distribution
+   *          weight of the tracks by their angle to the polarisation axis,
+   *          in steps of 2 pi / resolution.
+   * @param resolution
+   *          number of steps of the polar and azimuthal angles over a full
+   *          turn.
+   * @param verticalGoniometer
+   *          true if the polarisation axis is x, false if it is y.
+   */
+  public PhotoelectronTracks(final double[] distribution,
+      final int resolution, final boolean verticalGoniometer) {
+    final int maxTracks = resolution * resolution;
+    double[] x = new double[maxTracks];
+    double[] y = new double[maxTracks];
+    double[] z = new double[maxTracks];
+    double[] weight = new double[maxTracks];
+
+    double step = 2 * Math.PI / resolution;
+    int counter = -1;
+    for (double theta = 0; theta < 2 * Math.PI; theta += step) {
+      for (double phi = 0; phi <= Math.PI; phi += step) {
+        // The poles are only sent out once.
+        if ((theta == 0 || theta == Math.PI) && phi != 0) {
+          continue;
+        }
+        counter += 1;
+        x[counter] = Math.sin(theta) * Math.cos(phi);
+        y[counter] = Math.sin(theta) * Math.sin(phi);
+        z[counter] = Math.cos(theta);
+
+        // angle to the x axis (or y axis if horizontal), from the dot
+        // product of the unit vectors
+        double dotProduct;
+        if (verticalGoniometer) {
+          dotProduct = x[counter];
+        } else {
+          dotProduct = y[counter];
+        }
+        double magnitude = Math.sqrt(Math.pow(x[counter], 2)
+            + Math.pow(y[counter], 2) + Math.pow(z[counter], 2));
+        double angleToAxis = Math.acos(dotProduct / magnitude);
+        int place = (int) Math.rint((angleToAxis * resolution)
+            / (2 * Math.PI));
+        // each track counts as many times as the weight rounded up
+        weight[counter] = Math.max(0, Math.ceil(distribution[place]));
+      }
+    }
+    tracks = counter + 1;
+
+    startX = new double[tracks];
+    startY = new double[tracks];
+    startZ = new double[tracks];
+    System.arraycopy(x, 0, startX, 0, tracks);
+    System.arraycopy(y, 0, startY, 0, tracks);
+    System.arraycopy(z, 0, startZ, 0, tracks);
+    rotatedX = new double[tracks];
+    rotatedZ = new double[tracks];
+
+    keep = new double[tracks];
+    alias = new int[tracks];
+    probability = new double[tracks];
+    buildAliasTable(weight);
+  }
+
+  /**
+   * Fills probability[] with the normalised weights, and keep[] and alias[]
+   * so that drawing a track uniformly and then keeping it or taking its
+   * alias picks each track in proportion to its weight.
+   */
+  private void buildAliasTable(final double[] weight) {
+    double total = 0;
+    for (int t = 0; t < tracks; t++) {
+      total += weight[t];
+    }
+    if (total == 0) {
+      throw new IllegalStateException(
+          "Photoelectron angular distribution has no weight");
+    }
+
+    for (int t = 0; t < tracks; t++) {
+      probability[t] = weight[t] / total;
+    }
+
+    // scaled weights average 1; split them into those below and above
+    double[] scaled = new double[tracks];
+    int[] small = new int[tracks];
+    int[] large = new int[tracks];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int t = 0; t < tracks; t++) {
+      scaled[t] = weight[t] * tracks / total;
+      if (scaled[t] < 1) {
+        small[smallCount++] = t;
+      } else {
+        large[largeCount++] = t;
+      }
+    }
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      keep[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = (scaled[more] + scaled[less]) - 1;
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // whatever is left has a scaled weight of 1 up to rounding
+    while (largeCount > 0) {
+      int t = large[--largeCount];
+      keep[t] = 1;
+      alias[t] = t;
+    }
+    while (smallCount > 0) {
+      int t = small[--smallCount];
+      keep[t] = 1;
+      alias[t] = t;
+    }
+  }
+
+  /**
+   * Rotates the tracks to an image. The tracks are turned about the y axis
+   * opposite to the rotation of the crystal.
+   *
+   * @param angle
+   *          rotation angle of the image in radians.
+   */
+  void rotate(final double angle) {
+    // Convert angle to less than 360 if it is more and flip it to the
+    // opposite direction
+    int timesOver = (int) (angle / (2 * Math.PI));
+    double thisAngle = 2 * Math.PI - (angle - (timesOver * 2 * Math.PI));
+    double cos = Math.cos(thisAngle);
+    double sin = Math.sin(thisAngle);
+    for (int t = 0; t < tracks; t++) {
+      rotatedX[t] = startX[t] * cos + startZ[t] * sin;
+      rotatedZ[t] = -1 * startX[t] * sin + startZ[t] * cos;
+    }
+  }
+
+  /**
+   * Picks a track at random in proportion to its weight.
+   *
+   * @param random
+   *          source of random numbers.
+   * @return
+   *         index of the track.
+   */
+  public int sample(final SplittableRandom random) {
+    int t = random.nextInt(tracks);
+    if (random.nextDouble() < keep[t]) {
+      return t;
+    }
+    return alias[t];
+  }
+
+  /**
+   * @param track index of a track
+   * @return probability that sample() picks the track
+   */
+  public double getProbability(final int track) {
+    return probability[track];
+  }
+
+  /**
+   * @return number of tracks
+   */
+  public int getTrackCount() {
+    return tracks;
+  }
+
+  /**
+   * @param track index of a track
+   * @return x component of the direction of the track in the current image
+   */
+  double getX(final int track) {
+    return rotatedX[track];
+  }
+
+  /**
+   * @param track index of a track
+   * @return y component of the direction of the track, which the rotation
+   *         leaves unchanged
+   */
+  double getY(final int track) {
+    return startY[track];
+  }
+
+  /**
+   * @param track index of a track
+   * @return z component of the direction of the track in the current image
+   */
+  double getZ(final int track) {
+    return rotatedZ[track];
+  }
+}
@@ -25,6 +25,10 @@ public final class RD3D {
   private Experiment        exp                  = new Experiment();
   /** Common prefix for output files. */
   private String            prefix               = "output-";
+  /** File to write a checkpoint to after each wedge, or null. */
+  private String            checkpoint;
+  /** Checkpoint file to resume the simulation from, or null. */
+  private String            resume;
 
   /**
    * Private class constructor. Only the class itself needs to instantiate it.
@@ -86,6 +90,19 @@ public final class RD3D {
       return false;
     }
 
+    if (checkpoint != null) {
+      exp.setCheckpoint(checkpoint);
+    }
+    if (resume != null) {
+      try {
+        exp.setResume(resume);
+      } catch (IllegalArgumentException e) {
+        System.err.println(e.getMessage());
+        exp = null;
+        return false;
+      }
+    }
+
     // Add outputs to experiment.
     for (Output o : outputs) {
       exp.addObserver(o);
@@ -209,6 +226,40 @@ public final class RD3D {
               + cmdLineParams[i]);
         }
 
+      } else if ("-j".equals(command) || "--threads".equals(command)) {
+        if ((i + 1) >= cmdLineParams.length) {
+          System.err.println("No number of threads given");
+        } else {
+          i++;
+          try {
+            Crystal.setExposureThreads(Integer.parseInt(cmdLineParams[i]));
+            System.out.println("Exposing crystals using "
+                + Crystal.getExposureThreads() + " threads");
+          } catch (IllegalArgumentException e) {
+            System.err.println("Invalid number of threads: "
+                + cmdLineParams[i]);
+          }
+        }
+
+      } else if ("-c".equals(command) || "--checkpoint".equals(command)) {
+        if ((i + 1) >= cmdLineParams.length) {
+          System.err.println("No checkpoint filename given");
+        } else {
+          i++;
+          checkpoint = cmdLineParams[i];
+          System.out.println("Checkpoint after each wedge to "
+              + checkpoint);
+        }
+
+      } else if ("-u".equals(command) || "--resume".equals(command)) {
+        if ((i + 1) >= cmdLineParams.length) {
+          System.err.println("No checkpoint filename to resume from given");
+        } else {
+          i++;
+          resume = cmdLineParams[i];
+          System.out.println("Resume from checkpoint " + resume);
+        }
+
       } else if ("-o".equals(command) || "--out".equals(command)) {
         //        module[:parameters]:dest[:dest[..]]
         if ((i + 1) >= cmdLineParams.length) {
@@ -321,6 +372,11 @@ public final class RD3D {
     System.out.println(" -p   or --prefix name  prefix for output files");
     System.out.println(" -r   or --raddose path path to RaddoseV3 executable");
     System.out.println(" -t   or --test         test run with no simulation");
+    System.out.println(" -j   or --threads n    expose crystals using n threads");
+    System.out.println(" -c   or --checkpoint f write the dose state to f after"
+        + " each wedge");
+    System.out.println(" -u   or --resume f     skip the wedges exposed before"
+        + " checkpoint f");
     System.out.println();
     System.out.println(" -o   or --out <output> for user-defined output");
     // System.out.println("      see manual or use -o? for complete syntax");
@@ -0,0 +1,210 @@
+package se.raddo.raddose3D;
+
+import java.util.Arrays;
+
+/**
+ * Index of the voxels of the surrounding solution grid that lie outside the
+ * crystal but close enough to it for their photoelectrons to reach it.
+ *
+ * The surrounding grid is the crystal bounding box enlarged by the maximum
+ * photoelectron distance on every side, so most of its voxels are either
+ * inside the crystal or, for crystals that do not fill their bounding box,
+ * too far away from it to matter. Listing the rest once for each surrounding
+ * grid spares the exposure of every image from testing the whole box.
+ *
+ * A voxel is near the crystal if a crystal voxel lies within the reach along
+ * every axis, which includes every voxel within the reach in a straight line.
+ * The crystal occupancy is dilated by the reach one axis at a time on a
+ * crystal grid padded by the reach.
+ */
+final class SurroundingShell {
+  /** Size of the surrounding grid along i, j and k. */
+  private final int    cryoNx, cryoNy, cryoNz;
+
+  /** Voxels the surrounding grid extends beyond the crystal. */
+  private final int    extraVoxels;
+
+  /** Resolution of the surrounding grid in voxels per micron. */
+  private final double cryoPixPerUM;
+
+  /** Number of voxels in the shell. */
+  private int       size;
+
+  /** Linear index (i * ny + j) * nz + k of each shell voxel. */
+  private int[]     voxels = new int[1024];
+
+  /**
+   * Builds the shell of a crystal from its current surrounding grid.
+   *
+   * @param crystal
+   *          crystal whose surrounding solution grid has been set up.
+   * @param everyVoxel
+   *          true to list every voxel of the surrounding grid outside the
+   *          crystal, however far from it.
+   */
+  SurroundingShell(final Crystal crystal, final boolean everyVoxel) {
+    final int[] cryoSize = crystal.getCryoCrystSizeVoxels();
+    cryoNx = cryoSize[0];
+    cryoNy = cryoSize[1];
+    cryoNz = cryoSize[2];
+    extraVoxels = crystal.getCryoExtraVoxels();
+    cryoPixPerUM = crystal.getCryoCrystalPixPerUM();
+    final double ppmRatio = crystal.getCrystalPixPerUM() / cryoPixPerUM;
+    // The grid extends by up to one surrounding voxel less than the
+    // photoelectron reach, and a track end is rounded to the nearest
+    // crystal voxel, so one crystal voxel more is allowed for each.
+    final int reach = (int) Math.ceil((extraVoxels + 1) * ppmRatio) + 1;
+
+    final int[] crystSize = crystal.getCrystSizeVoxels();
+    final int px = crystSize[0] + 2 * reach;
+    final int py = crystSize[1] + 2 * reach;
+    final int pz = crystSize[2] + 2 * reach;
+    final boolean[] near = dilatedOccupancy(crystal, reach, px, py, pz);
+
+    for (int i = 0; i < cryoSize[0]; i++) {
+      int iconverted = (int) StrictMath.round((i - extraVoxels) * ppmRatio);
+      boolean iNear = iconverted >= -reach && iconverted < px - reach;
+      if (!iNear && !everyVoxel) {
+        continue;
+      }
+      for (int j = 0; j < cryoSize[1]; j++) {
+        int jconverted = (int) StrictMath.round((j - extraVoxels) * ppmRatio);
+        boolean jNear = iNear && jconverted >= -reach
+            && jconverted < py - reach;
+        if (!jNear && !everyVoxel) {
+          continue;
+        }
+        for (int k = 0; k < cryoSize[2]; k++) {
+          int kconverted =
+              (int) StrictMath.round((k - extraVoxels) * ppmRatio);
+          boolean kNear = jNear && kconverted >= -reach
+              && kconverted < pz - reach;
+          if (!kNear && !everyVoxel) {
+            continue;
+          }
+          if ((everyVoxel || near[((iconverted + reach) * py + jconverted
+              + reach) * pz + kconverted + reach])
+              && !crystal.isCrystalAt(iconverted, jconverted, kconverted)) {
+            if (size == voxels.length) {
+              voxels = Arrays.copyOf(voxels, 2 * size);
+            }
+            voxels[size++] = (i * cryoNy + j) * cryoNz + k;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the crystal occupancy on a grid padded by the reach on every
+   * side, dilated so that a point is set if any crystal voxel lies within
+   * the reach along every axis.
+   */
+  private static boolean[] dilatedOccupancy(final Crystal crystal,
+      final int reach, final int px, final int py, final int pz) {
+    final boolean[] near = new boolean[px * py * pz];
+    final OccupancySpans spans = crystal.getOccupancySpans();
+    final int[] crystSize = crystal.getCrystSizeVoxels();
+    for (int i = 0; i < crystSize[0]; i++) {
+      for (int j = 0; j < crystSize[1]; j++) {
+        int column = ((i + reach) * py + j + reach) * pz + reach;
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          Arrays.fill(near, column + spans.getRunStart(r),
+              column + spans.getRunEnd(r), true);
+        }
+      }
+    }
+
+    final int[] counts = new int[Math.max(px, Math.max(py, pz)) + 1];
+    for (int i = 0; i < px; i++) {
+      for (int j = 0; j < py; j++) {
+        dilateLine(near, (i * py + j) * pz, 1, pz, reach, counts);
+      }
+    }
+    for (int i = 0; i < px; i++) {
+      for (int k = 0; k < pz; k++) {
+        dilateLine(near, i * py * pz + k, pz, py, reach, counts);
+      }
+    }
+    for (int j = 0; j < py; j++) {
+      for (int k = 0; k < pz; k++) {
+        dilateLine(near, j * pz + k, py * pz, px, reach, counts);
+      }
+    }
+    return near;
+  }
+
+  /**
+   * Sets every point of a line that has a set point within the reach, using
+   * running counts of the set points.
+   */
+  private static void dilateLine(final boolean[] grid, final int first,
+      final int stride, final int length, final int reach,
+      final int[] counts) {
+    counts[0] = 0;
+    for (int n = 0, index = first; n < length; n++, index += stride) {
+      counts[n + 1] = counts[n];
+      if (grid[index]) {
+        counts[n + 1]++;
+      }
+    }
+    if (counts[length] == 0) {
+      return;
+    }
+    for (int n = 0, index = first; n < length; n++, index += stride) {
+      int low = Math.max(0, n - reach);
+      int high = Math.min(length, n + reach + 1);
+      grid[index] = counts[high] > counts[low];
+    }
+  }
+
+  /**
+   * Returns whether the shell was built for the current surrounding grid of
+   * a crystal, which depends on the photoelectron reach of the beam.
+   *
+   * @param crystal
+   *          crystal the shell was built for.
+   * @return true if the surrounding grid has not changed since.
+   */
+  boolean fits(final Crystal crystal) {
+    final int[] cryoSize = crystal.getCryoCrystSizeVoxels();
+    return cryoSize[0] == cryoNx && cryoSize[1] == cryoNy
+        && cryoSize[2] == cryoNz
+        && crystal.getCryoExtraVoxels() == extraVoxels
+        && crystal.getCryoCrystalPixPerUM() == cryoPixPerUM;
+  }
+
+  /**
+   * @return number of voxels in the shell.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @param n
+   *          index of a shell voxel, in order of i, then j, then k.
+   * @return i index of the voxel in the surrounding grid.
+   */
+  int getI(final int n) {
+    return voxels[n] / (cryoNy * cryoNz);
+  }
+
+  /**
+   * @param n
+   *          index of a shell voxel.
+   * @return j index of the voxel in the surrounding grid.
+   */
+  int getJ(final int n) {
+    return voxels[n] / cryoNz % cryoNy;
+  }
+
+  /**
+   * @param n
+   *          index of a shell voxel.
+   * @return k index of the voxel in the surrounding grid.
+   */
+  int getK(final int n) {
+    return voxels[n] % cryoNz;
+  }
+}
@@ -0,0 +1,101 @@
+package se.raddo.raddose3D;
+
+/**
+ * Coordinates of the voxels of a grid in the starting position, computed
+ * from the voxel indices when needed instead of being stored per voxel.
+ *
+ * A voxel lies at its indices divided by the pixels per micron, less the
+ * shift of the grid origin, rotated in plane about [0 0 1] by P and then
+ * about [1 0 0] by L. The sines and cosines are taken once. A column along
+ * k is filled with the terms that do not depend on k worked out once per
+ * column. The terms are evaluated in the same order as for single voxels,
+ * so both give identical results.
+ */
+final class VoxelCoordinates {
+  /** Shift of the grid origin along x, y and z before rotation. */
+  private final double shiftX, shiftY, shiftZ;
+
+  /** Number of voxels per micron. */
+  private final double pixPerUM;
+
+  /** Cosines and sines of the P and L rotations. */
+  private final double cosP, sinP, cosL, sinL;
+
+  /**
+   * @param shiftX
+   *          distance (um) of voxel 0 below the origin along x.
+   * @param shiftY
+   *          distance (um) of voxel 0 below the origin along y.
+   * @param shiftZ
+   *          distance (um) of voxel 0 below the origin along z.
+   * @param pixPerUM
+   *          number of voxels per micron.
+   * @param p
+   *          rotation P in radians.
+   * @param l
+   *          rotation L in radians.
+   */
+  VoxelCoordinates(final double shiftX, final double shiftY,
+      final double shiftZ, final double pixPerUM, final double p,
+      final double l) {
+    this.shiftX = shiftX;
+    this.shiftY = shiftY;
+    this.shiftZ = shiftZ;
+    this.pixPerUM = pixPerUM;
+    cosP = Math.cos(p);
+    sinP = Math.sin(p);
+    cosL = Math.cos(l);
+    sinL = Math.sin(l);
+  }
+
+  /**
+   * Writes the coordinates of voxel i, j, k into coord.
+   *
+   * @param i i
+   * @param j j
+   * @param k k
+   * @param coord 3 element array receiving the x, y and z coordinates.
+   */
+  void get(final int i, final int j, final int k, final double[] coord) {
+    double x = -shiftX + i / pixPerUM;
+    double y = -shiftY + j / pixPerUM;
+    double z = -shiftZ + k / pixPerUM;
+
+    // rotation in plane about [0 0 1] (P)
+    double x2 = x * cosP + y * sinP;
+    double y2 = -1 * x * sinP + y * cosP;
+
+    // rotation loop about [1 0 0] (L)
+    coord[0] = x2;
+    coord[1] = y2 * cosL + z * sinL;
+    coord[2] = -1 * y2 * sinL + z * cosL;
+  }
+
+  /**
+   * Writes the coordinates of the voxels kStart to kEnd - 1 of column i, j
+   * into x, y and z at their k index.
+   *
+   * @param i i
+   * @param j j
+   * @param kStart first k of the range.
+   * @param kEnd k after the last one of the range.
+   * @param x array receiving the x coordinates.
+   * @param y array receiving the y coordinates.
+   * @param z array receiving the z coordinates.
+   */
+  void getColumn(final int i, final int j, final int kStart, final int kEnd,
+      final double[] x, final double[] y, final double[] z) {
+    double x1 = -shiftX + i / pixPerUM;
+    double y1 = -shiftY + j / pixPerUM;
+    double x2 = x1 * cosP + y1 * sinP;
+    double y2 = -1 * x1 * sinP + y1 * cosP;
+    double yTerm = y2 * cosL;
+    double zTerm = -1 * y2 * sinL;
+    for (int k = kStart; k < kEnd; k++) {
+      double z1 = -shiftZ + k / pixPerUM;
+      x[k] = x2;
+      y[k] = yTerm + z1 * sinL;
+      z[k] = zTerm + z1 * cosL;
+    }
+  }
+}
@@ -0,0 +1,479 @@
+package se.raddo.raddose3D;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Scalar value per voxel of a crystal grid, such as the dose, fluence or
+ * elastic yield, at the flat voxel index (i * ny + j) * nz + k. All voxels
+ * start at zero and only ever have values added.
+ *
+ * How the values are stored is up to the implementation, so that the
+ * crystal can trade precision for memory, keep its values off the heap, or
+ * only store the voxels that were written, without its loops changing.
+ */
+abstract class VoxelField {
+  /**
+   * @param index flat index of the voxel
+   * @return value of the voxel
+   */
+  abstract double get(int index);
+
+  /**
+   * Adds to the value of a voxel.
+   *
+   * @param index flat index of the voxel
+   * @param increase amount to add
+   */
+  abstract void add(int index, double increase);
+
+  /**
+   * Finds where a stretch of voxels that were never written ends. Fields
+   * that store every voxel have no such stretches.
+   *
+   * @param index first flat index to look at
+   * @param end flat index after the last one to look at
+   * @return first index from index to end - 1 that may hold a value other
+   *         than zero, or end if there is none.
+   */
+  int nextTouched(final int index, final int end) {
+    return index;
+  }
+
+  /**
+   * Finds where a stretch of voxels that may have been written ends.
+   *
+   * @param index first flat index to look at
+   * @param end flat index after the last one to look at
+   * @return first index from index to end - 1 that is certainly zero, or
+   *         end if there is none.
+   */
+  int nextUntouched(final int index, final int end) {
+    return end;
+  }
+
+  /**
+   * Creates a field of all zeros.
+   *
+   * @param size
+   *          number of voxels of the grid along i, j and k.
+   * @param storagePrecision
+   *          one of the Crystal.STORAGE_PRECISION_ constants.
+   * @param voxelStore
+   *          one of the Crystal.VOXEL_STORE_ constants.
+   * @return
+   *         new field.
+   */
+  static VoxelField create(final int[] size, final int storagePrecision,
+      final int voxelStore) {
+    if (voxelStore == Crystal.VOXEL_STORE_SPARSE) {
+      if (storagePrecision == Crystal.STORAGE_PRECISION_SINGLE) {
+        return new SparseSinglePrecision(size);
+      }
+      return new SparseDoublePrecision(size);
+    }
+    final int voxels = size[0] * size[1] * size[2];
+    if (voxelStore == Crystal.VOXEL_STORE_MAPPED) {
+      if (storagePrecision == Crystal.STORAGE_PRECISION_SINGLE) {
+        return new MappedSinglePrecision(voxels);
+      }
+      return new MappedDoublePrecision(voxels);
+    }
+    if (storagePrecision == Crystal.STORAGE_PRECISION_SINGLE) {
+      return new SinglePrecision(voxels);
+    }
+    return new DoublePrecision(voxels);
+  }
+
+  /**
+   * Number of voxels per mapped chunk, as a power of two. A single mapping
+   * cannot exceed 2 GB, so larger fields are mapped in chunks of 1 GB of
+   * doubles or 512 MB of floats.
+   */
+  private static final int CHUNK_SHIFT = 27;
+
+  /** Mask of the position of a voxel within its chunk. */
+  private static final int CHUNK_MASK  = (1 << CHUNK_SHIFT) - 1;
+
+  /**
+   * Maps a new temporary file of zeros in chunks of 1 &lt;&lt; CHUNK_SHIFT
+   * voxels. The file is removed once mapped where the system allows it,
+   * and otherwise when the program ends.
+   *
+   * @param voxels
+   *          number of voxels.
+   * @param bytesPerVoxel
+   *          size of the value of a voxel.
+   * @return
+   *         buffer of each chunk, in native byte order.
+   */
+  private static ByteBuffer[] mapChunks(final int voxels,
+      final int bytesPerVoxel) {
+    final int chunks = (int) (((long) voxels + CHUNK_MASK) >>> CHUNK_SHIFT);
+    final ByteBuffer[] buffers = new ByteBuffer[chunks];
+    File file = null;
+    try {
+      file = File.createTempFile("raddose3d-voxels", ".bin");
+      RandomAccessFile store = new RandomAccessFile(file, "rw");
+      try {
+        // a file extended by setLength reads as zeros without being written
+        store.setLength((long) voxels * bytesPerVoxel);
+        FileChannel channel = store.getChannel();
+        for (int c = 0; c < chunks; c++) {
+          long first = (long) c << CHUNK_SHIFT;
+          long size = Math.min(1L << CHUNK_SHIFT, voxels - first);
+          buffers[c] = channel.map(FileChannel.MapMode.READ_WRITE,
+              first * bytesPerVoxel, size * bytesPerVoxel);
+          buffers[c].order(ByteOrder.nativeOrder());
+        }
+      } finally {
+        // the mappings stay valid once the file is closed
+        store.close();
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException(
+          "Cannot map voxel store file " + file, e);
+    } finally {
+      if (file != null && !file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+    return buffers;
+  }
+
+  /** Values held as doubles, 8 bytes per voxel. */
+  static final class DoublePrecision extends VoxelField {
+    /** Value of each voxel. */
+    private final double[] values;
+
+    /**
+     * @param voxels number of voxels
+     */
+    DoublePrecision(final int voxels) {
+      values = new double[voxels];
+    }
+
+    @Override
+    double get(final int index) {
+      return values[index];
+    }
+
+    @Override
+    void add(final int index, final double increase) {
+      values[index] += increase;
+    }
+  }
+
+  /**
+   * Values held as floats, 4 bytes per voxel. Each addition is done in
+   * double and rounded once when stored, so the relative error of a voxel
+   * grows by at most about 6e-8 per addition.
+   */
+  static final class SinglePrecision extends VoxelField {
+    /** Value of each voxel. */
+    private final float[] values;
+
+    /**
+     * @param voxels number of voxels
+     */
+    SinglePrecision(final int voxels) {
+      values = new float[voxels];
+    }
+
+    @Override
+    double get(final int index) {
+      return values[index];
+    }
+
+    @Override
+    void add(final int index, final double increase) {
+      values[index] = (float) (values[index] + increase);
+    }
+  }
+
+  /**
+   * Values held as doubles in a memory mapped temporary file, so that they
+   * need not fit in the heap. Voxels are stored in index order, so a slab
+   * of i planes is a contiguous part of the file and the system pages it
+   * in as the exposure reaches it.
+   */
+  static final class MappedDoublePrecision extends VoxelField {
+    /** Value of each voxel, per chunk. */
+    private final DoubleBuffer[] chunks;
+
+    /**
+     * @param voxels number of voxels
+     */
+    MappedDoublePrecision(final int voxels) {
+      ByteBuffer[] buffers = mapChunks(voxels, Double.SIZE / Byte.SIZE);
+      chunks = new DoubleBuffer[buffers.length];
+      for (int c = 0; c < buffers.length; c++) {
+        chunks[c] = buffers[c].asDoubleBuffer();
+      }
+    }
+
+    @Override
+    double get(final int index) {
+      return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    void add(final int index, final double increase) {
+      final DoubleBuffer chunk = chunks[index >>> CHUNK_SHIFT];
+      final int position = index & CHUNK_MASK;
+      chunk.put(position, chunk.get(position) + increase);
+    }
+  }
+
+  /**
+   * Values held as floats in a memory mapped temporary file, rounded as in
+   * SinglePrecision.
+   */
+  static final class MappedSinglePrecision extends VoxelField {
+    /** Value of each voxel, per chunk. */
+    private final FloatBuffer[] chunks;
+
+    /**
+     * @param voxels number of voxels
+     */
+    MappedSinglePrecision(final int voxels) {
+      ByteBuffer[] buffers = mapChunks(voxels, Float.SIZE / Byte.SIZE);
+      chunks = new FloatBuffer[buffers.length];
+      for (int c = 0; c < buffers.length; c++) {
+        chunks[c] = buffers[c].asFloatBuffer();
+      }
+    }
+
+    @Override
+    double get(final int index) {
+      return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    void add(final int index, final double increase) {
+      final FloatBuffer chunk = chunks[index >>> CHUNK_SHIFT];
+      final int position = index & CHUNK_MASK;
+      chunk.put(position, (float) (chunk.get(position) + increase));
+    }
+  }
+
+  /**
+   * Values held in bricks of 8 x 8 x 8 voxels, each allocated when a value
+   * other than zero is first added to it, so that a small beam on a large
+   * crystal only pays for the voxels it reaches. Within a brick the voxels
+   * are laid out in Morton order, interleaving the bits of their i, j and
+   * k offsets, so that the voxels around any one voxel, as reached by the
+   * escape stencils, share few cache lines.
+   *
+   * Bricks may be allocated from several exposure threads at once, so
+   * allocation is synchronized. Threads only ever write different voxels.
+   */
+  abstract static class Sparse extends VoxelField {
+    /** Bits of the voxel offset within a brick along each axis. */
+    static final int        BRICK_SHIFT = 3;
+
+    /** Number of voxels of a brick. */
+    static final int        BRICK_VOXELS = 1 << (3 * BRICK_SHIFT);
+
+    /** Mask of the voxel offset within a brick along each axis. */
+    private static final int BRICK_MASK = (1 << BRICK_SHIFT) - 1;
+
+    /** Offset along one axis spread to every third bit. */
+    private static final int[] SPREAD = {0, 1, 8, 9, 64, 65, 72, 73};
+
+    /** Number of voxels along j and k. */
+    private final int       ny, nz;
+
+    /** Number of bricks along j and k. */
+    private final int       bricksJ, bricksK;
+
+    /** Number of bricks. */
+    final int               bricks;
+
+    /**
+     * @param size number of voxels along i, j and k
+     */
+    Sparse(final int[] size) {
+      ny = size[1];
+      nz = size[2];
+      bricksJ = (ny + BRICK_MASK) >> BRICK_SHIFT;
+      bricksK = (nz + BRICK_MASK) >> BRICK_SHIFT;
+      bricks = ((size[0] + BRICK_MASK) >> BRICK_SHIFT) * bricksJ * bricksK;
+    }
+
+    /**
+     * @param index flat index of a voxel
+     * @return number of the brick holding the voxel times BRICK_VOXELS,
+     *         plus the position of the voxel within the brick.
+     */
+    final long locate(final int index) {
+      final int k = index % nz;
+      final int column = index / nz;
+      final int j = column % ny;
+      final int i = column / ny;
+      final long brick = ((i >> BRICK_SHIFT) * bricksJ + (j >> BRICK_SHIFT))
+          * bricksK + (k >> BRICK_SHIFT);
+      return brick * BRICK_VOXELS | (SPREAD[i & BRICK_MASK] << 2)
+          | (SPREAD[j & BRICK_MASK] << 1) | SPREAD[k & BRICK_MASK];
+    }
+
+    /**
+     * @param index flat index of a voxel
+     * @return number of the brick holding the voxel.
+     */
+    final int brick(final int index) {
+      return (int) (locate(index) >> (3 * BRICK_SHIFT));
+    }
+
+    /**
+     * @param brick number of a brick
+     * @return true if the brick has been allocated.
+     */
+    abstract boolean hasBrick(int brick);
+
+    @Override
+    final int nextTouched(final int index, final int end) {
+      int next = index;
+      while (next < end && !hasBrick(brick(next))) {
+        next = nextBrickAlongK(next, end);
+      }
+      return next;
+    }
+
+    @Override
+    final int nextUntouched(final int index, final int end) {
+      int next = index;
+      while (next < end && hasBrick(brick(next))) {
+        next = nextBrickAlongK(next, end);
+      }
+      return next;
+    }
+
+    /**
+     * @param index flat index of a voxel
+     * @param end flat index not to go past
+     * @return flat index of the first voxel of the next brick along k in
+     *         the same column, or end if that comes first.
+     */
+    private int nextBrickAlongK(final int index, final int end) {
+      final int k = index % nz;
+      final int kNext = Math.min(nz, (k | BRICK_MASK) + 1);
+      return Math.min(end, index + kNext - k);
+    }
+  }
+
+  /** Sparse values held as doubles. */
+  static final class SparseDoublePrecision extends Sparse {
+    /** Value of each voxel per brick, or null for bricks all zero. */
+    private final double[][] values;
+
+    /**
+     * @param size number of voxels along i, j and k
+     */
+    SparseDoublePrecision(final int[] size) {
+      super(size);
+      values = new double[bricks][];
+    }
+
+    @Override
+    double get(final int index) {
+      final long slot = locate(index);
+      final double[] brick = values[(int) (slot >> (3 * BRICK_SHIFT))];
+      if (brick == null) {
+        return 0;
+      }
+      return brick[(int) slot & (BRICK_VOXELS - 1)];
+    }
+
+    @Override
+    void add(final int index, final double increase) {
+      final long slot = locate(index);
+      final int b = (int) (slot >> (3 * BRICK_SHIFT));
+      double[] brick = values[b];
+      if (brick == null) {
+        if (increase == 0) {
+          return;
+        }
+        brick = allocate(b);
+      }
+      brick[(int) slot & (BRICK_VOXELS - 1)] += increase;
+    }
+
+    @Override
+    boolean hasBrick(final int brick) {
+      return values[brick] != null;
+    }
+
+    /**
+     * @param b number of a brick
+     * @return the brick, allocated unless another thread got there first.
+     */
+    private synchronized double[] allocate(final int b) {
+      if (values[b] == null) {
+        values[b] = new double[BRICK_VOXELS];
+      }
+      return values[b];
+    }
+  }
+
+  /** Sparse values held as floats, rounded as in SinglePrecision. */
+  static final class SparseSinglePrecision extends Sparse {
+    /** Value of each voxel per brick, or null for bricks all zero. */
+    private final float[][] values;
+
+    /**
+     * @param size number of voxels along i, j and k
+     */
+    SparseSinglePrecision(final int[] size) {
+      super(size);
+      values = new float[bricks][];
+    }
+
+    @Override
+    double get(final int index) {
+      final long slot = locate(index);
+      final float[] brick = values[(int) (slot >> (3 * BRICK_SHIFT))];
+      if (brick == null) {
+        return 0;
+      }
+      return brick[(int) slot & (BRICK_VOXELS - 1)];
+    }
+
+    @Override
+    void add(final int index, final double increase) {
+      final long slot = locate(index);
+      final int b = (int) (slot >> (3 * BRICK_SHIFT));
+      float[] brick = values[b];
+      if (brick == null) {
+        if (increase == 0) {
+          return;
+        }
+        brick = allocate(b);
+      }
+      final int c = (int) slot & (BRICK_VOXELS - 1);
+      brick[c] = (float) (brick[c] + increase);
+    }
+
+    @Override
+    boolean hasBrick(final int brick) {
+      return values[brick] != null;
+    }
+
+    /**
+     * @param b number of a brick
+     * @return the brick, allocated unless another thread got there first.
+     */
+    private synchronized float[] allocate(final int b) {
+      if (values[b] == null) {
+        values[b] = new float[BRICK_VOXELS];
+      }
+      return values[b];
+    }
+  }
+}
@@ -1,4 +1,4 @@
-// $ANTLR 3.4 C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g 2018-08-22 13:04:13
+// $ANTLR 3.4 C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g 2026-10-18 20:07:50
 
 package se.raddo.raddose3D.parser;
 
@@ -34,70 +34,77 @@ public class InputfileLexer extends Lexer {
     public static final int DDM=24;
     public static final int DECAYPARAM=25;
     public static final int DEFAULT=26;
-    public static final int DIFFRACTIONDECAYMODEL=27;
-    public static final int DIMENSION=28;
-    public static final int DUMMY=29;
-    public static final int ELEMENT=30;
-    public static final int ELEMENTAL=31;
-    public static final int ENERGY=32;
-    public static final int EXPONENT=33;
-    public static final int EXPOSURETIME=34;
-    public static final int FILE=35;
-    public static final int FLOAT=36;
-    public static final int FLRESOLUTION=37;
-    public static final int FLUX=38;
-    public static final int FWHM=39;
-    public static final int GONIOMETERAXIS=40;
-    public static final int HORIZONTAL=41;
-    public static final int KEV=42;
-    public static final int LEAL=43;
-    public static final int LINEAR=44;
-    public static final int MATERIALELEMENTS=45;
-    public static final int MATERIALMIXTURE=46;
-    public static final int MATERIALTYPE=47;
-    public static final int MIXTURE=48;
-    public static final int MODELFILE=49;
-    public static final int NONE=50;
-    public static final int NUMCARB=51;
-    public static final int NUMDNA=52;
-    public static final int NUMMONOMERS=53;
-    public static final int NUMRESIDUES=54;
-    public static final int NUMRNA=55;
-    public static final int OILBASED=56;
-    public static final int OILDENSITY=57;
-    public static final int OILELEMENTS=58;
-    public static final int PDB=59;
-    public static final int PDBNAME=60;
-    public static final int PERESOLUTION=61;
-    public static final int PIXELSIZE=62;
-    public static final int PIXELSPERMICRON=63;
-    public static final int PROTEINCONC=64;
-    public static final int PROTEINCONCENTRATION=65;
-    public static final int PROTEINHEAVYATOMS=66;
-    public static final int RDFORTAN=67;
-    public static final int RDJAVA=68;
-    public static final int RECTANGULAR=69;
-    public static final int ROTAXBEAMOFFSET=70;
-    public static final int SAXS=71;
-    public static final int SAXSSEQ=72;
-    public static final int SEQFILE=73;
-    public static final int SEQUENCE=74;
-    public static final int SEQUENCEFILE=75;
-    public static final int SIMPLE=76;
-    public static final int SMALLMOLE=77;
-    public static final int SMALLMOLEATOMS=78;
-    public static final int SOLVENTFRACTION=79;
-    public static final int SOLVENTHEAVYCONC=80;
-    public static final int STARTOFFSET=81;
-    public static final int STRING=82;
-    public static final int SURROUNDINGHEAVYCONC=83;
-    public static final int TRANSLATEPERDEGREE=84;
-    public static final int TYPE=85;
-    public static final int UNITCELL=86;
-    public static final int VERTICAL=87;
-    public static final int WEDGE=88;
-    public static final int WIREFRAMETYPE=89;
-    public static final int WS=90;
+    public static final int DEPTHCACHE=27;
+    public static final int DEPTHENGINE=28;
+    public static final int DEPTHSAMPLING=29;
+    public static final int DIFFRACTIONDECAYMODEL=30;
+    public static final int DIMENSION=31;
+    public static final int DUMMY=32;
+    public static final int ELEMENT=33;
+    public static final int ELEMENTAL=34;
+    public static final int ENERGY=35;
+    public static final int ESCAPEENGINE=36;
+    public static final int EXPONENT=37;
+    public static final int EXPOSURETIME=38;
+    public static final int FILE=39;
+    public static final int FLOAT=40;
+    public static final int FLRESOLUTION=41;
+    public static final int FLUX=42;
+    public static final int FWHM=43;
+    public static final int GONIOMETERAXIS=44;
+    public static final int HORIZONTAL=45;
+    public static final int KEV=46;
+    public static final int LEAL=47;
+    public static final int LINEAR=48;
+    public static final int MATERIALELEMENTS=49;
+    public static final int MATERIALMIXTURE=50;
+    public static final int MATERIALTYPE=51;
+    public static final int MIXTURE=52;
+    public static final int MODELFILE=53;
+    public static final int NONE=54;
+    public static final int NUMCARB=55;
+    public static final int NUMDNA=56;
+    public static final int NUMMONOMERS=57;
+    public static final int NUMRESIDUES=58;
+    public static final int NUMRNA=59;
+    public static final int OILBASED=60;
+    public static final int OILDENSITY=61;
+    public static final int OILELEMENTS=62;
+    public static final int PDB=63;
+    public static final int PDBNAME=64;
+    public static final int PERESOLUTION=65;
+    public static final int PIXELSIZE=66;
+    public static final int PIXELSPERMICRON=67;
+    public static final int PROTEINCONC=68;
+    public static final int PROTEINCONCENTRATION=69;
+    public static final int PROTEINHEAVYATOMS=70;
+    public static final int RANDOMSEED=71;
+    public static final int RDFORTAN=72;
+    public static final int RDJAVA=73;
+    public static final int RECTANGULAR=74;
+    public static final int ROTAXBEAMOFFSET=75;
+    public static final int SAXS=76;
+    public static final int SAXSSEQ=77;
+    public static final int SEQFILE=78;
+    public static final int SEQUENCE=79;
+    public static final int SEQUENCEFILE=80;
+    public static final int SIMPLE=81;
+    public static final int SMALLMOLE=82;
+    public static final int SMALLMOLEATOMS=83;
+    public static final int SOLVENTFRACTION=84;
+    public static final int SOLVENTHEAVYCONC=85;
+    public static final int STARTOFFSET=86;
+    public static final int STORAGEPRECISION=87;
+    public static final int STRING=88;
+    public static final int SURROUNDINGHEAVYCONC=89;
+    public static final int TRANSLATEPERDEGREE=90;
+    public static final int TYPE=91;
+    public static final int UNITCELL=92;
+    public static final int VERTICAL=93;
+    public static final int VOXELSTORE=94;
+    public static final int WEDGE=95;
+    public static final int WIREFRAMETYPE=96;
+    public static final int WS=97;
 
     // delegates
     // delegators
@@ -208,8 +215,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = TYPE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:301:6: ( ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:301:8: ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:308:6: ( ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:308:8: ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
@@ -267,8 +274,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = DIFFRACTIONDECAYMODEL;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:305:23: ( ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:305:25: ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:312:23: ( ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:312:25: ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' )
             {
             if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
@@ -496,8 +503,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = DDM;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:306:5: ( ( 'D' | 'd' ) ( 'D' | 'd' ) ( 'M' | 'm' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:306:7: ( 'D' | 'd' ) ( 'D' | 'd' ) ( 'M' | 'm' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:313:5: ( ( 'D' | 'd' ) ( 'D' | 'd' ) ( 'M' | 'm' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:313:7: ( 'D' | 'd' ) ( 'D' | 'd' ) ( 'M' | 'm' )
             {
             if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
@@ -545,8 +552,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SIMPLE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:312:8: ( ( 'S' | 's' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'P' | 'p' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:312:10: ( 'S' | 's' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'P' | 'p' ) ( 'L' | 'l' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:319:8: ( ( 'S' | 's' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'P' | 'p' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:319:10: ( 'S' | 's' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'P' | 'p' ) ( 'L' | 'l' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -624,8 +631,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = LINEAR;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:313:8: ( ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'R' | 'r' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:313:10: ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'R' | 'r' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:320:8: ( ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'R' | 'r' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:320:10: ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'R' | 'r' )
             {
             if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
@@ -703,8 +710,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = LEAL;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:314:6: ( ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:314:8: ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:321:6: ( ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:321:8: ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'L' | 'l' )
             {
             if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
@@ -762,8 +769,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = DECAYPARAM;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:318:13: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:318:15: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:325:13: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:325:15: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' )
             {
             if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
@@ -881,10 +888,10 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = ABSCOEFCALC;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:322:13: ( ( ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' ) )? ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:322:15: ( ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' ) )? ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:329:13: ( ( ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' ) )? ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:329:15: ( ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' ) )? ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' )
             {
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:322:15: ( ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' ) )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:329:15: ( ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' ) )?
             int alt1=2;
             int LA1_0 = input.LA(1);
 
@@ -893,7 +900,7 @@ public class InputfileLexer extends Lexer {
             }
             switch (alt1) {
                 case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:322:16: ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' )
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:329:16: ( 'A' | 'a' ) ( 'B' | 'b' ) ( 'S' | 's' )
                     {
                     if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                         input.consume();
@@ -1027,8 +1034,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = DUMMY;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:336:7: ( ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'Y' | 'y' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:336:9: ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'Y' | 'y' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:343:7: ( ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'Y' | 'y' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:343:9: ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'Y' | 'y' )
             {
             if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
@@ -1096,8 +1103,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = DEFAULT;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:337:9: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'A' | 'a' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'T' | 't' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:337:11: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'A' | 'a' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'T' | 't' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:344:9: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'A' | 'a' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'T' | 't' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:344:11: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'A' | 'a' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'T' | 't' )
             {
             if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
@@ -1185,8 +1192,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = AVERAGE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:338:9: ( ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'G' | 'g' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:338:11: ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'G' | 'g' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:345:9: ( ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'G' | 'g' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:345:11: ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'G' | 'g' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
@@ -1274,8 +1281,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = RDFORTAN;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:339:10: ( ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'V' | 'v' ) ( '2' | '3' )? )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:339:12: ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'V' | 'v' ) ( '2' | '3' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:346:10: ( ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'V' | 'v' ) ( '2' | '3' )? )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:346:12: ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'V' | 'v' ) ( '2' | '3' )?
             {
             if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
@@ -1307,7 +1314,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:339:39: ( '2' | '3' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:346:39: ( '2' | '3' )?
             int alt2=2;
             int LA2_0 = input.LA(1);
 
@@ -1350,8 +1357,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = RDJAVA;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:340:8: ( ( 'R' | 'r' ) ( 'D' | 'd' ) ( '3' ) ( 'D' | 'd' )? )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:340:10: ( 'R' | 'r' ) ( 'D' | 'd' ) ( '3' ) ( 'D' | 'd' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:347:8: ( ( 'R' | 'r' ) ( 'D' | 'd' ) ( '3' ) ( 'D' | 'd' )? )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:347:10: ( 'R' | 'r' ) ( 'D' | 'd' ) ( '3' ) ( 'D' | 'd' )?
             {
             if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
@@ -1373,15 +1380,15 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:340:28: ( '3' )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:340:29: '3'
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:347:28: ( '3' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:347:29: '3'
             {
             match('3'); 
 
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:340:33: ( 'D' | 'd' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:347:33: ( 'D' | 'd' )?
             int alt3=2;
             int LA3_0 = input.LA(1);
 
@@ -1424,8 +1431,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PDB;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:341:5: ( ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:341:7: ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:348:5: ( ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:348:7: ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' )
             {
             if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
@@ -1473,8 +1480,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SAXS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:342:6: ( ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:342:8: ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:349:6: ( ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:349:8: ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -1532,8 +1539,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SEQUENCE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:343:10: ( ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:343:12: ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:350:10: ( ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:350:12: ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -1631,8 +1638,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SAXSSEQ;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:344:9: ( ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:344:11: ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:351:9: ( ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:351:11: ( 'S' | 's' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'S' | 's' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -1720,8 +1727,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SMALLMOLE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:345:11: ( ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:345:13: ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:352:11: ( ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:352:13: ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -1829,8 +1836,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CIF;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:346:5: ( ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'S' | 's' ) ( 'M' | 'm' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:346:7: ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'S' | 's' ) ( 'M' | 'm' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:353:5: ( ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'S' | 's' ) ( 'M' | 'm' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:353:7: ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'S' | 's' ) ( 'M' | 'm' )
             {
             if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
@@ -1898,8 +1905,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = DIMENSION;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:360:11: ( ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'S' | 's' )? )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:360:13: ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'S' | 's' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:367:11: ( ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'S' | 's' )? )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:367:13: ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'S' | 's' )?
             {
             if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
@@ -1991,7 +1998,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:360:94: ( 'S' | 's' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:367:94: ( 'S' | 's' )?
             int alt4=2;
             int LA4_0 = input.LA(1);
 
@@ -2034,8 +2041,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = ANGLEP;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:365:8: ( ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'P' | 'p' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:365:10: ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'P' | 'p' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:372:8: ( ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'P' | 'p' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:372:10: ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'P' | 'p' )
             {
             if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
@@ -2113,8 +2120,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = ANGLEL;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:370:8: ( ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:370:10: ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:377:8: ( ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:377:10: ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' )
             {
             if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
@@ -2192,8 +2199,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PIXELSPERMICRON;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:374:17: ( ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:374:19: ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:381:17: ( ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:381:19: ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'N' | 'n' )
             {
             if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
@@ -2361,8 +2368,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = UNITCELL;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:387:10: ( ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:387:12: ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:394:10: ( ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:394:12: ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'L' | 'l' )
             {
             if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
@@ -2460,8 +2467,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PROTEINCONC;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:391:12: ( ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:391:14: ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:398:12: ( ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:398:14: ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' )
             {
             if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
@@ -2589,8 +2596,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PROTEINCONCENTRATION;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:392:21: ( ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:392:23: ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:399:21: ( ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:399:23: ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
             {
             if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
@@ -2808,8 +2815,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = NUMMONOMERS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:396:12: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:396:14: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:403:12: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:403:14: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
@@ -2937,8 +2944,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = NUMRESIDUES;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:400:13: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:400:15: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:407:13: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:407:15: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'D' | 'd' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
@@ -3066,8 +3073,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = NUMRNA;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:404:8: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'N' | 'n' ) ( 'A' | 'a' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:404:10: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'N' | 'n' ) ( 'A' | 'a' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:411:8: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'N' | 'n' ) ( 'A' | 'a' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:411:10: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'R' | 'r' ) ( 'N' | 'n' ) ( 'A' | 'a' )
             {
             if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
@@ -3145,8 +3152,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = NUMDNA;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:408:8: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'D' | 'd' ) ( 'N' | 'n' ) ( 'A' | 'a' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:408:10: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'D' | 'd' ) ( 'N' | 'n' ) ( 'A' | 'a' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:415:8: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'D' | 'd' ) ( 'N' | 'n' ) ( 'A' | 'a' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:415:10: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'D' | 'd' ) ( 'N' | 'n' ) ( 'A' | 'a' )
             {
             if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
@@ -3224,8 +3231,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = NUMCARB;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:412:9: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'B' | 'b' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:412:11: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'B' | 'b' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:419:9: ( ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'B' | 'b' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:419:11: ( 'N' | 'n' ) ( 'U' | 'u' ) ( 'M' | 'm' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'B' | 'b' )
             {
             if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
@@ -3313,8 +3320,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PROTEINHEAVYATOMS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:420:19: ( ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:420:21: ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:427:19: ( ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:427:21: ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
@@ -3502,8 +3509,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = ELEMENT;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:421:9: ( ( 'A' .. 'Z' | 'a' .. 'z' ) ( 'A' .. 'Z' | 'a' .. 'z' )? )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:421:11: ( 'A' .. 'Z' | 'a' .. 'z' ) ( 'A' .. 'Z' | 'a' .. 'z' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:428:9: ( ( 'A' .. 'Z' | 'a' .. 'z' ) ( 'A' .. 'Z' | 'a' .. 'z' )? )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:428:11: ( 'A' .. 'Z' | 'a' .. 'z' ) ( 'A' .. 'Z' | 'a' .. 'z' )?
             {
             if ( (input.LA(1) >= 'A' && input.LA(1) <= 'Z')||(input.LA(1) >= 'a' && input.LA(1) <= 'z') ) {
                 input.consume();
@@ -3515,7 +3522,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:421:32: ( 'A' .. 'Z' | 'a' .. 'z' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:428:32: ( 'A' .. 'Z' | 'a' .. 'z' )?
             int alt5=2;
             int LA5_0 = input.LA(1);
 
@@ -3558,8 +3565,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SMALLMOLEATOMS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:429:16: ( ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:429:18: ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:436:16: ( ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:436:18: ( 'S' | 's' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -3717,8 +3724,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SOLVENTHEAVYCONC;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:437:18: ( ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:437:20: ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:444:18: ( ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:444:20: ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -3896,8 +3903,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SOLVENTFRACTION;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:441:17: ( ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:441:19: ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:448:17: ( ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:448:19: ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -4065,8 +4072,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PDBNAME;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:445:9: ( ( 'P' | 'p' ) ( 'D' | 'd' ) ( 'B' | 'b' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:445:11: ( 'P' | 'p' ) ( 'D' | 'd' ) ( 'B' | 'b' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:452:9: ( ( 'P' | 'p' ) ( 'D' | 'd' ) ( 'B' | 'b' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:452:11: ( 'P' | 'p' ) ( 'D' | 'd' ) ( 'B' | 'b' )
             {
             if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
@@ -4114,8 +4121,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CIFNAME;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:449:9: ( ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'F' | 'f' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:449:11: ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'F' | 'f' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:456:9: ( ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'F' | 'f' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:456:11: ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'F' | 'f' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -4163,8 +4170,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = WIREFRAMETYPE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:453:15: ( ( 'W' | 'w' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'Y' | 'y' |) ( 'P' | 'p' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:453:17: ( 'W' | 'w' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'Y' | 'y' |) ( 'P' | 'p' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:460:15: ( ( 'W' | 'w' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'Y' | 'y' |) ( 'P' | 'p' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:460:17: ( 'W' | 'w' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'Y' | 'y' |) ( 'P' | 'p' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='W'||input.LA(1)=='w' ) {
                 input.consume();
@@ -4266,7 +4273,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:453:107: ( 'Y' | 'y' |)
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:460:107: ( 'Y' | 'y' |)
             int alt6=3;
             switch ( input.LA(1) ) {
             case 'Y':
@@ -4295,21 +4302,21 @@ public class InputfileLexer extends Lexer {
 
             switch (alt6) {
                 case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:453:108: 'Y'
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:460:108: 'Y'
                     {
                     match('Y'); 
 
                     }
                     break;
                 case 2 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:453:112: 'y'
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:460:112: 'y'
                     {
                     match('y'); 
 
                     }
                     break;
                 case 3 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:453:116: 
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:460:116: 
                     {
                     }
                     break;
@@ -4353,8 +4360,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = MODELFILE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:457:11: ( ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:457:13: ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:464:11: ( ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:464:13: ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
@@ -4462,8 +4469,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CALCULATEPEESCAPE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:462:2: ( ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:462:5: ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:469:2: ( ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:469:5: ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -4651,8 +4658,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = GONIOMETERAXIS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:467:2: ( ( 'G' | 'g' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'I' | 'i' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:467:5: ( 'G' | 'g' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'I' | 'i' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:474:2: ( ( 'G' | 'g' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'I' | 'i' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:474:5: ( 'G' | 'g' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'I' | 'i' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
@@ -4810,8 +4817,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CONTAINERMATERIALTYPE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:471:23: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:471:25: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:478:23: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:478:25: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -5039,8 +5046,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = MATERIALTYPE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:472:14: ( ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:472:16: ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:479:14: ( ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:479:16: ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'T' | 't' ) ( 'Y' | 'y' ) ( 'P' | 'p' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
@@ -5178,8 +5185,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = NONE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:478:7: ( ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:478:9: ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:485:7: ( ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:485:9: ( 'N' | 'n' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
@@ -5237,8 +5244,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = MIXTURE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:479:9: ( ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:479:11: ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:486:9: ( ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:486:11: ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
@@ -5326,8 +5333,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = ELEMENTAL;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:480:11: ( ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:480:13: ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:487:11: ( ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:487:13: ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' )
             {
             if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
@@ -5435,8 +5442,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CONTAINERTHICKNESS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:484:19: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'K' | 'k' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:484:21: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'K' | 'k' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:491:19: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'K' | 'k' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:491:21: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'K' | 'k' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -5634,8 +5641,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CONTAINERMATERIALMIXTURE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:488:25: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:488:27: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:495:25: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:495:27: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -5893,8 +5900,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = MATERIALMIXTURE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:489:16: ( ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:489:18: ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:496:16: ( ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:496:18: ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'M' | 'm' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'T' | 't' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
@@ -6062,8 +6069,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CONTAINERMATERIALELEMENTS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:497:26: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:497:28: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:504:26: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:504:28: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -6331,8 +6338,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = MATERIALELEMENTS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:498:17: ( ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:498:19: ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:505:17: ( ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:505:19: ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' )
             {
             if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
@@ -6510,8 +6517,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CONTAINERDENSITY;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:502:17: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:502:19: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:509:17: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:509:19: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -6689,8 +6696,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SEQUENCEFILE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:506:14: ( ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:506:17: ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:513:14: ( ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:513:17: ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'U' | 'u' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'C' | 'c' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -6828,8 +6835,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = SEQFILE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:507:9: ( ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:507:11: ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:514:9: ( ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:514:11: ( 'S' | 's' ) ( 'E' | 'e' ) ( 'Q' | 'q' ) ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
@@ -6917,8 +6924,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = CALCULATEFLESCAPE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:512:2: ( ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:512:5: ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:519:2: ( ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:519:5: ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -7106,8 +7113,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = FLRESOLUTION;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:516:14: ( ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:516:16: ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:523:14: ( ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:523:16: ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
             {
             if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
                 input.consume();
@@ -7245,8 +7252,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = PERESOLUTION;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:520:14: ( ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:520:16: ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:527:14: ( ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:527:16: ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
             {
             if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
@@ -7379,15 +7386,15 @@ public class InputfileLexer extends Lexer {
     }
     // $ANTLR end "PERESOLUTION"
 
-    // $ANTLR start "SURROUNDINGHEAVYCONC"
-    public final void mSURROUNDINGHEAVYCONC() throws RecognitionException {
+    // $ANTLR start "DEPTHENGINE"
+    public final void mDEPTHENGINE() throws RecognitionException {
         try {
-            int _type = SURROUNDINGHEAVYCONC;
+            int _type = DEPTHENGINE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:528:22: ( ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:528:24: ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:531:13: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:531:15: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' )
             {
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -7397,7 +7404,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7407,7 +7414,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
             }
             else {
@@ -7417,7 +7424,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -7427,7 +7434,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
                 input.consume();
             }
             else {
@@ -7437,7 +7444,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7457,7 +7464,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -7487,7 +7494,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7497,7 +7504,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "DEPTHENGINE"
+
+    // $ANTLR start "DEPTHSAMPLING"
+    public final void mDEPTHSAMPLING() throws RecognitionException {
+        try {
+            int _type = DEPTHSAMPLING;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:535:15: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'S' | 's' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'P' | 'p' ) ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:535:17: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'S' | 's' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'P' | 'p' ) ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' )
+            {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -7517,6 +7543,46 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
             if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
@@ -7527,7 +7593,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='V'||input.LA(1)=='v' ) {
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
             }
             else {
@@ -7537,7 +7603,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='Y'||input.LA(1)=='y' ) {
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
             }
             else {
@@ -7547,7 +7613,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -7557,7 +7623,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -7577,7 +7643,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -7596,17 +7662,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "SURROUNDINGHEAVYCONC"
+    // $ANTLR end "DEPTHSAMPLING"
 
-    // $ANTLR start "OILBASED"
-    public final void mOILBASED() throws RecognitionException {
+    // $ANTLR start "ESCAPEENGINE"
+    public final void mESCAPEENGINE() throws RecognitionException {
         try {
-            int _type = OILBASED;
+            int _type = ESCAPEENGINE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:532:10: ( ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'B' | 'b' ) ( 'A' | 'a' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'D' | 'd' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:532:12: ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'B' | 'b' ) ( 'A' | 'a' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'D' | 'd' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:539:14: ( ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:539:16: ( 'E' | 'e' ) ( 'S' | 's' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'E' | 'e' )
             {
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7616,7 +7682,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -7626,7 +7692,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -7636,7 +7702,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='B'||input.LA(1)=='b' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -7646,7 +7712,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
             }
             else {
@@ -7656,7 +7722,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7676,7 +7742,47 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7695,17 +7801,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "OILBASED"
+    // $ANTLR end "ESCAPEENGINE"
 
-    // $ANTLR start "CALCSURROUNDING"
-    public final void mCALCSURROUNDING() throws RecognitionException {
+    // $ANTLR start "STORAGEPRECISION"
+    public final void mSTORAGEPRECISION() throws RecognitionException {
         try {
-            int _type = CALCSURROUNDING;
+            int _type = STORAGEPRECISION;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:536:17: ( ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:536:19: ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:543:18: ( ( 'S' | 's' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'G' | 'g' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:543:20: ( 'S' | 's' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'G' | 'g' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
             {
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -7715,7 +7821,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -7725,7 +7831,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -7735,7 +7841,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -7745,7 +7851,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -7755,7 +7861,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -7765,7 +7871,17 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
             }
             else {
@@ -7785,7 +7901,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7795,7 +7911,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -7805,7 +7921,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -7815,7 +7931,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -7835,7 +7951,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -7845,7 +7961,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -7864,17 +7980,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "CALCSURROUNDING"
+    // $ANTLR end "STORAGEPRECISION"
 
-    // $ANTLR start "OILELEMENTS"
-    public final void mOILELEMENTS() throws RecognitionException {
+    // $ANTLR start "VOXELSTORE"
+    public final void mVOXELSTORE() throws RecognitionException {
         try {
-            int _type = OILELEMENTS;
+            int _type = VOXELSTORE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:545:13: ( ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:545:15: ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:547:12: ( ( 'V' | 'v' ) ( 'O' | 'o' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:547:14: ( 'V' | 'v' ) ( 'O' | 'o' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'E' | 'e' )
             {
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='V'||input.LA(1)=='v' ) {
                 input.consume();
             }
             else {
@@ -7884,7 +8000,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -7894,7 +8010,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
                 input.consume();
             }
             else {
@@ -7924,17 +8040,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -7944,7 +8050,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -7954,7 +8060,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -7964,7 +8070,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -7974,7 +8080,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -7993,17 +8099,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "OILELEMENTS"
+    // $ANTLR end "VOXELSTORE"
 
-    // $ANTLR start "OILDENSITY"
-    public final void mOILDENSITY() throws RecognitionException {
+    // $ANTLR start "RANDOMSEED"
+    public final void mRANDOMSEED() throws RecognitionException {
         try {
-            int _type = OILDENSITY;
+            int _type = RANDOMSEED;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:549:12: ( ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:549:14: ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:551:12: ( ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'D' | 'd' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:551:14: ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'O' | 'o' ) ( 'M' | 'm' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'E' | 'e' ) ( 'D' | 'd' )
             {
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -8013,7 +8119,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -8023,7 +8129,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -8043,7 +8149,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -8053,7 +8159,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
             }
             else {
@@ -8073,7 +8179,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8083,7 +8189,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8093,7 +8199,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='Y'||input.LA(1)=='y' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -8112,17 +8218,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "OILDENSITY"
+    // $ANTLR end "RANDOMSEED"
 
-    // $ANTLR start "BEAM"
-    public final void mBEAM() throws RecognitionException {
+    // $ANTLR start "DEPTHCACHE"
+    public final void mDEPTHCACHE() throws RecognitionException {
         try {
-            int _type = BEAM;
+            int _type = DEPTHCACHE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:564:6: ( ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:564:8: ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:555:12: ( ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'H' | 'h' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:555:14: ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'T' | 't' ) ( 'H' | 'h' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'C' | 'c' ) ( 'H' | 'h' ) ( 'E' | 'e' )
             {
-            if ( input.LA(1)=='B'||input.LA(1)=='b' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -8142,7 +8248,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
             }
             else {
@@ -8152,7 +8258,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -8162,26 +8268,17 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
 
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "BEAM"
 
-    // $ANTLR start "FLUX"
-    public final void mFLUX() throws RecognitionException {
-        try {
-            int _type = FLUX;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:582:6: ( ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'X' | 'x' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:582:8: ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'X' | 'x' )
-            {
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -8191,7 +8288,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -8201,7 +8298,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -8211,7 +8308,17 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8230,17 +8337,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "FLUX"
+    // $ANTLR end "DEPTHCACHE"
 
-    // $ANTLR start "FWHM"
-    public final void mFWHM() throws RecognitionException {
+    // $ANTLR start "SURROUNDINGHEAVYCONC"
+    public final void mSURROUNDINGHEAVYCONC() throws RecognitionException {
         try {
-            int _type = FWHM;
+            int _type = SURROUNDINGHEAVYCONC;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:586:6: ( ( 'F' | 'f' ) ( 'W' | 'w' ) ( 'H' | 'h' ) ( 'M' | 'm' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:586:8: ( 'F' | 'f' ) ( 'W' | 'w' ) ( 'H' | 'h' ) ( 'M' | 'm' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:563:22: ( ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:563:24: ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'H' | 'h' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'V' | 'v' ) ( 'Y' | 'y' ) ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'C' | 'c' )
             {
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -8250,7 +8357,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='W'||input.LA(1)=='w' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -8260,7 +8367,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -8270,7 +8377,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -8280,26 +8387,17 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
 
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "FWHM"
 
-    // $ANTLR start "ENERGY"
-    public final void mENERGY() throws RecognitionException {
-        try {
-            int _type = ENERGY;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:592:8: ( ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'G' | 'g' ) ( 'Y' | 'y' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:592:10: ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'G' | 'g' ) ( 'Y' | 'y' )
-            {
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -8319,7 +8417,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -8329,7 +8427,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -8339,7 +8437,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -8349,7 +8447,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='Y'||input.LA(1)=='y' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -8359,26 +8457,17 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
 
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "ENERGY"
 
-    // $ANTLR start "KEV"
-    public final void mKEV() throws RecognitionException {
-        try {
-            int _type = KEV;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:593:5: ( ( 'K' | 'k' ) ( 'E' | 'e' ) ( 'V' | 'v' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:593:7: ( 'K' | 'k' ) ( 'E' | 'e' ) ( 'V' | 'v' )
-            {
-            if ( input.LA(1)=='K'||input.LA(1)=='k' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8388,7 +8477,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -8408,26 +8497,17 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            if ( input.LA(1)=='Y'||input.LA(1)=='y' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
 
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "KEV"
 
-    // $ANTLR start "FILE"
-    public final void mFILE() throws RecognitionException {
-        try {
-            int _type = FILE;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:598:6: ( ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:598:8: ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
-            {
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -8437,7 +8517,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -8447,7 +8527,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -8457,7 +8537,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -8476,17 +8556,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "FILE"
+    // $ANTLR end "SURROUNDINGHEAVYCONC"
 
-    // $ANTLR start "PIXELSIZE"
-    public final void mPIXELSIZE() throws RecognitionException {
+    // $ANTLR start "OILBASED"
+    public final void mOILBASED() throws RecognitionException {
         try {
-            int _type = PIXELSIZE;
+            int _type = OILBASED;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:606:2: ( ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:606:5: ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:567:10: ( ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'B' | 'b' ) ( 'A' | 'a' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'D' | 'd' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:567:12: ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'B' | 'b' ) ( 'A' | 'a' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'D' | 'd' )
             {
-            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -8506,7 +8586,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -8516,7 +8596,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='B'||input.LA(1)=='b' ) {
                 input.consume();
             }
             else {
@@ -8526,7 +8606,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -8546,17 +8626,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='Z'||input.LA(1)=='z' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8566,7 +8636,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -8585,15 +8655,15 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "PIXELSIZE"
+    // $ANTLR end "OILBASED"
 
-    // $ANTLR start "COLLIMATION"
-    public final void mCOLLIMATION() throws RecognitionException {
+    // $ANTLR start "CALCSURROUNDING"
+    public final void mCALCSURROUNDING() throws RecognitionException {
         try {
-            int _type = COLLIMATION;
+            int _type = CALCSURROUNDING;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:621:13: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:621:15: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:571:17: ( ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:571:19: ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) ( 'C' | 'c' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'U' | 'u' ) ( 'N' | 'n' ) ( 'D' | 'd' ) ( 'I' | 'i' ) ( 'N' | 'n' ) ( 'G' | 'g' )
             {
             if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
@@ -8605,7 +8675,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -8625,7 +8695,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -8635,7 +8705,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -8645,7 +8715,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -8655,7 +8725,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -8665,7 +8735,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -8675,7 +8745,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -8685,7 +8755,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -8705,26 +8775,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            }
-
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "COLLIMATION"
-
-    // $ANTLR start "RECTANGULAR"
-    public final void mRECTANGULAR() throws RecognitionException {
-        try {
-            int _type = RECTANGULAR;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:622:13: ( ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:622:15: ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' )
-            {
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -8734,7 +8785,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -8744,7 +8795,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -8754,7 +8805,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -8764,7 +8815,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "CALCSURROUNDING"
+
+    // $ANTLR start "OILELEMENTS"
+    public final void mOILELEMENTS() throws RecognitionException {
+        try {
+            int _type = OILELEMENTS;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:580:13: ( ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:580:15: ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'E' | 'e' ) ( 'M' | 'm' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'S' | 's' )
+            {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -8774,7 +8844,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -8784,7 +8854,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -8794,7 +8864,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8814,7 +8884,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8824,7 +8894,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
             }
             else {
@@ -8834,26 +8904,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            }
-
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "RECTANGULAR"
-
-    // $ANTLR start "CIRCULAR"
-    public final void mCIRCULAR() throws RecognitionException {
-        try {
-            int _type = CIRCULAR;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:623:11: ( ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:623:13: ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' )
-            {
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -8863,7 +8914,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -8873,7 +8924,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -8883,47 +8934,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -8942,17 +8953,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "CIRCULAR"
+    // $ANTLR end "OILELEMENTS"
 
-    // $ANTLR start "HORIZONTAL"
-    public final void mHORIZONTAL() throws RecognitionException {
+    // $ANTLR start "OILDENSITY"
+    public final void mOILDENSITY() throws RecognitionException {
         try {
-            int _type = HORIZONTAL;
+            int _type = OILDENSITY;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:624:13: ( ( 'H' | 'h' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:624:15: ( 'H' | 'h' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:584:12: ( ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:584:14: ( 'O' | 'o' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'T' | 't' ) ( 'Y' | 'y' )
             {
-            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -8962,7 +8973,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -8972,7 +8983,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -8982,7 +8993,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -8992,7 +9003,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='Z'||input.LA(1)=='z' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -9002,7 +9013,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -9012,7 +9023,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -9022,7 +9033,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9032,7 +9043,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -9042,7 +9053,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='Y'||input.LA(1)=='y' ) {
                 input.consume();
             }
             else {
@@ -9061,17 +9072,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "HORIZONTAL"
+    // $ANTLR end "OILDENSITY"
 
-    // $ANTLR start "VERTICAL"
-    public final void mVERTICAL() throws RecognitionException {
+    // $ANTLR start "BEAM"
+    public final void mBEAM() throws RecognitionException {
         try {
-            int _type = VERTICAL;
+            int _type = BEAM;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:625:11: ( ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:625:13: ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:599:6: ( ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:599:8: ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' )
             {
-            if ( input.LA(1)=='V'||input.LA(1)=='v' ) {
+            if ( input.LA(1)=='B'||input.LA(1)=='b' ) {
                 input.consume();
             }
             else {
@@ -9091,7 +9102,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -9101,7 +9112,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
             }
             else {
@@ -9111,7 +9122,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "BEAM"
+
+    // $ANTLR start "FLUX"
+    public final void mFLUX() throws RecognitionException {
+        try {
+            int _type = FLUX;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:617:6: ( ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'X' | 'x' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:617:8: ( 'F' | 'f' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'X' | 'x' )
+            {
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
                 input.consume();
             }
             else {
@@ -9121,7 +9151,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -9131,7 +9161,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -9141,7 +9171,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
                 input.consume();
             }
             else {
@@ -9160,27 +9190,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "VERTICAL"
+    // $ANTLR end "FLUX"
 
-    // $ANTLR start "WEDGE"
-    public final void mWEDGE() throws RecognitionException {
+    // $ANTLR start "FWHM"
+    public final void mFWHM() throws RecognitionException {
         try {
-            int _type = WEDGE;
+            int _type = FWHM;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:651:7: ( ( 'W' | 'w' ) ( 'E' | 'e' ) ( 'D' | 'd' ) ( 'G' | 'g' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:651:9: ( 'W' | 'w' ) ( 'E' | 'e' ) ( 'D' | 'd' ) ( 'G' | 'g' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:621:6: ( ( 'F' | 'f' ) ( 'W' | 'w' ) ( 'H' | 'h' ) ( 'M' | 'm' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:621:8: ( 'F' | 'f' ) ( 'W' | 'w' ) ( 'H' | 'h' ) ( 'M' | 'm' )
             {
-            if ( input.LA(1)=='W'||input.LA(1)=='w' ) {
-                input.consume();
-            }
-            else {
-                MismatchedSetException mse = new MismatchedSetException(null,input);
-                recover(mse);
-                throw mse;
-            }
-
-
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
                 input.consume();
             }
             else {
@@ -9190,7 +9210,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
+            if ( input.LA(1)=='W'||input.LA(1)=='w' ) {
                 input.consume();
             }
             else {
@@ -9200,7 +9220,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
                 input.consume();
             }
             else {
@@ -9210,7 +9230,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
             }
             else {
@@ -9229,15 +9249,15 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "WEDGE"
+    // $ANTLR end "FWHM"
 
-    // $ANTLR start "EXPOSURETIME"
-    public final void mEXPOSURETIME() throws RecognitionException {
+    // $ANTLR start "ENERGY"
+    public final void mENERGY() throws RecognitionException {
         try {
-            int _type = EXPOSURETIME;
+            int _type = ENERGY;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:667:14: ( ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'O' | 'o' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:667:16: ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'O' | 'o' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:627:8: ( ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'G' | 'g' ) ( 'Y' | 'y' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:627:10: ( 'E' | 'e' ) ( 'N' | 'n' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'G' | 'g' ) ( 'Y' | 'y' )
             {
             if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
@@ -9249,7 +9269,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -9259,7 +9279,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -9269,7 +9289,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9279,7 +9299,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -9289,7 +9309,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='Y'||input.LA(1)=='y' ) {
                 input.consume();
             }
             else {
@@ -9299,7 +9319,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "ENERGY"
+
+    // $ANTLR start "KEV"
+    public final void mKEV() throws RecognitionException {
+        try {
+            int _type = KEV;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:628:5: ( ( 'K' | 'k' ) ( 'E' | 'e' ) ( 'V' | 'v' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:628:7: ( 'K' | 'k' ) ( 'E' | 'e' ) ( 'V' | 'v' )
+            {
+            if ( input.LA(1)=='K'||input.LA(1)=='k' ) {
                 input.consume();
             }
             else {
@@ -9319,7 +9358,36 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='V'||input.LA(1)=='v' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "KEV"
+
+    // $ANTLR start "FILE"
+    public final void mFILE() throws RecognitionException {
+        try {
+            int _type = FILE;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:633:6: ( ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:633:8: ( 'F' | 'f' ) ( 'I' | 'i' ) ( 'L' | 'l' ) ( 'E' | 'e' )
+            {
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
                 input.consume();
             }
             else {
@@ -9339,7 +9407,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -9368,17 +9436,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "EXPOSURETIME"
+    // $ANTLR end "FILE"
 
-    // $ANTLR start "ANGULARRESOLUTION"
-    public final void mANGULARRESOLUTION() throws RecognitionException {
+    // $ANTLR start "PIXELSIZE"
+    public final void mPIXELSIZE() throws RecognitionException {
         try {
-            int _type = ANGULARRESOLUTION;
+            int _type = PIXELSIZE;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:671:19: ( ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:671:21: ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:641:2: ( ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:641:5: ( 'P' | 'p' ) ( 'I' | 'i' ) ( 'X' | 'x' ) ( 'E' | 'e' ) ( 'L' | 'l' ) ( 'S' | 's' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'E' | 'e' )
             {
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
                 input.consume();
             }
             else {
@@ -9388,7 +9456,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9398,7 +9466,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
                 input.consume();
             }
             else {
@@ -9408,7 +9476,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -9428,7 +9496,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
                 input.consume();
             }
             else {
@@ -9438,7 +9506,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9448,7 +9516,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='Z'||input.LA(1)=='z' ) {
                 input.consume();
             }
             else {
@@ -9468,7 +9536,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "PIXELSIZE"
+
+    // $ANTLR start "COLLIMATION"
+    public final void mCOLLIMATION() throws RecognitionException {
+        try {
+            int _type = COLLIMATION;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:656:13: ( ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:656:15: ( 'C' | 'c' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'L' | 'l' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -9498,7 +9585,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -9508,7 +9595,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9518,7 +9605,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
                 input.consume();
             }
             else {
@@ -9528,7 +9615,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -9538,7 +9625,37 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -9557,17 +9674,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "ANGULARRESOLUTION"
+    // $ANTLR end "COLLIMATION"
 
-    // $ANTLR start "STARTOFFSET"
-    public final void mSTARTOFFSET() throws RecognitionException {
+    // $ANTLR start "RECTANGULAR"
+    public final void mRECTANGULAR() throws RecognitionException {
         try {
-            int _type = STARTOFFSET;
+            int _type = RECTANGULAR;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:677:13: ( ( 'S' | 's' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:677:15: ( 'S' | 's' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:657:13: ( ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:657:15: ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'C' | 'c' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' )
             {
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9577,7 +9694,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -9587,7 +9704,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -9597,7 +9714,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -9607,7 +9724,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -9617,7 +9734,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -9627,7 +9744,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -9637,7 +9754,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -9647,7 +9764,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -9657,7 +9774,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -9667,7 +9784,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9686,17 +9803,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "STARTOFFSET"
+    // $ANTLR end "RECTANGULAR"
 
-    // $ANTLR start "TRANSLATEPERDEGREE"
-    public final void mTRANSLATEPERDEGREE() throws RecognitionException {
+    // $ANTLR start "CIRCULAR"
+    public final void mCIRCULAR() throws RecognitionException {
         try {
-            int _type = TRANSLATEPERDEGREE;
+            int _type = CIRCULAR;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:683:20: ( ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'G' | 'g' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'E' | 'e' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:683:22: ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'G' | 'g' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'E' | 'e' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:658:11: ( ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:658:13: ( 'C' | 'c' ) ( 'I' | 'i' ) ( 'R' | 'r' ) ( 'C' | 'c' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' )
             {
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -9706,7 +9823,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9716,7 +9833,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9726,7 +9843,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -9736,7 +9853,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
                 input.consume();
             }
             else {
@@ -9766,7 +9883,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9776,7 +9893,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "CIRCULAR"
+
+    // $ANTLR start "HORIZONTAL"
+    public final void mHORIZONTAL() throws RecognitionException {
+        try {
+            int _type = HORIZONTAL;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:659:13: ( ( 'H' | 'h' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:659:15: ( 'H' | 'h' ) ( 'O' | 'o' ) ( 'R' | 'r' ) ( 'I' | 'i' ) ( 'Z' | 'z' ) ( 'O' | 'o' ) ( 'N' | 'n' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'L' | 'l' )
+            {
+            if ( input.LA(1)=='H'||input.LA(1)=='h' ) {
                 input.consume();
             }
             else {
@@ -9786,7 +9922,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -9796,7 +9932,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9806,7 +9942,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9816,7 +9952,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
+            if ( input.LA(1)=='Z'||input.LA(1)=='z' ) {
                 input.consume();
             }
             else {
@@ -9826,7 +9962,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
                 input.consume();
             }
             else {
@@ -9836,7 +9972,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
                 input.consume();
             }
             else {
@@ -9846,7 +9982,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -9856,7 +9992,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -9866,7 +10002,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -9885,17 +10021,17 @@ public class InputfileLexer extends Lexer {
             // do for sure before leaving
         }
     }
-    // $ANTLR end "TRANSLATEPERDEGREE"
+    // $ANTLR end "HORIZONTAL"
 
-    // $ANTLR start "ROTAXBEAMOFFSET"
-    public final void mROTAXBEAMOFFSET() throws RecognitionException {
+    // $ANTLR start "VERTICAL"
+    public final void mVERTICAL() throws RecognitionException {
         try {
-            int _type = ROTAXBEAMOFFSET;
+            int _type = VERTICAL;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:687:17: ( ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:687:19: ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:660:11: ( ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:660:13: ( 'V' | 'v' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'C' | 'c' ) ( 'A' | 'a' ) ( 'L' | 'l' )
             {
-            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+            if ( input.LA(1)=='V'||input.LA(1)=='v' ) {
                 input.consume();
             }
             else {
@@ -9905,7 +10041,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -9915,7 +10051,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
                 input.consume();
             }
             else {
@@ -9925,7 +10061,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
                 input.consume();
             }
             else {
@@ -9935,7 +10071,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
                 input.consume();
             }
             else {
@@ -9945,7 +10081,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='B'||input.LA(1)=='b' ) {
+            if ( input.LA(1)=='C'||input.LA(1)=='c' ) {
                 input.consume();
             }
             else {
@@ -9955,7 +10091,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
                 input.consume();
             }
             else {
@@ -9965,7 +10101,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
                 input.consume();
             }
             else {
@@ -9975,7 +10111,26 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "VERTICAL"
+
+    // $ANTLR start "WEDGE"
+    public final void mWEDGE() throws RecognitionException {
+        try {
+            int _type = WEDGE;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:686:7: ( ( 'W' | 'w' ) ( 'E' | 'e' ) ( 'D' | 'd' ) ( 'G' | 'g' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:686:9: ( 'W' | 'w' ) ( 'E' | 'e' ) ( 'D' | 'd' ) ( 'G' | 'g' ) ( 'E' | 'e' )
+            {
+            if ( input.LA(1)=='W'||input.LA(1)=='w' ) {
                 input.consume();
             }
             else {
@@ -9985,7 +10140,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -9995,7 +10150,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
                 input.consume();
             }
             else {
@@ -10005,7 +10160,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
                 input.consume();
             }
             else {
@@ -10015,7 +10170,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
             else {
@@ -10025,6 +10180,25 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "WEDGE"
+
+    // $ANTLR start "EXPOSURETIME"
+    public final void mEXPOSURETIME() throws RecognitionException {
+        try {
+            int _type = EXPOSURETIME;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:14: ( ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'O' | 'o' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:16: ( 'E' | 'e' ) ( 'X' | 'x' ) ( 'P' | 'p' ) ( 'O' | 'o' ) ( 'S' | 's' ) ( 'U' | 'u' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'M' | 'm' ) ( 'E' | 'e' )
+            {
             if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
             }
@@ -10035,7 +10209,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
                 input.consume();
             }
             else {
@@ -10045,60 +10219,846 @@ public class InputfileLexer extends Lexer {
             }
 
 
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
 
-            state.type = _type;
-            state.channel = _channel;
-        }
-        finally {
-            // do for sure before leaving
-        }
-    }
-    // $ANTLR end "ROTAXBEAMOFFSET"
 
-    // $ANTLR start "FLOAT"
-    public final void mFLOAT() throws RecognitionException {
-        try {
-            int _type = FLOAT;
-            int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:692:5: ( ( '+' | '-' )? ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ ) ( EXPONENT )? )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:692:7: ( '+' | '-' )? ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ ) ( EXPONENT )?
-            {
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:692:7: ( '+' | '-' )?
-            int alt7=2;
-            int LA7_0 = input.LA(1);
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
 
-            if ( (LA7_0=='+'||LA7_0=='-') ) {
-                alt7=1;
+
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
-            switch (alt7) {
-                case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:
-                    {
-                    if ( input.LA(1)=='+'||input.LA(1)=='-' ) {
-                        input.consume();
-                    }
-                    else {
-                        MismatchedSetException mse = new MismatchedSetException(null,input);
-                        recover(mse);
-                        throw mse;
-                    }
 
 
-                    }
-                    break;
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
 
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:693:5: ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ )
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "EXPOSURETIME"
+
+    // $ANTLR start "ANGULARRESOLUTION"
+    public final void mANGULARRESOLUTION() throws RecognitionException {
+        try {
+            int _type = ANGULARRESOLUTION;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:706:19: ( ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:706:21: ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'G' | 'g' ) ( 'U' | 'u' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'S' | 's' ) ( 'O' | 'o' ) ( 'L' | 'l' ) ( 'U' | 'u' ) ( 'T' | 't' ) ( 'I' | 'i' ) ( 'O' | 'o' ) ( 'N' | 'n' )
+            {
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='U'||input.LA(1)=='u' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='I'||input.LA(1)=='i' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "ANGULARRESOLUTION"
+
+    // $ANTLR start "STARTOFFSET"
+    public final void mSTARTOFFSET() throws RecognitionException {
+        try {
+            int _type = STARTOFFSET;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:712:13: ( ( 'S' | 's' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:712:15: ( 'S' | 's' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'R' | 'r' ) ( 'T' | 't' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' )
+            {
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "STARTOFFSET"
+
+    // $ANTLR start "TRANSLATEPERDEGREE"
+    public final void mTRANSLATEPERDEGREE() throws RecognitionException {
+        try {
+            int _type = TRANSLATEPERDEGREE;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:718:20: ( ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'G' | 'g' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'E' | 'e' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:718:22: ( 'T' | 't' ) ( 'R' | 'r' ) ( 'A' | 'a' ) ( 'N' | 'n' ) ( 'S' | 's' ) ( 'L' | 'l' ) ( 'A' | 'a' ) ( 'T' | 't' ) ( 'E' | 'e' ) ( 'P' | 'p' ) ( 'E' | 'e' ) ( 'R' | 'r' ) ( 'D' | 'd' ) ( 'E' | 'e' ) ( 'G' | 'g' ) ( 'R' | 'r' ) ( 'E' | 'e' ) ( 'E' | 'e' )
+            {
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='N'||input.LA(1)=='n' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='L'||input.LA(1)=='l' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='P'||input.LA(1)=='p' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='D'||input.LA(1)=='d' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='G'||input.LA(1)=='g' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "TRANSLATEPERDEGREE"
+
+    // $ANTLR start "ROTAXBEAMOFFSET"
+    public final void mROTAXBEAMOFFSET() throws RecognitionException {
+        try {
+            int _type = ROTAXBEAMOFFSET;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:722:17: ( ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:722:19: ( 'R' | 'r' ) ( 'O' | 'o' ) ( 'T' | 't' ) ( 'A' | 'a' ) ( 'X' | 'x' ) ( 'B' | 'b' ) ( 'E' | 'e' ) ( 'A' | 'a' ) ( 'M' | 'm' ) ( 'O' | 'o' ) ( 'F' | 'f' ) ( 'F' | 'f' ) ( 'S' | 's' ) ( 'E' | 'e' ) ( 'T' | 't' )
+            {
+            if ( input.LA(1)=='R'||input.LA(1)=='r' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='X'||input.LA(1)=='x' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='B'||input.LA(1)=='b' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='A'||input.LA(1)=='a' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='M'||input.LA(1)=='m' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='O'||input.LA(1)=='o' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='F'||input.LA(1)=='f' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='S'||input.LA(1)=='s' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            if ( input.LA(1)=='T'||input.LA(1)=='t' ) {
+                input.consume();
+            }
+            else {
+                MismatchedSetException mse = new MismatchedSetException(null,input);
+                recover(mse);
+                throw mse;
+            }
+
+
+            }
+
+            state.type = _type;
+            state.channel = _channel;
+        }
+        finally {
+            // do for sure before leaving
+        }
+    }
+    // $ANTLR end "ROTAXBEAMOFFSET"
+
+    // $ANTLR start "FLOAT"
+    public final void mFLOAT() throws RecognitionException {
+        try {
+            int _type = FLOAT;
+            int _channel = DEFAULT_TOKEN_CHANNEL;
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:727:5: ( ( '+' | '-' )? ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ ) ( EXPONENT )? )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:727:7: ( '+' | '-' )? ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ ) ( EXPONENT )?
+            {
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:727:7: ( '+' | '-' )?
+            int alt7=2;
+            int LA7_0 = input.LA(1);
+
+            if ( (LA7_0=='+'||LA7_0=='-') ) {
+                alt7=1;
+            }
+            switch (alt7) {
+                case 1 :
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:
+                    {
+                    if ( input.LA(1)=='+'||input.LA(1)=='-' ) {
+                        input.consume();
+                    }
+                    else {
+                        MismatchedSetException mse = new MismatchedSetException(null,input);
+                        recover(mse);
+                        throw mse;
+                    }
+
+
+                    }
+                    break;
+
+            }
+
+
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:728:5: ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ )
             int alt12=3;
             alt12 = dfa12.predict(input);
             switch (alt12) {
                 case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:693:7: ( '0' .. '9' )+
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:728:7: ( '0' .. '9' )+
                     {
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:693:7: ( '0' .. '9' )+
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:728:7: ( '0' .. '9' )+
                     int cnt8=0;
                     loop8:
                     do {
@@ -10140,9 +11100,9 @@ public class InputfileLexer extends Lexer {
                     }
                     break;
                 case 2 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:694:7: ( '0' .. '9' )+ '.' ( '0' .. '9' )*
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:729:7: ( '0' .. '9' )+ '.' ( '0' .. '9' )*
                     {
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:694:7: ( '0' .. '9' )+
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:729:7: ( '0' .. '9' )+
                     int cnt9=0;
                     loop9:
                     do {
@@ -10183,7 +11143,7 @@ public class InputfileLexer extends Lexer {
 
                     match('.'); 
 
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:694:23: ( '0' .. '9' )*
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:729:23: ( '0' .. '9' )*
                     loop10:
                     do {
                         int alt10=2;
@@ -10220,11 +11180,11 @@ public class InputfileLexer extends Lexer {
                     }
                     break;
                 case 3 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:695:19: '.' ( '0' .. '9' )+
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:730:19: '.' ( '0' .. '9' )+
                     {
                     match('.'); 
 
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:695:23: ( '0' .. '9' )+
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:730:23: ( '0' .. '9' )+
                     int cnt11=0;
                     loop11:
                     do {
@@ -10269,7 +11229,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:696:7: ( EXPONENT )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:731:7: ( EXPONENT )?
             int alt13=2;
             int LA13_0 = input.LA(1);
 
@@ -10278,7 +11238,7 @@ public class InputfileLexer extends Lexer {
             }
             switch (alt13) {
                 case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:696:7: EXPONENT
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:731:7: EXPONENT
                     {
                     mEXPONENT(); 
 
@@ -10303,8 +11263,8 @@ public class InputfileLexer extends Lexer {
     // $ANTLR start "EXPONENT"
     public final void mEXPONENT() throws RecognitionException {
         try {
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:700:10: ( ( 'e' | 'E' ) ( '+' | '-' )? ( '0' .. '9' )+ )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:700:12: ( 'e' | 'E' ) ( '+' | '-' )? ( '0' .. '9' )+
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:735:10: ( ( 'e' | 'E' ) ( '+' | '-' )? ( '0' .. '9' )+ )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:735:12: ( 'e' | 'E' ) ( '+' | '-' )? ( '0' .. '9' )+
             {
             if ( input.LA(1)=='E'||input.LA(1)=='e' ) {
                 input.consume();
@@ -10316,7 +11276,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:700:22: ( '+' | '-' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:735:22: ( '+' | '-' )?
             int alt14=2;
             int LA14_0 = input.LA(1);
 
@@ -10343,7 +11303,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:700:33: ( '0' .. '9' )+
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:735:33: ( '0' .. '9' )+
             int cnt15=0;
             loop15:
             do {
@@ -10397,10 +11357,10 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = COMMENT;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:5: ( ( '#' | '//' | '!' ) (~ ( '\\n' | '\\r' ) )* ( '\\r' )? '\\n' )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:9: ( '#' | '//' | '!' ) (~ ( '\\n' | '\\r' ) )* ( '\\r' )? '\\n'
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:5: ( ( '#' | '//' | '!' ) (~ ( '\\n' | '\\r' ) )* ( '\\r' )? '\\n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:9: ( '#' | '//' | '!' ) (~ ( '\\n' | '\\r' ) )* ( '\\r' )? '\\n'
             {
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:9: ( '#' | '//' | '!' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:9: ( '#' | '//' | '!' )
             int alt16=3;
             switch ( input.LA(1) ) {
             case '#':
@@ -10428,14 +11388,14 @@ public class InputfileLexer extends Lexer {
 
             switch (alt16) {
                 case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:10: '#'
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:10: '#'
                     {
                     match('#'); 
 
                     }
                     break;
                 case 2 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:16: '//'
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:16: '//'
                     {
                     match("//"); 
 
@@ -10444,7 +11404,7 @@ public class InputfileLexer extends Lexer {
                     }
                     break;
                 case 3 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:23: '!'
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:23: '!'
                     {
                     match('!'); 
 
@@ -10454,7 +11414,7 @@ public class InputfileLexer extends Lexer {
             }
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:28: (~ ( '\\n' | '\\r' ) )*
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:28: (~ ( '\\n' | '\\r' ) )*
             loop17:
             do {
                 int alt17=2;
@@ -10488,7 +11448,7 @@ public class InputfileLexer extends Lexer {
             } while (true);
 
 
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:42: ( '\\r' )?
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:42: ( '\\r' )?
             int alt18=2;
             int LA18_0 = input.LA(1);
 
@@ -10497,7 +11457,7 @@ public class InputfileLexer extends Lexer {
             }
             switch (alt18) {
                 case 1 :
-                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:702:42: '\\r'
+                    // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:737:42: '\\r'
                     {
                     match('\r'); 
 
@@ -10527,8 +11487,8 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = WS;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:705:5: ( ( ' ' | '\\t' | '\\r' | '\\n' ) )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:705:9: ( ' ' | '\\t' | '\\r' | '\\n' )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:740:5: ( ( ' ' | '\\t' | '\\r' | '\\n' ) )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:740:9: ( ' ' | '\\t' | '\\r' | '\\n' )
             {
             if ( (input.LA(1) >= '\t' && input.LA(1) <= '\n')||input.LA(1)=='\r'||input.LA(1)==' ' ) {
                 input.consume();
@@ -10558,10 +11518,10 @@ public class InputfileLexer extends Lexer {
         try {
             int _type = STRING;
             int _channel = DEFAULT_TOKEN_CHANNEL;
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:720:2: ( ( 'a' .. 'z' | 'A' .. 'Z' | '0' .. '9' | '.' | '$' | '-' | '_' | ':' | '\\\\' )+ )
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:720:4: ( 'a' .. 'z' | 'A' .. 'Z' | '0' .. '9' | '.' | '$' | '-' | '_' | ':' | '\\\\' )+
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:755:2: ( ( 'a' .. 'z' | 'A' .. 'Z' | '0' .. '9' | '.' | '$' | '-' | '_' | ':' | '\\\\' )+ )
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:755:4: ( 'a' .. 'z' | 'A' .. 'Z' | '0' .. '9' | '.' | '$' | '-' | '_' | ':' | '\\\\' )+
             {
-            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:720:4: ( 'a' .. 'z' | 'A' .. 'Z' | '0' .. '9' | '.' | '$' | '-' | '_' | ':' | '\\\\' )+
+            // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:755:4: ( 'a' .. 'z' | 'A' .. 'Z' | '0' .. '9' | '.' | '$' | '-' | '_' | ':' | '\\\\' )+
             int cnt19=0;
             loop19:
             do {
@@ -10612,8 +11572,8 @@ public class InputfileLexer extends Lexer {
     // $ANTLR end "STRING"
 
     public void mTokens() throws RecognitionException {
-        // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:8: ( CRYSTAL | TYPE | DIFFRACTIONDECAYMODEL | DDM | SIMPLE | LINEAR | LEAL | DECAYPARAM | ABSCOEFCALC | DUMMY | DEFAULT | AVERAGE | RDFORTAN | RDJAVA | PDB | SAXS | SEQUENCE | SAXSSEQ | SMALLMOLE | CIF | DIMENSION | ANGLEP | ANGLEL | PIXELSPERMICRON | UNITCELL | PROTEINCONC | PROTEINCONCENTRATION | NUMMONOMERS | NUMRESIDUES | NUMRNA | NUMDNA | NUMCARB | PROTEINHEAVYATOMS | ELEMENT | SMALLMOLEATOMS | SOLVENTHEAVYCONC | SOLVENTFRACTION | PDBNAME | CIFNAME | WIREFRAMETYPE | MODELFILE | CALCULATEPEESCAPE | GONIOMETERAXIS | CONTAINERMATERIALTYPE | MATERIALTYPE | NONE | MIXTURE | ELEMENTAL | CONTAINERTHICKNESS | CONTAINERMATERIALMIXTURE | MATERIALMIXTURE | CONTAINERMATERIALELEMENTS | MATERIALELEMENTS | CONTAINERDENSITY | SEQUENCEFILE | SEQFILE | CALCULATEFLESCAPE | FLRESOLUTION | PERESOLUTION | SURROUNDINGHEAVYCONC | OILBASED | CALCSURROUNDING | OILELEMENTS | OILDENSITY | BEAM | FLUX | FWHM | ENERGY | KEV | FILE | PIXELSIZE | COLLIMATION | RECTANGULAR | CIRCULAR | HORIZONTAL | VERTICAL | WEDGE | EXPOSURETIME | ANGULARRESOLUTION | STARTOFFSET | TRANSLATEPERDEGREE | ROTAXBEAMOFFSET | FLOAT | COMMENT | WS | STRING )
-        int alt20=86;
+        // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:8: ( CRYSTAL | TYPE | DIFFRACTIONDECAYMODEL | DDM | SIMPLE | LINEAR | LEAL | DECAYPARAM | ABSCOEFCALC | DUMMY | DEFAULT | AVERAGE | RDFORTAN | RDJAVA | PDB | SAXS | SEQUENCE | SAXSSEQ | SMALLMOLE | CIF | DIMENSION | ANGLEP | ANGLEL | PIXELSPERMICRON | UNITCELL | PROTEINCONC | PROTEINCONCENTRATION | NUMMONOMERS | NUMRESIDUES | NUMRNA | NUMDNA | NUMCARB | PROTEINHEAVYATOMS | ELEMENT | SMALLMOLEATOMS | SOLVENTHEAVYCONC | SOLVENTFRACTION | PDBNAME | CIFNAME | WIREFRAMETYPE | MODELFILE | CALCULATEPEESCAPE | GONIOMETERAXIS | CONTAINERMATERIALTYPE | MATERIALTYPE | NONE | MIXTURE | ELEMENTAL | CONTAINERTHICKNESS | CONTAINERMATERIALMIXTURE | MATERIALMIXTURE | CONTAINERMATERIALELEMENTS | MATERIALELEMENTS | CONTAINERDENSITY | SEQUENCEFILE | SEQFILE | CALCULATEFLESCAPE | FLRESOLUTION | PERESOLUTION | DEPTHENGINE | DEPTHSAMPLING | ESCAPEENGINE | STORAGEPRECISION | VOXELSTORE | RANDOMSEED | DEPTHCACHE | SURROUNDINGHEAVYCONC | OILBASED | CALCSURROUNDING | OILELEMENTS | OILDENSITY | BEAM | FLUX | FWHM | ENERGY | KEV | FILE | PIXELSIZE | COLLIMATION | RECTANGULAR | CIRCULAR | HORIZONTAL | VERTICAL | WEDGE | EXPOSURETIME | ANGULARRESOLUTION | STARTOFFSET | TRANSLATEPERDEGREE | ROTAXBEAMOFFSET | FLOAT | COMMENT | WS | STRING )
+        int alt20=93;
         alt20 = dfa20.predict(input);
         switch (alt20) {
             case 1 :
@@ -11089,215 +12049,271 @@ public class InputfileLexer extends Lexer {
                 }
                 break;
             case 60 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:687: SURROUNDINGHEAVYCONC
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:687: DEPTHENGINE
                 {
-                mSURROUNDINGHEAVYCONC(); 
+                mDEPTHENGINE(); 
 
 
                 }
                 break;
             case 61 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:708: OILBASED
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:699: DEPTHSAMPLING
                 {
-                mOILBASED(); 
+                mDEPTHSAMPLING(); 
 
 
                 }
                 break;
             case 62 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:717: CALCSURROUNDING
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:713: ESCAPEENGINE
                 {
-                mCALCSURROUNDING(); 
+                mESCAPEENGINE(); 
 
 
                 }
                 break;
             case 63 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:733: OILELEMENTS
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:726: STORAGEPRECISION
                 {
-                mOILELEMENTS(); 
+                mSTORAGEPRECISION(); 
 
 
                 }
                 break;
             case 64 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:745: OILDENSITY
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:743: VOXELSTORE
                 {
-                mOILDENSITY(); 
+                mVOXELSTORE(); 
 
 
                 }
                 break;
             case 65 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:756: BEAM
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:754: RANDOMSEED
                 {
-                mBEAM(); 
+                mRANDOMSEED(); 
 
 
                 }
                 break;
             case 66 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:761: FLUX
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:765: DEPTHCACHE
                 {
-                mFLUX(); 
+                mDEPTHCACHE(); 
 
 
                 }
                 break;
             case 67 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:766: FWHM
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:776: SURROUNDINGHEAVYCONC
                 {
-                mFWHM(); 
+                mSURROUNDINGHEAVYCONC(); 
 
 
                 }
                 break;
             case 68 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:771: ENERGY
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:797: OILBASED
                 {
-                mENERGY(); 
+                mOILBASED(); 
 
 
                 }
                 break;
             case 69 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:778: KEV
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:806: CALCSURROUNDING
                 {
-                mKEV(); 
+                mCALCSURROUNDING(); 
 
 
                 }
                 break;
             case 70 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:782: FILE
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:822: OILELEMENTS
                 {
-                mFILE(); 
+                mOILELEMENTS(); 
 
 
                 }
                 break;
             case 71 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:787: PIXELSIZE
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:834: OILDENSITY
                 {
-                mPIXELSIZE(); 
+                mOILDENSITY(); 
 
 
                 }
                 break;
             case 72 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:797: COLLIMATION
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:845: BEAM
                 {
-                mCOLLIMATION(); 
+                mBEAM(); 
 
 
                 }
                 break;
             case 73 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:809: RECTANGULAR
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:850: FLUX
                 {
-                mRECTANGULAR(); 
+                mFLUX(); 
 
 
                 }
                 break;
             case 74 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:821: CIRCULAR
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:855: FWHM
                 {
-                mCIRCULAR(); 
+                mFWHM(); 
 
 
                 }
                 break;
             case 75 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:830: HORIZONTAL
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:860: ENERGY
                 {
-                mHORIZONTAL(); 
+                mENERGY(); 
 
 
                 }
                 break;
             case 76 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:841: VERTICAL
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:867: KEV
                 {
-                mVERTICAL(); 
+                mKEV(); 
 
 
                 }
                 break;
             case 77 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:850: WEDGE
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:871: FILE
                 {
-                mWEDGE(); 
+                mFILE(); 
 
 
                 }
                 break;
             case 78 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:856: EXPOSURETIME
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:876: PIXELSIZE
                 {
-                mEXPOSURETIME(); 
+                mPIXELSIZE(); 
 
 
                 }
                 break;
             case 79 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:869: ANGULARRESOLUTION
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:886: COLLIMATION
                 {
-                mANGULARRESOLUTION(); 
+                mCOLLIMATION(); 
 
 
                 }
                 break;
             case 80 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:887: STARTOFFSET
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:898: RECTANGULAR
                 {
-                mSTARTOFFSET(); 
+                mRECTANGULAR(); 
 
 
                 }
                 break;
             case 81 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:899: TRANSLATEPERDEGREE
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:910: CIRCULAR
                 {
-                mTRANSLATEPERDEGREE(); 
+                mCIRCULAR(); 
 
 
                 }
                 break;
             case 82 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:918: ROTAXBEAMOFFSET
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:919: HORIZONTAL
                 {
-                mROTAXBEAMOFFSET(); 
+                mHORIZONTAL(); 
 
 
                 }
                 break;
             case 83 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:934: FLOAT
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:930: VERTICAL
                 {
-                mFLOAT(); 
+                mVERTICAL(); 
 
 
                 }
                 break;
             case 84 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:940: COMMENT
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:939: WEDGE
                 {
-                mCOMMENT(); 
+                mWEDGE(); 
 
 
                 }
                 break;
             case 85 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:948: WS
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:945: EXPOSURETIME
                 {
-                mWS(); 
+                mEXPOSURETIME(); 
 
 
                 }
                 break;
             case 86 :
-                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:951: STRING
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:958: ANGULARRESOLUTION
+                {
+                mANGULARRESOLUTION(); 
+
+
+                }
+                break;
+            case 87 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:976: STARTOFFSET
+                {
+                mSTARTOFFSET(); 
+
+
+                }
+                break;
+            case 88 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:988: TRANSLATEPERDEGREE
+                {
+                mTRANSLATEPERDEGREE(); 
+
+
+                }
+                break;
+            case 89 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:1007: ROTAXBEAMOFFSET
+                {
+                mROTAXBEAMOFFSET(); 
+
+
+                }
+                break;
+            case 90 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:1023: FLOAT
+                {
+                mFLOAT(); 
+
+
+                }
+                break;
+            case 91 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:1029: COMMENT
+                {
+                mCOMMENT(); 
+
+
+                }
+                break;
+            case 92 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:1037: WS
+                {
+                mWS(); 
+
+
+                }
+                break;
+            case 93 :
+                // C:\\Users\\Josh\\git\\RADDOSE-3D\\lib\\antlrworks-parsergenerator\\Inputfile.g:1:1040: STRING
                 {
                 mSTRING(); 
 
@@ -11362,181 +12378,195 @@ public class InputfileLexer extends Lexer {
             this.transition = DFA12_transition;
         }
         public String getDescription() {
-            return "693:5: ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ )";
+            return "728:5: ( ( '0' .. '9' )+ | ( '0' .. '9' )+ '.' ( '0' .. '9' )* | '.' ( '0' .. '9' )+ )";
         }
     }
     static final String DFA20_eotS =
-        "\1\uffff\25\42\1\34\1\33\1\34\4\uffff\5\42\1\uffff\55\42\1\34\2"+
-        "\33\4\34\1\u0092\6\34\1\u0099\17\34\1\u00ac\1\u00ae\2\34\1\u00b3"+
-        "\4\34\1\u00b8\20\34\1\u00ce\3\34\2\33\4\34\1\uffff\2\34\1\u00d8"+
-        "\3\34\1\uffff\4\34\1\u00e1\7\34\1\u00e9\4\34\1\u00ac\1\uffff\1\u00ae"+
-        "\1\uffff\4\34\1\uffff\4\34\1\uffff\6\34\1\u00fd\7\34\1\u0105\1\u0106"+
-        "\1\u0107\3\34\1\u010b\1\uffff\11\34\1\uffff\5\34\1\u011a\2\34\1"+
-        "\uffff\7\34\1\uffff\6\34\1\u012a\14\34\1\uffff\1\34\1\u0138\5\34"+
-        "\3\uffff\3\34\1\uffff\16\34\1\uffff\1\u014f\7\34\1\u0157\1\34\1"+
-        "\u0159\1\u015a\3\34\1\uffff\2\34\1\u0160\6\34\1\u0168\1\u0169\2"+
-        "\34\1\uffff\12\34\1\u0176\12\34\1\u0181\1\uffff\1\u0182\1\34\1\u0184"+
-        "\4\34\1\uffff\1\u018a\2\uffff\5\34\1\uffff\7\34\2\uffff\1\u0198"+
-        "\3\34\1\u019c\7\34\1\uffff\1\u01a4\2\34\1\u01a7\6\34\2\uffff\1\u01af"+
-        "\1\uffff\5\34\1\uffff\12\34\1\u01bf\2\34\1\uffff\3\34\1\uffff\2"+
-        "\34\1\u01c9\3\34\1\u01cd\1\uffff\2\34\1\uffff\4\34\1\u01d8\2\34"+
-        "\1\uffff\1\u01dc\10\34\1\u01e5\1\34\1\u01e7\3\34\1\uffff\3\34\1"+
-        "\u01ee\5\34\1\uffff\3\34\1\uffff\11\34\1\u01d8\1\uffff\1\u0200\2"+
-        "\34\1\uffff\10\34\1\uffff\1\34\1\uffff\6\34\1\uffff\6\34\1\u021a"+
-        "\1\u021b\3\34\1\u021f\5\34\1\uffff\5\34\1\u022a\1\34\1\u022c\3\34"+
-        "\1\u0231\2\34\1\u0234\1\u0235\10\34\1\u023c\2\uffff\3\34\1\uffff"+
-        "\5\34\1\u0245\4\34\1\uffff\1\34\1\uffff\1\34\1\u024c\2\34\1\uffff"+
-        "\1\34\1\u0250\2\uffff\1\u0251\1\u0252\3\34\1\u0256\1\uffff\10\34"+
-        "\1\uffff\6\34\1\uffff\3\34\3\uffff\3\34\1\uffff\10\34\1\u0273\12"+
-        "\34\1\u027e\5\34\1\u0284\2\34\1\uffff\1\34\1\u0288\2\34\1\u028b"+
-        "\1\u028c\2\34\1\u028f\1\34\1\uffff\2\34\1\u0293\2\34\1\uffff\2\34"+
-        "\1\u0298\1\uffff\2\34\2\uffff\2\34\1\uffff\1\u029d\2\34\1\uffff"+
-        "\1\u02a2\1\u02a3\2\34\1\uffff\1\34\1\u02a7\1\34\1\u02a9\1\uffff"+
-        "\3\34\1\u02ad\2\uffff\1\u02ae\2\34\1\uffff\1\34\1\uffff\3\34\2\uffff"+
-        "\7\34\1\u02bc\1\u02bd\1\u02be\2\34\1\u02c1\3\uffff\2\34\1\uffff"+
-        "\2\34\1\u02c6\1\34\1\uffff\1\u02c8\1\uffff";
+        "\1\uffff\25\42\1\34\1\33\1\34\4\uffff\5\42\1\uffff\60\42\1\34\2"+
+        "\33\4\34\1\u009a\6\34\1\u00a1\21\34\1\u00b6\1\u00b8\3\34\1\u00be"+
+        "\5\34\1\u00c4\22\34\1\u00dc\2\34\2\33\4\34\1\uffff\2\34\1\u00e5"+
+        "\3\34\1\uffff\5\34\1\u00ef\10\34\1\u00f8\4\34\1\u00b6\1\uffff\1"+
+        "\u00b8\1\uffff\5\34\1\uffff\5\34\1\uffff\6\34\1\u010e\7\34\1\u0116"+
+        "\1\u0117\1\u0118\5\34\1\u011e\1\uffff\10\34\1\uffff\6\34\1\u012f"+
+        "\2\34\1\uffff\10\34\1\uffff\7\34\1\u0141\15\34\1\uffff\1\34\1\u0150"+
+        "\5\34\3\uffff\5\34\1\uffff\20\34\1\uffff\1\u016b\10\34\1\u0174\1"+
+        "\34\1\u0176\1\u0177\4\34\1\uffff\3\34\1\u017f\6\34\1\u0187\1\u0188"+
+        "\2\34\1\uffff\13\34\1\u0196\12\34\1\u01a1\3\34\1\uffff\1\u01a5\1"+
+        "\34\1\u01a7\5\34\1\uffff\1\u01ae\2\uffff\7\34\1\uffff\7\34\2\uffff"+
+        "\1\u01be\3\34\1\u01c2\10\34\1\uffff\1\u01cb\2\34\1\u01ce\6\34\1"+
+        "\uffff\3\34\1\uffff\1\u01d9\1\uffff\6\34\1\uffff\14\34\1\u01ec\2"+
+        "\34\1\uffff\3\34\1\uffff\3\34\1\u01f7\1\u01f8\3\34\1\uffff\2\34"+
+        "\1\uffff\4\34\1\u0206\5\34\1\uffff\1\u020d\12\34\1\u0218\2\34\1"+
+        "\u021b\3\34\1\uffff\3\34\1\u0222\6\34\2\uffff\14\34\1\u0206\1\uffff"+
+        "\1\u0235\2\34\1\u0238\2\34\1\uffff\6\34\1\u0241\3\34\1\uffff\2\34"+
+        "\1\uffff\6\34\1\uffff\5\34\1\u0254\1\34\1\u0256\1\u0257\3\34\1\u025b"+
+        "\5\34\1\uffff\1\u0261\1\34\1\uffff\5\34\1\u0268\2\34\1\uffff\1\u026b"+
+        "\4\34\1\u0271\2\34\1\u0274\1\u0275\10\34\1\uffff\1\u027c\2\uffff"+
+        "\3\34\1\uffff\5\34\1\uffff\1\34\1\u0286\4\34\1\uffff\2\34\1\uffff"+
+        "\1\34\1\u028e\1\u028f\2\34\1\uffff\1\34\1\u0293\2\uffff\1\u0294"+
+        "\1\u0295\3\34\1\u0299\1\uffff\10\34\1\u02a2\1\uffff\7\34\2\uffff"+
+        "\3\34\3\uffff\3\34\1\uffff\10\34\1\uffff\1\u02b8\13\34\1\u02c4\5"+
+        "\34\1\u02ca\2\34\1\uffff\1\34\1\u02ce\3\34\1\u02d2\1\u02d3\2\34"+
+        "\1\u02d6\1\34\1\uffff\2\34\1\u02da\2\34\1\uffff\2\34\1\u02df\1\uffff"+
+        "\1\u02e0\2\34\2\uffff\2\34\1\uffff\1\u02e5\2\34\1\uffff\1\u02ea"+
+        "\1\u02eb\2\34\2\uffff\1\34\1\u02ef\1\34\1\u02f1\1\uffff\3\34\1\u02f5"+
+        "\2\uffff\1\u02f6\2\34\1\uffff\1\34\1\uffff\3\34\2\uffff\7\34\1\u0304"+
+        "\1\u0305\1\u0306\2\34\1\u0309\3\uffff\2\34\1\uffff\2\34\1\u030e"+
+        "\1\34\1\uffff\1\u0310\1\uffff";
     static final String DFA20_eofS =
-        "\u02c9\uffff";
+        "\u0311\uffff";
     static final String DFA20_minS =
-        "\1\11\25\44\1\56\1\44\1\60\4\uffff\5\44\1\uffff\55\44\1\53\2\44"+
+        "\1\11\25\44\1\56\1\44\1\60\4\uffff\5\44\1\uffff\60\44\1\53\2\44"+
         "\1\123\1\106\1\124\1\114\1\44\2\103\1\105\1\116\1\106\1\105\1\44"+
-        "\2\101\1\115\1\120\1\123\1\106\1\114\1\126\2\122\1\105\1\114\1\103"+
-        "\1\122\1\114\2\44\1\124\1\101\1\44\1\115\1\122\1\105\1\124\1\44"+
-        "\1\105\1\124\1\103\2\105\1\107\2\105\1\124\1\111\1\105\1\130\1\115"+
-        "\1\105\1\102\1\115\1\44\1\111\1\124\1\60\2\44\1\124\1\103\1\101"+
-        "\1\111\1\uffff\1\125\1\123\1\44\1\123\1\122\1\116\1\uffff\1\131"+
-        "\1\125\1\131\1\114\1\44\1\105\1\111\1\114\1\105\1\117\1\124\1\101"+
-        "\1\44\1\117\1\101\1\105\1\114\1\44\1\uffff\1\44\1\uffff\1\101\1"+
-        "\130\1\115\1\123\1\uffff\1\105\1\107\1\114\1\105\1\uffff\1\123\1"+
-        "\103\1\117\1\105\1\116\1\101\1\44\1\106\1\105\1\114\1\122\1\125"+
-        "\1\117\1\123\3\44\1\101\1\114\1\105\1\44\1\uffff\1\132\1\111\2\101"+
-        "\1\111\1\115\2\114\1\125\1\uffff\1\114\1\101\1\123\1\120\1\114\1"+
-        "\44\2\105\1\uffff\1\116\1\114\1\115\1\116\1\125\1\117\1\122\1\uffff"+
-        "\1\105\1\107\1\114\1\101\1\116\1\102\1\44\1\125\1\116\1\131\1\123"+
-        "\1\111\1\117\1\105\1\116\1\123\2\101\1\122\1\uffff\1\122\1\44\1"+
-        "\106\1\111\1\122\1\115\1\117\3\uffff\1\123\1\105\1\116\1\uffff\1"+
-        "\117\1\103\2\114\1\116\3\101\1\122\1\101\1\103\1\111\1\101\1\124"+
-        "\1\uffff\1\44\1\121\1\103\1\105\1\117\1\124\1\116\1\106\1\44\1\105"+
-        "\2\44\1\122\1\107\1\105\1\uffff\1\122\1\124\1\44\1\111\1\116\2\114"+
-        "\1\117\1\111\2\44\1\102\1\101\1\uffff\1\111\1\101\2\105\1\114\1"+
-        "\105\1\115\1\123\1\116\1\101\1\44\1\103\1\105\1\124\1\122\1\124"+
-        "\1\122\2\124\1\117\1\122\1\44\1\uffff\1\44\1\105\1\44\1\114\1\106"+
-        "\1\104\1\106\1\uffff\1\44\2\uffff\1\122\1\125\1\101\1\105\1\101"+
-        "\1\uffff\1\105\1\132\1\103\1\125\1\114\1\115\1\104\2\uffff\1\44"+
-        "\1\115\2\114\1\44\1\124\1\125\1\104\1\105\1\111\1\124\1\114\1\uffff"+
-        "\1\44\1\122\1\111\1\44\1\105\1\117\1\105\1\111\1\116\1\101\2\uffff"+
-        "\1\44\1\uffff\2\105\1\122\1\111\1\123\1\uffff\1\105\1\114\1\115"+
-        "\1\124\1\114\1\122\1\105\1\117\1\105\1\124\1\44\1\105\1\125\1\uffff"+
-        "\3\105\1\uffff\1\105\1\124\1\44\1\116\1\124\1\101\1\44\1\uffff\1"+
-        "\104\1\117\1\uffff\1\106\1\125\1\120\1\117\1\44\1\115\1\111\1\uffff"+
-        "\1\44\2\101\1\116\1\105\1\123\1\101\1\117\1\111\1\44\1\115\1\44"+
-        "\1\116\1\101\1\111\1\uffff\1\122\1\105\1\124\1\44\1\131\1\111\1"+
-        "\114\1\122\1\111\1\uffff\1\124\1\131\1\114\1\uffff\1\101\1\110\1"+
-        "\105\1\116\1\105\1\114\1\116\1\105\1\116\1\44\1\uffff\1\44\1\114"+
-        "\1\124\1\uffff\1\126\1\103\1\107\1\124\1\117\1\122\1\106\1\115\1"+
-        "\uffff\1\111\1\uffff\1\103\1\126\1\117\2\123\1\120\1\uffff\1\120"+
-        "\1\130\1\105\1\101\1\117\1\123\2\44\1\124\1\111\1\116\1\44\2\105"+
-        "\1\104\1\122\1\104\1\uffff\1\105\1\117\1\131\1\124\1\110\1\44\1"+
-        "\114\1\44\1\106\1\105\1\103\1\44\1\131\1\116\2\44\2\120\2\105\1"+
-        "\124\1\115\1\130\1\116\1\44\2\uffff\1\105\1\103\1\123\1\uffff\2"+
-        "\123\1\111\1\104\1\105\1\44\1\115\1\103\1\111\1\105\1\uffff\1\125"+
-        "\1\uffff\1\123\1\44\1\122\1\116\1\uffff\1\101\1\44\2\uffff\2\44"+
-        "\1\125\1\105\1\111\1\44\1\uffff\1\122\1\113\1\111\2\103\1\116\1"+
-        "\105\1\103\1\uffff\1\123\2\117\1\101\1\124\1\105\1\uffff\1\117\2"+
-        "\124\3\uffff\1\122\1\116\1\123\1\uffff\1\111\1\116\1\124\2\101\2"+
-        "\107\1\101\1\44\2\116\1\126\1\111\1\124\1\116\1\122\1\117\1\105"+
-        "\1\124\1\44\1\101\1\105\1\131\2\120\1\44\1\122\1\131\1\uffff\1\103"+
-        "\1\44\1\131\1\117\2\44\1\101\1\115\1\44\1\123\1\uffff\1\114\1\123"+
-        "\1\44\2\105\1\uffff\1\105\1\115\1\44\1\uffff\1\103\1\116\2\uffff"+
-        "\1\124\1\123\1\uffff\1\44\1\105\1\123\1\uffff\2\44\1\105\1\117\1"+
-        "\uffff\1\117\1\44\1\111\1\44\1\uffff\1\131\1\111\1\114\1\44\2\uffff"+
-        "\1\44\1\104\1\116\1\uffff\1\117\1\uffff\1\120\1\130\1\105\2\uffff"+
-        "\1\105\1\103\1\116\1\105\1\124\1\115\1\114\3\44\1\125\1\105\1\44"+
-        "\3\uffff\1\122\1\116\1\uffff\1\105\1\124\1\44\1\123\1\uffff\1\44"+
-        "\1\uffff";
+        "\2\101\1\124\1\115\1\120\1\123\1\106\1\114\1\126\3\122\1\105\1\114"+
+        "\1\103\1\122\1\114\2\44\1\104\1\124\1\101\1\44\1\115\1\101\1\122"+
+        "\1\105\1\124\1\44\1\105\1\124\1\103\2\105\1\107\2\105\1\124\1\111"+
+        "\1\105\1\130\1\115\2\105\1\124\1\102\1\115\1\44\1\111\1\60\2\44"+
+        "\1\124\1\103\1\101\1\111\1\uffff\1\125\1\123\1\44\1\123\1\122\1"+
+        "\116\1\uffff\1\131\1\125\1\110\1\131\1\114\1\44\1\105\1\111\1\114"+
+        "\1\105\1\101\1\124\1\117\1\101\1\44\1\117\1\101\1\105\1\114\1\44"+
+        "\1\uffff\1\44\1\uffff\1\117\1\101\1\130\1\115\1\123\1\uffff\1\105"+
+        "\1\120\1\107\1\114\1\105\1\uffff\1\123\1\103\1\117\1\105\1\116\1"+
+        "\101\1\44\1\106\1\105\1\114\1\122\1\125\1\117\1\123\3\44\1\114\1"+
+        "\111\1\101\1\114\1\105\1\44\1\uffff\1\132\2\101\1\111\1\115\2\114"+
+        "\1\125\1\uffff\1\114\1\101\1\123\1\120\1\114\1\103\1\44\2\105\1"+
+        "\uffff\1\116\1\114\1\115\1\116\1\107\1\117\1\125\1\122\1\uffff\1"+
+        "\105\1\107\1\114\1\101\1\115\1\116\1\102\1\44\1\125\1\116\1\105"+
+        "\1\131\1\123\1\111\1\117\1\105\1\116\1\123\2\101\1\122\1\uffff\1"+
+        "\122\1\44\1\106\1\111\1\122\1\115\1\117\3\uffff\1\123\1\103\1\123"+
+        "\1\105\1\116\1\uffff\1\117\2\114\1\116\3\101\1\122\1\101\1\103\1"+
+        "\111\1\101\1\124\1\116\2\101\1\uffff\1\44\1\121\1\103\1\105\1\117"+
+        "\1\124\1\105\1\106\1\116\1\44\1\105\2\44\1\122\1\123\1\107\1\105"+
+        "\1\uffff\1\122\1\124\1\105\1\44\1\111\1\116\2\114\1\117\1\111\2"+
+        "\44\1\102\1\101\1\uffff\1\111\1\101\2\105\1\114\1\124\1\101\1\105"+
+        "\1\115\1\123\1\116\1\44\1\103\1\105\1\124\1\122\1\124\1\122\2\124"+
+        "\1\117\1\122\1\44\1\107\1\115\1\103\1\uffff\1\44\1\105\1\44\1\114"+
+        "\1\106\1\120\1\106\1\104\1\uffff\1\44\2\uffff\1\122\1\105\1\125"+
+        "\1\101\1\105\1\101\1\116\1\uffff\1\105\1\132\1\103\1\125\1\114\1"+
+        "\115\1\104\2\uffff\1\44\1\115\2\114\1\44\1\124\1\125\1\117\1\114"+
+        "\1\104\1\105\1\111\1\124\1\uffff\1\44\1\122\1\111\1\44\1\105\1\117"+
+        "\1\105\1\111\1\116\1\101\1\uffff\1\111\1\120\1\110\1\uffff\1\44"+
+        "\1\uffff\2\105\2\122\1\123\1\111\1\uffff\2\105\1\114\1\115\1\124"+
+        "\1\114\1\107\1\122\1\105\1\117\1\105\1\124\1\44\1\105\1\125\1\uffff"+
+        "\3\105\1\uffff\1\105\1\124\1\122\2\44\1\116\1\124\1\101\1\uffff"+
+        "\1\104\1\117\1\uffff\1\106\1\125\1\120\1\117\1\44\1\115\1\116\1"+
+        "\114\1\105\1\111\1\uffff\1\44\2\101\2\105\1\116\1\123\1\104\1\101"+
+        "\1\117\1\111\1\44\1\111\1\115\1\44\1\116\1\101\1\111\1\uffff\1\122"+
+        "\1\105\1\124\1\44\1\131\1\111\1\114\1\122\1\111\1\105\2\uffff\1"+
+        "\124\1\131\1\114\1\101\1\110\1\105\1\116\1\105\1\114\1\116\1\105"+
+        "\1\116\1\44\1\uffff\1\44\1\105\1\111\1\44\1\114\1\124\1\uffff\1"+
+        "\126\2\103\1\124\1\107\1\117\1\44\1\122\1\106\1\115\1\uffff\1\116"+
+        "\1\111\1\uffff\1\103\1\126\1\117\2\123\1\120\1\uffff\1\120\1\130"+
+        "\1\105\1\101\1\117\1\44\1\123\2\44\1\124\1\111\1\116\1\44\2\105"+
+        "\1\104\1\122\1\104\1\uffff\1\44\1\116\1\uffff\1\105\1\117\1\131"+
+        "\1\124\1\111\1\44\1\110\1\114\1\uffff\1\44\1\106\2\105\1\103\1\44"+
+        "\1\131\1\116\2\44\2\120\2\105\1\124\1\115\1\130\1\116\1\uffff\1"+
+        "\44\2\uffff\1\105\1\103\1\123\1\uffff\2\123\1\111\1\104\1\105\1"+
+        "\uffff\1\107\1\44\1\115\1\103\1\111\1\123\1\uffff\1\105\1\125\1"+
+        "\uffff\1\123\2\44\1\122\1\116\1\uffff\1\101\1\44\2\uffff\2\44\1"+
+        "\125\1\105\1\111\1\44\1\uffff\1\122\1\113\1\111\2\103\1\116\1\105"+
+        "\1\103\1\44\1\uffff\1\123\2\117\1\111\1\101\1\124\1\105\2\uffff"+
+        "\1\117\2\124\3\uffff\1\122\1\116\1\123\1\uffff\1\111\1\116\1\124"+
+        "\2\101\2\107\1\101\1\uffff\1\44\2\116\1\117\1\126\1\111\1\124\1"+
+        "\116\1\122\1\117\1\105\1\124\1\44\1\101\1\105\1\131\2\120\1\44\1"+
+        "\122\1\131\1\uffff\1\103\1\44\1\116\1\131\1\117\2\44\1\101\1\115"+
+        "\1\44\1\123\1\uffff\1\114\1\123\1\44\2\105\1\uffff\1\105\1\115\1"+
+        "\44\1\uffff\1\44\1\103\1\116\2\uffff\1\124\1\123\1\uffff\1\44\1"+
+        "\105\1\123\1\uffff\2\44\1\105\1\117\2\uffff\1\117\1\44\1\111\1\44"+
+        "\1\uffff\1\131\1\111\1\114\1\44\2\uffff\1\44\1\104\1\116\1\uffff"+
+        "\1\117\1\uffff\1\120\1\130\1\105\2\uffff\1\105\1\103\1\116\1\105"+
+        "\1\124\1\115\1\114\3\44\1\125\1\105\1\44\3\uffff\1\122\1\116\1\uffff"+
+        "\1\105\1\124\1\44\1\123\1\uffff\1\44\1\uffff";
     static final String DFA20_maxS =
-        "\26\172\1\71\1\172\1\71\4\uffff\5\172\1\uffff\55\172\1\71\2\172"+
+        "\26\172\1\71\1\172\1\71\4\uffff\5\172\1\uffff\60\172\1\71\2\172"+
         "\1\163\1\146\1\164\1\154\1\172\2\143\1\145\1\156\1\146\1\145\1\172"+
-        "\2\141\1\155\1\160\1\163\1\165\1\154\1\166\2\162\1\145\1\154\1\143"+
-        "\1\162\1\165\2\172\1\164\1\141\1\172\1\155\1\162\1\145\1\164\1\172"+
-        "\1\145\1\164\1\162\2\145\1\147\2\145\1\164\1\151\1\145\1\170\1\155"+
-        "\2\145\1\155\1\172\1\151\1\164\1\71\2\172\1\164\1\143\1\141\1\151"+
-        "\1\uffff\2\165\1\172\1\163\1\162\1\156\1\uffff\1\171\1\165\1\171"+
-        "\1\154\1\172\1\145\1\151\1\154\1\145\1\157\1\164\1\141\1\172\1\157"+
-        "\1\141\1\145\1\154\1\172\1\uffff\1\172\1\uffff\1\141\1\170\1\155"+
-        "\1\163\1\uffff\1\145\1\147\1\154\1\145\1\uffff\1\163\1\143\1\157"+
-        "\2\156\1\141\1\172\1\146\1\145\1\154\1\162\1\165\1\157\1\163\3\172"+
-        "\1\141\1\154\1\145\1\172\1\uffff\1\172\1\151\2\141\1\151\1\155\2"+
-        "\154\1\165\1\uffff\1\154\1\141\1\163\1\160\1\154\1\172\2\145\1\uffff"+
-        "\1\156\1\154\1\155\1\156\1\165\1\157\1\162\1\uffff\1\145\1\147\1"+
-        "\160\1\141\1\156\1\142\1\172\1\165\1\156\1\171\1\163\1\151\1\157"+
-        "\1\145\1\156\1\163\2\141\1\162\1\uffff\1\162\1\172\1\146\1\151\1"+
-        "\162\1\155\1\157\3\uffff\1\163\1\145\1\156\1\uffff\1\157\1\143\2"+
-        "\154\1\156\3\141\1\162\1\141\1\143\1\151\1\141\1\164\1\uffff\1\172"+
-        "\1\161\1\143\1\145\1\157\1\164\1\156\1\146\1\172\1\145\2\172\1\162"+
-        "\1\147\1\145\1\uffff\1\162\1\164\1\172\1\160\1\156\2\154\1\157\1"+
-        "\151\2\172\1\142\1\141\1\uffff\1\151\1\141\2\145\1\154\1\145\1\155"+
-        "\1\163\1\156\1\141\1\172\1\143\1\145\1\164\1\162\1\164\1\162\2\164"+
-        "\1\157\1\162\1\172\1\uffff\1\172\1\145\1\172\1\154\1\150\1\144\1"+
-        "\146\1\uffff\1\172\2\uffff\1\162\1\165\1\141\1\145\1\141\1\uffff"+
-        "\1\145\1\172\1\150\1\165\1\154\1\155\1\144\2\uffff\1\172\1\155\2"+
-        "\154\1\172\1\164\1\165\1\144\1\145\1\151\1\164\1\154\1\uffff\1\172"+
-        "\1\162\1\151\1\172\1\145\1\157\1\145\1\151\1\156\1\141\2\uffff\1"+
-        "\172\1\uffff\2\145\1\162\1\151\1\163\1\uffff\1\145\1\154\1\155\1"+
-        "\164\1\154\1\162\1\145\1\157\1\145\1\164\1\172\1\145\1\165\1\uffff"+
-        "\2\145\1\164\1\uffff\1\145\1\164\1\172\1\156\1\164\1\141\1\172\1"+
+        "\2\141\1\164\1\155\1\160\1\163\1\165\1\154\1\166\3\162\1\145\1\154"+
+        "\1\143\1\162\1\165\2\172\1\144\1\164\1\141\1\172\1\155\1\141\1\162"+
+        "\1\145\1\164\1\172\1\145\1\164\1\162\2\145\1\147\2\145\1\164\1\151"+
+        "\1\145\1\170\1\155\2\145\1\164\1\145\1\155\1\172\1\151\1\71\2\172"+
+        "\1\164\1\143\1\141\1\151\1\uffff\2\165\1\172\1\163\1\162\1\156\1"+
+        "\uffff\1\171\1\165\1\150\1\171\1\154\1\172\1\145\1\151\1\154\1\145"+
+        "\1\141\1\164\1\157\1\141\1\172\1\157\1\141\1\145\1\154\1\172\1\uffff"+
+        "\1\172\1\uffff\1\157\1\141\1\170\1\155\1\163\1\uffff\1\145\1\160"+
+        "\1\147\1\154\1\145\1\uffff\1\163\1\143\1\157\2\156\1\141\1\172\1"+
+        "\146\1\145\1\154\1\162\1\165\1\157\1\163\3\172\1\154\1\151\1\141"+
+        "\1\154\1\145\1\172\1\uffff\1\172\2\141\1\151\1\155\2\154\1\165\1"+
+        "\uffff\1\154\1\141\1\163\1\160\1\154\1\163\1\172\2\145\1\uffff\1"+
+        "\156\1\154\1\155\1\156\1\147\1\157\1\165\1\162\1\uffff\1\145\1\147"+
+        "\1\160\1\141\1\155\1\156\1\142\1\172\1\165\1\156\1\145\1\171\1\163"+
+        "\1\151\1\157\1\145\1\156\1\163\2\141\1\162\1\uffff\1\162\1\172\1"+
+        "\146\1\151\1\162\1\155\1\157\3\uffff\1\163\1\143\1\163\1\145\1\156"+
+        "\1\uffff\1\157\2\154\1\156\3\141\1\162\1\141\1\143\1\151\1\141\1"+
+        "\164\1\156\2\141\1\uffff\1\172\1\161\1\143\1\145\1\157\1\164\1\145"+
+        "\1\146\1\156\1\172\1\145\2\172\1\162\1\163\1\147\1\145\1\uffff\1"+
+        "\162\1\164\1\145\1\172\1\160\1\156\2\154\1\157\1\151\2\172\1\142"+
+        "\1\141\1\uffff\1\151\1\141\2\145\1\154\1\164\1\141\1\145\1\155\1"+
+        "\163\1\156\1\172\1\143\1\145\1\164\1\162\1\164\1\162\2\164\1\157"+
+        "\1\162\1\172\1\147\1\155\1\143\1\uffff\1\172\1\145\1\172\1\154\1"+
+        "\150\1\160\1\146\1\144\1\uffff\1\172\2\uffff\1\162\1\145\1\165\1"+
+        "\141\1\145\1\141\1\156\1\uffff\1\145\1\172\1\150\1\165\1\154\1\155"+
+        "\1\144\2\uffff\1\172\1\155\2\154\1\172\1\164\1\165\1\157\1\154\1"+
+        "\144\1\145\1\151\1\164\1\uffff\1\172\1\162\1\151\1\172\1\145\1\157"+
+        "\1\145\1\151\1\156\1\141\1\uffff\1\151\1\160\1\150\1\uffff\1\172"+
+        "\1\uffff\2\145\2\162\1\163\1\151\1\uffff\2\145\1\154\1\155\1\164"+
+        "\1\154\1\147\1\162\1\145\1\157\1\145\1\164\1\172\1\145\1\165\1\uffff"+
+        "\2\145\1\164\1\uffff\1\145\1\164\1\162\2\172\1\156\1\164\1\141\1"+
         "\uffff\1\164\1\157\1\uffff\1\160\1\165\1\160\1\157\1\172\1\155\1"+
-        "\151\1\uffff\1\172\2\141\1\156\1\145\1\163\1\141\1\157\1\151\1\172"+
-        "\1\155\1\172\1\156\1\141\1\151\1\uffff\1\162\1\145\1\164\1\172\1"+
-        "\171\1\151\1\154\1\162\1\151\1\uffff\1\164\1\171\1\154\1\uffff\1"+
-        "\141\1\150\1\145\1\156\1\145\1\154\1\156\1\145\1\156\1\172\1\uffff"+
-        "\1\172\1\154\1\164\1\uffff\1\166\1\143\1\147\1\164\1\157\1\162\1"+
-        "\146\1\155\1\uffff\1\151\1\uffff\1\143\1\166\1\157\2\163\1\171\1"+
-        "\uffff\1\160\1\170\1\145\1\141\1\157\1\163\2\172\1\164\1\151\1\156"+
-        "\1\172\2\145\1\144\1\162\1\144\1\uffff\1\145\1\157\1\171\1\164\1"+
-        "\150\1\172\1\154\1\172\1\146\1\145\1\143\1\172\1\171\1\156\2\172"+
-        "\2\160\2\145\1\164\1\155\1\170\1\156\1\172\2\uffff\1\145\1\143\1"+
-        "\163\1\uffff\2\163\1\151\1\144\1\145\1\172\1\155\1\143\1\151\1\145"+
-        "\1\uffff\1\165\1\uffff\1\163\1\172\1\162\1\156\1\uffff\1\141\1\172"+
-        "\2\uffff\2\172\1\165\1\145\1\151\1\172\1\uffff\1\162\1\153\1\151"+
-        "\2\143\1\156\1\145\1\143\1\uffff\1\163\2\157\1\141\1\164\1\145\1"+
-        "\uffff\1\157\2\164\3\uffff\1\162\1\156\1\163\1\uffff\1\151\1\156"+
-        "\1\164\2\141\2\147\1\141\1\172\2\156\1\166\1\151\1\164\1\156\1\162"+
-        "\1\157\1\145\1\164\1\172\1\141\1\145\1\171\2\160\1\172\1\162\1\171"+
-        "\1\uffff\1\143\1\172\1\171\1\157\2\172\1\141\1\155\1\172\1\163\1"+
-        "\uffff\1\154\1\163\1\172\2\145\1\uffff\1\145\1\155\1\172\1\uffff"+
-        "\1\143\1\156\2\uffff\1\164\1\163\1\uffff\1\172\1\164\1\163\1\uffff"+
-        "\2\172\1\145\1\157\1\uffff\1\157\1\172\1\151\1\172\1\uffff\1\171"+
-        "\1\151\1\154\1\172\2\uffff\1\172\1\144\1\156\1\uffff\1\157\1\uffff"+
-        "\1\160\1\170\1\145\2\uffff\1\145\1\143\1\156\1\145\1\164\1\155\1"+
-        "\154\3\172\1\165\1\145\1\172\3\uffff\1\162\1\156\1\uffff\1\145\1"+
-        "\164\1\172\1\163\1\uffff\1\172\1\uffff";
+        "\156\1\154\1\145\1\151\1\uffff\1\172\2\141\2\145\1\156\1\163\1\144"+
+        "\1\141\1\157\1\151\1\172\1\151\1\155\1\172\1\156\1\141\1\151\1\uffff"+
+        "\1\162\1\145\1\164\1\172\1\171\1\151\1\154\1\162\1\151\1\145\2\uffff"+
+        "\1\164\1\171\1\154\1\141\1\150\1\145\1\156\1\145\1\154\1\156\1\145"+
+        "\1\156\1\172\1\uffff\1\172\1\145\1\151\1\172\1\154\1\164\1\uffff"+
+        "\1\166\2\143\1\164\1\147\1\157\1\172\1\162\1\146\1\155\1\uffff\1"+
+        "\156\1\151\1\uffff\1\143\1\166\1\157\2\163\1\171\1\uffff\1\160\1"+
+        "\170\1\145\1\141\1\157\1\172\1\163\2\172\1\164\1\151\1\156\1\172"+
+        "\2\145\1\144\1\162\1\144\1\uffff\1\172\1\156\1\uffff\1\145\1\157"+
+        "\1\171\1\164\1\151\1\172\1\150\1\154\1\uffff\1\172\1\146\2\145\1"+
+        "\143\1\172\1\171\1\156\2\172\2\160\2\145\1\164\1\155\1\170\1\156"+
+        "\1\uffff\1\172\2\uffff\1\145\1\143\1\163\1\uffff\2\163\1\151\1\144"+
+        "\1\145\1\uffff\1\147\1\172\1\155\1\143\1\151\1\163\1\uffff\1\145"+
+        "\1\165\1\uffff\1\163\2\172\1\162\1\156\1\uffff\1\141\1\172\2\uffff"+
+        "\2\172\1\165\1\145\1\151\1\172\1\uffff\1\162\1\153\1\151\2\143\1"+
+        "\156\1\145\1\143\1\172\1\uffff\1\163\2\157\1\151\1\141\1\164\1\145"+
+        "\2\uffff\1\157\2\164\3\uffff\1\162\1\156\1\163\1\uffff\1\151\1\156"+
+        "\1\164\2\141\2\147\1\141\1\uffff\1\172\2\156\1\157\1\166\1\151\1"+
+        "\164\1\156\1\162\1\157\1\145\1\164\1\172\1\141\1\145\1\171\2\160"+
+        "\1\172\1\162\1\171\1\uffff\1\143\1\172\1\156\1\171\1\157\2\172\1"+
+        "\141\1\155\1\172\1\163\1\uffff\1\154\1\163\1\172\2\145\1\uffff\1"+
+        "\145\1\155\1\172\1\uffff\1\172\1\143\1\156\2\uffff\1\164\1\163\1"+
+        "\uffff\1\172\1\164\1\163\1\uffff\2\172\1\145\1\157\2\uffff\1\157"+
+        "\1\172\1\151\1\172\1\uffff\1\171\1\151\1\154\1\172\2\uffff\1\172"+
+        "\1\144\1\156\1\uffff\1\157\1\uffff\1\160\1\170\1\145\2\uffff\1\145"+
+        "\1\143\1\156\1\145\1\164\1\155\1\154\3\172\1\165\1\145\1\172\3\uffff"+
+        "\1\162\1\156\1\uffff\1\145\1\164\1\172\1\163\1\uffff\1\172\1\uffff";
     static final String DFA20_acceptS =
-        "\31\uffff\1\124\1\125\1\123\1\126\5\uffff\1\42\157\uffff\1\47\6"+
-        "\uffff\1\4\22\uffff\1\15\1\uffff\1\16\4\uffff\1\17\4\uffff\1\46"+
-        "\25\uffff\1\105\11\uffff\1\2\10\uffff\1\20\7\uffff\1\7\23\uffff"+
-        "\1\56\7\uffff\1\102\1\103\1\106\3\uffff\1\101\16\uffff\1\12\17\uffff"+
-        "\1\24\15\uffff\1\115\26\uffff\1\5\7\uffff\1\6\1\uffff\1\26\1\27"+
-        "\5\uffff\1\104\7\uffff\1\36\1\37\14\uffff\1\1\12\uffff\1\13\1\22"+
-        "\1\uffff\1\70\5\uffff\1\14\15\uffff\1\40\3\uffff\1\57\7\uffff\1"+
-        "\11\2\uffff\1\112\7\uffff\1\21\17\uffff\1\31\11\uffff\1\75\3\uffff"+
-        "\1\114\12\uffff\1\25\3\uffff\1\23\10\uffff\1\60\1\uffff\1\107\6"+
-        "\uffff\1\51\21\uffff\1\10\31\uffff\1\100\1\113\3\uffff\1\110\12"+
-        "\uffff\1\120\1\uffff\1\111\4\uffff\1\32\2\uffff\1\34\1\35\6\uffff"+
-        "\1\77\10\uffff\1\67\6\uffff\1\116\3\uffff\1\73\1\50\1\55\3\uffff"+
-        "\1\72\34\uffff\1\43\12\uffff\1\53\5\uffff\1\76\3\uffff\1\45\2\uffff"+
-        "\1\122\1\30\2\uffff\1\63\3\uffff\1\66\4\uffff\1\44\4\uffff\1\65"+
-        "\4\uffff\1\52\1\71\3\uffff\1\117\1\uffff\1\41\3\uffff\1\61\1\121"+
-        "\15\uffff\1\74\1\33\1\54\2\uffff\1\3\4\uffff\1\62\1\uffff\1\64";
+        "\31\uffff\1\133\1\134\1\132\1\135\5\uffff\1\42\167\uffff\1\47\6"+
+        "\uffff\1\4\24\uffff\1\15\1\uffff\1\16\5\uffff\1\17\5\uffff\1\46"+
+        "\27\uffff\1\114\10\uffff\1\2\11\uffff\1\20\10\uffff\1\7\25\uffff"+
+        "\1\56\7\uffff\1\111\1\112\1\115\5\uffff\1\110\20\uffff\1\12\21\uffff"+
+        "\1\24\16\uffff\1\124\32\uffff\1\5\10\uffff\1\6\1\uffff\1\26\1\27"+
+        "\7\uffff\1\113\7\uffff\1\36\1\37\15\uffff\1\1\12\uffff\1\13\3\uffff"+
+        "\1\22\1\uffff\1\70\6\uffff\1\14\17\uffff\1\40\3\uffff\1\57\10\uffff"+
+        "\1\11\2\uffff\1\121\12\uffff\1\21\22\uffff\1\31\12\uffff\1\123\1"+
+        "\104\15\uffff\1\25\6\uffff\1\23\12\uffff\1\60\2\uffff\1\116\6\uffff"+
+        "\1\51\22\uffff\1\10\2\uffff\1\102\10\uffff\1\101\22\uffff\1\100"+
+        "\1\uffff\1\107\1\122\3\uffff\1\117\5\uffff\1\74\6\uffff\1\127\2"+
+        "\uffff\1\120\5\uffff\1\32\2\uffff\1\34\1\35\6\uffff\1\106\11\uffff"+
+        "\1\67\7\uffff\1\125\1\76\3\uffff\1\73\1\50\1\55\3\uffff\1\72\10"+
+        "\uffff\1\75\25\uffff\1\43\13\uffff\1\53\5\uffff\1\105\3\uffff\1"+
+        "\45\3\uffff\1\131\1\30\2\uffff\1\63\3\uffff\1\66\4\uffff\1\44\1"+
+        "\77\4\uffff\1\65\4\uffff\1\52\1\71\3\uffff\1\126\1\uffff\1\41\3"+
+        "\uffff\1\61\1\130\15\uffff\1\103\1\33\1\54\2\uffff\1\3\4\uffff\1"+
+        "\62\1\uffff\1\64";
     static final String DFA20_specialS =
-        "\u02c9\uffff}>";
+        "\u0311\uffff}>";
     static final String[] DFA20_transitionS = {
             "\2\32\2\uffff\1\32\22\uffff\1\32\1\31\1\uffff\1\31\1\34\6\uffff"+
-            "\1\33\1\uffff\1\26\1\30\1\31\12\27\1\34\6\uffff\1\6\1\21\1\1"+
-            "\1\3\1\10\1\17\1\16\1\23\2\25\1\22\1\5\1\15\1\13\1\20\1\11\1"+
-            "\25\1\7\1\4\1\2\1\12\1\24\1\14\3\25\1\uffff\1\34\2\uffff\1\34"+
-            "\1\uffff\1\6\1\21\1\1\1\3\1\10\1\17\1\16\1\23\2\25\1\22\1\5"+
-            "\1\15\1\13\1\20\1\11\1\25\1\7\1\4\1\2\1\12\1\24\1\14\3\25",
+            "\1\33\1\uffff\1\26\1\30\1\31\12\27\1\34\6\uffff\1\6\1\22\1\1"+
+            "\1\3\1\10\1\17\1\16\1\24\2\25\1\23\1\5\1\15\1\13\1\21\1\11\1"+
+            "\25\1\7\1\4\1\2\1\12\1\20\1\14\3\25\1\uffff\1\34\2\uffff\1\34"+
+            "\1\uffff\1\6\1\22\1\1\1\3\1\10\1\17\1\16\1\24\2\25\1\23\1\5"+
+            "\1\15\1\13\1\21\1\11\1\25\1\7\1\4\1\2\1\12\1\20\1\14\3\25",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\40\7\41\1\37\5"+
             "\41\1\36\2\41\1\35\10\41\1\uffff\1\34\2\uffff\1\34\1\uffff\1"+
             "\40\7\41\1\37\5\41\1\36\2\41\1\35\10\41",
@@ -11547,382 +12577,375 @@ public class InputfileLexer extends Lexer {
             "\41\1\45\13\41\1\50\5\41\1\uffff\1\34\2\uffff\1\34\1\uffff\3"+
             "\41\1\46\1\47\3\41\1\45\13\41\1\50\5\41",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\52\3\41\1\53\3"+
-            "\41\1\51\3\41\1\54\1\41\1\55\4\41\1\57\1\56\5\41\1\uffff\1\34"+
+            "\41\1\51\3\41\1\54\1\41\1\55\4\41\1\56\1\57\5\41\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\1\52\3\41\1\53\3\41\1\51\3\41\1\54\1\41"+
-            "\1\55\4\41\1\57\1\56\5\41",
+            "\1\55\4\41\1\56\1\57\5\41",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\61\3\41\1"+
             "\60\21\41\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\61\3\41\1"+
             "\60\21\41",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\41\1\62\13\41\1"+
             "\64\7\41\1\63\4\41\1\uffff\1\34\2\uffff\1\34\1\uffff\1\41\1"+
             "\62\13\41\1\64\7\41\1\63\4\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\41\1\65\1\66\11"+
-            "\41\1\67\13\41\1\uffff\1\34\2\uffff\1\34\1\uffff\3\41\1\65\1"+
-            "\66\11\41\1\67\13\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\41\1\71\1\41\1"+
-            "\72\11\41\1\70\2\41\1\uffff\1\34\2\uffff\1\34\1\uffff\13\41"+
-            "\1\71\1\41\1\72\11\41\1\70\2\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\41\1\75\1\76\3"+
-            "\41\1\73\10\41\1\74\10\41\1\uffff\1\34\2\uffff\1\34\1\uffff"+
-            "\3\41\1\75\1\76\3\41\1\73\10\41\1\74\10\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\41\1\77\14\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\15\41\1\77\14\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\41\1\101\5\41"+
-            "\1\100\5\41\1\uffff\1\34\2\uffff\1\34\1\uffff\16\41\1\101\5"+
-            "\41\1\100\5\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\103\3\41\1"+
-            "\102\21\41\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\103\3\41"+
-            "\1\102\21\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\105\7\41\1\106"+
-            "\5\41\1\104\13\41\1\uffff\1\34\2\uffff\1\34\1\uffff\1\105\7"+
-            "\41\1\106\5\41\1\104\13\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\41\1\107\13\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\16\41\1\107\13\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\10\41\1\112\2\41"+
-            "\1\110\12\41\1\111\3\41\1\uffff\1\34\2\uffff\1\34\1\uffff\10"+
-            "\41\1\112\2\41\1\110\12\41\1\111\3\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\10\41\1\113\21\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\10\41\1\113\21\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\114\25\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\114\25\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\115\25\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\115\25\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\41\1\116\13\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\16\41\1\116\13\41",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\117\25\41"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\117\25\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\66\2\41\1\65\1"+
+            "\67\11\41\1\70\13\41\1\uffff\1\34\2\uffff\1\34\1\uffff\1\66"+
+            "\2\41\1\65\1\67\11\41\1\70\13\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\41\1\72\1\41\1"+
+            "\74\4\41\1\73\4\41\1\71\2\41\1\uffff\1\34\2\uffff\1\34\1\uffff"+
+            "\13\41\1\72\1\41\1\74\4\41\1\73\4\41\1\71\2\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\41\1\77\1\100\3"+
+            "\41\1\75\10\41\1\76\10\41\1\uffff\1\34\2\uffff\1\34\1\uffff"+
+            "\3\41\1\77\1\100\3\41\1\75\10\41\1\76\10\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\41\1\101\14\41"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\15\41\1\101\14\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\41\1\103\5\41"+
+            "\1\102\5\41\1\uffff\1\34\2\uffff\1\34\1\uffff\16\41\1\103\5"+
+            "\41\1\102\5\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\105\3\41\1"+
+            "\104\21\41\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\105\3\41"+
+            "\1\104\21\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\107\7\41\1\110"+
+            "\5\41\1\106\13\41\1\uffff\1\34\2\uffff\1\34\1\uffff\1\107\7"+
+            "\41\1\110\5\41\1\106\13\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\41\1\111\13\41"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\16\41\1\111\13\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\10\41\1\114\2\41"+
+            "\1\112\12\41\1\113\3\41\1\uffff\1\34\2\uffff\1\34\1\uffff\10"+
+            "\41\1\114\2\41\1\112\12\41\1\113\3\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\116\11\41"+
+            "\1\115\13\41\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\116\11"+
+            "\41\1\115\13\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\10\41\1\117\21\41"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\10\41\1\117\21\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\120\25\41"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\120\25\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\41\1\121\25\41"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\41\1\121\25\41",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\41\1\122\13\41"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\16\41\1\122\13\41",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\41\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\41",
             "\1\30\1\uffff\12\27",
-            "\1\34\10\uffff\1\34\1\121\1\uffff\12\27\1\34\6\uffff\4\34\1"+
-            "\120\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\120\25\34",
-            "\12\122",
+            "\1\34\10\uffff\1\34\1\124\1\uffff\12\27\1\34\6\uffff\4\34\1"+
+            "\123\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\123\25\34",
+            "\12\125",
             "",
             "",
             "",
             "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\30\34\1\123\1\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\30\34\1\123\1\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\124\6\34\1"+
-            "\126\1\34\1\125\14\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34"+
-            "\1\124\6\34\1\126\1\34\1\125\14\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\5\34\1\127\13\34"+
-            "\1\130\10\34\1\uffff\1\34\2\uffff\1\34\1\uffff\5\34\1\127\13"+
-            "\34\1\130\10\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\131\16\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\131\16\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\30\34\1\126\1\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\30\34\1\126\1\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\127\6\34\1"+
+            "\131\1\34\1\130\14\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34"+
+            "\1\127\6\34\1\131\1\34\1\130\14\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\5\34\1\132\13\34"+
+            "\1\133\10\34\1\uffff\1\34\2\uffff\1\34\1\uffff\5\34\1\132\13"+
+            "\34\1\133\10\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\134\16\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\134\16\34",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
             "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\17\34\1\132\12\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\17\34\1\132\12\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\133\31\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\1\133\31\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\5\34\1\134\6\34\1"+
-            "\135\15\34\1\uffff\1\34\2\uffff\1\34\1\uffff\5\34\1\134\6\34"+
-            "\1\135\15\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\136\15\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\136\15\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\2\34\1\137\2\34\1"+
-            "\140\24\34\1\uffff\1\34\2\uffff\1\34\1\uffff\2\34\1\137\2\34"+
-            "\1\140\24\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\17\34\1\135\12\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\17\34\1\135\12\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\136\31\34\1\uffff"+
+            "\1\34\2\uffff\1\34\1\uffff\1\136\31\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\5\34\1\137\6\34\1"+
+            "\140\15\34\1\uffff\1\34\2\uffff\1\34\1\uffff\5\34\1\137\6\34"+
+            "\1\140\15\34",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\141\15\34"+
             "\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\141\15\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\142\15\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\142\15\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\143\2\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\143\2\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\20\34\1\144\11\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\20\34\1\144\11\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\145\31\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\1\145\31\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\146\16\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\146\16\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\147\10\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\147\10\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\150\31\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\1\150\31\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\151\14\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\151\14\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\152\31\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\1\152\31\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\22\34\1\153\7\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\22\34\1\153\7\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\154\25\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\154\25\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\6\34\1\155\23\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\6\34\1\155\23\34",
-            "\1\34\10\uffff\2\34\1\uffff\3\34\1\157\7\34\6\uffff\25\34\1"+
-            "\156\4\34\1\uffff\1\34\2\uffff\1\34\1\uffff\25\34\1\156\4\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\2\34\1\160\27\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\2\34\1\160\27\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\23\34\1\161\6\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\23\34\1\161\6\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\17\34\1\162\12\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\17\34\1\162\12\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\163\25\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\163\25\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\164\25\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\164\25\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\165\2\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\165\2\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\34\1\166\13\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\16\34\1\166\13\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\34\1\167\30\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\1\34\1\167\30\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\170\10\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\170\10\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\10\34\1\171\21\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\10\34\1\171\21\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\172\15\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\172\15\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\173\14\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\173\14\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\174\10\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\174\10\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\34\1\175\26\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\3\34\1\175\26\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\34\1\176\26\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\3\34\1\176\26\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\23\34\1\177\6\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\23\34\1\177\6\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\u0080\2\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\u0080\2\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\u0081\14"+
-            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\u0081\14\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u0082\2\34"+
-            "\1\u0083\5\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u0082"+
-            "\2\34\1\u0083\5\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\7\34\1\u0084\22\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\7\34\1\u0084\22\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\u0085\16"+
-            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\u0085\16\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\u0086\16"+
-            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\u0086\16\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\u0087\31\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\1\u0087\31\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\25\34\1\u0088\4\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\25\34\1\u0088\4\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u0089\10"+
-            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u0089\10\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u008a\10"+
-            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u008a\10\34",
-            "\1\33\1\uffff\1\u008b\2\uffff\12\u008c",
-            "\1\34\10\uffff\2\34\1\uffff\12\u008d\1\34\6\uffff\4\34\1\120"+
-            "\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\120\25\34",
-            "\1\34\10\uffff\2\34\1\uffff\12\122\1\34\6\uffff\4\34\1\120"+
-            "\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\120\25\34",
-            "\1\u008e\37\uffff\1\u008e",
-            "\1\u008f\37\uffff\1\u008f",
-            "\1\u0090\37\uffff\1\u0090",
-            "\1\u0091\37\uffff\1\u0091",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0093\37\uffff\1\u0093",
-            "\1\u0094\37\uffff\1\u0094",
-            "\1\u0095\37\uffff\1\u0095",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\2\34\1\142\2\34\1"+
+            "\143\11\34\1\144\12\34\1\uffff\1\34\2\uffff\1\34\1\uffff\2\34"+
+            "\1\142\2\34\1\143\11\34\1\144\12\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\145\15\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\145\15\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\146\15\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\146\15\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\147\2\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\147\2\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\20\34\1\150\11\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\20\34\1\150\11\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\151\31\34\1\uffff"+
+            "\1\34\2\uffff\1\34\1\uffff\1\151\31\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\152\16\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\152\16\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\154\15\34\1\153"+
+            "\13\34\1\uffff\1\34\2\uffff\1\34\1\uffff\1\154\15\34\1\153\13"+
+            "\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\155\10\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\155\10\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\156\14\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\156\14\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\157\31\34\1\uffff"+
+            "\1\34\2\uffff\1\34\1\uffff\1\157\31\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\22\34\1\160\7\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\22\34\1\160\7\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\161\25\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\161\25\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\6\34\1\162\23\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\6\34\1\162\23\34",
+            "\1\34\10\uffff\2\34\1\uffff\3\34\1\164\7\34\6\uffff\25\34\1"+
+            "\163\4\34\1\uffff\1\34\2\uffff\1\34\1\uffff\25\34\1\163\4\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\165\14\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\165\14\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\2\34\1\166\27\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\2\34\1\166\27\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\23\34\1\167\6\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\23\34\1\167\6\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\17\34\1\170\12\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\17\34\1\170\12\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\171\25\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\171\25\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\2\34\1\172\27\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\2\34\1\172\27\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\173\25\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\173\25\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\174\2\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\174\2\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\34\1\175\13\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\16\34\1\175\13\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\34\1\176\30\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\1\34\1\176\30\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\177\10\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\177\10\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\10\34\1\u0080\21"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\10\34\1\u0080\21\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\14\34\1\u0081\15"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\14\34\1\u0081\15\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\u0082\14"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\u0082\14\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u0083\10"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u0083\10\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\34\1\u0084\26\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\3\34\1\u0084\26\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\34\1\u0085\26\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\3\34\1\u0085\26\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\23\34\1\u0086\6\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\23\34\1\u0086\6\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\u0087\2\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\u0087\2\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\15\34\1\u0088\14"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\15\34\1\u0088\14\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u0089\2\34"+
+            "\1\u008a\5\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u0089"+
+            "\2\34\1\u008a\5\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\7\34\1\u008b\22\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\7\34\1\u008b\22\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\u008c\16"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\u008c\16\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\27\34\1\u008d\2\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\27\34\1\u008d\2\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u008e\10"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u008e\10\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\13\34\1\u008f\16"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\13\34\1\u008f\16\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\u0090\31\34\1\uffff"+
+            "\1\34\2\uffff\1\34\1\uffff\1\u0090\31\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\25\34\1\u0091\4\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\25\34\1\u0091\4\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\21\34\1\u0092\10"+
+            "\34\1\uffff\1\34\2\uffff\1\34\1\uffff\21\34\1\u0092\10\34",
+            "\1\33\1\uffff\1\u0093\2\uffff\12\u0094",
+            "\1\34\10\uffff\2\34\1\uffff\12\u0095\1\34\6\uffff\4\34\1\123"+
+            "\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\123\25\34",
+            "\1\34\10\uffff\2\34\1\uffff\12\125\1\34\6\uffff\4\34\1\123"+
+            "\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\123\25\34",
             "\1\u0096\37\uffff\1\u0096",
             "\1\u0097\37\uffff\1\u0097",
             "\1\u0098\37\uffff\1\u0098",
+            "\1\u0099\37\uffff\1\u0099",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u009a\37\uffff\1\u009a",
             "\1\u009b\37\uffff\1\u009b",
             "\1\u009c\37\uffff\1\u009c",
             "\1\u009d\37\uffff\1\u009d",
             "\1\u009e\37\uffff\1\u009e",
-            "\1\u00a0\16\uffff\1\u009f\20\uffff\1\u00a0\16\uffff\1\u009f",
-            "\1\u00a1\37\uffff\1\u00a1",
+            "\1\u009f\37\uffff\1\u009f",
+            "\1\u00a0\37\uffff\1\u00a0",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u00a2\37\uffff\1\u00a2",
             "\1\u00a3\37\uffff\1\u00a3",
             "\1\u00a4\37\uffff\1\u00a4",
             "\1\u00a5\37\uffff\1\u00a5",
             "\1\u00a6\37\uffff\1\u00a6",
             "\1\u00a7\37\uffff\1\u00a7",
-            "\1\u00a8\37\uffff\1\u00a8",
-            "\1\u00a9\10\uffff\1\u00aa\26\uffff\1\u00a9\10\uffff\1\u00aa",
-            "\1\34\10\uffff\2\34\1\uffff\2\34\2\u00ab\7\34\6\uffff\32\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\32\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\34\1\u00ad\26\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\3\34\1\u00ad\26\34",
+            "\1\u00a9\16\uffff\1\u00a8\20\uffff\1\u00a9\16\uffff\1\u00a8",
+            "\1\u00aa\37\uffff\1\u00aa",
+            "\1\u00ab\37\uffff\1\u00ab",
+            "\1\u00ac\37\uffff\1\u00ac",
+            "\1\u00ad\37\uffff\1\u00ad",
+            "\1\u00ae\37\uffff\1\u00ae",
             "\1\u00af\37\uffff\1\u00af",
             "\1\u00b0\37\uffff\1\u00b0",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\34\1\u00b2\3\34"+
-            "\1\u00b1\7\34\1\uffff\1\34\2\uffff\1\34\1\uffff\16\34\1\u00b2"+
-            "\3\34\1\u00b1\7\34",
-            "\1\u00b4\37\uffff\1\u00b4",
-            "\1\u00b5\37\uffff\1\u00b5",
-            "\1\u00b6\37\uffff\1\u00b6",
-            "\1\u00b7\37\uffff\1\u00b7",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u00b1\37\uffff\1\u00b1",
+            "\1\u00b2\37\uffff\1\u00b2",
+            "\1\u00b3\10\uffff\1\u00b4\26\uffff\1\u00b3\10\uffff\1\u00b4",
+            "\1\34\10\uffff\2\34\1\uffff\2\34\2\u00b5\7\34\6\uffff\32\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\3\34\1\u00b7\26\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\3\34\1\u00b7\26\34",
             "\1\u00b9\37\uffff\1\u00b9",
             "\1\u00ba\37\uffff\1\u00ba",
-            "\1\u00be\1\u00bd\10\uffff\1\u00bb\4\uffff\1\u00bc\20\uffff"+
-            "\1\u00be\1\u00bd\10\uffff\1\u00bb\4\uffff\1\u00bc",
+            "\1\u00bb\37\uffff\1\u00bb",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\16\34\1\u00bd\3\34"+
+            "\1\u00bc\7\34\1\uffff\1\34\2\uffff\1\34\1\uffff\16\34\1\u00bd"+
+            "\3\34\1\u00bc\7\34",
             "\1\u00bf\37\uffff\1\u00bf",
             "\1\u00c0\37\uffff\1\u00c0",
             "\1\u00c1\37\uffff\1\u00c1",
             "\1\u00c2\37\uffff\1\u00c2",
             "\1\u00c3\37\uffff\1\u00c3",
-            "\1\u00c4\37\uffff\1\u00c4",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u00c5\37\uffff\1\u00c5",
             "\1\u00c6\37\uffff\1\u00c6",
-            "\1\u00c7\37\uffff\1\u00c7",
-            "\1\u00c8\37\uffff\1\u00c8",
-            "\1\u00c9\37\uffff\1\u00c9",
-            "\1\u00ca\1\uffff\1\u00cc\1\u00cb\34\uffff\1\u00ca\1\uffff\1"+
-            "\u00cc\1\u00cb",
+            "\1\u00ca\1\u00c9\10\uffff\1\u00c7\4\uffff\1\u00c8\20\uffff"+
+            "\1\u00ca\1\u00c9\10\uffff\1\u00c7\4\uffff\1\u00c8",
+            "\1\u00cb\37\uffff\1\u00cb",
+            "\1\u00cc\37\uffff\1\u00cc",
             "\1\u00cd\37\uffff\1\u00cd",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u00ce\37\uffff\1\u00ce",
             "\1\u00cf\37\uffff\1\u00cf",
             "\1\u00d0\37\uffff\1\u00d0",
-            "\12\u008c",
-            "\1\34\10\uffff\2\34\1\uffff\12\u008c\1\34\6\uffff\32\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\32\34",
-            "\1\34\10\uffff\2\34\1\uffff\12\u008d\1\34\6\uffff\4\34\1\120"+
-            "\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\120\25\34",
             "\1\u00d1\37\uffff\1\u00d1",
             "\1\u00d2\37\uffff\1\u00d2",
             "\1\u00d3\37\uffff\1\u00d3",
             "\1\u00d4\37\uffff\1\u00d4",
-            "",
             "\1\u00d5\37\uffff\1\u00d5",
-            "\1\u00d7\1\uffff\1\u00d6\35\uffff\1\u00d7\1\uffff\1\u00d6",
+            "\1\u00d6\37\uffff\1\u00d6",
+            "\1\u00d7\37\uffff\1\u00d7",
+            "\1\u00d8\1\uffff\1\u00da\1\u00d9\34\uffff\1\u00d8\1\uffff\1"+
+            "\u00da\1\u00d9",
+            "\1\u00db\37\uffff\1\u00db",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u00d9\37\uffff\1\u00d9",
-            "\1\u00da\37\uffff\1\u00da",
-            "\1\u00db\37\uffff\1\u00db",
-            "",
-            "\1\u00dc\37\uffff\1\u00dc",
             "\1\u00dd\37\uffff\1\u00dd",
+            "\12\u0094",
+            "\1\34\10\uffff\2\34\1\uffff\12\u0094\1\34\6\uffff\32\34\1\uffff"+
+            "\1\34\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\12\u0095\1\34\6\uffff\4\34\1\123"+
+            "\25\34\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\123\25\34",
             "\1\u00de\37\uffff\1\u00de",
             "\1\u00df\37\uffff\1\u00df",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\22\34\1\u00e0\7\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\22\34\1\u00e0\7\34",
+            "\1\u00e0\37\uffff\1\u00e0",
+            "\1\u00e1\37\uffff\1\u00e1",
+            "",
             "\1\u00e2\37\uffff\1\u00e2",
-            "\1\u00e3\37\uffff\1\u00e3",
-            "\1\u00e4\37\uffff\1\u00e4",
-            "\1\u00e5\37\uffff\1\u00e5",
+            "\1\u00e4\1\uffff\1\u00e3\35\uffff\1\u00e4\1\uffff\1\u00e3",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u00e6\37\uffff\1\u00e6",
             "\1\u00e7\37\uffff\1\u00e7",
             "\1\u00e8\37\uffff\1\u00e8",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u00e9\37\uffff\1\u00e9",
             "\1\u00ea\37\uffff\1\u00ea",
             "\1\u00eb\37\uffff\1\u00eb",
             "\1\u00ec\37\uffff\1\u00ec",
             "\1\u00ed\37\uffff\1\u00ed",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "",
-            "\1\u00ee\37\uffff\1\u00ee",
-            "\1\u00ef\37\uffff\1\u00ef",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\22\34\1\u00ee\7\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\22\34\1\u00ee\7\34",
             "\1\u00f0\37\uffff\1\u00f0",
             "\1\u00f1\37\uffff\1\u00f1",
-            "",
             "\1\u00f2\37\uffff\1\u00f2",
             "\1\u00f3\37\uffff\1\u00f3",
             "\1\u00f4\37\uffff\1\u00f4",
             "\1\u00f5\37\uffff\1\u00f5",
-            "",
             "\1\u00f6\37\uffff\1\u00f6",
             "\1\u00f7\37\uffff\1\u00f7",
-            "\1\u00f8\37\uffff\1\u00f8",
-            "\1\u00f9\10\uffff\1\u00fa\26\uffff\1\u00f9\10\uffff\1\u00fa",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u00f9\37\uffff\1\u00f9",
+            "\1\u00fa\37\uffff\1\u00fa",
             "\1\u00fb\37\uffff\1\u00fb",
             "\1\u00fc\37\uffff\1\u00fc",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u00fd\37\uffff\1\u00fd",
             "\1\u00fe\37\uffff\1\u00fe",
             "\1\u00ff\37\uffff\1\u00ff",
             "\1\u0100\37\uffff\1\u0100",
             "\1\u0101\37\uffff\1\u0101",
+            "",
             "\1\u0102\37\uffff\1\u0102",
             "\1\u0103\37\uffff\1\u0103",
             "\1\u0104\37\uffff\1\u0104",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0105\37\uffff\1\u0105",
+            "\1\u0106\37\uffff\1\u0106",
+            "",
+            "\1\u0107\37\uffff\1\u0107",
             "\1\u0108\37\uffff\1\u0108",
             "\1\u0109\37\uffff\1\u0109",
-            "\1\u010a\37\uffff\1\u010a",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "",
+            "\1\u010a\10\uffff\1\u010b\26\uffff\1\u010a\10\uffff\1\u010b",
             "\1\u010c\37\uffff\1\u010c",
             "\1\u010d\37\uffff\1\u010d",
-            "\1\u010e\37\uffff\1\u010e",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u010f\37\uffff\1\u010f",
             "\1\u0110\37\uffff\1\u0110",
             "\1\u0111\37\uffff\1\u0111",
             "\1\u0112\37\uffff\1\u0112",
             "\1\u0113\37\uffff\1\u0113",
             "\1\u0114\37\uffff\1\u0114",
-            "",
             "\1\u0115\37\uffff\1\u0115",
-            "\1\u0116\37\uffff\1\u0116",
-            "\1\u0117\37\uffff\1\u0117",
-            "\1\u0118\37\uffff\1\u0118",
-            "\1\u0119\37\uffff\1\u0119",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0119\37\uffff\1\u0119",
+            "\1\u011a\37\uffff\1\u011a",
             "\1\u011b\37\uffff\1\u011b",
             "\1\u011c\37\uffff\1\u011c",
-            "",
             "\1\u011d\37\uffff\1\u011d",
-            "\1\u011e\37\uffff\1\u011e",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "",
             "\1\u011f\37\uffff\1\u011f",
             "\1\u0120\37\uffff\1\u0120",
             "\1\u0121\37\uffff\1\u0121",
             "\1\u0122\37\uffff\1\u0122",
             "\1\u0123\37\uffff\1\u0123",
-            "",
-            "\1\124\37\uffff\1\124",
             "\1\u0124\37\uffff\1\u0124",
-            "\1\u0126\3\uffff\1\u0125\33\uffff\1\u0126\3\uffff\1\u0125",
+            "\1\u0125\37\uffff\1\u0125",
+            "\1\u0126\37\uffff\1\u0126",
+            "",
             "\1\u0127\37\uffff\1\u0127",
             "\1\u0128\37\uffff\1\u0128",
             "\1\u0129\37\uffff\1\u0129",
+            "\1\u012a\37\uffff\1\u012a",
+            "\1\u012b\37\uffff\1\u012b",
+            "\1\u012e\1\uffff\1\u012c\15\uffff\1\u012d\17\uffff\1\u012e"+
+            "\1\uffff\1\u012c\15\uffff\1\u012d",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u012b\37\uffff\1\u012b",
-            "\1\u012c\37\uffff\1\u012c",
-            "\1\u012d\37\uffff\1\u012d",
-            "\1\u012e\37\uffff\1\u012e",
-            "\1\u012f\37\uffff\1\u012f",
             "\1\u0130\37\uffff\1\u0130",
             "\1\u0131\37\uffff\1\u0131",
+            "",
             "\1\u0132\37\uffff\1\u0132",
             "\1\u0133\37\uffff\1\u0133",
             "\1\u0134\37\uffff\1\u0134",
             "\1\u0135\37\uffff\1\u0135",
             "\1\u0136\37\uffff\1\u0136",
-            "",
             "\1\u0137\37\uffff\1\u0137",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0138\37\uffff\1\u0138",
             "\1\u0139\37\uffff\1\u0139",
+            "",
+            "\1\127\37\uffff\1\127",
             "\1\u013a\37\uffff\1\u013a",
-            "\1\u013b\37\uffff\1\u013b",
-            "\1\u013c\37\uffff\1\u013c",
+            "\1\u013c\3\uffff\1\u013b\33\uffff\1\u013c\3\uffff\1\u013b",
             "\1\u013d\37\uffff\1\u013d",
-            "",
-            "",
-            "",
             "\1\u013e\37\uffff\1\u013e",
             "\1\u013f\37\uffff\1\u013f",
             "\1\u0140\37\uffff\1\u0140",
-            "",
-            "\1\u0141\37\uffff\1\u0141",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0142\37\uffff\1\u0142",
             "\1\u0143\37\uffff\1\u0143",
             "\1\u0144\37\uffff\1\u0144",
@@ -11937,43 +12960,42 @@ public class InputfileLexer extends Lexer {
             "\1\u014d\37\uffff\1\u014d",
             "\1\u014e\37\uffff\1\u014e",
             "",
+            "\1\u014f\37\uffff\1\u014f",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0150\37\uffff\1\u0150",
             "\1\u0151\37\uffff\1\u0151",
             "\1\u0152\37\uffff\1\u0152",
             "\1\u0153\37\uffff\1\u0153",
             "\1\u0154\37\uffff\1\u0154",
             "\1\u0155\37\uffff\1\u0155",
-            "\1\u0156\37\uffff\1\u0156",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0158\37\uffff\1\u0158",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "",
+            "",
+            "\1\u0156\37\uffff\1\u0156",
+            "\1\u0157\37\uffff\1\u0157",
+            "\1\u0158\37\uffff\1\u0158",
+            "\1\u0159\37\uffff\1\u0159",
+            "\1\u015a\37\uffff\1\u015a",
+            "",
             "\1\u015b\37\uffff\1\u015b",
             "\1\u015c\37\uffff\1\u015c",
             "\1\u015d\37\uffff\1\u015d",
-            "",
             "\1\u015e\37\uffff\1\u015e",
             "\1\u015f\37\uffff\1\u015f",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0162\6\uffff\1\u0161\30\uffff\1\u0162\6\uffff\1\u0161",
+            "\1\u0160\37\uffff\1\u0160",
+            "\1\u0161\37\uffff\1\u0161",
+            "\1\u0162\37\uffff\1\u0162",
             "\1\u0163\37\uffff\1\u0163",
             "\1\u0164\37\uffff\1\u0164",
             "\1\u0165\37\uffff\1\u0165",
             "\1\u0166\37\uffff\1\u0166",
             "\1\u0167\37\uffff\1\u0167",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0168\37\uffff\1\u0168",
+            "\1\u0169\37\uffff\1\u0169",
             "\1\u016a\37\uffff\1\u016a",
-            "\1\u016b\37\uffff\1\u016b",
             "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u016c\37\uffff\1\u016c",
             "\1\u016d\37\uffff\1\u016d",
             "\1\u016e\37\uffff\1\u016e",
@@ -11982,454 +13004,547 @@ public class InputfileLexer extends Lexer {
             "\1\u0171\37\uffff\1\u0171",
             "\1\u0172\37\uffff\1\u0172",
             "\1\u0173\37\uffff\1\u0173",
-            "\1\u0174\37\uffff\1\u0174",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0175\37\uffff\1\u0175",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0177\37\uffff\1\u0177",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0178\37\uffff\1\u0178",
             "\1\u0179\37\uffff\1\u0179",
             "\1\u017a\37\uffff\1\u017a",
             "\1\u017b\37\uffff\1\u017b",
+            "",
             "\1\u017c\37\uffff\1\u017c",
             "\1\u017d\37\uffff\1\u017d",
             "\1\u017e\37\uffff\1\u017e",
-            "\1\u017f\37\uffff\1\u017f",
-            "\1\u0180\37\uffff\1\u0180",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0181\6\uffff\1\u0180\30\uffff\1\u0181\6\uffff\1\u0180",
+            "\1\u0182\37\uffff\1\u0182",
             "\1\u0183\37\uffff\1\u0183",
+            "\1\u0184\37\uffff\1\u0184",
+            "\1\u0185\37\uffff\1\u0185",
+            "\1\u0186\37\uffff\1\u0186",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0185\37\uffff\1\u0185",
-            "\1\u0187\1\uffff\1\u0186\35\uffff\1\u0187\1\uffff\1\u0186",
-            "\1\u0188\37\uffff\1\u0188",
-            "\1\u0189\37\uffff\1\u0189",
-            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "",
+            "\1\u0189\37\uffff\1\u0189",
+            "\1\u018a\37\uffff\1\u018a",
             "",
             "\1\u018b\37\uffff\1\u018b",
             "\1\u018c\37\uffff\1\u018c",
             "\1\u018d\37\uffff\1\u018d",
             "\1\u018e\37\uffff\1\u018e",
             "\1\u018f\37\uffff\1\u018f",
-            "",
             "\1\u0190\37\uffff\1\u0190",
             "\1\u0191\37\uffff\1\u0191",
-            "\1\u0192\4\uffff\1\u0193\32\uffff\1\u0192\4\uffff\1\u0193",
+            "\1\u0192\37\uffff\1\u0192",
+            "\1\u0193\37\uffff\1\u0193",
             "\1\u0194\37\uffff\1\u0194",
             "\1\u0195\37\uffff\1\u0195",
-            "\1\u0196\37\uffff\1\u0196",
-            "\1\u0197\37\uffff\1\u0197",
-            "",
-            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0197\37\uffff\1\u0197",
+            "\1\u0198\37\uffff\1\u0198",
             "\1\u0199\37\uffff\1\u0199",
             "\1\u019a\37\uffff\1\u019a",
             "\1\u019b\37\uffff\1\u019b",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u019c\37\uffff\1\u019c",
             "\1\u019d\37\uffff\1\u019d",
             "\1\u019e\37\uffff\1\u019e",
             "\1\u019f\37\uffff\1\u019f",
             "\1\u01a0\37\uffff\1\u01a0",
-            "\1\u01a1\37\uffff\1\u01a1",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u01a2\37\uffff\1\u01a2",
             "\1\u01a3\37\uffff\1\u01a3",
+            "\1\u01a4\37\uffff\1\u01a4",
             "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u01a5\37\uffff\1\u01a5",
             "\1\u01a6\37\uffff\1\u01a6",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
             "\1\u01a8\37\uffff\1\u01a8",
-            "\1\u01a9\37\uffff\1\u01a9",
-            "\1\u01aa\37\uffff\1\u01aa",
+            "\1\u01aa\1\uffff\1\u01a9\35\uffff\1\u01aa\1\uffff\1\u01a9",
             "\1\u01ab\37\uffff\1\u01ab",
             "\1\u01ac\37\uffff\1\u01ac",
             "\1\u01ad\37\uffff\1\u01ad",
             "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\5\34\1\u01ae\24\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\5\34\1\u01ae\24\34",
             "",
+            "\1\u01af\37\uffff\1\u01af",
             "\1\u01b0\37\uffff\1\u01b0",
             "\1\u01b1\37\uffff\1\u01b1",
             "\1\u01b2\37\uffff\1\u01b2",
             "\1\u01b3\37\uffff\1\u01b3",
             "\1\u01b4\37\uffff\1\u01b4",
-            "",
             "\1\u01b5\37\uffff\1\u01b5",
+            "",
             "\1\u01b6\37\uffff\1\u01b6",
             "\1\u01b7\37\uffff\1\u01b7",
-            "\1\u01b8\37\uffff\1\u01b8",
-            "\1\u01b9\37\uffff\1\u01b9",
+            "\1\u01b8\4\uffff\1\u01b9\32\uffff\1\u01b8\4\uffff\1\u01b9",
             "\1\u01ba\37\uffff\1\u01ba",
             "\1\u01bb\37\uffff\1\u01bb",
             "\1\u01bc\37\uffff\1\u01bc",
             "\1\u01bd\37\uffff\1\u01bd",
-            "\1\u01be\37\uffff\1\u01be",
+            "",
+            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u01bf\37\uffff\1\u01bf",
             "\1\u01c0\37\uffff\1\u01c0",
             "\1\u01c1\37\uffff\1\u01c1",
-            "",
-            "\1\u01c2\37\uffff\1\u01c2",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u01c3\37\uffff\1\u01c3",
-            "\1\u01c6\7\uffff\1\u01c5\6\uffff\1\u01c4\20\uffff\1\u01c6\7"+
-            "\uffff\1\u01c5\6\uffff\1\u01c4",
-            "",
+            "\1\u01c4\37\uffff\1\u01c4",
+            "\1\u01c5\37\uffff\1\u01c5",
+            "\1\u01c6\37\uffff\1\u01c6",
             "\1\u01c7\37\uffff\1\u01c7",
             "\1\u01c8\37\uffff\1\u01c8",
+            "\1\u01c9\37\uffff\1\u01c9",
+            "\1\u01ca\37\uffff\1\u01ca",
+            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u01ca\37\uffff\1\u01ca",
-            "\1\u01cb\37\uffff\1\u01cb",
             "\1\u01cc\37\uffff\1\u01cc",
+            "\1\u01cd\37\uffff\1\u01cd",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "",
-            "\1\u01d0\10\uffff\1\u01ce\6\uffff\1\u01cf\17\uffff\1\u01d0"+
-            "\10\uffff\1\u01ce\6\uffff\1\u01cf",
+            "\1\u01cf\37\uffff\1\u01cf",
+            "\1\u01d0\37\uffff\1\u01d0",
             "\1\u01d1\37\uffff\1\u01d1",
-            "",
-            "\1\u01d3\11\uffff\1\u01d2\25\uffff\1\u01d3\11\uffff\1\u01d2",
+            "\1\u01d2\37\uffff\1\u01d2",
+            "\1\u01d3\37\uffff\1\u01d3",
             "\1\u01d4\37\uffff\1\u01d4",
+            "",
             "\1\u01d5\37\uffff\1\u01d5",
             "\1\u01d6\37\uffff\1\u01d6",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\22\34\1\u01d7\7\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\22\34\1\u01d7\7\34",
-            "\1\u01d9\37\uffff\1\u01d9",
-            "\1\u01da\37\uffff\1\u01da",
+            "\1\u01d7\37\uffff\1\u01d7",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\5\34\1\u01d8\24\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\5\34\1\u01d8\24\34",
             "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\u01db\31\34\1\uffff"+
-            "\1\34\2\uffff\1\34\1\uffff\1\u01db\31\34",
+            "\1\u01da\37\uffff\1\u01da",
+            "\1\u01db\37\uffff\1\u01db",
+            "\1\u01dc\37\uffff\1\u01dc",
             "\1\u01dd\37\uffff\1\u01dd",
             "\1\u01de\37\uffff\1\u01de",
             "\1\u01df\37\uffff\1\u01df",
+            "",
             "\1\u01e0\37\uffff\1\u01e0",
             "\1\u01e1\37\uffff\1\u01e1",
             "\1\u01e2\37\uffff\1\u01e2",
             "\1\u01e3\37\uffff\1\u01e3",
             "\1\u01e4\37\uffff\1\u01e4",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u01e5\37\uffff\1\u01e5",
             "\1\u01e6\37\uffff\1\u01e6",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u01e7\37\uffff\1\u01e7",
             "\1\u01e8\37\uffff\1\u01e8",
             "\1\u01e9\37\uffff\1\u01e9",
             "\1\u01ea\37\uffff\1\u01ea",
-            "",
             "\1\u01eb\37\uffff\1\u01eb",
-            "\1\u01ec\37\uffff\1\u01ec",
-            "\1\u01ed\37\uffff\1\u01ed",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u01ed\37\uffff\1\u01ed",
+            "\1\u01ee\37\uffff\1\u01ee",
+            "",
             "\1\u01ef\37\uffff\1\u01ef",
             "\1\u01f0\37\uffff\1\u01f0",
-            "\1\u01f1\37\uffff\1\u01f1",
-            "\1\u01f2\37\uffff\1\u01f2",
-            "\1\u01f3\37\uffff\1\u01f3",
+            "\1\u01f3\7\uffff\1\u01f2\6\uffff\1\u01f1\20\uffff\1\u01f3\7"+
+            "\uffff\1\u01f2\6\uffff\1\u01f1",
             "",
             "\1\u01f4\37\uffff\1\u01f4",
             "\1\u01f5\37\uffff\1\u01f5",
             "\1\u01f6\37\uffff\1\u01f6",
-            "",
-            "\1\u01f7\37\uffff\1\u01f7",
-            "\1\u01f8\37\uffff\1\u01f8",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u01f9\37\uffff\1\u01f9",
             "\1\u01fa\37\uffff\1\u01fa",
             "\1\u01fb\37\uffff\1\u01fb",
-            "\1\u01fc\37\uffff\1\u01fc",
-            "\1\u01fd\37\uffff\1\u01fd",
-            "\1\u01fe\37\uffff\1\u01fe",
+            "",
+            "\1\u01fe\10\uffff\1\u01fc\6\uffff\1\u01fd\17\uffff\1\u01fe"+
+            "\10\uffff\1\u01fc\6\uffff\1\u01fd",
             "\1\u01ff\37\uffff\1\u01ff",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
             "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0201\37\uffff\1\u0201",
+            "\1\u0201\11\uffff\1\u0200\25\uffff\1\u0201\11\uffff\1\u0200",
             "\1\u0202\37\uffff\1\u0202",
-            "",
             "\1\u0203\37\uffff\1\u0203",
             "\1\u0204\37\uffff\1\u0204",
-            "\1\u0205\37\uffff\1\u0205",
-            "\1\u0206\37\uffff\1\u0206",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\22\34\1\u0205\7\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\22\34\1\u0205\7\34",
             "\1\u0207\37\uffff\1\u0207",
             "\1\u0208\37\uffff\1\u0208",
             "\1\u0209\37\uffff\1\u0209",
             "\1\u020a\37\uffff\1\u020a",
-            "",
             "\1\u020b\37\uffff\1\u020b",
             "",
-            "\1\u020c\37\uffff\1\u020c",
-            "\1\u020d\37\uffff\1\u020d",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\1\u020c\31\34\1\uffff"+
+            "\1\34\2\uffff\1\34\1\uffff\1\u020c\31\34",
             "\1\u020e\37\uffff\1\u020e",
             "\1\u020f\37\uffff\1\u020f",
             "\1\u0210\37\uffff\1\u0210",
-            "\1\u0213\10\uffff\1\u0211\26\uffff\1\u0213\10\uffff\1\u0212",
-            "",
+            "\1\u0211\37\uffff\1\u0211",
+            "\1\u0212\37\uffff\1\u0212",
+            "\1\u0213\37\uffff\1\u0213",
             "\1\u0214\37\uffff\1\u0214",
             "\1\u0215\37\uffff\1\u0215",
             "\1\u0216\37\uffff\1\u0216",
             "\1\u0217\37\uffff\1\u0217",
-            "\1\u0218\37\uffff\1\u0218",
-            "\1\u0219\37\uffff\1\u0219",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0219\37\uffff\1\u0219",
+            "\1\u021a\37\uffff\1\u021a",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
             "\1\u021c\37\uffff\1\u021c",
             "\1\u021d\37\uffff\1\u021d",
             "\1\u021e\37\uffff\1\u021e",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u021f\37\uffff\1\u021f",
             "\1\u0220\37\uffff\1\u0220",
             "\1\u0221\37\uffff\1\u0221",
-            "\1\u0222\37\uffff\1\u0222",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0223\37\uffff\1\u0223",
             "\1\u0224\37\uffff\1\u0224",
-            "",
             "\1\u0225\37\uffff\1\u0225",
             "\1\u0226\37\uffff\1\u0226",
             "\1\u0227\37\uffff\1\u0227",
             "\1\u0228\37\uffff\1\u0228",
+            "",
+            "",
             "\1\u0229\37\uffff\1\u0229",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u022a\37\uffff\1\u022a",
             "\1\u022b\37\uffff\1\u022b",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u022c\37\uffff\1\u022c",
             "\1\u022d\37\uffff\1\u022d",
             "\1\u022e\37\uffff\1\u022e",
             "\1\u022f\37\uffff\1\u022f",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\u0230\25\34"+
-            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\u0230\25\34",
+            "\1\u0230\37\uffff\1\u0230",
+            "\1\u0231\37\uffff\1\u0231",
             "\1\u0232\37\uffff\1\u0232",
             "\1\u0233\37\uffff\1\u0233",
+            "\1\u0234\37\uffff\1\u0234",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0213\37\uffff\1\u0213",
-            "\1\u0213\37\uffff\1\u0213",
             "\1\u0236\37\uffff\1\u0236",
             "\1\u0237\37\uffff\1\u0237",
-            "\1\u0238\37\uffff\1\u0238",
-            "\1\u0239\37\uffff\1\u0239",
-            "\1\u023a\37\uffff\1\u023a",
-            "\1\u023b\37\uffff\1\u023b",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0239\37\uffff\1\u0239",
+            "\1\u023a\37\uffff\1\u023a",
             "",
-            "",
+            "\1\u023b\37\uffff\1\u023b",
+            "\1\u023c\37\uffff\1\u023c",
             "\1\u023d\37\uffff\1\u023d",
             "\1\u023e\37\uffff\1\u023e",
             "\1\u023f\37\uffff\1\u023f",
-            "",
             "\1\u0240\37\uffff\1\u0240",
-            "\1\u0241\37\uffff\1\u0241",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0242\37\uffff\1\u0242",
             "\1\u0243\37\uffff\1\u0243",
             "\1\u0244\37\uffff\1\u0244",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u0245\37\uffff\1\u0245",
             "\1\u0246\37\uffff\1\u0246",
+            "",
             "\1\u0247\37\uffff\1\u0247",
             "\1\u0248\37\uffff\1\u0248",
             "\1\u0249\37\uffff\1\u0249",
-            "",
             "\1\u024a\37\uffff\1\u024a",
-            "",
             "\1\u024b\37\uffff\1\u024b",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u024d\37\uffff\1\u024d",
-            "\1\u024e\37\uffff\1\u024e",
+            "\1\u024e\10\uffff\1\u024c\26\uffff\1\u024e\10\uffff\1\u024d",
             "",
             "\1\u024f\37\uffff\1\u024f",
+            "\1\u0250\37\uffff\1\u0250",
+            "\1\u0251\37\uffff\1\u0251",
+            "\1\u0252\37\uffff\1\u0252",
+            "\1\u0253\37\uffff\1\u0253",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "",
-            "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0255\37\uffff\1\u0255",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0253\37\uffff\1\u0253",
-            "\1\u0254\37\uffff\1\u0254",
-            "\1\u0255\37\uffff\1\u0255",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "",
-            "\1\u0257\37\uffff\1\u0257",
             "\1\u0258\37\uffff\1\u0258",
             "\1\u0259\37\uffff\1\u0259",
             "\1\u025a\37\uffff\1\u025a",
-            "\1\u025b\37\uffff\1\u025b",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u025c\37\uffff\1\u025c",
             "\1\u025d\37\uffff\1\u025d",
             "\1\u025e\37\uffff\1\u025e",
-            "",
             "\1\u025f\37\uffff\1\u025f",
             "\1\u0260\37\uffff\1\u0260",
-            "\1\u0261\37\uffff\1\u0261",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0262\37\uffff\1\u0262",
+            "",
             "\1\u0263\37\uffff\1\u0263",
             "\1\u0264\37\uffff\1\u0264",
-            "",
             "\1\u0265\37\uffff\1\u0265",
             "\1\u0266\37\uffff\1\u0266",
             "\1\u0267\37\uffff\1\u0267",
-            "",
-            "",
-            "",
-            "\1\u0268\37\uffff\1\u0268",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0269\37\uffff\1\u0269",
             "\1\u026a\37\uffff\1\u026a",
             "",
-            "\1\u026b\37\uffff\1\u026b",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u026c\37\uffff\1\u026c",
             "\1\u026d\37\uffff\1\u026d",
             "\1\u026e\37\uffff\1\u026e",
             "\1\u026f\37\uffff\1\u026f",
-            "\1\u0270\37\uffff\1\u0270",
-            "\1\u0271\37\uffff\1\u0271",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\4\34\1\u0270\25\34"+
+            "\1\uffff\1\34\2\uffff\1\34\1\uffff\4\34\1\u0270\25\34",
             "\1\u0272\37\uffff\1\u0272",
+            "\1\u0273\37\uffff\1\u0273",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0274\37\uffff\1\u0274",
-            "\1\u0275\37\uffff\1\u0275",
+            "\1\u024e\37\uffff\1\u024e",
+            "\1\u024e\37\uffff\1\u024e",
             "\1\u0276\37\uffff\1\u0276",
             "\1\u0277\37\uffff\1\u0277",
             "\1\u0278\37\uffff\1\u0278",
             "\1\u0279\37\uffff\1\u0279",
             "\1\u027a\37\uffff\1\u027a",
             "\1\u027b\37\uffff\1\u027b",
-            "\1\u027c\37\uffff\1\u027c",
-            "\1\u027d\37\uffff\1\u027d",
+            "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "",
+            "\1\u027d\37\uffff\1\u027d",
+            "\1\u027e\37\uffff\1\u027e",
             "\1\u027f\37\uffff\1\u027f",
+            "",
             "\1\u0280\37\uffff\1\u0280",
             "\1\u0281\37\uffff\1\u0281",
             "\1\u0282\37\uffff\1\u0282",
             "\1\u0283\37\uffff\1\u0283",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0285\37\uffff\1\u0285",
-            "\1\u0286\37\uffff\1\u0286",
+            "\1\u0284\37\uffff\1\u0284",
             "",
-            "\1\u0287\37\uffff\1\u0287",
+            "\1\u0285\37\uffff\1\u0285",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0287\37\uffff\1\u0287",
+            "\1\u0288\37\uffff\1\u0288",
             "\1\u0289\37\uffff\1\u0289",
             "\1\u028a\37\uffff\1\u028a",
+            "",
+            "\1\u028b\37\uffff\1\u028b",
+            "\1\u028c\37\uffff\1\u028c",
+            "",
+            "\1\u028d\37\uffff\1\u028d",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u028d\37\uffff\1\u028d",
-            "\1\u028e\37\uffff\1\u028e",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0290\37\uffff\1\u0290",
-            "",
             "\1\u0291\37\uffff\1\u0291",
+            "",
             "\1\u0292\37\uffff\1\u0292",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u0294\37\uffff\1\u0294",
-            "\1\u0295\37\uffff\1\u0295",
             "",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u0296\37\uffff\1\u0296",
             "\1\u0297\37\uffff\1\u0297",
+            "\1\u0298\37\uffff\1\u0298",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
             "",
-            "\1\u0299\37\uffff\1\u0299",
             "\1\u029a\37\uffff\1\u029a",
-            "",
-            "",
             "\1\u029b\37\uffff\1\u029b",
             "\1\u029c\37\uffff\1\u029c",
-            "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u02a0\7\uffff\1\u029f\6\uffff\1\u029e\20\uffff\1\u02a0\7"+
-            "\uffff\1\u029f\6\uffff\1\u029e",
+            "\1\u029d\37\uffff\1\u029d",
+            "\1\u029e\37\uffff\1\u029e",
+            "\1\u029f\37\uffff\1\u029f",
+            "\1\u02a0\37\uffff\1\u02a0",
             "\1\u02a1\37\uffff\1\u02a1",
-            "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u02a3\37\uffff\1\u02a3",
             "\1\u02a4\37\uffff\1\u02a4",
             "\1\u02a5\37\uffff\1\u02a5",
-            "",
             "\1\u02a6\37\uffff\1\u02a6",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02a7\37\uffff\1\u02a7",
             "\1\u02a8\37\uffff\1\u02a8",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02a9\37\uffff\1\u02a9",
+            "",
             "",
             "\1\u02aa\37\uffff\1\u02aa",
             "\1\u02ab\37\uffff\1\u02ab",
             "\1\u02ac\37\uffff\1\u02ac",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
             "",
             "",
-            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
-            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u02ad\37\uffff\1\u02ad",
+            "\1\u02ae\37\uffff\1\u02ae",
             "\1\u02af\37\uffff\1\u02af",
-            "\1\u02b0\37\uffff\1\u02b0",
             "",
+            "\1\u02b0\37\uffff\1\u02b0",
             "\1\u02b1\37\uffff\1\u02b1",
-            "",
             "\1\u02b2\37\uffff\1\u02b2",
             "\1\u02b3\37\uffff\1\u02b3",
             "\1\u02b4\37\uffff\1\u02b4",
-            "",
-            "",
             "\1\u02b5\37\uffff\1\u02b5",
             "\1\u02b6\37\uffff\1\u02b6",
             "\1\u02b7\37\uffff\1\u02b7",
-            "\1\u02b8\37\uffff\1\u02b8",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "\1\u02b9\37\uffff\1\u02b9",
             "\1\u02ba\37\uffff\1\u02ba",
             "\1\u02bb\37\uffff\1\u02bb",
+            "\1\u02bc\37\uffff\1\u02bc",
+            "\1\u02bd\37\uffff\1\u02bd",
+            "\1\u02be\37\uffff\1\u02be",
+            "\1\u02bf\37\uffff\1\u02bf",
+            "\1\u02c0\37\uffff\1\u02c0",
+            "\1\u02c1\37\uffff\1\u02c1",
+            "\1\u02c2\37\uffff\1\u02c2",
+            "\1\u02c3\37\uffff\1\u02c3",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02c5\37\uffff\1\u02c5",
+            "\1\u02c6\37\uffff\1\u02c6",
+            "\1\u02c7\37\uffff\1\u02c7",
+            "\1\u02c8\37\uffff\1\u02c8",
+            "\1\u02c9\37\uffff\1\u02c9",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02cb\37\uffff\1\u02cb",
+            "\1\u02cc\37\uffff\1\u02cc",
+            "",
+            "\1\u02cd\37\uffff\1\u02cd",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02cf\37\uffff\1\u02cf",
+            "\1\u02d0\37\uffff\1\u02d0",
+            "\1\u02d1\37\uffff\1\u02d1",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u02bf\37\uffff\1\u02bf",
-            "\1\u02c0\37\uffff\1\u02c0",
+            "\1\u02d4\37\uffff\1\u02d4",
+            "\1\u02d5\37\uffff\1\u02d5",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02d7\37\uffff\1\u02d7",
             "",
+            "\1\u02d8\37\uffff\1\u02d8",
+            "\1\u02d9\37\uffff\1\u02d9",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02db\37\uffff\1\u02db",
+            "\1\u02dc\37\uffff\1\u02dc",
             "",
+            "\1\u02dd\37\uffff\1\u02dd",
+            "\1\u02de\37\uffff\1\u02de",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
             "",
-            "\1\u02c2\37\uffff\1\u02c2",
-            "\1\u02c3\37\uffff\1\u02c3",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02e1\37\uffff\1\u02e1",
+            "\1\u02e2\37\uffff\1\u02e2",
+            "",
+            "",
+            "\1\u02e3\37\uffff\1\u02e3",
+            "\1\u02e4\37\uffff\1\u02e4",
             "",
-            "\1\u02c4\37\uffff\1\u02c4",
-            "\1\u02c5\37\uffff\1\u02c5",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
-            "\1\u02c7\37\uffff\1\u02c7",
+            "\1\u02e8\7\uffff\1\u02e7\6\uffff\1\u02e6\20\uffff\1\u02e8\7"+
+            "\uffff\1\u02e7\6\uffff\1\u02e6",
+            "\1\u02e9\37\uffff\1\u02e9",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02ec\37\uffff\1\u02ec",
+            "\1\u02ed\37\uffff\1\u02ed",
+            "",
+            "",
+            "\1\u02ee\37\uffff\1\u02ee",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02f0\37\uffff\1\u02f0",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "\1\u02f2\37\uffff\1\u02f2",
+            "\1\u02f3\37\uffff\1\u02f3",
+            "\1\u02f4\37\uffff\1\u02f4",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u02f7\37\uffff\1\u02f7",
+            "\1\u02f8\37\uffff\1\u02f8",
+            "",
+            "\1\u02f9\37\uffff\1\u02f9",
+            "",
+            "\1\u02fa\37\uffff\1\u02fa",
+            "\1\u02fb\37\uffff\1\u02fb",
+            "\1\u02fc\37\uffff\1\u02fc",
+            "",
+            "",
+            "\1\u02fd\37\uffff\1\u02fd",
+            "\1\u02fe\37\uffff\1\u02fe",
+            "\1\u02ff\37\uffff\1\u02ff",
+            "\1\u0300\37\uffff\1\u0300",
+            "\1\u0301\37\uffff\1\u0301",
+            "\1\u0302\37\uffff\1\u0302",
+            "\1\u0303\37\uffff\1\u0303",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u0307\37\uffff\1\u0307",
+            "\1\u0308\37\uffff\1\u0308",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "",
+            "",
+            "",
+            "\1\u030a\37\uffff\1\u030a",
+            "\1\u030b\37\uffff\1\u030b",
+            "",
+            "\1\u030c\37\uffff\1\u030c",
+            "\1\u030d\37\uffff\1\u030d",
+            "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
+            "\2\uffff\1\34\1\uffff\32\34",
+            "\1\u030f\37\uffff\1\u030f",
             "",
             "\1\34\10\uffff\2\34\1\uffff\13\34\6\uffff\32\34\1\uffff\1\34"+
             "\2\uffff\1\34\1\uffff\32\34",
@@ -12466,7 +13581,7 @@ public class InputfileLexer extends Lexer {
             this.transition = DFA20_transition;
         }
         public String getDescription() {
-            return "1:1: Tokens : ( CRYSTAL | TYPE | DIFFRACTIONDECAYMODEL | DDM | SIMPLE | LINEAR | LEAL | DECAYPARAM | ABSCOEFCALC | DUMMY | DEFAULT | AVERAGE | RDFORTAN | RDJAVA | PDB | SAXS | SEQUENCE | SAXSSEQ | SMALLMOLE | CIF | DIMENSION | ANGLEP | ANGLEL | PIXELSPERMICRON | UNITCELL | PROTEINCONC | PROTEINCONCENTRATION | NUMMONOMERS | NUMRESIDUES | NUMRNA | NUMDNA | NUMCARB | PROTEINHEAVYATOMS | ELEMENT | SMALLMOLEATOMS | SOLVENTHEAVYCONC | SOLVENTFRACTION | PDBNAME | CIFNAME | WIREFRAMETYPE | MODELFILE | CALCULATEPEESCAPE | GONIOMETERAXIS | CONTAINERMATERIALTYPE | MATERIALTYPE | NONE | MIXTURE | ELEMENTAL | CONTAINERTHICKNESS | CONTAINERMATERIALMIXTURE | MATERIALMIXTURE | CONTAINERMATERIALELEMENTS | MATERIALELEMENTS | CONTAINERDENSITY | SEQUENCEFILE | SEQFILE | CALCULATEFLESCAPE | FLRESOLUTION | PERESOLUTION | SURROUNDINGHEAVYCONC | OILBASED | CALCSURROUNDING | OILELEMENTS | OILDENSITY | BEAM | FLUX | FWHM | ENERGY | KEV | FILE | PIXELSIZE | COLLIMATION | RECTANGULAR | CIRCULAR | HORIZONTAL | VERTICAL | WEDGE | EXPOSURETIME | ANGULARRESOLUTION | STARTOFFSET | TRANSLATEPERDEGREE | ROTAXBEAMOFFSET | FLOAT | COMMENT | WS | STRING );";
+            return "1:1: Tokens : ( CRYSTAL | TYPE | DIFFRACTIONDECAYMODEL | DDM | SIMPLE | LINEAR | LEAL | DECAYPARAM | ABSCOEFCALC | DUMMY | DEFAULT | AVERAGE | RDFORTAN | RDJAVA | PDB | SAXS | SEQUENCE | SAXSSEQ | SMALLMOLE | CIF | DIMENSION | ANGLEP | ANGLEL | PIXELSPERMICRON | UNITCELL | PROTEINCONC | PROTEINCONCENTRATION | NUMMONOMERS | NUMRESIDUES | NUMRNA | NUMDNA | NUMCARB | PROTEINHEAVYATOMS | ELEMENT | SMALLMOLEATOMS | SOLVENTHEAVYCONC | SOLVENTFRACTION | PDBNAME | CIFNAME | WIREFRAMETYPE | MODELFILE | CALCULATEPEESCAPE | GONIOMETERAXIS | CONTAINERMATERIALTYPE | MATERIALTYPE | NONE | MIXTURE | ELEMENTAL | CONTAINERTHICKNESS | CONTAINERMATERIALMIXTURE | MATERIALMIXTURE | CONTAINERMATERIALELEMENTS | MATERIALELEMENTS | CONTAINERDENSITY | SEQUENCEFILE | SEQFILE | CALCULATEFLESCAPE | FLRESOLUTION | PERESOLUTION | DEPTHENGINE | DEPTHSAMPLING | ESCAPEENGINE | STORAGEPRECISION | VOXELSTORE | RANDOMSEED | DEPTHCACHE | SURROUNDINGHEAVYCONC | OILBASED | CALCSURROUNDING | OILELEMENTS | OILDENSITY | BEAM | FLUX | FWHM | ENERGY | KEV | FILE | PIXELSIZE | COLLIMATION | RECTANGULAR | CIRCULAR | HORIZONTAL | VERTICAL | WEDGE | EXPOSURETIME | ANGULARRESOLUTION | STARTOFFSET | TRANSLATEPERDEGREE | ROTAXBEAMOFFSET | FLOAT | COMMENT | WS | STRING );";
         }
     }
  
@@ -0,0 +1,94 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.AttenuationKernel;
+
+/**
+ * Tests for the kernels attenuating the beam along runs of voxels.
+ */
+public class AttenuationKernelTest {
+  /** Number of voxels of the test column. */
+  private static final int    COLUMN      = 53;
+
+  /** Beam attenuation factor. */
+  private static final double ATTENUATION = 0.75;
+  /** Factor of the depth in the exponent. */
+  private static final double EXP_FACTOR  = -0.0123;
+  /** Factor from fluence to dose. */
+  private static final double DOSE        = 4.2e3;
+  /** Beam photon energy. */
+  private static final double ENERGY      = 1.9e-15;
+  /** Compton electron energy. */
+  private static final double COMPTON     = 3.1e-17;
+  /** Factor from fluence to elastic yield. */
+  private static final double ELASTIC     = 7.7e9;
+
+  /**
+   * The scalar kernel must work out every voxel of the run, in the same
+   * order of operations as the exposure always has, and leave the voxels
+   * outside the run alone.
+   */
+  @Test
+  public void testScalarKernelMatchesVoxelFormula() {
+    double[][] in = column(1);
+    double[][] out = attenuate(new AttenuationKernel(), in, 5, 40);
+    for (int k = 0; k < COLUMN; k++) {
+      if (k < 5 || k >= 40) {
+        assertEquals(out[0][k], -1d, "voxel " + k + " outside the run");
+        continue;
+      }
+      double fluence = in[0][k] * ATTENUATION
+          * Math.exp(in[1][k] * EXP_FACTOR);
+      assertEquals(out[0][k], fluence, 0d, "fluence of voxel " + k);
+      assertEquals(out[1][k], DOSE * fluence, 0d, "dose of voxel " + k);
+      assertEquals(out[2][k], fluence / ENERGY * COMPTON, 0d,
+          "Compton fluence of voxel " + k);
+      assertEquals(out[3][k], ELASTIC * fluence, 0d,
+          "elastic yield of voxel " + k);
+    }
+  }
+
+  /**
+   * @param seed seed of the random values
+   * @return intensities and depths of a column, including zero intensity
+   *         and zero depth.
+   */
+  private static double[][] column(final long seed) {
+    Random random = new Random(seed);
+    double[][] in = new double[2][COLUMN];
+    for (int k = 0; k < COLUMN; k++) {
+      in[0][k] = random.nextDouble() * 3e-3;
+      in[1][k] = random.nextDouble() * 250;
+    }
+    in[0][7] = 0;
+    in[1][11] = 0;
+    return in;
+  }
+
+  /**
+   * Runs a kernel on part of a column.
+   *
+   * @param kernel kernel to run
+   * @param in intensities and depths
+   * @param from first voxel of the run
+   * @param to voxel after the last one of the run
+   * @return fluence, dose, Compton fluence and elastic yield, -1 outside
+   *         the run.
+   */
+  private static double[][] attenuate(final AttenuationKernel kernel,
+      final double[][] in, final int from, final int to) {
+    double[][] out = new double[4][COLUMN];
+    for (double[] quantity : out) {
+      Arrays.fill(quantity, -1);
+    }
+    kernel.attenuate(in[0], in[1], from, to, ATTENUATION, EXP_FACTOR, DOSE,
+        ENERGY, COMPTON, ELASTIC, out[0], out[1], out[2], out[3]);
+    return out;
+  }
+}
@@ -56,4 +56,9 @@ public class BeamDummy implements Beam {
   public double getBeamArea() {
     return 0;
   }
+
+  @Override
+  public double[] getCollimationHalfWidths() {
+    return null;
+  }
 }
@@ -1,12 +1,27 @@
 package se.raddo.raddose3D.tests;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 
 import static org.testng.Assert.*;
 import org.testng.annotations.*;
 
+import se.raddo.raddose3D.Beam;
+import se.raddo.raddose3D.BeamGaussian;
+import se.raddo.raddose3D.CoefCalcFromParams;
+import se.raddo.raddose3D.Container;
 import se.raddo.raddose3D.Crystal;
 import se.raddo.raddose3D.CrystalCuboid;
+import se.raddo.raddose3D.ExposeObserver;
+import se.raddo.raddose3D.ExposureSummary;
+import se.raddo.raddose3D.InputException;
 import se.raddo.raddose3D.Wedge;
 
 /**
@@ -113,6 +128,574 @@ public class CrystalCuboidTest {
     System.out.println("@Test - testCuboidCrystalPandL");
   }
 
+  /**
+   * Checks that the coordinates of a whole column are exactly those of its
+   * voxels one at a time, for a crystal rotated by both P and L.
+   */
+  @Test
+  public void testCuboidCrystCoordColumn() {
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 40d);
+    properties.put(Crystal.CRYSTAL_DIM_Y, 30d);
+    properties.put(Crystal.CRYSTAL_DIM_Z, 20d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 30d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 70d);
+    Crystal c = new CrystalCuboid(properties);
+
+    int[] size = c.getCrystSizeVoxels();
+    double[] x = new double[size[2]];
+    double[] y = new double[size[2]];
+    double[] z = new double[size[2]];
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        c.getCrystCoordColumn(i, j, 1, size[2], x, y, z);
+        assertTrue(x[0] == 0 && y[0] == 0 && z[0] == 0,
+            "column written before its first voxel");
+        for (int k = 1; k < size[2]; k++) {
+          double[] coord = c.getCrystCoord(i, j, k);
+          assertTrue(x[k] == coord[0] && y[k] == coord[1]
+              && z[k] == coord[2], "column differs at " + i + ", " + j
+              + ", " + k);
+        }
+      }
+    }
+    System.out.println("@Test - testCuboidCrystCoordColumn");
+  }
+
+  /**
+   * Checks that voxel values kept in mapped files start at zero and add up
+   * like those on the heap, at both storage precisions.
+   */
+  @Test
+  public void testCuboidMappedVoxelStore() {
+    for (String precision : new String[] { "Double", "Single" }) {
+      HashMap<Object, Object> properties = new HashMap<Object, Object>();
+      properties.put(Crystal.CRYSTAL_DIM_X, 40d);
+      properties.put(Crystal.CRYSTAL_DIM_Y, 30d);
+      properties.put(Crystal.CRYSTAL_DIM_Z, 20d);
+      properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+      properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+      properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+      properties.put(Crystal.CRYSTAL_STORAGE_PRECISION, precision);
+      Crystal heap = new CrystalCuboid(properties);
+      properties.put(Crystal.CRYSTAL_VOXEL_STORE, "Mapped");
+      Crystal mapped = new CrystalCuboid(properties);
+
+      int[] size = mapped.getCrystSizeVoxels();
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          for (int k = 0; k < size[2]; k++) {
+            assertTrue(mapped.getDose(i, j, k) == 0, "dose not zero");
+            double value = 0.1 * (i + 2 * j + 3 * k);
+            for (Crystal c : new Crystal[] { heap, mapped }) {
+              c.addDose(i, j, k, value);
+              c.addDose(i, j, k, value / 3);
+              c.addFluence(i, j, k, 2 * value);
+              c.addElastic(i, j, k, 3 * value);
+            }
+          }
+        }
+      }
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          for (int k = 0; k < size[2]; k++) {
+            assertTrue(mapped.getDose(i, j, k) == heap.getDose(i, j, k)
+                && mapped.getFluence(i, j, k) == heap.getFluence(i, j, k)
+                && mapped.getElastic(i, j, k) == heap.getElastic(i, j, k),
+                precision + " mapped value differs at " + i + ", " + j
+                    + ", " + k);
+          }
+        }
+      }
+    }
+    System.out.println("@Test - testCuboidMappedVoxelStore");
+  }
+
+  /**
+   * Checks that a sparse voxel store holds the same values as the heap for
+   * a block written in the middle of the crystal, reads zero elsewhere, and
+   * reports the written stretches of each column.
+   */
+  @Test
+  public void testCuboidSparseVoxelStore() {
+    for (String precision : new String[] { "Double", "Single" }) {
+      HashMap<Object, Object> properties = new HashMap<Object, Object>();
+      properties.put(Crystal.CRYSTAL_DIM_X, 40d);
+      properties.put(Crystal.CRYSTAL_DIM_Y, 30d);
+      properties.put(Crystal.CRYSTAL_DIM_Z, 20d);
+      properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+      properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+      properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+      properties.put(Crystal.CRYSTAL_STORAGE_PRECISION, precision);
+      Crystal heap = new CrystalCuboid(properties);
+      properties.put(Crystal.CRYSTAL_VOXEL_STORE, "Sparse");
+      Crystal sparse = new CrystalCuboid(properties);
+
+      int[] size = sparse.getCrystSizeVoxels();
+      for (int i = 10; i < 14; i++) {
+        for (int j = 5; j < 12; j++) {
+          for (int k = 3; k < 9; k++) {
+            double value = 0.1 * (i + 2 * j + 3 * k);
+            for (Crystal c : new Crystal[] { heap, sparse }) {
+              c.addDose(i, j, k, value);
+              c.addDose(i, j, k, value / 3);
+              c.addFluence(i, j, k, 2 * value);
+              c.addElastic(i, j, k, 3 * value);
+            }
+          }
+        }
+      }
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          int touched = sparse.nextTouchedVoxel(i, j, 0, size[2]);
+          int untouched = sparse.nextUntouchedVoxel(i, j, touched, size[2]);
+          if (i >= 10 && i < 14 && j >= 5 && j < 12) {
+            assertTrue(touched <= 3 && untouched >= 9
+                && sparse.nextTouchedVoxel(i, j, untouched, size[2])
+                == size[2], "written stretch of " + i + ", " + j);
+          }
+          for (int k = 0; k < size[2]; k++) {
+            assertTrue(sparse.getDose(i, j, k) == heap.getDose(i, j, k)
+                && sparse.getFluence(i, j, k) == heap.getFluence(i, j, k)
+                && sparse.getElastic(i, j, k) == heap.getElastic(i, j, k),
+                precision + " sparse value differs at " + i + ", " + j
+                    + ", " + k);
+            if (k < touched || k >= untouched) {
+              assertTrue(heap.getDose(i, j, k) == 0,
+                  "skipped voxel written at " + i + ", " + j + ", " + k);
+            }
+          }
+        }
+      }
+    }
+    System.out.println("@Test - testCuboidSparseVoxelStore");
+  }
+
+  /**
+   * Checks that exposing a crystal split into slabs over several threads
+   * gives exactly the same dose, fluence and elastic yield in every voxel as
+   * exposing it on one thread.
+   */
+  @Test
+  public void testCuboidParallelExposureMatchesSerial() throws InputException {
+    Crystal serial = exposeAtThreadCount(1);
+    int[] size = serial.getCrystSizeVoxels();
+    for (int threads = 2; threads <= 4; threads++) {
+      Crystal parallel = exposeAtThreadCount(threads);
+      boolean exposed = false;
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          for (int k = 0; k < size[2]; k++) {
+            assertTrue(parallel.getDose(i, j, k) == serial.getDose(i, j, k)
+                && parallel.getFluence(i, j, k) == serial.getFluence(i, j, k)
+                && parallel.getElastic(i, j, k) == serial.getElastic(i, j, k),
+                threads + " thread value differs at " + i + ", " + j + ", "
+                    + k);
+            exposed |= serial.getDose(i, j, k) > 0;
+          }
+        }
+      }
+      assertTrue(exposed, "crystal was not exposed");
+    }
+    System.out.println("@Test - testCuboidParallelExposureMatchesSerial");
+  }
+
+  /**
+   * Exposes a rotated cuboid, partly outside the beam, to a rotation wedge.
+   *
+   * @param threads number of exposure threads
+   * @return the exposed crystal
+   */
+  private static Crystal exposeAtThreadCount(final int threads)
+      throws InputException {
+    List<String> atoms = new ArrayList<String>();
+    List<Double> numbers = new ArrayList<Double>();
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 60d);
+    properties.put(Crystal.CRYSTAL_DIM_Y, 30d);
+    properties.put(Crystal.CRYSTAL_DIM_Z, 24d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 1d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 10d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 5d);
+    properties.put(Crystal.CRYSTAL_COEFCALC, new CoefCalcFromParams(100.0,
+        100.0, 100.0, 90.0, 90.0, 90.0, 0, 0, 0, 0, atoms, numbers,
+        atoms, numbers, atoms, numbers, 100.0, null, null, 0, atoms, numbers,
+        0));
+    return ExposureFixture.expose(new CrystalCuboid(properties), "Beam\n"
+        + "Type Gaussian\n"
+        + "Flux 2e12\n"
+        + "FWHM 20 30\n"
+        + "Energy 12.1\n"
+        + "Collimation Rectangular 40 40\n"
+        + "Wedge 0 40\n"
+        + "ExposureTime 10\n"
+        + "AngularResolution 5\n"
+        + "StartOffset 4 -3 2\n", threads);
+  }
+
+  /**
+   * Beam that passes everything on to another beam but hides its
+   * collimation, so the exposure tests every voxel of every column instead
+   * of clipping the columns to the collimated beam.
+   */
+  private static final class UnclippedBeam implements Beam {
+    /** Beam passed on to. */
+    private final Beam beam;
+
+    /**
+     * @param beam beam to pass everything on to
+     */
+    UnclippedBeam(final Beam beam) {
+      this.beam = beam;
+    }
+
+    @Override
+    public double beamIntensity(final double coordX, final double coordY,
+        final double offAxisUM) {
+      return beam.beamIntensity(coordX, coordY, offAxisUM);
+    }
+
+    @Override
+    public String getDescription() {
+      return beam.getDescription();
+    }
+
+    @Override
+    public double getPhotonsPerSec() {
+      return beam.getPhotonsPerSec();
+    }
+
+    @Override
+    public double getPhotonEnergy() {
+      return beam.getPhotonEnergy();
+    }
+
+    @Override
+    public void generateBeamArray() {
+      beam.generateBeamArray();
+    }
+
+    @Override
+    public void applyContainerAttenuation(final Container sampleContainer) {
+      beam.applyContainerAttenuation(sampleContainer);
+    }
+
+    @Override
+    public double beamMinumumDimension() {
+      return beam.beamMinumumDimension();
+    }
+
+    @Override
+    public double getBeamArea() {
+      return beam.getBeamArea();
+    }
+
+    @Override
+    public double[] getCollimationHalfWidths() {
+      return null;
+    }
+  }
+
+  /**
+   * Checks that clipping the voxel columns to a collimated beam much
+   * narrower than the crystal, with the crystal rotated, offset and off
+   * axis, gives exactly the dose, fluence and elastic yield of testing
+   * every voxel.
+   */
+  @Test
+  public void testCuboidColumnsClippedToBeam() {
+    Crystal clipped = exposeToCollimatedBeam(false);
+    Crystal unclipped = exposeToCollimatedBeam(true);
+    int[] size = clipped.getCrystSizeVoxels();
+    int exposed = 0;
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          assertTrue(clipped.getDose(i, j, k) == unclipped.getDose(i, j, k)
+              && clipped.getFluence(i, j, k) == unclipped.getFluence(i, j, k)
+              && clipped.getElastic(i, j, k) == unclipped.getElastic(i, j, k),
+              "clipped value differs at " + i + ", " + j + ", " + k);
+          if (clipped.getDose(i, j, k) > 0) {
+            exposed++;
+          }
+        }
+      }
+    }
+    assertTrue(exposed > 0, "crystal was not exposed");
+    assertTrue(exposed < size[0] * size[1] * size[2] / 2,
+        "beam covers most of the crystal");
+    System.out.println("@Test - testCuboidColumnsClippedToBeam");
+  }
+
+  /**
+   * Exposes a rotated cuboid to a rotation wedge of a Gaussian beam
+   * collimated to a small part of it.
+   *
+   * @param hideCollimation true to expose without clipping to the beam
+   * @return the exposed crystal
+   */
+  private static Crystal exposeToCollimatedBeam(
+      final boolean hideCollimation) {
+    List<String> atoms = new ArrayList<String>();
+    List<Double> numbers = new ArrayList<Double>();
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 80d);
+    properties.put(Crystal.CRYSTAL_DIM_Y, 60d);
+    properties.put(Crystal.CRYSTAL_DIM_Z, 50d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 1d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 10d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 5d);
+    properties.put(Crystal.CRYSTAL_COEFCALC, new CoefCalcFromParams(100.0,
+        100.0, 100.0, 90.0, 90.0, 90.0, 0, 0, 0, 0, atoms, numbers,
+        atoms, numbers, atoms, numbers, 100.0, null, null, 0, atoms, numbers,
+        0));
+    Crystal crystal = new CrystalCuboid(properties);
+
+    HashMap<Object, Object> beamProperties = new HashMap<Object, Object>();
+    beamProperties.put(Beam.BEAM_FWHM_X, 20d);
+    beamProperties.put(Beam.BEAM_FWHM_Y, 30d);
+    beamProperties.put(Beam.BEAM_FLUX, 2e12);
+    beamProperties.put(Beam.BEAM_ENERGY, 12.1);
+    beamProperties.put(Beam.BEAM_COLL_H, 24d);
+    beamProperties.put(Beam.BEAM_COLL_V, 16d);
+    Beam beam = new BeamGaussian(beamProperties);
+    if (hideCollimation) {
+      beam = new UnclippedBeam(beam);
+    }
+
+    crystal.expose(beam, new Wedge(2d, 20d, 50d, 10d, 4d, -3d, 2d, 0d, 0d,
+        0d, 3d));
+    return crystal;
+  }
+
+  /**
+   * Observer keeping every voxel exposure event and counting the images.
+   */
+  private static final class ImageRecorder implements ExposeObserver {
+    /** Image, voxel and values of every exposure event, in order. */
+    private final List<double[]> observations = new ArrayList<double[]>();
+    /** Images completed. */
+    private int                  images;
+
+    @Override
+    public void register(final Crystal c) {
+    }
+
+    @Override
+    public void exposureStart(final int wedgeImages) {
+    }
+
+    @Override
+    public void exposureObservation(final int wedgeImage, final int i,
+        final int j, final int k, final double addedDose,
+        final double totalDose, final double fluence,
+        final double relativeDiffractionEfficiency,
+        final double absorbedEnergy, final double elastic) {
+      observations.add(new double[] { wedgeImage, i, j, k, addedDose,
+          totalDose, fluence, relativeDiffractionEfficiency, absorbedEnergy,
+          elastic });
+    }
+
+    @Override
+    public void imageComplete(final int image, final double angrad) {
+      images++;
+    }
+
+    @Override
+    public void summaryObservation(final int i, final int j, final int k,
+        final double totalDose, final double voxelMassKg) {
+    }
+
+    @Override
+    public void exposureComplete() {
+    }
+  }
+
+  /**
+   * Cuboid that works out every image of a static exposure again instead of
+   * reusing the first one.
+   */
+  private static final class EveryImageCuboid extends CrystalCuboid {
+    /**
+     * @param properties crystal properties
+     */
+    EveryImageCuboid(final HashMap<Object, Object> properties) {
+      super(properties);
+    }
+
+    @Override
+    protected boolean isStaticImageReused() {
+      return false;
+    }
+  }
+
+  /**
+   * Checks that reusing the first image of a static exposure for the others
+   * gives exactly the dose, fluence and relative diffraction efficiency of
+   * every voxel in every image that working out each image gives, the same
+   * final dose, fluence and elastic yield, and so the same diffraction
+   * weighted dose and RDE summaries.
+   */
+  @Test
+  public void testStaticExposureReuseMatchesEveryImage()
+      throws InputException {
+    ImageRecorder reusedImages = new ImageRecorder();
+    ImageRecorder everyImage = new ImageRecorder();
+    Crystal reused = exposeStatically(true, reusedImages);
+    Crystal computed = exposeStatically(false, everyImage);
+
+    assertTrue(reusedImages.images == Crystal.STATICEXPOSURE
+        && everyImage.images == Crystal.STATICEXPOSURE, "images exposed");
+    assertTrue(reusedImages.observations.size()
+        == everyImage.observations.size(), "number of exposure events");
+    assertTrue(reusedImages.observations.size() > Crystal.STATICEXPOSURE,
+        "crystal was not exposed");
+    for (int n = 0; n < everyImage.observations.size(); n++) {
+      assertTrue(Arrays.equals(reusedImages.observations.get(n),
+          everyImage.observations.get(n)), "exposure event " + n
+          + " differs: " + Arrays.toString(reusedImages.observations.get(n))
+          + " instead of " + Arrays.toString(everyImage.observations.get(n)));
+    }
+
+    int[] size = reused.getCrystSizeVoxels();
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          assertTrue(reused.getDose(i, j, k) == computed.getDose(i, j, k)
+              && reused.getFluence(i, j, k) == computed.getFluence(i, j, k)
+              && reused.getElastic(i, j, k) == computed.getElastic(i, j, k),
+              "final value differs at " + i + ", " + j + ", " + k);
+        }
+      }
+    }
+
+    ExposureSummary a = reused.getExposureSummary();
+    ExposureSummary b = computed.getExposureSummary();
+    assertTrue(a.getAvgDiffractedDose().equals(b.getAvgDiffractedDose()),
+        "diffraction weighted dose differs");
+    assertTrue(a.getAvgRDE().equals(b.getAvgRDE()), "low average RDE");
+    assertTrue(Arrays.deepEquals(a.getWeightedRDEArray(),
+        b.getWeightedRDEArray()), "fluence weighted RDE differs");
+    assertTrue(Arrays.deepEquals(a.getMinRDEArray(), b.getMinRDEArray()),
+        "minimum RDE differs");
+    System.out.println("@Test - testStaticExposureReuseMatchesEveryImage");
+  }
+
+  /**
+   * Exposes a rotated seeded cuboid with photoelectron escape to a static
+   * wedge.
+   *
+   * @param reuse whether the first image is reused for the others
+   * @param recorder observer of the exposure
+   * @return the exposed crystal
+   */
+  private static Crystal exposeStatically(final boolean reuse,
+      final ImageRecorder recorder) throws InputException {
+    List<String> empty = new ArrayList<String>();
+    List<Double> none = new ArrayList<Double>();
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 30d);
+    properties.put(Crystal.CRYSTAL_DIM_Y, 24d);
+    properties.put(Crystal.CRYSTAL_DIM_Z, 20d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 10d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 5d);
+    properties.put(Crystal.CRYSTAL_COEFCALC, new CoefCalcFromParams(78.02,
+        78.02, 78.02, 90.0, 90.0, 90.0, 24, 51, 0, 0,
+        Arrays.asList("Zn", "S"), Arrays.asList(0.333, 6.0),
+        Arrays.asList("P"), Arrays.asList(425.0), empty, none, 0.64, null,
+        null, 0, empty, none, 0));
+    properties.put(Crystal.CRYSTAL_ELECTRON_ESCAPE, "TRUE");
+    properties.put(Crystal.CRYSTAL_RANDOM_SEED, 3L);
+    Crystal crystal;
+    if (reuse) {
+      crystal = new CrystalCuboid(properties);
+    } else {
+      crystal = new EveryImageCuboid(properties);
+    }
+    crystal.getExposureSummary();
+    crystal.addObserver(recorder);
+    return ExposureFixture.expose(crystal, "Beam\n"
+        + "Type Gaussian\n"
+        + "Flux 2e12\n"
+        + "FWHM 20 30\n"
+        + "Energy 12.1\n"
+        + "Collimation Rectangular 40 40\n"
+        + "Wedge 30 30\n"
+        + "ExposureTime 50\n"
+        + "StartOffset 4 -3 2\n", 1);
+  }
+
+  /**
+   * Checks that a checkpoint restores the values of the occupied voxels of
+   * a crystal exactly, into both a heap and a sparse store, and is refused by a crystal of a
+   * different size.
+   */
+  @Test
+  public void testCuboidCheckpoint() throws IOException {
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 40d);
+    properties.put(Crystal.CRYSTAL_DIM_Y, 30d);
+    properties.put(Crystal.CRYSTAL_DIM_Z, 20d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(Crystal.CRYSTAL_RANDOM_SEED, 1234L);
+    Crystal original = new CrystalCuboid(properties);
+    int[] size = original.getCrystSizeVoxels();
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j += 2) {
+        for (int k = 0; k < size[2]; k++) {
+          double value = 0.1 * (i + 2 * j + 3 * k);
+          original.addDose(i, j, k, value / 3);
+          original.addFluence(i, j, k, 2 * value);
+          original.addElastic(i, j, k, 3 * value);
+        }
+      }
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    original.writeCheckpoint(new DataOutputStream(bytes));
+
+    // the restored crystal carries on with the seed of the checkpoint
+    properties.remove(Crystal.CRYSTAL_RANDOM_SEED);
+    for (String store : new String[] { "Heap", "Sparse" }) {
+      properties.put(Crystal.CRYSTAL_VOXEL_STORE, store);
+      Crystal restored = new CrystalCuboid(properties);
+      restored.readCheckpoint(new DataInputStream(
+          new ByteArrayInputStream(bytes.toByteArray())));
+      assertTrue(restored.getRandomSeed() == 1234L,
+          store + " restored seed differs");
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          for (int k = 0; k < size[2]; k++) {
+            if (!original.isCrystalAt(i, j, k)) {
+              continue;
+            }
+            assertTrue(restored.getDose(i, j, k) == original.getDose(i, j, k)
+                && restored.getFluence(i, j, k)
+                == original.getFluence(i, j, k)
+                && restored.getElastic(i, j, k)
+                == original.getElastic(i, j, k),
+                store + " restored value differs at " + i + ", " + j + ", "
+                    + k);
+          }
+        }
+      }
+    }
+
+    properties.put(Crystal.CRYSTAL_DIM_Z, 30d);
+    Crystal other = new CrystalCuboid(properties);
+    try {
+      other.readCheckpoint(new DataInputStream(
+          new ByteArrayInputStream(bytes.toByteArray())));
+      fail("checkpoint of a different crystal accepted");
+    } catch (IOException e) {
+      // expected
+    }
+    System.out.println("@Test - testCuboidCheckpoint");
+  }
+
   //This should work now... Am going to tart up Wedge and have another go.
   @Test(groups = { "advanced" })
   public static void testFindDepthSymmetry() {
@@ -1,12 +1,22 @@
 package se.raddo.raddose3D.tests;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import org.testng.annotations.Test;
 
+import se.raddo.raddose3D.CoefCalcFromParams;
 import se.raddo.raddose3D.Crystal;
 import se.raddo.raddose3D.CrystalCuboid;
 import se.raddo.raddose3D.CrystalPolyhedron;
+import se.raddo.raddose3D.CrystalSphericalNew;
+import se.raddo.raddose3D.DepthSweep;
+import se.raddo.raddose3D.InputException;
 import se.raddo.raddose3D.Wedge;
 
 public class CrystalPolyhedronTests {
@@ -152,4 +162,444 @@ public class CrystalPolyhedronTests {
     Assertion.equals(thinDepth, 40.0, "Thin part of crystal about 20 um", 1.0);
 
   }
+
+  /**
+   * The occupancy grid built column by column at construction must agree
+   * with casting a ray from each voxel, also for a crystal rotated in the
+   * loop.
+   */
+  @Test
+  public static void testVoxelisedOccupancy() {
+    for (double angleL : new double[] { 0d, 30d }) {
+      HashMap<Object, Object> properties = new HashMap<Object, Object>();
+      properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+      properties.put(Crystal.CRYSTAL_ANGLE_P, 20d);
+      properties.put(Crystal.CRYSTAL_ANGLE_L, angleL);
+      properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_FILE,
+          "src/se/raddo/raddose3D/tests/"
+              + "CrystalPolyhedron-concave_cuboid-30-20-10.obj");
+      properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_TYPE, "obj");
+      CrystalPolyhedron c = new CrystalPolyhedron(properties);
+
+      int[] size = c.getCrystSizeVoxels();
+      int mismatches = 0;
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          for (int k = 0; k < size[2]; k++) {
+            if (c.isCrystalAt(i, j, k) != c.calculateCrystalOccupancy(i, j,
+                k)) {
+              mismatches++;
+            }
+          }
+        }
+      }
+      Assertion.equals(mismatches, 0, "voxels with L = " + angleL
+          + " where the occupancy grid disagrees with ray casting");
+    }
+  }
+
+  /**
+   * Depths looked up in the depth buffer must agree with casting a ray from
+   * each voxel of a concave crystal, at angles where the beam crosses the
+   * gap of the horseshoe and where it does not.
+   */
+  @Test
+  public static void testDepthBufferConcave() {
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_FILE,
+        "src/se/raddo/raddose3D/tests/"
+            + "CrystalPolyhedron-concave_cuboid-30-20-10.obj");
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_TYPE, "obj");
+    Crystal rayCast = new CrystalPolyhedron(properties);
+    properties.put(Crystal.CRYSTAL_DEPTH_ENGINE, "ZBUFFER");
+    Crystal zBuffer = new CrystalPolyhedron(properties);
+    Wedge w = new Wedge(0d, 0d, 0d, 100d, 0d, 0d, 0d, 0d, 0d, 0d, 0d);
+
+    int[] size = rayCast.getCrystSizeVoxels();
+    double[] crystCoord = new double[3];
+    double[] beamCoord = new double[3];
+    for (double angle = 0; angle < 180; angle += 37) {
+      double angrad = Math.toRadians(angle);
+      rayCast.setupDepthFinding(angrad, w);
+      zBuffer.setupDepthFinding(angrad, w);
+      int voxels = 0;
+      double totalDifference = 0;
+      double maxDifference = 0;
+      for (int i = 0; i < size[0]; i++) {
+        for (int j = 0; j < size[1]; j++) {
+          for (int k = 0; k < size[2]; k++) {
+            if (!rayCast.isCrystalAt(i, j, k)) {
+              continue;
+            }
+            rayCast.getCrystCoord(i, j, k, crystCoord);
+            beamCoord[0] = crystCoord[0] * Math.cos(angrad)
+                + crystCoord[2] * Math.sin(angrad);
+            beamCoord[1] = crystCoord[1];
+            beamCoord[2] = -crystCoord[0] * Math.sin(angrad)
+                + crystCoord[2] * Math.cos(angrad);
+            double expected = rayCast.findDepth(beamCoord, angrad, w);
+            double found = zBuffer.findDepth(beamCoord, angrad, w);
+            double difference = Math.abs(found - expected);
+            totalDifference += difference;
+            maxDifference = Math.max(maxDifference, difference);
+            voxels++;
+          }
+        }
+      }
+      // Voxels near a crease of the surface may take the plane of the
+      // neighbouring triangle from the pixel they fall in, which is off by
+      // more than a voxel where that plane is steep.
+      Assertion.equals(totalDifference / voxels, 0d, "mean depth difference"
+          + " (um) between depth buffer and ray casting at " + angle
+          + " degrees", 0.1);
+      Assertion.equals(maxDifference, 0d, "largest depth difference (um)"
+          + " between depth buffer and ray casting at " + angle + " degrees",
+          6.0);
+    }
+  }
+
+  /**
+   * Depths summed by the sweep over the voxel grid must agree with casting a
+   * ray from each voxel of a concave crystal, at angles where the beam
+   * crosses the gap of the horseshoe and where it does not, with one and
+   * with two cells per voxel.
+   */
+  @Test
+  public static void testDepthSweepConcave() {
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_FILE,
+        "src/se/raddo/raddose3D/tests/"
+            + "CrystalPolyhedron-concave_cuboid-30-20-10.obj");
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_TYPE, "obj");
+    Crystal rayCast = new CrystalPolyhedron(properties);
+    Wedge w = new Wedge(0d, 0d, 0d, 100d, 0d, 0d, 0d, 0d, 0d, 0d, 0d);
+
+    int[] size = rayCast.getCrystSizeVoxels();
+    double[] crystCoord = new double[3];
+    double[] beamCoord = new double[3];
+    for (int sampling = 1; sampling <= 2; sampling++) {
+      DepthSweep sweep = new DepthSweep(rayCast, sampling);
+      for (double angle = 0; angle < 180; angle += 37) {
+        double angrad = Math.toRadians(angle);
+        rayCast.setupDepthFinding(angrad, w);
+        sweep.update(angrad, new double[3]);
+        int voxels = 0;
+        double totalDifference = 0;
+        double maxDifference = 0;
+        for (int i = 0; i < size[0]; i++) {
+          for (int j = 0; j < size[1]; j++) {
+            for (int k = 0; k < size[2]; k++) {
+              if (!rayCast.isCrystalAt(i, j, k)) {
+                continue;
+              }
+              rayCast.getCrystCoord(i, j, k, crystCoord);
+              beamCoord[0] = crystCoord[0] * Math.cos(angrad)
+                  + crystCoord[2] * Math.sin(angrad);
+              beamCoord[1] = crystCoord[1];
+              beamCoord[2] = -crystCoord[0] * Math.sin(angrad)
+                  + crystCoord[2] * Math.cos(angrad);
+              double expected = rayCast.findDepth(beamCoord, angrad, w);
+              double found = sweep.depth(beamCoord);
+              double difference = Math.abs(found - expected);
+              totalDifference += difference;
+              maxDifference = Math.max(maxDifference, difference);
+              voxels++;
+            }
+          }
+        }
+        // The sweep samples the occupancy at the nearest voxel, so each
+        // crossing of the surface, up to four across the gap, can be off by
+        // half a voxel of 2 um.
+        Assertion.equals(totalDifference / voxels, 0d, "mean depth difference"
+            + " (um) between sweep with sampling " + sampling
+            + " and ray casting at " + angle + " degrees", 1.1);
+        Assertion.equals(maxDifference, 0d, "largest depth difference (um)"
+            + " between sweep with sampling " + sampling + " and ray casting"
+            + " at " + angle + " degrees", 6.5);
+      }
+    }
+  }
+
+  /**
+   * Exposes a crystal with photoelectron and fluorescent escape along random
+   * tracks and returns it.
+   *
+   * @param seed random seed of the crystal
+   * @param threads number of exposure threads
+   * @return the exposed crystal
+   */
+  private static Crystal exposeWithEscape(final long seed, final int threads)
+      throws InputException {
+    return ExposureFixture.expose("Crystal\n"
+        + "Type Cuboid\n"
+        + "Dimensions 30 24 20\n"
+        + "PixelsPerMicron 0.5\n"
+        + "AbsCoefCalc RD3D\n"
+        + "UnitCell 78.02 78.02 78.02\n"
+        + "NumMonomers 24\n"
+        + "NumResidues 51\n"
+        + "ProteinHeavyAtoms Zn 0.333 S 6\n"
+        + "SolventHeavyConc P 425\n"
+        + "SolventFraction 0.64\n"
+        + "CalculatePEEscape TRUE\n"
+        + "CalculateFLEscape TRUE\n"
+        + "RandomSeed " + seed + "\n"
+        + "Beam\n"
+        + "Type Gaussian\n"
+        + "Flux 2e12\n"
+        + "FWHM 20 30\n"
+        + "Energy 12.1\n"
+        + "Collimation Rectangular 40 40\n"
+        + "Wedge 0 20\n"
+        + "ExposureTime 10\n", threads);
+  }
+
+  /**
+   * Checks that the random escape tracks of a seeded crystal give the same
+   * dose in every voxel whatever the number of exposure threads, and
+   * different doses for a different seed.
+   */
+  @Test
+  public static void testSeededEscapeRepeatsAtAnyThreadCount()
+      throws InputException {
+    Crystal serial = exposeWithEscape(7, 1);
+    Crystal parallel = exposeWithEscape(7, 3);
+    Crystal reseeded = exposeWithEscape(8, 1);
+    int[] size = serial.getCrystSizeVoxels();
+    boolean seedMatters = false;
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          assertTrue(serial.getDose(i, j, k) == parallel.getDose(i, j, k),
+              "dose differs between thread counts at " + i + ", " + j + ", "
+                  + k);
+          seedMatters |= serial.getDose(i, j, k) != reseeded.getDose(i, j, k);
+        }
+      }
+    }
+    assertTrue(seedMatters, "dose does not depend on the seed");
+  }
+
+  /**
+   * Cuboid remembering how far its escape tracks reach, which sets the
+   * width of the bands of planes escape is scattered from in parallel.
+   */
+  private static final class ReachRecordingCuboid extends CrystalCuboid {
+    /** Reach in voxels last reported to the exposure. */
+    private int reach;
+
+    /**
+     * @param properties crystal properties
+     */
+    ReachRecordingCuboid(final Map<Object, Object> properties) {
+      super(properties);
+    }
+
+    @Override
+    protected int getEscapeReach() {
+      reach = super.getEscapeReach();
+      return reach;
+    }
+  }
+
+  /**
+   * Checks that seeded photoelectron escape scattered from many bands of
+   * planes, in two rounds of alternate bands, gives exactly the same dose at
+   * every thread count. Adding fluorescent escape must not change that
+   * either, although fluorescence reaches across the whole crystal and so
+   * leaves a single band.
+   */
+  @Test
+  public static void testEscapeBandsRepeatAtAnyThreadCount()
+      throws InputException {
+    for (boolean fluorescence : new boolean[] { false, true }) {
+      ReachRecordingCuboid serial = exposeBandedEscape("MonteCarlo",
+          fluorescence, 1);
+      int[] size = serial.getCrystSizeVoxels();
+      assertTrue(serial.reach > 0, "escape tracks reach no other voxel");
+      if (!fluorescence) {
+        assertTrue(size[0] / (2 * serial.reach) >= 8,
+            "crystal spans too few escape bands: " + size[0]
+                + " planes, reach " + serial.reach);
+      }
+      for (int threads = 2; threads <= 4; threads++) {
+        Crystal parallel = exposeBandedEscape("MonteCarlo", fluorescence,
+            threads);
+        for (int i = 0; i < size[0]; i++) {
+          for (int j = 0; j < size[1]; j++) {
+            for (int k = 0; k < size[2]; k++) {
+              assertTrue(serial.getDose(i, j, k) == parallel.getDose(i, j, k),
+                  "dose differs on " + threads + " threads at " + i + ", "
+                      + j + ", " + k + ", fluorescence " + fluorescence);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks that the CONVOLUTION engine, which only gathers the released dose
+   * while the bands are scattered, reports no reach, so escape is gathered
+   * from a single band, and that the dose still repeats at every thread
+   * count, with and without fluorescence.
+   */
+  @Test
+  public static void testConvolutionEscapeGathersFromOneBand()
+      throws InputException {
+    for (boolean fluorescence : new boolean[] { false, true }) {
+      ReachRecordingCuboid serial = exposeBandedEscape("Convolution",
+          fluorescence, 1);
+      assertEquals(serial.reach, -1, "reach of the convolution engine");
+      int[] size = serial.getCrystSizeVoxels();
+      for (int threads = 2; threads <= 3; threads++) {
+        ReachRecordingCuboid parallel = exposeBandedEscape("Convolution",
+            fluorescence, threads);
+        assertEquals(parallel.reach, -1, "reach on " + threads + " threads");
+        for (int i = 0; i < size[0]; i++) {
+          for (int j = 0; j < size[1]; j++) {
+            for (int k = 0; k < size[2]; k++) {
+              assertTrue(serial.getDose(i, j, k) == parallel.getDose(i, j, k),
+                  "dose differs on " + threads + " threads at " + i + ", "
+                      + j + ", " + k + ", fluorescence " + fluorescence);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Sphere that can expose either the shell of the surrounding solution or
+   * all of it outside the crystal.
+   */
+  private static final class SolutionSphere extends CrystalSphericalNew {
+    /** Whether only the shell of the surrounding solution is exposed. */
+    private final boolean shellOnly;
+
+    /**
+     * @param properties crystal properties
+     * @param shellOnly whether only the shell is exposed
+     */
+    SolutionSphere(final Map<Object, Object> properties,
+        final boolean shellOnly) {
+      super(properties);
+      this.shellOnly = shellOnly;
+    }
+
+    @Override
+    protected boolean isSurroundingShellOnly() {
+      return shellOnly;
+    }
+  }
+
+  /**
+   * Checks that exposing only the surrounding solution photoelectrons can
+   * cross into a seeded sphere from gives exactly the dose of exposing all
+   * of the surrounding solution, over two wedges sharing the shell.
+   */
+  @Test
+  public static void testSurroundingShellGivesWholeSolutionDose()
+      throws InputException {
+    Crystal shell = exposeInSolution(true);
+    Crystal whole = exposeInSolution(false);
+    int[] size = shell.getCrystSizeVoxels();
+    double total = 0;
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          assertTrue(shell.getDose(i, j, k) == whole.getDose(i, j, k),
+              "dose differs at " + i + ", " + j + ", " + k);
+          total += shell.getDose(i, j, k);
+        }
+      }
+    }
+    assertTrue(total > 0, "no dose");
+  }
+
+  /**
+   * Exposes a seeded sphere in surrounding solution with photoelectron
+   * escape.
+   *
+   * @param shellOnly whether only the shell of the solution is exposed
+   * @return the exposed crystal
+   */
+  private static Crystal exposeInSolution(final boolean shellOnly)
+      throws InputException {
+    List<String> empty = new ArrayList<String>();
+    List<Double> none = new ArrayList<Double>();
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 30d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(Crystal.CRYSTAL_COEFCALC, new CoefCalcFromParams(78.02,
+        78.02, 78.02, 90.0, 90.0, 90.0, 24, 51, 0, 0,
+        Arrays.asList("Zn", "S"), Arrays.asList(0.333, 6.0),
+        Arrays.asList("P"), Arrays.asList(425.0), Arrays.asList("Na"),
+        Arrays.asList(500.0), 0.64, null, "TRUE", 0, empty, none, 0));
+    properties.put(Crystal.CRYSTAL_ELECTRON_ESCAPE, "TRUE");
+    properties.put(Crystal.CRYSTAL_RANDOM_SEED, 5L);
+    return ExposureFixture.expose(new SolutionSphere(properties, shellOnly),
+        "Beam\n"
+            + "Type Gaussian\n"
+            + "Flux 2e12\n"
+            + "FWHM 20 30\n"
+            + "Energy 12.1\n"
+            + "Collimation Rectangular 60 60\n"
+            + "Wedge 0 20\n"
+            + "ExposureTime 10\n"
+            + "Wedge 20 40\n"
+            + "ExposureTime 10\n", 1);
+  }
+
+  /**
+   * Exposes a long seeded cuboid with photoelectron escape to a beam
+   * covering most of its length.
+   *
+   * @param engine escape engine
+   * @param fluorescence whether fluorescent escape is modelled as well
+   * @param threads number of exposure threads
+   * @return the exposed crystal
+   */
+  private static ReachRecordingCuboid exposeBandedEscape(final String engine,
+      final boolean fluorescence, final int threads) throws InputException {
+    List<String> empty = new ArrayList<String>();
+    List<Double> none = new ArrayList<Double>();
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_DIM_X, 90d);
+    properties.put(Crystal.CRYSTAL_DIM_Y, 20d);
+    properties.put(Crystal.CRYSTAL_DIM_Z, 16d);
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 1d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(Crystal.CRYSTAL_COEFCALC, new CoefCalcFromParams(78.02,
+        78.02, 78.02, 90.0, 90.0, 90.0, 24, 51, 0, 0,
+        Arrays.asList("Zn", "S"), Arrays.asList(0.333, 6.0),
+        Arrays.asList("P"), Arrays.asList(425.0), empty, none, 0.64, null,
+        null, 0, empty, none, 0));
+    properties.put(Crystal.CRYSTAL_ELECTRON_ESCAPE, "TRUE");
+    if (fluorescence) {
+      properties.put(Crystal.CRYSTAL_FLUORESCENT_ESCAPE, "TRUE");
+    }
+    properties.put(Crystal.CRYSTAL_ESCAPE_ENGINE, engine);
+    properties.put(Crystal.CRYSTAL_RANDOM_SEED, 11L);
+    ReachRecordingCuboid crystal = new ReachRecordingCuboid(properties);
+    ExposureFixture.expose(crystal, "Beam\n"
+        + "Type Gaussian\n"
+        + "Flux 2e12\n"
+        + "FWHM 600 60\n"
+        + "Energy 12.1\n"
+        + "Collimation Rectangular 900 80\n"
+        + "Wedge 0 10\n"
+        + "ExposureTime 10\n"
+        + "AngularResolution 5\n", threads);
+    return crystal;
+  }
 }
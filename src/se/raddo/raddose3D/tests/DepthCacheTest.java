@@ -0,0 +1,190 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.CoefCalcFromParams;
+import se.raddo.raddose3D.Crystal;
+import se.raddo.raddose3D.CrystalPolyhedron;
+import se.raddo.raddose3D.DepthCache;
+import se.raddo.raddose3D.Experiment;
+import se.raddo.raddose3D.InputException;
+import se.raddo.raddose3D.InputParserString;
+
+/**
+ * Tests for the cache of voxel depths per rotation angle.
+ */
+public class DepthCacheTest {
+  /** Number of voxels of the cached fields. */
+  private static final int    VOXELS     = 10;
+
+  /** Memory taken by one field. */
+  private static final long   FIELD      = VOXELS * 8L;
+
+  /** Images in each wedge of the exposures below, 2 degrees apart. */
+  private static final int    IMAGES     = 15;
+
+  /** A budget too small for a single field caches nothing. */
+  @Test
+  public void testNoBudgetCachesNothing() {
+    DepthCache cache = new DepthCache(VOXELS, FIELD - 1);
+    assertEquals(cache.getCapacity(), 0);
+    assertNull(cache.fieldFor(0.3));
+    assertNull(cache.fieldFor(0.3));
+    assertEquals(cache.getHits(), 0);
+  }
+
+  /**
+   * The same angle gets back its field with the depths written into it, any
+   * other angle gets an empty one.
+   */
+  @Test
+  public void testFieldsAreKeyedByExactAngle() {
+    DepthCache cache = new DepthCache(VOXELS, 10 * FIELD);
+    double[] field = cache.fieldFor(0.3);
+    assertEquals(field.length, VOXELS);
+    for (double depth : field) {
+      assertTrue(Double.isNaN(depth), "new field must be empty");
+    }
+    field[4] = 12.5;
+    assertEquals(cache.getHits(), 0);
+
+    assertSame(cache.fieldFor(0.3), field);
+    assertEquals(field[4], 12.5);
+    assertEquals(cache.getHits(), 1);
+
+    assertTrue(Double.isNaN(cache.fieldFor(Math.nextUp(0.3))[4]),
+        "neighbouring angle must not share the field");
+    assertEquals(cache.fieldFor(0.3)[4], 12.5);
+    assertEquals(cache.getHits(), 2);
+  }
+
+  /** At capacity the least recently used angle is dropped first. */
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    DepthCache cache = new DepthCache(VOXELS, 2 * FIELD);
+    assertEquals(cache.getCapacity(), 2);
+    cache.fieldFor(0.1)[0] = 1;
+    cache.fieldFor(0.2)[0] = 2;
+    // use 0.1 again, so 0.2 is now the least recently used
+    assertEquals(cache.fieldFor(0.1)[0], 1d);
+    cache.fieldFor(0.3)[0] = 3;
+
+    assertEquals(cache.fieldFor(0.1)[0], 1d);
+    assertEquals(cache.fieldFor(0.3)[0], 3d);
+    assertTrue(Double.isNaN(cache.fieldFor(0.2)[0]),
+        "least recently used field must have been evicted");
+  }
+
+  /**
+   * A helical wedge followed by the same wedge from another start offset
+   * reuses the depths of the first for every image of the second, and gives
+   * exactly the doses of a run that finds every depth again.
+   */
+  @Test
+  public void testTranslatedHelicalWedgeReusesDepths()
+      throws InputException {
+    String first = wedge("3.1 -1.7 2.3", "0.13 0.07 -0.11");
+    String second = wedge("-2.4 1.9 0.6", "0.13 0.07 -0.11");
+    Crystal cached = expose(null, first + second);
+    Crystal cold = expose("False", first + second);
+    assertEquals(cached.getDepthCacheHits(), IMAGES);
+    assertEquals(cold.getDepthCacheHits(), 0);
+    assertSameDoses(cached, cold);
+  }
+
+  /**
+   * Without translation the depths are only kept from the second wedge on,
+   * so the third of three identical wedges is the first to reuse them.
+   */
+  @Test
+  public void testDepthsAreKeptFromSecondWedge() throws InputException {
+    String still = wedge("0 0 0", "0 0 0");
+    Crystal single = expose(null, still);
+    assertEquals(single.getDepthCacheHits(), 0);
+    Crystal cached = expose(null, still + still + still);
+    assertEquals(cached.getDepthCacheHits(), IMAGES);
+    Crystal always = expose("True", still + still + still);
+    assertEquals(always.getDepthCacheHits(), 2 * IMAGES);
+    assertSameDoses(cached, expose("False", still + still + still));
+    assertSameDoses(always, cached);
+  }
+
+  /**
+   * Asserts that two crystals received exactly the same doses, and that
+   * they were exposed at all.
+   */
+  private static void assertSameDoses(final Crystal actual,
+      final Crystal expected) {
+    int[] size = actual.getCrystSizeVoxels();
+    boolean exposed = false;
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          assertTrue(actual.getDose(i, j, k) == expected.getDose(i, j, k),
+              "dose differs at " + i + ", " + j + ", " + k);
+          exposed |= actual.getDose(i, j, k) > 0;
+        }
+      }
+    }
+    assertTrue(exposed, "crystal was not exposed");
+  }
+
+  /**
+   * @param start start offset of the wedge
+   * @param translation translation per degree of the wedge
+   * @return a wedge from 0 to 30 degrees
+   */
+  private static String wedge(final String start, final String translation) {
+    return "Wedge 0 30\n"
+        + "ExposureTime 10\n"
+        + "StartOffset " + start + "\n"
+        + "TranslatePerDegree " + translation + "\n";
+  }
+
+  /**
+   * Exposes the horseshoe shaped crystal to wedges.
+   *
+   * @param depthCache value of the DepthCache keyword, null for the default
+   * @param wedges the wedges
+   * @return the exposed crystal
+   */
+  private static Crystal expose(final String depthCache, final String wedges)
+      throws InputException {
+    List<String> atoms = new ArrayList<String>();
+    List<Double> numbers = new ArrayList<Double>();
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 0.5d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_FILE,
+        "src/se/raddo/raddose3D/tests/"
+            + "CrystalPolyhedron-concave_cuboid-30-20-10.obj");
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_TYPE, "obj");
+    properties.put(Crystal.CRYSTAL_COEFCALC, new CoefCalcFromParams(100.0,
+        100.0, 100.0, 90.0, 90.0, 90.0, 0, 0, 0, 0, atoms, numbers,
+        atoms, numbers, atoms, numbers, 100.0, null, null, 0, atoms, numbers,
+        0));
+    if (depthCache != null) {
+      properties.put(Crystal.CRYSTAL_DEPTH_CACHE, depthCache);
+    }
+    Crystal crystal = new CrystalPolyhedron(properties);
+
+    Experiment e = new Experiment();
+    e.setCrystal(crystal);
+    e.process(new InputParserString("Beam\n"
+        + "Type Gaussian\n"
+        + "Flux 2e12\n"
+        + "FWHM 20 30\n"
+        + "Energy 12.1\n"
+        + "Collimation Rectangular 40 40\n"
+        + wedges));
+    e.close();
+    return crystal;
+  }
+}
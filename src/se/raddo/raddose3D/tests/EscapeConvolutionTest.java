@@ -0,0 +1,212 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.Crystal;
+import se.raddo.raddose3D.EscapeConvolution;
+import se.raddo.raddose3D.InputException;
+
+/**
+ * Tests for the convolution spreading escaping dose, and for the CONVOLUTION
+ * escape engine against the random tracks of the default MONTECARLO engine.
+ */
+public class EscapeConvolutionTest {
+  /** Voxels of the test grid along i, j and k. */
+  private static final int    NX                = 7, NY = 5, NZ = 6;
+
+  /** Largest kernel offset of the test kernel. */
+  private static final int    RADIUS            = 3;
+
+  /** Blocks of the coarse dose profile along each axis. */
+  private static final int    BLOCKS            = 3;
+
+  /**
+   * Relative tolerances of the dose kept, the dose escaped and the dose of
+   * a block. Random tracks of other seeds stay within half of these.
+   */
+  private static final double KEPT_TOLERANCE    = 0.005;
+  private static final double ESCAPED_TOLERANCE = 0.05;
+  private static final double BLOCK_TOLERANCE   = 0.08;
+
+  /**
+   * The convolution must give what adding every kernel offset of every
+   * source by hand gives, also for offsets reaching past the grid, which
+   * deposit nothing. After clear() nothing is left.
+   */
+  @Test
+  public void testConvolutionMatchesDirectSum() {
+    Random random = new Random(5);
+    double[][][] sources = new double[NX][NY][NZ];
+    double[][][] kernel = new double[2 * RADIUS + 1][2 * RADIUS + 1]
+        [2 * RADIUS + 1];
+    EscapeConvolution convolution = new EscapeConvolution(NX, NY, NZ,
+        RADIUS);
+    assertEquals(convolution.getRadius(), RADIUS);
+    for (int i = 0; i < NX; i++) {
+      for (int j = 0; j < NY; j++) {
+        for (int k = 0; k < NZ; k++) {
+          if (random.nextInt(3) == 0) {
+            sources[i][j][k] = random.nextDouble();
+            convolution.addSource(i, j, k, sources[i][j][k]);
+          }
+        }
+      }
+    }
+    for (int di = -RADIUS; di <= RADIUS; di++) {
+      for (int dj = -RADIUS; dj <= RADIUS; dj++) {
+        for (int dk = -RADIUS; dk <= RADIUS; dk++) {
+          double weight = random.nextDouble();
+          kernel[di + RADIUS][dj + RADIUS][dk + RADIUS] = weight;
+          convolution.addKernel(di, dj, dk, weight);
+        }
+      }
+    }
+    convolution.convolve();
+
+    for (int i = 0; i < NX; i++) {
+      for (int j = 0; j < NY; j++) {
+        for (int k = 0; k < NZ; k++) {
+          double expected = 0;
+          for (int si = 0; si < NX; si++) {
+            for (int sj = 0; sj < NY; sj++) {
+              for (int sk = 0; sk < NZ; sk++) {
+                int di = i - si;
+                int dj = j - sj;
+                int dk = k - sk;
+                if (Math.abs(di) <= RADIUS && Math.abs(dj) <= RADIUS
+                    && Math.abs(dk) <= RADIUS) {
+                  expected += sources[si][sj][sk]
+                      * kernel[di + RADIUS][dj + RADIUS][dk + RADIUS];
+                }
+              }
+            }
+          }
+          assertEquals(convolution.get(i, j, k), expected, 1e-12,
+              "dose at " + i + ", " + j + ", " + k);
+        }
+      }
+    }
+
+    convolution.clear();
+    convolution.convolve();
+    for (int i = 0; i < NX; i++) {
+      for (int j = 0; j < NY; j++) {
+        for (int k = 0; k < NZ; k++) {
+          assertEquals(convolution.get(i, j, k), 0d,
+              "dose left after clear at " + i + ", " + j + ", " + k);
+        }
+      }
+    }
+  }
+
+  /**
+   * Photoelectron escape by convolution must keep and lose the same dose as
+   * random tracks, and leave the same coarse dose profile, up to the noise
+   * of the random tracks.
+   */
+  @Test
+  public void testPhotoelectronConvolutionMatchesRandomTracks()
+      throws InputException {
+    Crystal tracks = exposeWithEscape("MonteCarlo", false);
+    Crystal convolution = exposeWithEscape("Convolution", false);
+    assertEnginesAgree(tracks, convolution);
+    assertEquals(convolution.getEscapedDosePE(), tracks.getEscapedDosePE(),
+        ESCAPED_TOLERANCE * tracks.getEscapedDosePE(),
+        "photoelectron dose escaped");
+  }
+
+  /**
+   * Fluorescence spread by convolution, on top of photoelectron escape, must
+   * also agree with random tracks.
+   */
+  @Test
+  public void testFluorescenceConvolutionMatchesRandomTracks()
+      throws InputException {
+    Crystal tracks = exposeWithEscape("MonteCarlo", true);
+    Crystal convolution = exposeWithEscape("Convolution", true);
+    assertTrue(convolution.getEscapedDoseFL() > 0, "no fluorescence escaped");
+    assertEnginesAgree(tracks, convolution);
+    assertEquals(convolution.getEscapedDoseFL(), tracks.getEscapedDoseFL(),
+        ESCAPED_TOLERANCE * tracks.getEscapedDoseFL(),
+        "fluorescence dose escaped");
+  }
+
+  /**
+   * Compares the total dose kept and the dose of each block of a coarse
+   * grid over the crystal. Both engines release the same dose, so kept and
+   * escaped dose together must agree to rounding.
+   *
+   * @param tracks crystal exposed with random escape tracks
+   * @param convolution crystal exposed with the CONVOLUTION engine
+   */
+  private static void assertEnginesAgree(final Crystal tracks,
+      final Crystal convolution) {
+    int[] size = tracks.getCrystSizeVoxels();
+    double[] blocksTracks = new double[BLOCKS * BLOCKS * BLOCKS];
+    double[] blocksConvolution = new double[BLOCKS * BLOCKS * BLOCKS];
+    double keptTracks = 0;
+    double keptConvolution = 0;
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          int block = (BLOCKS * i / size[0] * BLOCKS + BLOCKS * j / size[1])
+              * BLOCKS + BLOCKS * k / size[2];
+          blocksTracks[block] += tracks.getDose(i, j, k);
+          blocksConvolution[block] += convolution.getDose(i, j, k);
+          keptTracks += tracks.getDose(i, j, k);
+          keptConvolution += convolution.getDose(i, j, k);
+        }
+      }
+    }
+    assertEquals(keptConvolution, keptTracks, KEPT_TOLERANCE * keptTracks,
+        "dose kept in the crystal");
+    double releasedTracks = keptTracks + tracks.getEscapedDosePE()
+        + tracks.getEscapedDoseFL();
+    double releasedConvolution = keptConvolution
+        + convolution.getEscapedDosePE() + convolution.getEscapedDoseFL();
+    assertEquals(releasedConvolution, releasedTracks, 1e-9 * releasedTracks,
+        "dose kept and escaped");
+    for (int b = 0; b < blocksTracks.length; b++) {
+      assertEquals(blocksConvolution[b], blocksTracks[b], BLOCK_TOLERANCE
+          * blocksTracks[b], "dose of block " + b);
+    }
+  }
+
+  /**
+   * Exposes a small seeded cuboid with photoelectron escape and returns it.
+   *
+   * @param engine escape engine
+   * @param fluorescence whether fluorescent escape is modelled as well
+   * @return the exposed crystal
+   */
+  private static Crystal exposeWithEscape(final String engine,
+      final boolean fluorescence) throws InputException {
+    return ExposureFixture.expose("Crystal\n"
+        + "Type Cuboid\n"
+        + "Dimensions 30 24 20\n"
+        + "PixelsPerMicron 0.5\n"
+        + "AbsCoefCalc RD3D\n"
+        + "UnitCell 78.02 78.02 78.02\n"
+        + "NumMonomers 24\n"
+        + "NumResidues 51\n"
+        + "ProteinHeavyAtoms Zn 0.333 S 6\n"
+        + "SolventHeavyConc P 425\n"
+        + "SolventFraction 0.64\n"
+        + "CalculatePEEscape TRUE\n"
+        + "CalculateFLEscape " + fluorescence + "\n"
+        + "EscapeEngine " + engine + "\n"
+        + "RandomSeed 3\n"
+        + "Beam\n"
+        + "Type Gaussian\n"
+        + "Flux 2e12\n"
+        + "FWHM 20 30\n"
+        + "Energy 12.1\n"
+        + "Collimation Rectangular 40 40\n"
+        + "Wedge 0 20\n"
+        + "ExposureTime 10\n", 1);
+  }
+}
@@ -0,0 +1,201 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.Crystal;
+import se.raddo.raddose3D.CrystalPolyhedron;
+import se.raddo.raddose3D.EscapeStencil;
+import se.raddo.raddose3D.OccupancyBits;
+
+/**
+ * Tests for the integer voxel stencils spreading escaping dose, against
+ * rounding the track displacement from every voxel as escape did before.
+ */
+public class EscapeStencilTest {
+  /** Number of tracks of the test stencil. */
+  private static final int    TRACKS = 16;
+
+  /** Number of distance bins per track. */
+  private static final int    BINS   = 5;
+
+  /** Distance travelled per bin, in voxels. */
+  private static final double STEP   = 0.55;
+
+  /**
+   * The interior distance of every voxel of the horseshoe shaped crystal
+   * must be the largest difference along any axis to the nearest voxel
+   * without crystal or outside the grid.
+   */
+  @Test
+  public void testInteriorDistancesMatchBruteForce() {
+    Crystal c = concaveCrystal();
+    int[] size = c.getCrystSizeVoxels();
+    byte[] distance = EscapeStencil.interiorDistances(occupancy(c), size[0],
+        size[1], size[2]);
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          int expected = 0;
+          while (cubeIsCrystal(c, i, j, k, expected)) {
+            expected++;
+          }
+          assertEquals(distance[(i * size[1] + j) * size[2] + k]
+              & EscapeStencil.MAX_DISTANCE, expected,
+              "distance at " + i + ", " + j + ", " + k);
+        }
+      }
+    }
+  }
+
+  /**
+   * Spreading the dose of every crystal voxel along every track through the
+   * stencil, without checks for voxels further in than its radius, must put
+   * exactly the same dose on the same voxels and lose exactly the same dose
+   * as rounding the displacement from each voxel and checking every target.
+   * The seeded tracks run both from interior voxels and from surface voxels
+   * losing dose.
+   */
+  @Test
+  public void testStencilMatchesRoundedDisplacements() {
+    Crystal c = concaveCrystal();
+    int[] size = c.getCrystSizeVoxels();
+    int strideJ = size[2];
+    int strideI = size[1] * size[2];
+    byte[] distance = EscapeStencil.interiorDistances(occupancy(c), size[0],
+        size[1], size[2]);
+
+    Random random = new Random(11);
+    EscapeStencil stencil = new EscapeStencil(TRACKS, BINS, strideI, strideJ);
+    double[][][] displacement = new double[TRACKS][BINS][3];
+    double[] weight = new double[BINS];
+    for (int m = 0; m < BINS; m++) {
+      weight[m] = random.nextDouble();
+    }
+    for (int t = 0; t < TRACKS; t++) {
+      double z = 2 * random.nextDouble() - 1;
+      double phi = 2 * Math.PI * random.nextDouble();
+      double sin = Math.sqrt(1 - z * z);
+      for (int m = 0; m < BINS; m++) {
+        double r = (m + 1) * STEP;
+        displacement[t][m][0] = r * sin * Math.cos(phi);
+        displacement[t][m][1] = r * sin * Math.sin(phi);
+        displacement[t][m][2] = r * z;
+        stencil.set(t, m, displacement[t][m][0], displacement[t][m][1],
+            displacement[t][m][2]);
+      }
+    }
+
+    double[] stencilDose = new double[size[0] * strideI];
+    double[] roundedDose = new double[size[0] * strideI];
+    int interiorVoxels = 0;
+    int losingVoxels = 0;
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          if (!c.isCrystalAt(i, j, k)) {
+            continue;
+          }
+          final int index = i * strideI + j * strideJ + k;
+          final boolean interior = (distance[index]
+              & EscapeStencil.MAX_DISTANCE) > stencil.getRadius();
+          double stencilLost = 0;
+          double roundedLost = 0;
+          for (int t = 0; t < TRACKS; t++) {
+            int entry = stencil.firstEntry(t);
+            for (int m = 0; m < BINS; m++, entry++) {
+              if (interior || c.isCrystalAt(i + stencil.getOffsetI(entry),
+                  j + stencil.getOffsetJ(entry),
+                  k + stencil.getOffsetK(entry))) {
+                stencilDose[index + stencil.getOffsetIndex(entry)] +=
+                    weight[m];
+              } else {
+                stencilLost += weight[m];
+              }
+
+              int ri = (int) StrictMath.round(i + displacement[t][m][0]);
+              int rj = (int) StrictMath.round(j + displacement[t][m][1]);
+              int rk = (int) StrictMath.round(k + displacement[t][m][2]);
+              if (c.isCrystalAt(ri, rj, rk)) {
+                roundedDose[ri * strideI + rj * strideJ + rk] += weight[m];
+              } else {
+                roundedLost += weight[m];
+              }
+            }
+          }
+          assertEquals(stencilLost, roundedLost, "dose lost from " + i + ", "
+              + j + ", " + k);
+          if (interior) {
+            interiorVoxels++;
+            assertEquals(roundedLost, 0d, "dose lost from interior voxel " + i
+                + ", " + j + ", " + k);
+          } else if (roundedLost > 0) {
+            losingVoxels++;
+          }
+        }
+      }
+    }
+    assertTrue(interiorVoxels > 0, "no voxel takes the interior path");
+    assertTrue(losingVoxels > 0, "no surface voxel loses dose");
+    for (int n = 0; n < stencilDose.length; n++) {
+      assertEquals(stencilDose[n], roundedDose[n], "dose at index " + n);
+    }
+  }
+
+  /**
+   * @param c crystal
+   * @param i i
+   * @param j j
+   * @param k k
+   * @param d half width of the cube
+   * @return true if every voxel within d of voxel i, j, k along every axis
+   *         contains crystal.
+   */
+  private static boolean cubeIsCrystal(final Crystal c, final int i,
+      final int j, final int k, final int d) {
+    for (int di = -d; di <= d; di++) {
+      for (int dj = -d; dj <= d; dj++) {
+        for (int dk = -d; dk <= d; dk++) {
+          if (!c.isCrystalAt(i + di, j + dj, k + dk)) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param c crystal
+   * @return the occupancy of the voxels of the crystal.
+   */
+  private static OccupancyBits occupancy(final Crystal c) {
+    int[] size = c.getCrystSizeVoxels();
+    OccupancyBits bits = new OccupancyBits(size[0], size[1], size[2]);
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          bits.set(i, j, k, c.isCrystalAt(i, j, k));
+        }
+      }
+    }
+    return bits;
+  }
+
+  /** Returns the horseshoe shaped crystal at 1 voxel per micron. */
+  private static Crystal concaveCrystal() {
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_RESOLUTION, 1d);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_FILE,
+        "src/se/raddo/raddose3D/tests/"
+            + "CrystalPolyhedron-concave_cuboid-30-20-10.obj");
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_TYPE, "obj");
+    return new CrystalPolyhedron(properties);
+  }
+}
@@ -0,0 +1,225 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.Beam;
+import se.raddo.raddose3D.Crystal;
+import se.raddo.raddose3D.Experiment;
+import se.raddo.raddose3D.ExperimentNotices;
+import se.raddo.raddose3D.InputException;
+import se.raddo.raddose3D.InputParserString;
+import se.raddo.raddose3D.Output;
+import se.raddo.raddose3D.Wedge;
+
+/**
+ * Tests for checkpointing a run after every wedge and resuming it, on real
+ * crystals read from an input.
+ */
+public class ExperimentResumeTest {
+  /** Seeded cuboid with photoelectron escape, so tracks must carry on. */
+  private static final String CRYSTAL = "Crystal\n"
+      + "Type Cuboid\n"
+      + "Dimensions 30 24 20\n"
+      + "PixelsPerMicron 0.5\n"
+      + "AbsCoefCalc RD3D\n"
+      + "UnitCell 78.02 78.02 78.02\n"
+      + "NumMonomers 24\n"
+      + "NumResidues 51\n"
+      + "ProteinHeavyAtoms Zn 0.333 S 6\n"
+      + "SolventHeavyConc P 425\n"
+      + "SolventFraction 0.64\n"
+      + "CalculatePEEscape TRUE\n"
+      + "RandomSeed 13\n";
+
+  /** Beam the crystal is exposed to. */
+  private static final String BEAM = "Beam\n"
+      + "Type Gaussian\n"
+      + "Flux 2e12\n"
+      + "FWHM 20 30\n"
+      + "Energy 12.1\n"
+      + "Collimation Rectangular 40 40\n";
+
+  /** First two wedges of the run. */
+  private static final String FIRST_WEDGES = "Wedge 0 20\n"
+      + "ExposureTime 10\n"
+      + "Wedge 20 40\n"
+      + "ExposureTime 10\n";
+
+  /** Last wedge of the run. */
+  private static final String LAST_WEDGE = "Wedge 40 60\n"
+      + "ExposureTime 10\n";
+
+  /**
+   * Output remembering the last crystal, the wedges and the warnings it was
+   * given.
+   */
+  private static final class RecordingOutput implements Output,
+      ExperimentNotices {
+    /** Last crystal published. */
+    private Crystal            crystal;
+    /** Wedges published. */
+    private final List<Wedge>  wedges   = new ArrayList<Wedge>();
+    /** Warnings raised. */
+    private final List<String> warnings = new ArrayList<String>();
+
+    @Override
+    public void publishCrystal(final Crystal c) {
+      crystal = c;
+    }
+
+    @Override
+    public void publishBeam(final Beam b) {
+    }
+
+    @Override
+    public void publishWedge(final Wedge w) {
+      wedges.add(w);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void raiseWarning(final String warning) {
+      warnings.add(warning);
+    }
+
+    @Override
+    public void addReference(final String reference) {
+    }
+  }
+
+  /**
+   * A run interrupted after two wedges and resumed from its checkpoint must
+   * end with exactly the dose, fluence and elastic yield of a run that was
+   * never interrupted. The resumed run only exposes and publishes the last
+   * wedge, and warns once that the others were skipped.
+   */
+  @Test
+  public void testResumedRunMatchesUninterruptedRun() throws IOException,
+      InputException {
+    File checkpoint = File.createTempFile("raddose3d-checkpoint", ".bin");
+    checkpoint.deleteOnExit();
+
+    RecordingOutput full = run(CRYSTAL + BEAM + FIRST_WEDGES + LAST_WEDGE,
+        null, null);
+    RecordingOutput interrupted = run(CRYSTAL + BEAM + FIRST_WEDGES,
+        checkpoint, null);
+    assertEquals(interrupted.wedges.size(), 2);
+    RecordingOutput resumed = run(CRYSTAL + BEAM + FIRST_WEDGES + LAST_WEDGE,
+        null, checkpoint);
+
+    assertEquals(resumed.wedges.size(), 1, "wedges published after resuming");
+    assertEquals(resumed.warnings.size(), 1, "warnings about skipped wedges");
+    int[] size = full.crystal.getCrystSizeVoxels();
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        for (int k = 0; k < size[2]; k++) {
+          Crystal a = full.crystal;
+          Crystal b = resumed.crystal;
+          assertTrue(a.getDose(i, j, k) == b.getDose(i, j, k)
+              && a.getFluence(i, j, k) == b.getFluence(i, j, k)
+              && a.getElastic(i, j, k) == b.getElastic(i, j, k),
+              "resumed value differs at " + i + ", " + j + ", " + k);
+        }
+      }
+    }
+  }
+
+  /**
+   * A checkpoint must not be added on top of the dose of a crystal that was
+   * already exposed.
+   */
+  @Test
+  public void testCheckpointRefusedByExposedCrystal() throws IOException,
+      InputException {
+    Crystal exposed = run(CRYSTAL + BEAM + LAST_WEDGE, null, null).crystal;
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    exposed.writeCheckpoint(new DataOutputStream(bytes));
+    try {
+      exposed.readCheckpoint(new DataInputStream(new ByteArrayInputStream(
+          bytes.toByteArray())));
+      fail("checkpoint restored into an exposed crystal");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  /**
+   * The checkpoint only holds the current crystal, so an input defining a
+   * second crystal cannot be checkpointed.
+   */
+  @Test
+  public void testCheckpointRefusesSecondCrystal() throws IOException,
+      InputException {
+    File checkpoint = File.createTempFile("raddose3d-checkpoint", ".bin");
+    checkpoint.deleteOnExit();
+    try {
+      run(CRYSTAL + BEAM + LAST_WEDGE + CRYSTAL + LAST_WEDGE, checkpoint,
+          null);
+      fail("second crystal accepted while checkpointing");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /** Checkpoints of a format version this code does not know are refused. */
+  @Test
+  public void testResumeRejectsUnknownCheckpointVersion() throws IOException {
+    File checkpoint = File.createTempFile("raddose3d-checkpoint", ".bin");
+    checkpoint.deleteOnExit();
+    DataOutputStream out = new DataOutputStream(
+        new FileOutputStream(checkpoint));
+    out.writeInt(0x52443343);
+    out.writeInt(99);
+    out.writeInt(1);
+    out.close();
+
+    try {
+      new Experiment().setResume(checkpoint.getPath());
+      fail("checkpoint of an unknown version accepted");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Runs an input.
+   *
+   * @param input crystal, beam and wedge blocks
+   * @param checkpoint file to checkpoint to after every wedge, or null
+   * @param resume checkpoint to resume from, or null
+   * @return what the run published
+   */
+  private static RecordingOutput run(final String input,
+      final File checkpoint, final File resume) throws InputException {
+    RecordingOutput output = new RecordingOutput();
+    Experiment e = new Experiment();
+    if (checkpoint != null) {
+      e.setCheckpoint(checkpoint.getPath());
+    }
+    if (resume != null) {
+      e.setResume(resume.getPath());
+    }
+    e.addObserver(output);
+    try {
+      e.process(new InputParserString(input));
+    } finally {
+      e.close();
+    }
+    return output;
+  }
+}
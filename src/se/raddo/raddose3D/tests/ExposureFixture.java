@@ -0,0 +1,101 @@
+package se.raddo.raddose3D.tests;
+
+import se.raddo.raddose3D.Beam;
+import se.raddo.raddose3D.Crystal;
+import se.raddo.raddose3D.Experiment;
+import se.raddo.raddose3D.InputException;
+import se.raddo.raddose3D.InputParserString;
+import se.raddo.raddose3D.Output;
+import se.raddo.raddose3D.Wedge;
+
+/**
+ * Runs an input on a given number of exposure threads, for tests comparing
+ * exposures. The thread count of the exposure is restored afterwards.
+ */
+public final class ExposureFixture {
+  /** Only static methods. */
+  private ExposureFixture() {
+  }
+
+  /**
+   * Exposes a crystal to the beams and wedges of an input.
+   *
+   * @param crystal
+   *          crystal to expose.
+   * @param input
+   *          beam and wedge blocks.
+   * @param threads
+   *          number of exposure threads.
+   * @return the exposed crystal.
+   * @throws InputException
+   *           if the input cannot be parsed.
+   */
+  public static Crystal expose(final Crystal crystal, final String input,
+      final int threads) throws InputException {
+    Experiment e = new Experiment();
+    e.setCrystal(crystal);
+    process(e, input, threads);
+    return crystal;
+  }
+
+  /**
+   * Runs an input defining its own crystal.
+   *
+   * @param input
+   *          crystal, beam and wedge blocks.
+   * @param threads
+   *          number of exposure threads.
+   * @return the last crystal of the input, exposed.
+   * @throws InputException
+   *           if the input cannot be parsed.
+   */
+  public static Crystal expose(final String input, final int threads)
+      throws InputException {
+    final Crystal[] exposed = new Crystal[1];
+    Experiment e = new Experiment();
+    e.addObserver(new Output() {
+      @Override
+      public void publishCrystal(final Crystal c) {
+        exposed[0] = c;
+      }
+
+      @Override
+      public void publishBeam(final Beam b) {
+      }
+
+      @Override
+      public void publishWedge(final Wedge w) {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    process(e, input, threads);
+    return exposed[0];
+  }
+
+  /**
+   * Processes an input with an experiment and closes it.
+   *
+   * @param e
+   *          the experiment.
+   * @param input
+   *          the input.
+   * @param threads
+   *          number of exposure threads.
+   * @throws InputException
+   *           if the input cannot be parsed.
+   */
+  private static void process(final Experiment e, final String input,
+      final int threads) throws InputException {
+    int previousThreads = Crystal.getExposureThreads();
+    Crystal.setExposureThreads(threads);
+    try {
+      e.process(new InputParserString(input));
+    } finally {
+      Crystal.setExposureThreads(previousThreads);
+    }
+    e.close();
+  }
+}
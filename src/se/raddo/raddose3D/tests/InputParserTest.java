@@ -69,6 +69,110 @@ public class InputParserTest {
         + "RotAxBeamOffset 5\n";
   }
 
+  @Test(timeOut = 3000)
+  public void InputParserReadDepthEngine() throws Exception {
+    InputParser parser = new InputParserString("Crystal\n"
+        + "Type Polyhedron\n" + "AbsCoefCalc Dummy\n"
+        + "DepthEngine Sweep\n" + "DepthSampling 3\n");
+    InputParserTestInit init = new InputParserTestInit();
+    TestCrystalFactory testCF = new TestCrystalFactory();
+    parser.setCrystalFactory(testCF);
+
+    parser.sendData(init);
+
+    assertEquals(init.crystals.size(), 1);
+    Map<Object, Object> properties = testCF.getSeenProperties();
+    assertEquals(properties.get(Crystal.CRYSTAL_DEPTH_ENGINE), "Sweep",
+        "Depth engine");
+    assertEquals(properties.get(Crystal.CRYSTAL_DEPTH_SAMPLING), 3,
+        "Depth sampling");
+  }
+
+  @Test(timeOut = 3000)
+  public void InputParserReadEscapeEngine() throws Exception {
+    InputParser parser = new InputParserString("Crystal\n"
+        + "Type Polyhedron\n" + "AbsCoefCalc Dummy\n"
+        + "CalculatePEEscape TRUE\n" + "EscapeEngine Convolution\n");
+    InputParserTestInit init = new InputParserTestInit();
+    TestCrystalFactory testCF = new TestCrystalFactory();
+    parser.setCrystalFactory(testCF);
+
+    parser.sendData(init);
+
+    assertEquals(init.crystals.size(), 1);
+    Map<Object, Object> properties = testCF.getSeenProperties();
+    assertEquals(properties.get(Crystal.CRYSTAL_ESCAPE_ENGINE), "Convolution",
+        "Escape engine");
+  }
+
+  @Test(timeOut = 3000)
+  public void InputParserReadStoragePrecision() throws Exception {
+    InputParser parser = new InputParserString("Crystal\n"
+        + "Type Polyhedron\n" + "AbsCoefCalc Dummy\n"
+        + "StoragePrecision Single\n");
+    InputParserTestInit init = new InputParserTestInit();
+    TestCrystalFactory testCF = new TestCrystalFactory();
+    parser.setCrystalFactory(testCF);
+
+    parser.sendData(init);
+
+    assertEquals(init.crystals.size(), 1);
+    Map<Object, Object> properties = testCF.getSeenProperties();
+    assertEquals(properties.get(Crystal.CRYSTAL_STORAGE_PRECISION), "Single",
+        "Storage precision");
+  }
+
+  @Test(timeOut = 3000)
+  public void InputParserReadVoxelStore() throws Exception {
+    InputParser parser = new InputParserString("Crystal\n"
+        + "Type Polyhedron\n" + "AbsCoefCalc Dummy\n"
+        + "VoxelStore Mapped\n");
+    InputParserTestInit init = new InputParserTestInit();
+    TestCrystalFactory testCF = new TestCrystalFactory();
+    parser.setCrystalFactory(testCF);
+
+    parser.sendData(init);
+
+    assertEquals(init.crystals.size(), 1);
+    Map<Object, Object> properties = testCF.getSeenProperties();
+    assertEquals(properties.get(Crystal.CRYSTAL_VOXEL_STORE), "Mapped",
+        "Voxel store");
+  }
+
+  @Test(timeOut = 3000)
+  public void InputParserReadRandomSeed() throws Exception {
+    InputParser parser = new InputParserString("Crystal\n"
+        + "Type Polyhedron\n" + "AbsCoefCalc Dummy\n"
+        + "RandomSeed 20140506\n");
+    InputParserTestInit init = new InputParserTestInit();
+    TestCrystalFactory testCF = new TestCrystalFactory();
+    parser.setCrystalFactory(testCF);
+
+    parser.sendData(init);
+
+    assertEquals(init.crystals.size(), 1);
+    Map<Object, Object> properties = testCF.getSeenProperties();
+    assertEquals(properties.get(Crystal.CRYSTAL_RANDOM_SEED), 20140506L,
+        "Random seed");
+  }
+
+  @Test(timeOut = 3000)
+  public void InputParserReadDepthCache() throws Exception {
+    InputParser parser = new InputParserString("Crystal\n"
+        + "Type Polyhedron\n" + "AbsCoefCalc Dummy\n"
+        + "DepthCache True\n");
+    InputParserTestInit init = new InputParserTestInit();
+    TestCrystalFactory testCF = new TestCrystalFactory();
+    parser.setCrystalFactory(testCF);
+
+    parser.sendData(init);
+
+    assertEquals(init.crystals.size(), 1);
+    Map<Object, Object> properties = testCF.getSeenProperties();
+    assertEquals(properties.get(Crystal.CRYSTAL_DEPTH_CACHE), "True",
+        "Depth cache");
+  }
+
   @Test(timeOut = 3000)
   public void InputParserReadValidSimpleFile() throws Exception {
     InputParser parser = new InputParserString(sampleFile_Simple());
@@ -0,0 +1,106 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.util.HashMap;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.Crystal;
+import se.raddo.raddose3D.CrystalPolyhedron;
+import se.raddo.raddose3D.OccupancySpans;
+
+/**
+ * Tests for the run-length encoded crystal occupancy.
+ */
+public class OccupancySpansTest {
+
+  /**
+   * The runs of a concave (horseshoe shaped) crystal must cover exactly the
+   * voxels for which isCrystalAt is true.
+   */
+  @Test
+  public void testSpansMatchOccupancy() {
+    assertSpansMatchOccupancy(concaveCrystal(0.5d));
+  }
+
+  /**
+   * Same as testSpansMatchOccupancy, with columns longer than the 64 voxels
+   * held by one word of the packed occupancy.
+   */
+  @Test
+  public void testSpansMatchOccupancyLongColumns() {
+    Crystal c = concaveCrystal(7d);
+    assertTrue(c.getCrystSizeVoxels()[2] > 64, "columns too short");
+    assertSpansMatchOccupancy(c);
+  }
+
+  /** Returns the horseshoe shaped crystal at a resolution. */
+  private static Crystal concaveCrystal(final double resolution) {
+    HashMap<Object, Object> properties = new HashMap<Object, Object>();
+    properties.put(Crystal.CRYSTAL_RESOLUTION, resolution);
+    properties.put(Crystal.CRYSTAL_ANGLE_P, 0d);
+    properties.put(Crystal.CRYSTAL_ANGLE_L, 0d);
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_FILE,
+        "src/se/raddo/raddose3D/tests/"
+            + "CrystalPolyhedron-concave_cuboid-30-20-10.obj");
+    properties.put(CrystalPolyhedron.CRYSTAL_WIREFRAME_TYPE, "obj");
+    return new CrystalPolyhedron(properties);
+  }
+
+  /**
+   * Checks that the runs of a crystal cover exactly the voxels for which
+   * isCrystalAt is true, and that some column has more than one run.
+   */
+  private static void assertSpansMatchOccupancy(final Crystal c) {
+    OccupancySpans spans = c.getOccupancySpans();
+    int[] size = c.getCrystSizeVoxels();
+    long occupied = 0;
+    boolean twoRunColumn = false;
+
+    for (int i = 0; i < size[0]; i++) {
+      for (int j = 0; j < size[1]; j++) {
+        boolean[] inRun = new boolean[size[2]];
+        int previousEnd = -1;
+        for (int r = spans.firstRun(i, j); r < spans.endRun(i, j); r++) {
+          assertTrue(spans.getRunStart(r) > previousEnd,
+              "runs must be sorted and separated");
+          assertTrue(spans.getRunStart(r) < spans.getRunEnd(r),
+              "runs must not be empty");
+          assertEquals(spans.getRunOffset(r), occupied + countTrue(inRun),
+              "voxels before run " + r);
+          for (int k = spans.getRunStart(r); k < spans.getRunEnd(r); k++) {
+            inRun[k] = true;
+          }
+          previousEnd = spans.getRunEnd(r);
+        }
+        if (spans.endRun(i, j) - spans.firstRun(i, j) > 1) {
+          twoRunColumn = true;
+        }
+        for (int k = 0; k < size[2]; k++) {
+          assertEquals(inRun[k], c.isCrystalAt(i, j, k),
+              "occupancy of voxel " + i + ", " + j + ", " + k);
+          if (inRun[k]) {
+            occupied++;
+          }
+        }
+      }
+    }
+
+    assertTrue(occupied > 0, "crystal contains no voxels");
+    assertEquals(spans.getVoxelCount(), occupied);
+    assertTrue(twoRunColumn,
+        "concave crystal should have columns with more than one run");
+  }
+
+  /** Returns the number of true elements of an array. */
+  private static long countTrue(final boolean[] values) {
+    long count = 0;
+    for (boolean value : values) {
+      if (value) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,132 @@
+package se.raddo.raddose3D.tests;
+
+import static org.testng.Assert.*;
+
+import java.util.SplittableRandom;
+
+import org.testng.annotations.Test;
+
+import se.raddo.raddose3D.PhotoelectronTracks;
+
+/**
+ * Tests for the photoelectron track sampler. The random escape engine picks
+ * tracks with sample(), while the CONVOLUTION engine weights every track by
+ * getProbability(), so both only agree if sample() picks each track with
+ * exactly that probability.
+ */
+public class PhotoelectronTracksTest {
+  /** Steps of the polar and azimuthal angles over a full turn. */
+  private static final int  RESOLUTION = 40;
+
+  /** Number of tracks drawn. */
+  private static final int  SAMPLES    = 4000000;
+
+  /** Seed of the random numbers, so the test always draws the same tracks. */
+  private static final long SEED       = 20140807L;
+
+  /**
+   * Distribution like the one of a 75% polarised beam and s shell
+   * photoelectrons, with an unpolarised part, so every track has weight.
+   */
+  @Test
+  public void testSampleFrequenciesMatchPolarisedProbabilities() {
+    assertSampleFrequencies(distribution(0.75, 250), true);
+    assertSampleFrequencies(distribution(0.75, 250), false);
+  }
+
+  /**
+   * Distribution of a fully polarised beam, where the tracks perpendicular
+   * to the polarisation axis have no weight and must never be picked.
+   */
+  @Test
+  public void testTracksWithoutWeightAreNeverSampled() {
+    double[] distribution = distribution(1, 0);
+    assertEquals(distribution[RESOLUTION / 4], 0d);
+    PhotoelectronTracks tracks = assertSampleFrequencies(distribution, true);
+    int withoutWeight = 0;
+    for (int t = 0; t < tracks.getTrackCount(); t++) {
+      if (tracks.getProbability(t) == 0) {
+        withoutWeight++;
+      }
+    }
+    assertTrue(withoutWeight > 0, "all tracks have weight");
+  }
+
+  /** A distribution without any weight cannot be sampled. */
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void testDistributionWithoutWeightIsRejected() {
+    new PhotoelectronTracks(new double[RESOLUTION / 2 + 1], RESOLUTION, true);
+  }
+
+  /**
+   * Checks that the probabilities of the tracks add up to 1, so the
+   * convolution kernel spreads all the released dose, and that the number
+   * of times sample() picks each track agrees with its probability. Counts
+   * must lie within 5 standard deviations of the expected count, and the
+   * chi-squared statistic of all tracks within 5 standard deviations of
+   * its mean.
+   *
+   * @param distribution weight of the tracks by their angle to the
+   *          polarisation axis
+   * @param verticalGoniometer true if the polarisation axis is x
+   * @return the tracks
+   */
+  private static PhotoelectronTracks assertSampleFrequencies(
+      final double[] distribution, final boolean verticalGoniometer) {
+    PhotoelectronTracks tracks = new PhotoelectronTracks(distribution,
+        RESOLUTION, verticalGoniometer);
+    int trackCount = tracks.getTrackCount();
+    double total = 0;
+    for (int t = 0; t < trackCount; t++) {
+      total += tracks.getProbability(t);
+    }
+    assertEquals(total, 1, 1e-12, "probabilities do not add up to 1");
+
+    int[] counts = new int[trackCount];
+    SplittableRandom random = new SplittableRandom(SEED);
+    for (int n = 0; n < SAMPLES; n++) {
+      counts[tracks.sample(random)]++;
+    }
+
+    double chiSquared = 0;
+    int degreesOfFreedom = -1;
+    for (int t = 0; t < trackCount; t++) {
+      double p = tracks.getProbability(t);
+      if (p == 0) {
+        assertEquals(counts[t], 0, "track " + t + " has no weight");
+        continue;
+      }
+      double expected = SAMPLES * p;
+      double deviation = Math.sqrt(expected * (1 - p));
+      assertEquals(counts[t], expected, 5 * deviation, "track " + t
+          + " sampled too often or too rarely");
+      chiSquared += (counts[t] - expected) * (counts[t] - expected)
+          / expected;
+      degreesOfFreedom++;
+    }
+    assertTrue(chiSquared < degreesOfFreedom
+        + 5 * Math.sqrt(2 * degreesOfFreedom), "chi-squared " + chiSquared
+        + " for " + degreesOfFreedom + " degrees of freedom");
+    return tracks;
+  }
+
+  /**
+   * Builds the weights of the tracks by their angle to the polarisation
+   * axis, in the way of the polarisation set up for s shells.
+   *
+   * @param polarised fraction of the weight following the dipole
+   *          distribution
+   * @param unpolarised weight added to every angle
+   * @return weights in steps of 2 pi / RESOLUTION from 0 to pi
+   */
+  private static double[] distribution(final double polarised,
+      final double unpolarised) {
+    double[] distribution = new double[RESOLUTION / 2 + 1];
+    for (int i = 0; i < distribution.length; i++) {
+      double cos = Math.cos(i * 2 * Math.PI / RESOLUTION);
+      distribution[i] = Math.round(1000 * polarised * cos * cos)
+          + unpolarised;
+    }
+    return distribution;
+  }
+}